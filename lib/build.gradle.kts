@@ -1,10 +1,15 @@
 plugins {
     // Apply the java-library plugin for API and implementation separation.
     `java-library`
+    // In-memory DynamoDB client for consumers' tests, sourced from src/testFixtures/java
+    `java-test-fixtures`
     jacoco
     `maven-publish`
 
     id("com.consentframework.consentmanagement.checkstyle-config") version "1.1.0"
+
+    // JMH microbenchmarks, sourced from src/jmh/java
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 repositories {
@@ -23,6 +28,7 @@ repositories {
 dependencies {
     implementation(libs.guava)
     implementation("com.fasterxml.jackson.core:jackson-databind:2.17.1")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor:2.17.1")
     implementation("jakarta.annotation:jakarta.annotation-api:3.0.0")
 
     // Logging
@@ -38,7 +44,9 @@ dependencies {
     testAnnotationProcessor(immutablesDependency)
 
     // AWS DynamoDB
-    implementation("software.amazon.awssdk:dynamodb-enhanced:2.26.7")
+    val dynamoDbEnhancedDependency = "software.amazon.awssdk:dynamodb-enhanced:2.26.7"
+    implementation(dynamoDbEnhancedDependency)
+    testFixturesApi(dynamoDbEnhancedDependency)
 
     // Consent service models
     implementation("com.consentframework.consentmanagement:consentmanagement-api-models:0.3.0")
@@ -47,10 +55,29 @@ dependencies {
     testImplementation(libs.junit.jupiter)
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 
+    // Benchmark consumers' data paths against the in-memory DynamoDB client
+    jmh(testFixtures(project))
+
+    // Measure the heap retained by benchmark object graphs
+    jmh("org.openjdk.jol:jol-core:0.17")
+
     // Use the following syntax to export dependencies to consumers, that is, add to their compile classpath.
     // api(libs.commons.math3)
 }
 
+jmh {
+    jmhVersion = "1.37"
+    benchmarkMode = listOf("thrpt")
+    // Report allocation rate alongside throughput
+    profilers = listOf("gc")
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    resultFormat = "JSON"
+    // Optionally run a subset of benchmarks, eg. -PjmhIncludes=DynamoDbConsentConverterBenchmark
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes = listOf(it) }
+}
+
 java {
     toolchain {
         languageVersion = JavaLanguageVersion.of(21)
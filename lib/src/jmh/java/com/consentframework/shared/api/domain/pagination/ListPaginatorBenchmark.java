@@ -0,0 +1,58 @@
+package com.consentframework.shared.api.domain.pagination;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmarks for retrieving a single page of results from a list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ListPaginatorBenchmark {
+    private static final int PAGE_LIMIT = 25;
+
+    @Param({"100", "10000"})
+    private int resultCount;
+
+    private final ListPaginator<String> paginator = new ListPaginator<String>();
+    private List<String> allResults;
+    private int middlePageToken;
+
+    /**
+     * Build the full result list once per trial.
+     */
+    @Setup
+    public void setUp() {
+        allResults = IntStream.range(0, resultCount)
+            .mapToObj(index -> "BenchmarkServiceId|BenchmarkUserId|Consent" + index)
+            .toList();
+        middlePageToken = resultCount / 2;
+    }
+
+    /**
+     * Retrieve the first page of results.
+     */
+    @Benchmark
+    public ListPage<String> getFirstPage() {
+        return paginator.getSinglePage(allResults, PAGE_LIMIT, null);
+    }
+
+    /**
+     * Retrieve a page from the middle of the results.
+     */
+    @Benchmark
+    public ListPage<String> getMiddlePage() {
+        return paginator.getSinglePage(allResults, PAGE_LIMIT, middlePageToken);
+    }
+}
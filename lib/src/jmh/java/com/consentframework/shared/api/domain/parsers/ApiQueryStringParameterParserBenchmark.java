@@ -0,0 +1,92 @@
+package com.consentframework.shared.api.domain.parsers;
+
+import com.consentframework.shared.api.domain.constants.HttpMethod;
+import com.consentframework.shared.api.domain.entities.ApiRequest;
+import com.consentframework.shared.api.domain.exceptions.BadRequestException;
+import com.consentframework.shared.api.domain.exceptions.StackTraceSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for parsing integer query string parameters, with and without client error stack traces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ApiQueryStringParameterParserBenchmark {
+    private static final String LIMIT_PARAM_NAME = "limit";
+
+    @Param({"true", "false"})
+    private boolean exceptionStackTraces;
+
+    private final ApiRequest integerValueRequest = buildRequest(Map.of(LIMIT_PARAM_NAME, 25));
+    private final ApiRequest stringValueRequest = buildRequest(Map.of(LIMIT_PARAM_NAME, "25"));
+    private final ApiRequest invalidValueRequest = buildRequest(Map.of(LIMIT_PARAM_NAME, "NotANumber"));
+    private final ApiRequest missingValueRequest = buildRequest(Map.of());
+
+    /**
+     * Apply the stack trace setting for this trial.
+     */
+    @Setup
+    public void setUp() {
+        StackTraceSettings.setStackTracesEnabled(exceptionStackTraces);
+    }
+
+    /**
+     * Restore the default stack trace setting.
+     */
+    @TearDown
+    public void tearDown() {
+        StackTraceSettings.setStackTracesEnabled(true);
+    }
+
+    /**
+     * Parse a query parameter already deserialized as an Integer.
+     */
+    @Benchmark
+    public Integer parseIntegerValue() throws BadRequestException {
+        return ApiQueryStringParameterParser.parseIntQueryStringParameter(integerValueRequest, LIMIT_PARAM_NAME);
+    }
+
+    /**
+     * Parse a query parameter passed as a numeric String.
+     */
+    @Benchmark
+    public Integer parseStringValue() throws BadRequestException {
+        return ApiQueryStringParameterParser.parseIntQueryStringParameter(stringValueRequest, LIMIT_PARAM_NAME);
+    }
+
+    /**
+     * Parse a missing query parameter.
+     */
+    @Benchmark
+    public Integer parseMissingValue() throws BadRequestException {
+        return ApiQueryStringParameterParser.parseIntQueryStringParameter(missingValueRequest, LIMIT_PARAM_NAME);
+    }
+
+    /**
+     * Parse a query parameter that is not a valid Integer, measuring the error path.
+     */
+    @Benchmark
+    public Object parseInvalidValue() {
+        try {
+            return ApiQueryStringParameterParser.parseIntQueryStringParameter(invalidValueRequest, LIMIT_PARAM_NAME);
+        } catch (final BadRequestException exception) {
+            return exception;
+        }
+    }
+
+    private static ApiRequest buildRequest(final Map<String, Object> queryStringParameters) {
+        return new ApiRequest(HttpMethod.GET.name(), "/", "/", null, queryStringParameters, null, false, null);
+    }
+}
@@ -0,0 +1,93 @@
+package com.consentframework.shared.api.domain.parsers;
+
+import com.consentframework.shared.api.domain.constants.HttpMethod;
+import com.consentframework.shared.api.domain.entities.ApiRequest;
+import com.consentframework.shared.api.domain.exceptions.BadRequestException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing a compiled parameter schema against the per-parameter parsers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ApiRequestParameterSchemaBenchmark {
+    private static final String SERVICE_ID_PARAM_NAME = "serviceId";
+    private static final String USER_ID_PARAM_NAME = "userId";
+    private static final String LIMIT_PARAM_NAME = "limit";
+    private static final String PAGE_TOKEN_PARAM_NAME = "pageToken";
+
+    private static final ApiParameter<Integer> LIMIT = ApiParameter.intQuery(LIMIT_PARAM_NAME).withRange(1, 100);
+    private static final ApiParameter<String> PAGE_TOKEN = ApiParameter.stringQuery(PAGE_TOKEN_PARAM_NAME);
+    private static final ApiRequestParameterSchema SCHEMA = ApiRequestParameterSchema.of(
+        List.of(SERVICE_ID_PARAM_NAME, USER_ID_PARAM_NAME), LIMIT, PAGE_TOKEN);
+
+    private final ApiRequest validRequest = buildRequest(
+        Map.of(SERVICE_ID_PARAM_NAME, "BenchmarkServiceId", USER_ID_PARAM_NAME, "BenchmarkUserId"),
+        Map.of(LIMIT_PARAM_NAME, "25", PAGE_TOKEN_PARAM_NAME, "BenchmarkPageToken"));
+    private final ApiRequest invalidRequest = buildRequest(
+        Map.of(SERVICE_ID_PARAM_NAME, "BenchmarkServiceId", USER_ID_PARAM_NAME, "BenchmarkUserId"),
+        Map.of(LIMIT_PARAM_NAME, "NotANumber", PAGE_TOKEN_PARAM_NAME, "BenchmarkPageToken"));
+
+    /**
+     * Validate and extract all parameters with the compiled schema.
+     */
+    @Benchmark
+    public ApiRequestParameters parseWithSchema() throws BadRequestException {
+        return SCHEMA.parse(validRequest);
+    }
+
+    /**
+     * Extract the same parameters one at a time with the per-parameter parsers.
+     */
+    @Benchmark
+    public void parseWithPerCallParsers(final Blackhole blackhole) throws BadRequestException {
+        parseWithPerCallParsers(blackhole, validRequest);
+    }
+
+    /**
+     * Reject a request with an invalid limit using the compiled schema.
+     */
+    @Benchmark
+    public Object parseInvalidWithSchema() {
+        try {
+            return SCHEMA.parse(invalidRequest);
+        } catch (final BadRequestException exception) {
+            return exception;
+        }
+    }
+
+    /**
+     * Reject a request with an invalid limit using the per-parameter parsers.
+     */
+    @Benchmark
+    public Object parseInvalidWithPerCallParsers(final Blackhole blackhole) {
+        try {
+            parseWithPerCallParsers(blackhole, invalidRequest);
+            return null;
+        } catch (final BadRequestException exception) {
+            return exception;
+        }
+    }
+
+    private void parseWithPerCallParsers(final Blackhole blackhole, final ApiRequest request) throws BadRequestException {
+        blackhole.consume(ApiPathParameterParser.parsePathParameter(request, SERVICE_ID_PARAM_NAME));
+        blackhole.consume(ApiPathParameterParser.parsePathParameter(request, USER_ID_PARAM_NAME));
+        blackhole.consume(ApiQueryStringParameterParser.parseIntQueryStringParameter(request, LIMIT_PARAM_NAME));
+        blackhole.consume(ApiQueryStringParameterParser.parseStringQueryStringParameter(request, PAGE_TOKEN_PARAM_NAME));
+    }
+
+    private static ApiRequest buildRequest(final Map<String, String> pathParameters, final Map<String, Object> queryStringParameters) {
+        return new ApiRequest(HttpMethod.GET.name(), "/", "/", pathParameters, queryStringParameters, null, false, null);
+    }
+}
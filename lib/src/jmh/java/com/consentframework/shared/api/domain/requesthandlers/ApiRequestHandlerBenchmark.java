@@ -0,0 +1,85 @@
+package com.consentframework.shared.api.domain.requesthandlers;
+
+import com.consentframework.shared.api.domain.entities.ApiRequest;
+import com.consentframework.shared.api.domain.entities.ApiResponse;
+import com.consentframework.shared.api.domain.exceptions.BadRequestException;
+import com.consentframework.shared.api.domain.exceptions.ResourceNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for building API success and error responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ApiRequestHandlerBenchmark {
+    private static final String SUCCESS_RESPONSE_BODY = "{\"serviceId\":\"BenchmarkServiceId\","
+        + "\"userId\":\"BenchmarkUserId\",\"consentId\":\"BenchmarkConsentId\",\"status\":\"ACTIVE\"}";
+
+    private final BenchmarkRequestHandler handler = new BenchmarkRequestHandler();
+    private final BadRequestException badRequestException = new BadRequestException("Invalid limit query parameter");
+    private final ResourceNotFoundException notFoundException = new ResourceNotFoundException("Consent not found");
+
+    /**
+     * Build a 200 Success response.
+     */
+    @Benchmark
+    public Map<String, Object> buildApiSuccessResponse() {
+        return handler.buildApiSuccessResponse(SUCCESS_RESPONSE_BODY);
+    }
+
+    /**
+     * Build a typed 200 Success response.
+     */
+    @Benchmark
+    public ApiResponse buildSuccessResponse() {
+        return handler.buildSuccessResponse(SUCCESS_RESPONSE_BODY);
+    }
+
+    /**
+     * Build a 400 Bad Request error response.
+     */
+    @Benchmark
+    public Map<String, Object> logAndBuildBadRequestErrorResponse() {
+        return handler.logAndBuildErrorResponse(badRequestException);
+    }
+
+    /**
+     * Build a 404 Not Found error response.
+     */
+    @Benchmark
+    public Map<String, Object> logAndBuildNotFoundErrorResponse() {
+        return handler.logAndBuildErrorResponse(notFoundException);
+    }
+
+    /**
+     * Build the 400 Bad Request response for a missing path parameter.
+     */
+    @Benchmark
+    public Map<String, Object> logAndBuildMissingPathParamResponse() {
+        return handler.logAndBuildMissingPathParamResponse(badRequestException);
+    }
+
+    /**
+     * Minimal handler exposing the shared response builders.
+     */
+    private static class BenchmarkRequestHandler extends ApiRequestHandler {
+        BenchmarkRequestHandler() {
+            super(List.of("userId"));
+        }
+
+        @Override
+        protected Map<String, Object> handleRequest(final ApiRequest request) {
+            return buildApiSuccessResponse(null);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.consentframework.shared.api.infrastructure.batchwrite;
+
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbConsentHistory;
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbServiceUserConsent;
+import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
+import com.consentframework.shared.api.testfixtures.dynamodb.InMemoryDynamoDbClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for bulk writing consents through ConsentBatchWriter against an in-memory DynamoDB client.
+ *
+ * Each request to the client is delayed by latencyMillis, and each BatchWriteItem item is left
+ * unprocessed with unprocessedItemProbability, so the benchmark shows the effect of in-flight batches
+ * and retries on bulk import throughput without a real table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConsentBatchWriterBenchmark {
+    private static final int MUTATION_COUNT = 1_000;
+
+    @Param({"0", "5"})
+    private long latencyMillis;
+
+    @Param({"0", "0.1"})
+    private double unprocessedItemProbability;
+
+    @Param({"1", "4"})
+    private int maxInFlightBatches;
+
+    private List<ConsentMutation> mutations;
+    private InMemoryDynamoDbClient dynamoDbClient;
+    private ConsentBatchWriter writer;
+
+    /**
+     * Build the consent mutations once per trial.
+     */
+    @Setup
+    public void setUp() {
+        final StoredConsentImage consentImage = new StoredConsentImage()
+            .serviceId("BenchmarkServiceId")
+            .userId("BenchmarkUserId")
+            .consentVersion(1)
+            .consentStatus("ACTIVE")
+            .consentData(Map.of("marketingEmails", "true", "analyticsCookies", "false"));
+        mutations = new ArrayList<>(MUTATION_COUNT);
+        for (int index = 0; index < MUTATION_COUNT; index++) {
+            final String consentId = String.format("BenchmarkConsent%04d", index);
+            final String id = "BenchmarkServiceId|BenchmarkUserId|" + consentId;
+            mutations.add(new ConsentMutation(
+                DynamoDbServiceUserConsent.builder()
+                    .id(id)
+                    .serviceId("BenchmarkServiceId")
+                    .userId("BenchmarkUserId")
+                    .consentId(consentId)
+                    .consentVersion(1)
+                    .consentStatus("ACTIVE")
+                    .consentData(consentImage.getConsentData())
+                    .build(),
+                DynamoDbConsentHistory.builder()
+                    .id(id)
+                    .eventId("BenchmarkEvent" + index)
+                    .eventType("INSERT")
+                    .eventTime("2026-10-17T12:00:00Z")
+                    .serviceUserId("BenchmarkServiceId|BenchmarkUserId")
+                    .newImage(consentImage)
+                    .build()));
+        }
+    }
+
+    /**
+     * Start each invocation with empty tables.
+     */
+    @Setup(Level.Invocation)
+    public void setUpTables() {
+        dynamoDbClient = new InMemoryDynamoDbClient()
+            .withConsentTables()
+            .withLatency(Duration.ofMillis(latencyMillis))
+            .withUnprocessedItemProbability(unprocessedItemProbability);
+        writer = new ConsentBatchWriter(dynamoDbClient, ConsentBatchWriterSettings.defaults()
+            .withMaxInFlightBatches(maxInFlightBatches)
+            .withRetries(ConsentBatchWriterSettings.DEFAULT_MAX_ATTEMPTS, Duration.ofMillis(1), Duration.ofMillis(20)));
+    }
+
+    /**
+     * Stop the writer's executor.
+     */
+    @TearDown(Level.Invocation)
+    public void tearDownTables() throws Exception {
+        writer.close();
+    }
+
+    /**
+     * Write all mutations and flush, returning the number of retried batches.
+     */
+    @Benchmark
+    public long writeAll() throws Exception {
+        for (final ConsentMutation mutation : mutations) {
+            writer.write(mutation);
+        }
+        writer.flush();
+        return writer.getRetryCount();
+    }
+}
@@ -0,0 +1,160 @@
+package com.consentframework.shared.api.infrastructure.entities;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jol.info.GraphLayout;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Benchmarks for parsing consent partition keys, and the heap retained by a batch of consents.
+ *
+ * The retained benchmarks time building a batch of consents, and report the retainedBytes and
+ * consents counters, measured with JOL after each iteration, outside the timed region.  Objects
+ * shared between consents, eg. interned service IDs, are counted once, so retainedBytes / consents
+ * is the mean heap retained per consent.  Run them on their own with
+ * -PjmhIncludes=ConsentKeyBenchmark.retained, since the gc profiler isn't meaningful for them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConsentKeyBenchmark {
+    private static final int SERVICE_COUNT = 8;
+    private static final int BATCH_SIZE = 100_000;
+    private static final TableSchema<DynamoDbServiceUserConsent> CONSENT_SCHEMA =
+        TableSchema.fromImmutableClass(DynamoDbServiceUserConsent.class);
+
+    private final String id = "BenchmarkServiceId|BenchmarkUserId|BenchmarkConsentId";
+    private final ConsentKey consentKey = ConsentKey.parse(id);
+    private String[] batchIds;
+    private List<Map<String, AttributeValue>> batchItems;
+
+    /**
+     * Build a batch of distinct ids for a few services, and ServiceUserConsent items holding them, as read from DynamoDB.
+     */
+    @Setup
+    public void setUp() {
+        batchIds = new String[BATCH_SIZE];
+        batchItems = new ArrayList<>(BATCH_SIZE);
+        for (int index = 0; index < BATCH_SIZE; index++) {
+            batchIds[index] = String.format("BenchmarkService%d|BenchmarkUser%06d|BenchmarkConsent%06d",
+                index % SERVICE_COUNT, index, index);
+            final String[] components = batchIds[index].split("\\|");
+            batchItems.add(Map.of(
+                "id", AttributeValue.fromS(new String(batchIds[index])),
+                "serviceId", AttributeValue.fromS(components[0]),
+                "userId", AttributeValue.fromS(components[1]),
+                "consentId", AttributeValue.fromS(components[2]),
+                "consentVersion", AttributeValue.fromN("1"),
+                "consentStatus", AttributeValue.fromS(new String("ACTIVE"))
+            ));
+        }
+    }
+
+    /**
+     * Parse a partition key.
+     */
+    @Benchmark
+    public ConsentKey parse() {
+        return ConsentKey.parse(id);
+    }
+
+    /**
+     * Split a partition key with String.split, for comparison.
+     */
+    @Benchmark
+    public String[] split() {
+        return id.split("\\|");
+    }
+
+    /**
+     * Format the ActiveConsentsByExpiryHour GSI sort key from a parsed key.
+     */
+    @Benchmark
+    public String expiryTimeId() {
+        return consentKey.expiryTimeId("2026-12-31T23:15:30Z");
+    }
+
+    /**
+     * Build a batch of ConsentKeys from components, with serviceId interned and id formatted on demand.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public Object[] retainedConsentKeys(final RetainedHeap retainedHeap) {
+        return retainedHeap.build(index -> {
+            final String[] components = batchIds[index].split("\\|");
+            return ConsentKey.of(components[0], components[1], components[2]);
+        });
+    }
+
+    /**
+     * Build a batch of separate component strings for each consent, as stored alongside the id before ConsentKey.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public Object[] retainedComponentStrings(final RetainedHeap retainedHeap) {
+        return retainedHeap.build(index -> batchIds[index].split("\\|"));
+    }
+
+    /**
+     * Build a batch of ServiceUserConsent entities from items, which hold the id and its components,
+     * with serviceId interned by the table schema.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public Object[] retainedServiceUserConsents(final RetainedHeap retainedHeap) {
+        return retainedHeap.build(index -> CONSENT_SCHEMA.mapToItem(batchItems.get(index)));
+    }
+
+    /**
+     * Holds the batch built by a retained benchmark, and reports the heap it retains as counters.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RetainedHeap {
+        /**
+         * Heap retained by the consents of the last measured batch, in bytes.
+         */
+        public long retainedBytes;
+
+        /**
+         * Number of consents in the last measured batch.
+         */
+        public long consents;
+
+        private Object[] batch;
+
+        Object[] build(final IntFunction<Object> consentFactory) {
+            batch = new Object[BATCH_SIZE];
+            for (int index = 0; index < BATCH_SIZE; index++) {
+                batch[index] = consentFactory.apply(index);
+            }
+            return batch;
+        }
+
+        /**
+         * Measure the batch built in this iteration's timed region.
+         */
+        @TearDown(Level.Iteration)
+        public void measureBatch() {
+            // Passed as varargs, each consent is a root, so the batch array itself isn't counted
+            retainedBytes = GraphLayout.parseInstance(batch).totalSize();
+            consents = batch.length;
+            batch = null;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for converting ConsentHistory consent images to and from DynamoDB attribute values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DynamoDbConsentConverterBenchmark {
+    private static final String PARTITION_KEY = "BenchmarkServiceId|BenchmarkUserId|BenchmarkConsentId";
+    private static final OffsetDateTime EXPIRY_TIME = OffsetDateTime.of(2026, 12, 31, 23, 15, 30, 0, ZoneOffset.UTC);
+
+    @Param({"JSON", "CBOR", "MAP"})
+    private ConsentImageEncoding encoding;
+
+    private DynamoDbConsentConverter converter;
+    private StoredConsentImage consentImage;
+    private AttributeValue consentAttributeValue;
+
+    /**
+     * Build the converter and a representative consent image once per trial.
+     */
+    @Setup
+    public void setUp() {
+        converter = new DynamoDbConsentConverter(encoding);
+        consentImage = new StoredConsentImage()
+            .id(PARTITION_KEY)
+            .serviceId("BenchmarkServiceId")
+            .userId("BenchmarkUserId")
+            .consentId("BenchmarkConsentId")
+            .consentVersion(3)
+            .consentStatus("ACTIVE")
+            .consentType("BenchmarkConsentType")
+            .consentData(Map.of(
+                "marketingEmails", "true",
+                "analyticsCookies", "false",
+                "region", "eu-west-1"
+            ))
+            .expiryHour(DynamoDbConsentExpiryTimeConverter.toExpiryHour(EXPIRY_TIME))
+            .expiryTime(EXPIRY_TIME)
+            .expiryTimeId(DynamoDbConsentExpiryTimeConverter.toExpiryTimeId(EXPIRY_TIME, PARTITION_KEY));
+        consentAttributeValue = converter.transformFrom(consentImage);
+    }
+
+    /**
+     * Convert a consent image to a DynamoDB attribute value.
+     */
+    @Benchmark
+    public AttributeValue transformFrom() {
+        return converter.transformFrom(consentImage);
+    }
+
+    /**
+     * Convert a DynamoDB attribute value to a consent image.
+     */
+    @Benchmark
+    public StoredConsentImage transformTo() {
+        return converter.transformTo(consentAttributeValue);
+    }
+}
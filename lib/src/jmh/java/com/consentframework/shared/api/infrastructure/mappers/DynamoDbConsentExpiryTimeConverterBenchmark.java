@@ -0,0 +1,66 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for formatting and parsing consent expiry time attribute values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DynamoDbConsentExpiryTimeConverterBenchmark {
+    private static final String PARTITION_KEY = "BenchmarkServiceId|BenchmarkUserId|BenchmarkConsentId";
+
+    private final OffsetDateTime expiryTime = OffsetDateTime.of(2026, 12, 31, 15, 15, 30, 0, ZoneOffset.ofHours(-8));
+    private final String expiryTimeString = "2026-12-31T23:15:30Z";
+    private final String expiryTimeId = expiryTimeString + "|" + PARTITION_KEY;
+
+    /**
+     * Format the expiry hour GSI partition key.
+     */
+    @Benchmark
+    public String toExpiryHour() {
+        return DynamoDbConsentExpiryTimeConverter.toExpiryHour(expiryTime);
+    }
+
+    /**
+     * Format the expiry time GSI sort key.
+     */
+    @Benchmark
+    public String toExpiryTimeId() {
+        return DynamoDbConsentExpiryTimeConverter.toExpiryTimeId(expiryTime, PARTITION_KEY);
+    }
+
+    /**
+     * Format the expiry time attribute.
+     */
+    @Benchmark
+    public String toExpiryTimeString() {
+        return DynamoDbConsentExpiryTimeConverter.toExpiryTimeString(expiryTime);
+    }
+
+    /**
+     * Parse the expiry time attribute.
+     */
+    @Benchmark
+    public OffsetDateTime toExpiryTimeOffsetDateTime() {
+        return DynamoDbConsentExpiryTimeConverter.toExpiryTimeOffsetDateTime(expiryTimeString);
+    }
+
+    /**
+     * Parse the expiry time from the expiry time GSI sort key.
+     */
+    @Benchmark
+    public OffsetDateTime toOffsetDateTimeFromExpiryTimeId() {
+        return DynamoDbConsentExpiryTimeConverter.toOffsetDateTimeFromExpiryTimeId(expiryTimeId);
+    }
+}
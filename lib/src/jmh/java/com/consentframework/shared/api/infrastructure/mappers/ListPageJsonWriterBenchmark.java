@@ -0,0 +1,95 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import com.consentframework.shared.api.domain.constants.HttpStatusCode;
+import com.consentframework.shared.api.domain.entities.ApiRequest;
+import com.consentframework.shared.api.domain.entities.ApiResponse;
+import com.consentframework.shared.api.domain.pagination.ListPage;
+import com.consentframework.shared.api.domain.requesthandlers.ResponseCompression;
+import com.consentframework.shared.api.domain.requesthandlers.ResponseHeaders;
+import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmarks for writing a page of consents as a list response, through an intermediate String and response map
+ * or directly with ListPageJsonWriter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ListPageJsonWriterBenchmark {
+    private static final ApiRequest REQUEST = new ApiRequest("GET", "/v1/services/{serviceId}/users/{userId}/consents",
+        "/v1/services/BenchmarkServiceId/users/BenchmarkUserId/consents", null, null, null, false, null);
+
+    @Param({"10", "500"})
+    private int pageSize;
+
+    private final ListPageJsonWriter<StoredConsentImage> writer = ListPageJsonWriter
+        .<StoredConsentImage>of(StoredConsentImageJsonCodec::writeConsentImage)
+        .withResponseCompression(ResponseCompression.disabled());
+    private final ByteArrayOutputStream responseStream = new ByteArrayOutputStream(1024 * 1024);
+    private ListPage<StoredConsentImage> page;
+
+    /**
+     * Build a page of consents with large consent data once per trial.
+     */
+    @Setup
+    public void setUp() {
+        page = new ListPage<>(IntStream.range(0, pageSize)
+            .mapToObj(index -> new StoredConsentImage()
+                .id("BenchmarkServiceId|BenchmarkUserId|BenchmarkConsentId" + index)
+                .serviceId("BenchmarkServiceId")
+                .userId("BenchmarkUserId")
+                .consentId("BenchmarkConsentId" + index)
+                .consentVersion(1)
+                .consentStatus("ACTIVE")
+                .consentType("BenchmarkConsentType")
+                .consentData(Map.of(
+                    "marketingEmails", "true",
+                    "analyticsCookies", "false",
+                    "region", "eu-west-1",
+                    "preferences", "x".repeat(512))))
+            .toList(), Optional.of("BenchmarkPageToken"));
+    }
+
+    /**
+     * Serialize the page to a String with the shared Map ObjectWriter and wrap it in a response map.
+     */
+    @Benchmark
+    public Map<String, Object> objectMapperResponseMap() throws Exception {
+        final String body = JsonMapperRegistry.writerFor(Map.class).writeValueAsString(Map.of(
+            ListPageJsonWriter.DATA_FIELD_NAME, page.resultsOnPage(),
+            ListPageJsonWriter.NEXT_PAGE_TOKEN_FIELD_NAME, page.nextPageToken().get()));
+        return new ApiResponse(HttpStatusCode.SUCCESS.getValue(), ResponseHeaders.JSON, body).toMap();
+    }
+
+    /**
+     * Write the page to a typed response.
+     */
+    @Benchmark
+    public ApiResponse writerApiResponse() throws Exception {
+        return writer.toApiResponse(REQUEST, page, ResponseHeaders.JSON);
+    }
+
+    /**
+     * Write the page as a proxy response to an output stream.
+     */
+    @Benchmark
+    public int writerResponseStream() throws Exception {
+        responseStream.reset();
+        writer.writeApiResponse(REQUEST, page, ResponseHeaders.JSON, responseStream);
+        return responseStream.size();
+    }
+}
@@ -0,0 +1,74 @@
+package com.consentframework.shared.api.infrastructure.pagination;
+
+import com.consentframework.shared.api.domain.exceptions.BadRequestException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for encoding, decoding and rejecting tampered page tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DynamoDbPageTokenCodecBenchmark {
+    private static final byte[] SIGNING_KEY = "BenchmarkPageTokenSigningKey-0123456789".getBytes(StandardCharsets.UTF_8);
+    private static final Map<String, AttributeValue> LAST_EVALUATED_KEY = Map.of(
+        "id", AttributeValue.fromS("BenchmarkServiceId|BenchmarkUserId|BenchmarkConsentId"),
+        "expiryHour", AttributeValue.fromS("2026-12-31T23:00Z"),
+        "expiryTimeId", AttributeValue.fromS("2026-12-31T23:59:59Z|BenchmarkServiceId|BenchmarkUserId|BenchmarkConsentId")
+    );
+
+    private final DynamoDbPageTokenCodec codec = new DynamoDbPageTokenCodec(SIGNING_KEY);
+    private String pageToken;
+    private String tamperedPageToken;
+
+    /**
+     * Encode a valid page token and a copy with one modified character.
+     */
+    @Setup
+    public void setUp() {
+        pageToken = codec.encode(LAST_EVALUATED_KEY);
+        final char[] tamperedCharacters = pageToken.toCharArray();
+        tamperedCharacters[tamperedCharacters.length / 2] = (tamperedCharacters[tamperedCharacters.length / 2] == 'A') ? 'B' : 'A';
+        tamperedPageToken = new String(tamperedCharacters);
+    }
+
+    /**
+     * Encode a multi-attribute GSI key as a page token.
+     */
+    @Benchmark
+    public String encode() {
+        return codec.encode(LAST_EVALUATED_KEY);
+    }
+
+    /**
+     * Verify and decode a valid page token.
+     */
+    @Benchmark
+    public Map<String, AttributeValue> decode() throws BadRequestException {
+        return codec.decode(pageToken);
+    }
+
+    /**
+     * Reject a tampered page token.
+     */
+    @Benchmark
+    public Exception decodeTampered() {
+        try {
+            codec.decode(tamperedPageToken);
+            throw new IllegalStateException("Expected tampered page token to be rejected");
+        } catch (final BadRequestException e) {
+            return e;
+        }
+    }
+}
@@ -6,6 +6,7 @@ package com.consentframework.shared.api.domain.constants;
 public enum ApiResponseParameterName {
     BODY("body"),
     HEADERS("headers"),
+    IS_BASE64_ENCODED("isBase64Encoded"),
     STATUS_CODE("statusCode");
 
     private final String value;
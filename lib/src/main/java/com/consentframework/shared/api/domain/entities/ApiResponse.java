@@ -0,0 +1,96 @@
+package com.consentframework.shared.api.domain.entities;
+
+import com.consentframework.shared.api.domain.constants.ApiResponseParameterName;
+import com.consentframework.shared.api.domain.constants.HttpStatusCode;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Representation of an API response in the shape expected by API Gateway Lambda proxy integrations.
+ *
+ * Can be returned directly from a Lambda handler as a typed alternative to a response map, or
+ * converted to an immutable response map with {@link #toMap()}, eg. for responses built once and
+ * shared, or to a mutable one with {@link #toMutableMap()} for callers adding response parameters.
+ *
+ * @param statusCode HTTP status code, eg. 200
+ * @param headers optional response headers, eg. "content-type" mapped to "application/json"
+ * @param body optional response body
+ * @param isBase64Encoded whether the body is Base 64 encoded binary content, eg. a gzip-compressed body
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ApiResponse(
+    int statusCode,
+    Map<String, String> headers,
+    String body,
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT) boolean isBase64Encoded
+) {
+    /**
+     * Build an API response with a text body.
+     *
+     * @param statusCode HTTP status code
+     * @param headers optional response headers
+     * @param body optional response body
+     */
+    public ApiResponse(final int statusCode, final Map<String, String> headers, final String body) {
+        this(statusCode, headers, body, false);
+    }
+
+    /**
+     * Build an API response without headers.
+     *
+     * @param statusCode HTTP status code
+     * @param body optional response body
+     * @return API response
+     */
+    public static ApiResponse of(final HttpStatusCode statusCode, final String body) {
+        return new ApiResponse(statusCode.getValue(), null, body);
+    }
+
+    /**
+     * Convert to an immutable map of response parameter names and values, omitting null headers and body,
+     * and omitting isBase64Encoded unless true.
+     *
+     * @return immutable response map
+     */
+    public Map<String, Object> toMap() {
+        final String statusCodeName = ApiResponseParameterName.STATUS_CODE.getValue();
+        final String headersName = ApiResponseParameterName.HEADERS.getValue();
+        final String bodyName = ApiResponseParameterName.BODY.getValue();
+
+        if (isBase64Encoded) {
+            return Map.copyOf(toMutableMap());
+        }
+
+        if (headers == null) {
+            return (body == null)
+                ? Map.of(statusCodeName, statusCode)
+                : Map.of(statusCodeName, statusCode, bodyName, body);
+        }
+        return (body == null)
+            ? Map.of(statusCodeName, statusCode, headersName, headers)
+            : Map.of(statusCodeName, statusCode, headersName, headers, bodyName, body);
+    }
+
+    /**
+     * Convert to a new mutable map of response parameter names and values, omitting null headers and body,
+     * and omitting isBase64Encoded unless true.
+     *
+     * @return mutable response map
+     */
+    public Map<String, Object> toMutableMap() {
+        final Map<String, Object> response = new HashMap<>(8);
+        response.put(ApiResponseParameterName.STATUS_CODE.getValue(), statusCode);
+        if (headers != null) {
+            response.put(ApiResponseParameterName.HEADERS.getValue(), headers);
+        }
+        if (body != null) {
+            response.put(ApiResponseParameterName.BODY.getValue(), body);
+        }
+        if (isBase64Encoded) {
+            response.put(ApiResponseParameterName.IS_BASE64_ENCODED.getValue(), true);
+        }
+        return response;
+    }
+}
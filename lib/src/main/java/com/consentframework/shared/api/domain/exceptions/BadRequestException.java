@@ -4,6 +4,7 @@ package com.consentframework.shared.api.domain.exceptions;
  * Exception class representing 400 Bad Request errors.
  *
  * This exception is thrown when an operation is called with invalid input.
+ * Captures a stack trace unless disabled via StackTraceSettings.
  */
 public class BadRequestException extends Exception {
     /**
@@ -24,4 +25,14 @@ public class BadRequestException extends Exception {
     public BadRequestException(final String message, final Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * Fill in the stack trace, unless stack traces are disabled via StackTraceSettings.
+     *
+     * @return this exception
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return StackTraceSettings.isStackTraceEnabled() ? super.fillInStackTrace() : this;
+    }
 }
@@ -5,6 +5,7 @@ package com.consentframework.shared.api.domain.exceptions;
  *
  * This exception is thrown when a create/update operation
  * conflicts with the currently stored state.
+ * Captures a stack trace unless disabled via StackTraceSettings.
  */
 public class ConflictingResourceException extends Exception {
     /**
@@ -15,4 +16,24 @@ public class ConflictingResourceException extends Exception {
     public ConflictingResourceException(final String message) {
         super(message);
     }
+
+    /**
+     * Construct ConflictingResourceException with an error message and original cause.
+     *
+     * @param message error message
+     * @param cause original exception thrown, eg. a failed conditional write
+     */
+    public ConflictingResourceException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * Fill in the stack trace, unless stack traces are disabled via StackTraceSettings.
+     *
+     * @return this exception
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return StackTraceSettings.isStackTraceEnabled() ? super.fillInStackTrace() : this;
+    }
 }
@@ -0,0 +1,31 @@
+package com.consentframework.shared.api.domain.exceptions;
+
+import java.util.List;
+
+/**
+ * Exception class representing 400 Bad Request errors for one or more invalid request parameters.
+ *
+ * The message joins every validation failure so that clients can correct all parameters at once.
+ */
+public class ParameterValidationException extends BadRequestException {
+    private final List<String> failureMessages;
+
+    /**
+     * Construct ParameterValidationException from validation failure messages.
+     *
+     * @param failureMessages one message per invalid parameter
+     */
+    public ParameterValidationException(final List<String> failureMessages) {
+        super(String.join("; ", failureMessages));
+        this.failureMessages = List.copyOf(failureMessages);
+    }
+
+    /**
+     * Return the validation failure messages.
+     *
+     * @return one message per invalid parameter
+     */
+    public List<String> getFailureMessages() {
+        return failureMessages;
+    }
+}
@@ -2,6 +2,8 @@ package com.consentframework.shared.api.domain.exceptions;
 
 /**
  * Exception class representing 404 Resource Not Found errors.
+ *
+ * Captures a stack trace unless disabled via StackTraceSettings.
  */
 public class ResourceNotFoundException extends Exception {
     /**
@@ -12,4 +14,24 @@ public class ResourceNotFoundException extends Exception {
     public ResourceNotFoundException(final String message) {
         super(message);
     }
+
+    /**
+     * Construct ResourceNotFoundException with an error message and original cause.
+     *
+     * @param message error message
+     * @param cause original exception thrown
+     */
+    public ResourceNotFoundException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * Fill in the stack trace, unless stack traces are disabled via StackTraceSettings.
+     *
+     * @return this exception
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return StackTraceSettings.isStackTraceEnabled() ? super.fillInStackTrace() : this;
+    }
 }
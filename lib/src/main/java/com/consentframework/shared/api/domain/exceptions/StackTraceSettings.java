@@ -0,0 +1,39 @@
+package com.consentframework.shared.api.domain.exceptions;
+
+/**
+ * Controls whether client error exceptions capture stack traces.
+ *
+ * BadRequestException, ConflictingResourceException, ResourceNotFoundException and ThrottlingException
+ * represent expected 4xx control flow, so filling in their stack traces is usually wasted work.  Stack
+ * traces are captured by default; services can opt in to stack-trace-free client errors by setting
+ * the CONSENT_FRAMEWORK_DISABLE_EXCEPTION_STACK_TRACES environment variable or the
+ * consentframework.disableExceptionStackTraces system property to true, or by calling
+ * {@link #setStackTracesEnabled(boolean)} during initialization.  Causes are always retained.
+ */
+public final class StackTraceSettings {
+    public static final String DISABLE_STACK_TRACES_ENVIRONMENT_VARIABLE = "CONSENT_FRAMEWORK_DISABLE_EXCEPTION_STACK_TRACES";
+    public static final String DISABLE_STACK_TRACES_PROPERTY = "consentframework.disableExceptionStackTraces";
+
+    private static volatile boolean stackTracesEnabled = !Boolean.parseBoolean(
+        System.getProperty(DISABLE_STACK_TRACES_PROPERTY, System.getenv(DISABLE_STACK_TRACES_ENVIRONMENT_VARIABLE)));
+
+    private StackTraceSettings() {}
+
+    /**
+     * Return whether client error exceptions capture stack traces.
+     *
+     * @return true if stack traces are captured
+     */
+    public static boolean isStackTraceEnabled() {
+        return stackTracesEnabled;
+    }
+
+    /**
+     * Set whether client error exceptions constructed from now on capture stack traces.
+     *
+     * @param enabled true to capture stack traces
+     */
+    public static void setStackTracesEnabled(final boolean enabled) {
+        stackTracesEnabled = enabled;
+    }
+}
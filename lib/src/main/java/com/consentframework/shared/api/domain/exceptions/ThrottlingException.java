@@ -0,0 +1,73 @@
+package com.consentframework.shared.api.domain.exceptions;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Exception class representing 429 Too Many Requests errors.
+ *
+ * This exception is thrown when a client or a downstream dependency exceeds its request rate,
+ * optionally with the time after which the client may retry, returned as a Retry-After header.
+ * Captures a stack trace unless disabled via StackTraceSettings.
+ */
+public class ThrottlingException extends Exception {
+    private final Duration retryAfter;
+
+    /**
+     * Construct ThrottlingException with an error message.
+     *
+     * @param message error message
+     */
+    public ThrottlingException(final String message) {
+        this(message, (Duration) null);
+    }
+
+    /**
+     * Construct ThrottlingException with an error message and retry delay.
+     *
+     * @param message error message
+     * @param retryAfter time after which the client may retry, or null if unknown
+     */
+    public ThrottlingException(final String message, final Duration retryAfter) {
+        super(message);
+        this.retryAfter = validateRetryAfter(retryAfter);
+    }
+
+    /**
+     * Construct ThrottlingException with an error message, retry delay and original cause.
+     *
+     * @param message error message
+     * @param retryAfter time after which the client may retry, or null if unknown
+     * @param cause original exception thrown, eg. a DynamoDB ProvisionedThroughputExceededException
+     */
+    public ThrottlingException(final String message, final Duration retryAfter, final Throwable cause) {
+        super(message, cause);
+        this.retryAfter = validateRetryAfter(retryAfter);
+    }
+
+    /**
+     * Return the time after which the client may retry.
+     *
+     * @return retry delay, or empty if unknown
+     */
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+
+    /**
+     * Fill in the stack trace, unless stack traces are disabled via StackTraceSettings.
+     *
+     * @return this exception
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return StackTraceSettings.isStackTraceEnabled() ? super.fillInStackTrace() : this;
+    }
+
+    private static Duration validateRetryAfter(final Duration retryAfter) {
+        if (retryAfter != null && retryAfter.isNegative()) {
+            throw new IllegalArgumentException(String.format("retryAfter must not be negative, was %s", retryAfter));
+        }
+        return retryAfter;
+    }
+}
@@ -0,0 +1,111 @@
+package com.consentframework.shared.api.domain.parsers;
+
+/**
+ * Declaration of a single API request parameter within an ApiRequestParameterSchema.
+ *
+ * Declare parameters once, eg. as handler constants, and use them both to build the schema
+ * and to retrieve typed values from the parsed ApiRequestParameters.
+ *
+ * @param location where the parameter is read from
+ * @param name parameter name
+ * @param type parameter value type, String or Integer
+ * @param required whether a missing parameter is a validation failure
+ * @param defaultValue value used when an optional parameter is missing
+ * @param minimum optional inclusive minimum for Integer parameters
+ * @param maximum optional inclusive maximum for Integer parameters
+ * @param <T> parameter value type
+ */
+public record ApiParameter<T>(
+    Location location,
+    String name,
+    Class<T> type,
+    boolean required,
+    T defaultValue,
+    Integer minimum,
+    Integer maximum
+) {
+    /**
+     * Validate that the range, if any, is not empty.
+     *
+     * @throws IllegalArgumentException exception thrown if the minimum is greater than the maximum
+     */
+    public ApiParameter {
+        if (minimum != null && maximum != null && minimum > maximum) {
+            throw new IllegalArgumentException(String.format("Invalid range for %s parameter, minimum %d is greater than maximum %d",
+                name, minimum, maximum));
+        }
+    }
+
+    /**
+     * API request parameter locations.
+     */
+    public enum Location {
+        PATH,
+        QUERY
+    }
+
+    /**
+     * Declare a required string path parameter.
+     *
+     * @param name path parameter name
+     * @return path parameter
+     */
+    public static ApiParameter<String> path(final String name) {
+        return new ApiParameter<String>(Location.PATH, name, String.class, true, null, null, null);
+    }
+
+    /**
+     * Declare an optional string query string parameter.
+     *
+     * @param name query string parameter name
+     * @return query string parameter
+     */
+    public static ApiParameter<String> stringQuery(final String name) {
+        return new ApiParameter<String>(Location.QUERY, name, String.class, false, null, null, null);
+    }
+
+    /**
+     * Declare an optional integer query string parameter, accepting integers or integer strings.
+     *
+     * @param name query string parameter name
+     * @return query string parameter
+     */
+    public static ApiParameter<Integer> intQuery(final String name) {
+        return new ApiParameter<Integer>(Location.QUERY, name, Integer.class, false, null, null, null);
+    }
+
+    /**
+     * Return a copy of this parameter that fails validation when missing.
+     *
+     * @return required parameter
+     */
+    public ApiParameter<T> asRequired() {
+        return new ApiParameter<T>(location, name, type, true, defaultValue, minimum, maximum);
+    }
+
+    /**
+     * Return a copy of this parameter that uses the given value when missing.
+     *
+     * @param value default value
+     * @return parameter with default value
+     */
+    public ApiParameter<T> withDefault(final T value) {
+        return new ApiParameter<T>(location, name, type, required, value, minimum, maximum);
+    }
+
+    /**
+     * Return a copy of this Integer parameter that fails validation when outside the given inclusive range.
+     *
+     * @param minimumValue inclusive minimum
+     * @param maximumValue inclusive maximum
+     * @return parameter with range
+     * @throws IllegalStateException exception thrown if this is not an Integer parameter
+     * @throws IllegalArgumentException exception thrown if minimumValue is greater than maximumValue
+     */
+    public ApiParameter<T> withRange(final int minimumValue, final int maximumValue) {
+        if (type != Integer.class) {
+            throw new IllegalStateException(String.format("Cannot set a range on %s parameter %s", type.getSimpleName(), name));
+        }
+        return new ApiParameter<T>(location, name, type, required, defaultValue, minimumValue, maximumValue);
+    }
+}
@@ -2,16 +2,19 @@ package com.consentframework.shared.api.domain.parsers;
 
 import com.consentframework.shared.api.domain.entities.ApiRequest;
 import com.consentframework.shared.api.domain.exceptions.BadRequestException;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * API path parameter parser.
+ *
+ * Parse failures are not logged here; the BadRequestException is logged once by the request handler's ClientErrorLogPolicy.
  */
 public final class ApiPathParameterParser {
     public static final String PARSE_FAILURE_MESSAGE = "Unable to parse %s path parameter from request";
 
-    private static final Logger logger = LogManager.getLogger(ApiPathParameterParser.class);
+    private static final Map<String, String> PARSE_FAILURE_MESSAGES = new ConcurrentHashMap<>();
 
     private ApiPathParameterParser() {}
 
@@ -24,9 +27,16 @@ public final class ApiPathParameterParser {
      */
     public static String parsePathParameter(final ApiRequest request, final String parameterName) throws BadRequestException {
         if (request == null || request.pathParameters() == null || !request.pathParameters().containsKey(parameterName)) {
-            logger.warn(String.format("Missing required %s path parameter from request", parameterName));
-            throw new BadRequestException(String.format(PARSE_FAILURE_MESSAGE, parameterName));
+            throw new BadRequestException(getParseFailureMessage(parameterName));
         }
         return request.pathParameters().get(parameterName);
     }
+
+    /**
+     * Return the parse failure message for a parameter, formatting it once per parameter name.
+     */
+    private static String getParseFailureMessage(final String parameterName) {
+        return PARSE_FAILURE_MESSAGES.computeIfAbsent(String.valueOf(parameterName),
+            name -> String.format(PARSE_FAILURE_MESSAGE, name));
+    }
 }
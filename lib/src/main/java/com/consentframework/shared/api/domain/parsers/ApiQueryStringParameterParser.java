@@ -2,18 +2,19 @@ package com.consentframework.shared.api.domain.parsers;
 
 import com.consentframework.shared.api.domain.entities.ApiRequest;
 import com.consentframework.shared.api.domain.exceptions.BadRequestException;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * API query string parameter parser.
+ *
+ * Parse failures are not logged here; the BadRequestException is logged once by the request handler's ClientErrorLogPolicy.
  */
 public final class ApiQueryStringParameterParser {
     public static final String PARSE_FAILURE_MESSAGE = "Unable to parse %s query parameter from request";
 
-    private static final String WRONG_TYPE_LOG_MESSAGE = "Expected %s query parameter to be a %s but was a %s: %s";
-
-    private static final Logger logger = LogManager.getLogger(ApiQueryStringParameterParser.class);
+    private static final Map<String, String> PARSE_FAILURE_MESSAGES = new ConcurrentHashMap<>();
 
     private ApiQueryStringParameterParser() {}
 
@@ -30,8 +31,6 @@ public final class ApiQueryStringParameterParser {
         if (pathParameterValue == null || pathParameterValue instanceof String) {
             return (String) pathParameterValue;
         }
-        logger.warn(String.format(WRONG_TYPE_LOG_MESSAGE, parameterName, String.class, pathParameterValue.getClass(),
-            pathParameterValue.toString()));
         throw buildBadRequestException(parameterName);
     }
 
@@ -49,16 +48,15 @@ public final class ApiQueryStringParameterParser {
             return (Integer) pathParameterValue;
         }
         if (pathParameterValue instanceof String) {
+            final String stringValue = (String) pathParameterValue;
             try {
-                return Integer.parseInt((String) pathParameterValue);
+                if (hasIntegerSyntax(stringValue)) {
+                    return Integer.parseInt(stringValue);
+                }
             } catch (final NumberFormatException e) {
-                logger.warn(String.format(PARSE_FAILURE_MESSAGE, parameterName)
-                    + String.format(", value '%s' is not parseable as Integer", pathParameterValue.toString()));
-                throw buildBadRequestException(parameterName);
+                // Out of Integer range, rejected below like other non-integer values
             }
         }
-        logger.warn(String.format(WRONG_TYPE_LOG_MESSAGE, parameterName, Integer.class, pathParameterValue.getClass(),
-            pathParameterValue.toString()));
         throw buildBadRequestException(parameterName);
     }
 
@@ -75,12 +73,38 @@ public final class ApiQueryStringParameterParser {
         return request.queryStringParameters().get(parameterName);
     }
 
+    /**
+     * Check for an optional sign followed by ASCII digits, so that malformed values are rejected
+     * without the cost of constructing a NumberFormatException.
+     */
+    static boolean hasIntegerSyntax(final String value) {
+        final int firstDigitIndex = (!value.isEmpty() && (value.charAt(0) == '-' || value.charAt(0) == '+')) ? 1 : 0;
+        if (value.length() == firstDigitIndex) {
+            return false;
+        }
+        for (int index = firstDigitIndex; index < value.length(); index++) {
+            final char character = value.charAt(index);
+            if (character < '0' || character > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static boolean hasQueryStringParameter(final ApiRequest request, final String parameterName) {
         return request != null && request.queryStringParameters() != null
             && request.queryStringParameters().containsKey(parameterName);
     }
 
     private static BadRequestException buildBadRequestException(final String parameterName) {
-        return new BadRequestException(String.format(PARSE_FAILURE_MESSAGE, parameterName));
+        return new BadRequestException(getParseFailureMessage(parameterName));
+    }
+
+    /**
+     * Return the parse failure message for a parameter, formatting it once per parameter name.
+     */
+    private static String getParseFailureMessage(final String parameterName) {
+        return PARSE_FAILURE_MESSAGES.computeIfAbsent(String.valueOf(parameterName),
+            name -> String.format(PARSE_FAILURE_MESSAGE, name));
     }
 }
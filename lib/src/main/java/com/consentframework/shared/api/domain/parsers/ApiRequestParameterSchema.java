@@ -0,0 +1,169 @@
+package com.consentframework.shared.api.domain.parsers;
+
+import com.consentframework.shared.api.domain.entities.ApiRequest;
+import com.consentframework.shared.api.domain.exceptions.ParameterValidationException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Precompiled declaration of the path and query string parameters accepted by an API.
+ *
+ * Build a schema once per handler, then call {@link #parse(ApiRequest)} to validate and extract
+ * every parameter in a single pass.  Failure messages are formatted when the schema is built,
+ * and all invalid parameters are reported together in one ParameterValidationException.
+ */
+public final class ApiRequestParameterSchema {
+    public static final String MISSING_QUERY_PARAMETER_MESSAGE = "Missing required %s query parameter";
+    public static final String OUT_OF_RANGE_MESSAGE = "Invalid %s query parameter, expected a value between %d and %d";
+
+    private final ApiParameter<?>[] parameters;
+    private final String[] names;
+    private final boolean[] pathLocations;
+    private final boolean[] integerParameters;
+    private final String[] missingMessages;
+    private final String[] invalidMessages;
+    private final String[] outOfRangeMessages;
+
+    private ApiRequestParameterSchema(final List<ApiParameter<?>> parameters) {
+        final int parameterCount = parameters.size();
+        this.parameters = parameters.toArray(new ApiParameter<?>[parameterCount]);
+        this.names = new String[parameterCount];
+        this.pathLocations = new boolean[parameterCount];
+        this.integerParameters = new boolean[parameterCount];
+        this.missingMessages = new String[parameterCount];
+        this.invalidMessages = new String[parameterCount];
+        this.outOfRangeMessages = new String[parameterCount];
+
+        final Set<String> parameterKeys = new HashSet<>();
+        for (int index = 0; index < parameterCount; index++) {
+            final ApiParameter<?> parameter = this.parameters[index];
+            if (!parameterKeys.add(parameter.location() + "|" + parameter.name())) {
+                throw new IllegalArgumentException(String.format("Duplicate %s parameter %s", parameter.location(), parameter.name()));
+            }
+            if (parameter.type() != String.class && parameter.type() != Integer.class) {
+                throw new IllegalArgumentException(String.format("Unsupported parameter type %s", parameter.type()));
+            }
+            names[index] = parameter.name();
+            pathLocations[index] = parameter.location() == ApiParameter.Location.PATH;
+            integerParameters[index] = parameter.type() == Integer.class;
+
+            if (pathLocations[index]) {
+                missingMessages[index] = String.format(ApiPathParameterParser.PARSE_FAILURE_MESSAGE, parameter.name());
+                invalidMessages[index] = missingMessages[index];
+            } else {
+                missingMessages[index] = String.format(MISSING_QUERY_PARAMETER_MESSAGE, parameter.name());
+                invalidMessages[index] = String.format(ApiQueryStringParameterParser.PARSE_FAILURE_MESSAGE, parameter.name());
+            }
+            if (parameter.minimum() != null) {
+                outOfRangeMessages[index] = String.format(OUT_OF_RANGE_MESSAGE, parameter.name(), parameter.minimum(), parameter.maximum());
+            }
+        }
+    }
+
+    /**
+     * Build a schema from parameter declarations.
+     *
+     * @param parameters path and query string parameter declarations
+     * @return parameter schema
+     * @throws IllegalArgumentException exception thrown if a parameter is declared twice or has an unsupported type
+     */
+    public static ApiRequestParameterSchema of(final ApiParameter<?>... parameters) {
+        return new ApiRequestParameterSchema(List.of(parameters));
+    }
+
+    /**
+     * Build a schema from a handler's required path parameter names and query string parameter declarations.
+     *
+     * @param requiredPathParameters required path parameter names
+     * @param queryParameters query string parameter declarations
+     * @return parameter schema
+     * @throws IllegalArgumentException exception thrown if a parameter is declared twice or has an unsupported type
+     */
+    public static ApiRequestParameterSchema of(final List<String> requiredPathParameters, final ApiParameter<?>... queryParameters) {
+        final List<ApiParameter<?>> parameters = new ArrayList<>();
+        if (requiredPathParameters != null) {
+            requiredPathParameters.forEach(name -> parameters.add(ApiParameter.path(name)));
+        }
+        parameters.addAll(List.of(queryParameters));
+        return new ApiRequestParameterSchema(parameters);
+    }
+
+    /**
+     * Validate and extract all declared parameters from a request.
+     *
+     * @param request API request
+     * @return typed parameter values
+     * @throws ParameterValidationException exception thrown if any parameter is missing or invalid, listing every failure
+     */
+    public ApiRequestParameters parse(final ApiRequest request) throws ParameterValidationException {
+        final Map<String, String> pathParameters = (request == null) ? null : request.pathParameters();
+        final Map<String, Object> queryStringParameters = (request == null) ? null : request.queryStringParameters();
+        final Object[] values = new Object[parameters.length];
+        List<String> failureMessages = null;
+
+        for (int index = 0; index < parameters.length; index++) {
+            final Object rawValue = pathLocations[index]
+                ? getOrNull(pathParameters, names[index])
+                : getOrNull(queryStringParameters, names[index]);
+
+            final String failureMessage;
+            if (rawValue == null) {
+                values[index] = parameters[index].defaultValue();
+                failureMessage = parameters[index].required() ? missingMessages[index] : null;
+            } else {
+                values[index] = integerParameters[index] ? toInteger(rawValue) : toString(rawValue);
+                failureMessage = (values[index] == null) ? invalidMessages[index] : validateRange(index, values[index]);
+            }
+
+            if (failureMessage != null) {
+                if (failureMessages == null) {
+                    failureMessages = new ArrayList<>(parameters.length);
+                }
+                failureMessages.add(failureMessage);
+            }
+        }
+
+        if (failureMessages != null) {
+            throw new ParameterValidationException(failureMessages);
+        }
+        return new ApiRequestParameters(parameters, values);
+    }
+
+    private static <V> V getOrNull(final Map<String, V> parameters, final String name) {
+        return (parameters == null) ? null : parameters.get(name);
+    }
+
+    private static String toString(final Object rawValue) {
+        return (rawValue instanceof String stringValue) ? stringValue : null;
+    }
+
+    /**
+     * Convert an Integer or integer string value, returning null if not convertible.
+     */
+    private static Integer toInteger(final Object rawValue) {
+        if (rawValue instanceof Integer integerValue) {
+            return integerValue;
+        }
+        if (rawValue instanceof String stringValue && ApiQueryStringParameterParser.hasIntegerSyntax(stringValue)) {
+            try {
+                return Integer.parseInt(stringValue);
+            } catch (final NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private String validateRange(final int index, final Object value) {
+        final ApiParameter<?> parameter = parameters[index];
+        if (parameter.minimum() == null) {
+            return null;
+        }
+        final int intValue = (Integer) value;
+        return (intValue < parameter.minimum() || intValue > parameter.maximum()) ? outOfRangeMessages[index] : null;
+    }
+}
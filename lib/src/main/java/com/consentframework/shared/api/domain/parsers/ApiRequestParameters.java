@@ -0,0 +1,52 @@
+package com.consentframework.shared.api.domain.parsers;
+
+/**
+ * Typed parameter values extracted from an API request by an ApiRequestParameterSchema.
+ */
+public final class ApiRequestParameters {
+    private final ApiParameter<?>[] parameters;
+    private final Object[] values;
+
+    ApiRequestParameters(final ApiParameter<?>[] parameters, final Object[] values) {
+        this.parameters = parameters;
+        this.values = values;
+    }
+
+    /**
+     * Return the value of a parameter declared in the schema.
+     *
+     * @param parameter parameter declaration
+     * @param <T> parameter value type
+     * @return parameter value, its default value if missing, or null if missing without a default
+     * @throws IllegalArgumentException exception thrown if the parameter is not declared in the schema
+     */
+    public <T> T get(final ApiParameter<T> parameter) {
+        for (int index = 0; index < parameters.length; index++) {
+            if (parameters[index] == parameter) {
+                return parameter.type().cast(values[index]);
+            }
+        }
+        for (int index = 0; index < parameters.length; index++) {
+            if (parameters[index].equals(parameter)) {
+                return parameter.type().cast(values[index]);
+            }
+        }
+        throw new IllegalArgumentException(String.format("Parameter %s is not declared in the schema", parameter.name()));
+    }
+
+    /**
+     * Return the value of a path parameter declared in the schema by name.
+     *
+     * @param name path parameter name
+     * @return path parameter value
+     * @throws IllegalArgumentException exception thrown if the path parameter is not declared in the schema
+     */
+    public String getPathParameter(final String name) {
+        for (int index = 0; index < parameters.length; index++) {
+            if (parameters[index].location() == ApiParameter.Location.PATH && parameters[index].name().equals(name)) {
+                return (String) values[index];
+            }
+        }
+        throw new IllegalArgumentException(String.format("Path parameter %s is not declared in the schema", name));
+    }
+}
@@ -1,39 +1,109 @@
 package com.consentframework.shared.api.domain.requesthandlers;
 
-import com.consentframework.shared.api.domain.constants.ApiResponseParameterName;
 import com.consentframework.shared.api.domain.constants.HttpStatusCode;
 import com.consentframework.shared.api.domain.entities.ApiRequest;
+import com.consentframework.shared.api.domain.entities.ApiResponse;
 import com.consentframework.shared.api.domain.exceptions.BadRequestException;
-import com.consentframework.shared.api.domain.exceptions.ConflictingResourceException;
-import com.consentframework.shared.api.domain.exceptions.ResourceNotFoundException;
+import com.consentframework.shared.api.domain.exceptions.ThrottlingException;
+import com.consentframework.shared.api.domain.parsers.ApiParameter;
+import com.consentframework.shared.api.domain.parsers.ApiRequestParameterSchema;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.HashMap;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Abstract class for an API request handler.
+ *
+ * Responses with fixed bodies, such as request parse failures and this handler's missing path
+ * parameters response, are built once and reused as immutable maps; other response maps are built per
+ * call as mutable maps, so subclasses may add response parameters to them.  Exceptions are mapped to
+ * error response status codes by the handler's ExceptionStatusCodeMapping, and throttling error
+ * responses include a Retry-After header when the retry delay is known.  Success responses built for
+ * a request carry shared immutable header maps, and large bodies are gzip-compressed when the request
+ * accepts it, according to the handler's ResponseCompression.  Warnings for 4xx client errors are
+ * logged according to the handler's ClientErrorLogPolicy, by default every warning without stack traces.
  */
 public abstract class ApiRequestHandler {
+    /**
+     * Error response body format.
+     *
+     * @deprecated error response bodies are built with the message JSON-escaped, so formatting an unescaped
+     *     message into this template may not match them; compare parsed bodies instead
+     */
+    @Deprecated
     public static final String ERROR_RESPONSE_BODY = "{\"message\":\"%s\"}";
     public static final String MISSING_PATH_PARAMETERS_MESSAGE = "Missing required path parameters, expected %s";
     public static final String REQUEST_PARSE_FAILURE_MESSAGE = "Unable to parse request";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
 
     private static final Logger logger = LogManager.getLogger(ApiRequestHandler.class);
 
+    private static final Map<String, Object> REQUEST_PARSE_FAILURE_RESPONSE =
+        buildErrorResponse(HttpStatusCode.BAD_REQUEST, REQUEST_PARSE_FAILURE_MESSAGE).toMap();
+
     public final List<String> requiredPathParameters;
 
+    private final ClientErrorLogPolicy clientErrorLogPolicy;
+    private final ExceptionStatusCodeMapping statusCodeMapping;
+    private final ResponseCompression responseCompression;
+    private final String missingPathParametersMessage;
+    private final Map<String, Object> missingPathParametersResponse;
+
     /**
      * Construct ApiRequestHandler with properties shared across subclasses.
      *
      * @param requiredPathParameters required path parameters
      */
     public ApiRequestHandler(final List<String> requiredPathParameters) {
+        this(requiredPathParameters, ClientErrorLogPolicy.unlimited());
+    }
+
+    /**
+     * Construct ApiRequestHandler with properties shared across subclasses and a client error logging policy.
+     *
+     * @param requiredPathParameters required path parameters
+     * @param clientErrorLogPolicy policy for logging 4xx client error warnings, eg. ClientErrorLogPolicy.rateLimited(10)
+     */
+    public ApiRequestHandler(final List<String> requiredPathParameters, final ClientErrorLogPolicy clientErrorLogPolicy) {
+        this(requiredPathParameters, clientErrorLogPolicy, ExceptionStatusCodeMapping.defaults());
+    }
+
+    /**
+     * Construct ApiRequestHandler with a client error logging policy and exception status code mapping.
+     *
+     * @param requiredPathParameters required path parameters
+     * @param clientErrorLogPolicy policy for logging 4xx client error warnings
+     * @param statusCodeMapping mapping of exceptions to error response status codes,
+     *     eg. ExceptionStatusCodeMapping.defaults().withStatusCode(IllegalArgumentException.class, HttpStatusCode.BAD_REQUEST)
+     */
+    public ApiRequestHandler(final List<String> requiredPathParameters, final ClientErrorLogPolicy clientErrorLogPolicy,
+            final ExceptionStatusCodeMapping statusCodeMapping) {
+        this(requiredPathParameters, clientErrorLogPolicy, statusCodeMapping, ResponseCompression.defaults());
+    }
+
+    /**
+     * Construct ApiRequestHandler with a client error logging policy, exception status code mapping and response compression.
+     *
+     * @param requiredPathParameters required path parameters
+     * @param clientErrorLogPolicy policy for logging 4xx client error warnings
+     * @param statusCodeMapping mapping of exceptions to error response status codes
+     * @param responseCompression policy for compressing success response bodies, eg. ResponseCompression.forBodiesOfAtLeast(4096)
+     */
+    public ApiRequestHandler(final List<String> requiredPathParameters, final ClientErrorLogPolicy clientErrorLogPolicy,
+            final ExceptionStatusCodeMapping statusCodeMapping, final ResponseCompression responseCompression) {
         this.requiredPathParameters = requiredPathParameters;
+        this.clientErrorLogPolicy = clientErrorLogPolicy;
+        this.statusCodeMapping = statusCodeMapping;
+        this.responseCompression = responseCompression;
+        this.missingPathParametersMessage = String.format(MISSING_PATH_PARAMETERS_MESSAGE,
+            (requiredPathParameters == null) ? "" : String.join(", ", requiredPathParameters));
+        this.missingPathParametersResponse = buildErrorResponse(HttpStatusCode.BAD_REQUEST, missingPathParametersMessage).toMap();
     }
 
     /**
@@ -44,6 +114,16 @@ public abstract class ApiRequestHandler {
      */
     protected abstract Map<String, Object> handleRequest(final ApiRequest request);
 
+    /**
+     * Build a parameter schema for this handler's required path parameters and the given query string parameters.
+     *
+     * @param queryParameters query string parameter declarations
+     * @return parameter schema, to be built once and stored by the handler
+     */
+    protected ApiRequestParameterSchema buildParameterSchema(final ApiParameter<?>... queryParameters) {
+        return ApiRequestParameterSchema.of(requiredPathParameters, queryParameters);
+    }
+
     /**
      * Convert response content to a JSON string as required for API Gateway to interpret the response body.
      *
@@ -55,6 +135,18 @@ public abstract class ApiRequestHandler {
         return mapper.writeValueAsString(responseContent);
     }
 
+    /**
+     * Convert response content to a JSON string using an ObjectWriter, eg. a shared writer bound to the response content type.
+     *
+     * @param writer ObjectWriter for the response content
+     * @param responseContent response content object
+     * @return response content as a JSON string
+     * @throws JsonProcessingException exception thrown if unable to convert object into a JSON string
+     */
+    protected String toJsonString(final ObjectWriter writer, final Object responseContent) throws JsonProcessingException {
+        return writer.writeValueAsString(responseContent);
+    }
+
     /**
      * Log missing path parameter exception and return API error response.
      *
@@ -62,11 +154,8 @@ public abstract class ApiRequestHandler {
      * @return 400 Bad Request API error response including list of required parameters
      */
     protected Map<String, Object> logAndBuildMissingPathParamResponse(final BadRequestException exception) {
-        final String errorMessage = String.format(MISSING_PATH_PARAMETERS_MESSAGE,
-            String.join(", ", requiredPathParameters));
-
-        logger.warn(errorMessage, exception);
-        return buildApiErrorResponse(new BadRequestException(errorMessage, exception));
+        logClientError(missingPathParametersMessage, exception);
+        return missingPathParametersResponse;
     }
 
     /**
@@ -76,68 +165,123 @@ public abstract class ApiRequestHandler {
      * @return 400 Bad Request API error response
      */
     protected Map<String, Object> logAndBuildJsonProcessingErrorResponse(final JsonProcessingException jsonProcessingException) {
-        logger.warn("Received unexpected JsonProcessingException parsing request body", jsonProcessingException);
-        return buildApiErrorResponse(new BadRequestException(REQUEST_PARSE_FAILURE_MESSAGE));
+        logClientError("Received unexpected JsonProcessingException parsing request body", jsonProcessingException);
+        return REQUEST_PARSE_FAILURE_RESPONSE;
     }
 
     /**
      * Log exception message and return API error response.
      *
      * @param exception original exception thrown
-     * @return API error response
+     * @return API error response, as a new mutable map
      */
     protected Map<String, Object> logAndBuildErrorResponse(final Exception exception) {
-        logger.warn(exception.getMessage());
-        return buildApiErrorResponse(exception);
+        final ApiResponse response = buildErrorResponse(exception);
+        if (response.statusCode() == HttpStatusCode.INTERNAL_SERVER_ERROR.getValue()) {
+            logger.warn(exception.getMessage());
+        } else {
+            logClientError(exception.getMessage(), exception);
+        }
+        return response.toMutableMap();
     }
 
     /**
      * Build API success response.
      *
      * @param responseBody API response body
-     * @return 200 Success API response
+     * @return 200 Success API response, as a new mutable map
      */
     protected Map<String, Object> buildApiSuccessResponse(final String responseBody) {
-        return buildApiResponse(HttpStatusCode.SUCCESS, responseBody);
+        return buildSuccessResponse(responseBody).toMutableMap();
+    }
+
+    /**
+     * Build API success response with a JSON content type header, compressing the body if accepted by the request.
+     *
+     * @param request API request
+     * @param responseBody API response body
+     * @return 200 Success API response, as a new mutable map
+     */
+    protected Map<String, Object> buildApiSuccessResponse(final ApiRequest request, final String responseBody) {
+        return buildSuccessResponse(request, responseBody, ResponseHeaders.JSON).toMutableMap();
     }
 
     /**
-     * Build API error response with appropriate status code and message body.
+     * Build typed API success response.
+     *
+     * @param responseBody API response body
+     * @return 200 Success API response
+     */
+    protected ApiResponse buildSuccessResponse(final String responseBody) {
+        return ApiResponse.of(HttpStatusCode.SUCCESS, responseBody);
+    }
+
+    /**
+     * Build typed API success response with the given headers, compressing the body if accepted by the request.
+     *
+     * @param request API request
+     * @param responseBody API response body
+     * @param headers response headers, preferably a shared map such as ResponseHeaders.JSON_NO_STORE
+     * @return 200 Success API response
+     */
+    protected ApiResponse buildSuccessResponse(final ApiRequest request, final String responseBody, final Map<String, String> headers) {
+        return responseCompression.compress(request, new ApiResponse(HttpStatusCode.SUCCESS.getValue(), headers, responseBody));
+    }
+
+    /**
+     * Build typed API error response with appropriate status code and message body.
      *
      * @param exception original thrown exception
      * @return API error response
      */
-    private Map<String, Object> buildApiErrorResponse(final Exception exception) {
-        final HttpStatusCode statusCode = determineStatusCode(exception);
-        return buildApiResponse(statusCode, String.format(ERROR_RESPONSE_BODY, exception.getMessage()));
+    protected ApiResponse buildErrorResponse(final Exception exception) {
+        final HttpStatusCode statusCode = statusCodeMapping.getStatusCode(exception);
+        final String body = toErrorResponseBody(exception.getMessage());
+        if (exception instanceof ThrottlingException throttlingException && throttlingException.getRetryAfter().isPresent()) {
+            final Map<String, String> headers = Map.of(RETRY_AFTER_HEADER, toRetryAfterSeconds(throttlingException.getRetryAfter().get()));
+            return new ApiResponse(statusCode.getValue(), headers, body);
+        }
+        return ApiResponse.of(statusCode, body);
     }
 
     /**
-     * Build API response with given status code and response body.
+     * Build an error response body for the given message, escaping it as a JSON string.
      *
-     * @param statusCode HTTP status code to return
-     * @param body response body
-     * @return map of response parameter names and values
+     * @param message error message
+     * @return error response body, eg. {"message":"Invalid limit"}
      */
-    private Map<String, Object> buildApiResponse(final HttpStatusCode statusCode, final String body) {
-        final Map<String, Object> apiResponse = new HashMap<String, Object>();
-        apiResponse.put(ApiResponseParameterName.STATUS_CODE.getValue(), statusCode.getValue());
-        if (body != null) {
-            apiResponse.put(ApiResponseParameterName.BODY.getValue(), body);
-        }
-        return apiResponse;
+    public static String toErrorResponseBody(final String message) {
+        final String messageText = String.valueOf(message);
+        final StringBuilder body = new StringBuilder(messageText.length() + 16).append("{\"message\":");
+        return JsonStringEscaper.appendQuoted(body, messageText).append('}').toString();
     }
 
-    private HttpStatusCode determineStatusCode(final Exception exception) {
-        if (exception instanceof BadRequestException) {
-            return HttpStatusCode.BAD_REQUEST;
-        }
-        if (exception instanceof ConflictingResourceException) {
-            return HttpStatusCode.CONFLICT;
+    private static ApiResponse buildErrorResponse(final HttpStatusCode statusCode, final String message) {
+        return ApiResponse.of(statusCode, toErrorResponseBody(message));
+    }
+
+    /**
+     * Format a retry delay as Retry-After delay-seconds, rounding up so clients don't retry early.
+     */
+    private static String toRetryAfterSeconds(final Duration retryAfter) {
+        final long seconds = retryAfter.getSeconds() + ((retryAfter.getNano() > 0) ? 1 : 0);
+        return Long.toString(seconds);
+    }
+
+    /**
+     * Log a client error warning if permitted by the client error log policy, including the number of
+     * warnings suppressed since the last one logged.
+     */
+    private void logClientError(final String message, final Throwable exception) {
+        if (!logger.isWarnEnabled() || !clientErrorLogPolicy.tryAcquire()) {
+            return;
         }
-        if (exception instanceof ResourceNotFoundException) {
-            return HttpStatusCode.NOT_FOUND;
+        final long suppressedCount = clientErrorLogPolicy.drainSuppressedCount();
+        final Throwable loggedException = clientErrorLogPolicy.isStackTraceEnabled() ? exception : null;
+        if (suppressedCount == 0) {
+            logger.warn("{}", message, loggedException);
+        } else {
+            logger.warn("{} ({} similar client error warnings suppressed)", message, suppressedCount, loggedException);
         }
-        return HttpStatusCode.INTERNAL_SERVER_ERROR;
     }
 }
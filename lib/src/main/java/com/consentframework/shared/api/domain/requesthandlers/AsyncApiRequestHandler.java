@@ -0,0 +1,153 @@
+package com.consentframework.shared.api.domain.requesthandlers;
+
+import com.consentframework.shared.api.domain.entities.ApiRequest;
+import com.consentframework.shared.api.domain.exceptions.InternalServiceException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * Abstract class for an API request handler that fans out independent calls concurrently.
+ *
+ * Subclasses build the response asynchronously, forking blocking calls onto virtual threads or
+ * tracking async client calls through the request's AsyncRequestScope, eg. reading a consent and
+ * its history at the same time rather than one after the other.  The handler waits for the response
+ * until a deadline derived from the remaining Lambda invocation time, leaving a margin to return the
+ * response, then cancels any calls still outstanding.  Failures are mapped to error responses the
+ * same way as by ApiRequestHandler, and a missed deadline results in a 500 Internal Server Error.
+ */
+public abstract class AsyncApiRequestHandler extends ApiRequestHandler {
+    public static final Duration DEFAULT_DEADLINE_MARGIN = Duration.ofMillis(200);
+    public static final String REQUEST_TIMEOUT_MESSAGE = "Request did not complete before its deadline";
+    public static final String REQUEST_CANCELLED_MESSAGE = "Request was cancelled";
+
+    private final long deadlineMarginNanos;
+    private final LongSupplier nanoClock;
+
+    /**
+     * Construct AsyncApiRequestHandler with the default deadline margin.
+     *
+     * @param requiredPathParameters required path parameters
+     */
+    public AsyncApiRequestHandler(final List<String> requiredPathParameters) {
+        this(requiredPathParameters, ClientErrorLogPolicy.unlimited(), DEFAULT_DEADLINE_MARGIN);
+    }
+
+    /**
+     * Construct AsyncApiRequestHandler with a client error logging policy and deadline margin.
+     *
+     * @param requiredPathParameters required path parameters
+     * @param clientErrorLogPolicy policy for logging 4xx client error warnings
+     * @param deadlineMargin time reserved before the end of the Lambda invocation to return the response
+     */
+    public AsyncApiRequestHandler(final List<String> requiredPathParameters, final ClientErrorLogPolicy clientErrorLogPolicy,
+            final Duration deadlineMargin) {
+        this(requiredPathParameters, clientErrorLogPolicy, deadlineMargin, ExceptionStatusCodeMapping.defaults());
+    }
+
+    /**
+     * Construct AsyncApiRequestHandler with a client error logging policy, deadline margin and exception status code mapping.
+     *
+     * @param requiredPathParameters required path parameters
+     * @param clientErrorLogPolicy policy for logging 4xx client error warnings
+     * @param deadlineMargin time reserved before the end of the Lambda invocation to return the response
+     * @param statusCodeMapping mapping of exceptions to error response status codes
+     */
+    public AsyncApiRequestHandler(final List<String> requiredPathParameters, final ClientErrorLogPolicy clientErrorLogPolicy,
+            final Duration deadlineMargin, final ExceptionStatusCodeMapping statusCodeMapping) {
+        this(requiredPathParameters, clientErrorLogPolicy, deadlineMargin, statusCodeMapping, System::nanoTime);
+    }
+
+    AsyncApiRequestHandler(final List<String> requiredPathParameters, final ClientErrorLogPolicy clientErrorLogPolicy,
+            final Duration deadlineMargin, final ExceptionStatusCodeMapping statusCodeMapping, final LongSupplier nanoClock) {
+        super(requiredPathParameters, clientErrorLogPolicy, statusCodeMapping);
+        if (deadlineMargin == null || deadlineMargin.isNegative()) {
+            throw new IllegalArgumentException(String.format("deadlineMargin must not be negative, was %s", deadlineMargin));
+        }
+        this.deadlineMarginNanos = deadlineMargin.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Handle API request asynchronously.
+     *
+     * Calls made on behalf of the request should be forked or tracked through the request scope so
+     * that they're cancelled if the request fails or passes its deadline.
+     *
+     * @param request API request object
+     * @param scope request scope for forking and tracking calls
+     * @return future completed with the API response, or exceptionally with an exception to map to an error response
+     */
+    protected abstract CompletableFuture<Map<String, Object>> handleRequestAsync(ApiRequest request, AsyncRequestScope scope);
+
+    /**
+     * Handle API request without a deadline.
+     *
+     * @param request API request object
+     * @return API response
+     */
+    @Override
+    public Map<String, Object> handleRequest(final ApiRequest request) {
+        return awaitResponse(request, new AsyncRequestScope(null, nanoClock));
+    }
+
+    /**
+     * Handle API request within the remaining time of a Lambda invocation.
+     *
+     * @param request API request object
+     * @param remainingTime remaining invocation time, eg. Duration.ofMillis(context.getRemainingTimeInMillis())
+     * @return API response
+     */
+    public Map<String, Object> handleRequest(final ApiRequest request, final Duration remainingTime) {
+        final long deadlineNanos = nanoClock.getAsLong() + remainingTime.toNanos() - deadlineMarginNanos;
+        return awaitResponse(request, new AsyncRequestScope(deadlineNanos, nanoClock));
+    }
+
+    private Map<String, Object> awaitResponse(final ApiRequest request, final AsyncRequestScope scope) {
+        try {
+            if (scope.hasDeadline() && scope.getRemainingNanos() == 0) {
+                return logAndBuildErrorResponse(new InternalServiceException(REQUEST_TIMEOUT_MESSAGE));
+            }
+            final CompletableFuture<Map<String, Object>> response = handleRequestAsync(request, scope);
+            return scope.hasDeadline() ? response.get(scope.getRemainingNanos(), TimeUnit.NANOSECONDS) : response.get();
+        } catch (final TimeoutException e) {
+            return logAndBuildErrorResponse(new InternalServiceException(REQUEST_TIMEOUT_MESSAGE, e));
+        } catch (final ExecutionException | CompletionException e) {
+            return buildFailureResponse(e.getCause());
+        } catch (final CancellationException e) {
+            return logAndBuildErrorResponse(new InternalServiceException(REQUEST_CANCELLED_MESSAGE, e));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return logAndBuildErrorResponse(new InternalServiceException(REQUEST_CANCELLED_MESSAGE, e));
+        } catch (final RuntimeException e) {
+            return logAndBuildErrorResponse(e);
+        } finally {
+            scope.cancel();
+        }
+    }
+
+    /**
+     * Map the exception a response future failed with, unwrapping exceptions from dependent stages.
+     */
+    private Map<String, Object> buildFailureResponse(final Throwable cause) {
+        Throwable exception = cause;
+        while ((exception instanceof CompletionException || exception instanceof ExecutionException) && exception.getCause() != null) {
+            exception = exception.getCause();
+        }
+        if (exception instanceof Error error) {
+            throw error;
+        }
+        if (exception instanceof CancellationException) {
+            return logAndBuildErrorResponse(new InternalServiceException(REQUEST_CANCELLED_MESSAGE, exception));
+        }
+        return logAndBuildErrorResponse((Exception) exception);
+    }
+}
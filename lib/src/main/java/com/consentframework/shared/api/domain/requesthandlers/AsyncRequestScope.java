@@ -0,0 +1,133 @@
+package com.consentframework.shared.api.domain.requesthandlers;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.LongSupplier;
+
+/**
+ * Outstanding calls and deadline of one request handled by an AsyncApiRequestHandler.
+ *
+ * Independent blocking calls, eg. DynamoDbTable reads, can be forked onto their own virtual threads,
+ * and calls that are already asynchronous, eg. DynamoDbAsyncTable reads, can be tracked.  When the
+ * request completes, fails or passes its deadline, calls still outstanding are cancelled, interrupting
+ * forked threads, so they don't outlive the request.
+ */
+public final class AsyncRequestScope {
+    private static final ThreadFactory THREAD_FACTORY = Thread.ofVirtual().name("async-api-request-", 0).factory();
+
+    private final long deadlineNanos;
+    private final LongSupplier nanoClock;
+    private final Queue<Runnable> outstandingCancellations = new ConcurrentLinkedQueue<>();
+    private volatile boolean cancelled;
+
+    /**
+     * Construct a request scope.
+     *
+     * @param deadlineNanos deadline in nanoClock time, or null for no deadline
+     * @param nanoClock monotonic clock, eg. System::nanoTime
+     */
+    AsyncRequestScope(final Long deadlineNanos, final LongSupplier nanoClock) {
+        this.deadlineNanos = (deadlineNanos == null) ? Long.MAX_VALUE : deadlineNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Run a blocking call on its own virtual thread.
+     *
+     * The thread is interrupted if the call is still running when the request scope is cancelled.
+     *
+     * @param call call to run
+     * @param <T> call result type
+     * @return future completed with the call's result or exception
+     */
+    public <T> CompletableFuture<T> fork(final Callable<T> call) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final Thread thread = THREAD_FACTORY.newThread(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(call.call());
+            } catch (final Exception | Error e) {
+                future.completeExceptionally(e);
+            }
+        });
+        register(future, () -> {
+            future.cancel(true);
+            thread.interrupt();
+        });
+        thread.start();
+        return future;
+    }
+
+    /**
+     * Track an asynchronous call, so that it is cancelled if still outstanding when the request scope is cancelled.
+     *
+     * Cancelling a future returned by an AWS SDK async client aborts its HTTP request.
+     *
+     * @param call future of the call
+     * @param <T> call result type
+     * @return the given future
+     */
+    public <T> CompletableFuture<T> track(final CompletableFuture<T> call) {
+        register(call, () -> call.cancel(true));
+        return call;
+    }
+
+    /**
+     * Return the time left before the request's deadline, eg. to set as an AWS SDK API call timeout.
+     *
+     * @return remaining time, zero if the deadline has passed, or empty if the request has no deadline
+     */
+    public Optional<Duration> getRemainingTime() {
+        if (!hasDeadline()) {
+            return Optional.empty();
+        }
+        return Optional.of(Duration.ofNanos(getRemainingNanos()));
+    }
+
+    /**
+     * Return whether the request scope has been cancelled, after which newly forked or tracked calls are cancelled immediately.
+     *
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    boolean hasDeadline() {
+        return deadlineNanos != Long.MAX_VALUE;
+    }
+
+    long getRemainingNanos() {
+        return Math.max(0, deadlineNanos - nanoClock.getAsLong());
+    }
+
+    /**
+     * Cancel all outstanding calls.
+     */
+    void cancel() {
+        cancelled = true;
+        Runnable cancellation;
+        while ((cancellation = outstandingCancellations.poll()) != null) {
+            cancellation.run();
+        }
+    }
+
+    /**
+     * Register a call's cancellation until it completes, cancelling it immediately if the scope is already
+     * cancelled.  Checking after registering ensures a concurrent cancel() either drains or sees the call.
+     */
+    private void register(final CompletableFuture<?> call, final Runnable cancellation) {
+        outstandingCancellations.add(cancellation);
+        call.whenComplete((result, exception) -> outstandingCancellations.remove(cancellation));
+        if (cancelled) {
+            cancellation.run();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.consentframework.shared.api.domain.requesthandlers;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Controls how an ApiRequestHandler logs warnings for 4xx client errors.
+ *
+ * Client errors are expected, so a flood of malformed requests should not become a flood of
+ * log lines.  A policy may limit client error warnings to a maximum number per second, counting
+ * the warnings it suppresses so they can be reported with the next logged warning, and logs
+ * exception stack traces only when explicitly enabled.  Each handler should use its own policy.
+ */
+public final class ClientErrorLogPolicy {
+    private static final int UNLIMITED = Integer.MAX_VALUE;
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int maxLogsPerSecond;
+    private final boolean stackTracesEnabled;
+    private final LongSupplier nanoClock;
+
+    private final AtomicLong windowStartNanos;
+    private final AtomicInteger logsInWindow = new AtomicInteger();
+    private final LongAdder suppressedCount = new LongAdder();
+
+    ClientErrorLogPolicy(final int maxLogsPerSecond, final boolean stackTracesEnabled, final LongSupplier nanoClock) {
+        if (maxLogsPerSecond < 0) {
+            throw new IllegalArgumentException("maxLogsPerSecond must not be negative");
+        }
+        this.maxLogsPerSecond = maxLogsPerSecond;
+        this.stackTracesEnabled = stackTracesEnabled;
+        this.nanoClock = nanoClock;
+        this.windowStartNanos = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Build a policy that logs every client error warning, without stack traces.
+     *
+     * @return client error log policy
+     */
+    public static ClientErrorLogPolicy unlimited() {
+        return new ClientErrorLogPolicy(UNLIMITED, false, System::nanoTime);
+    }
+
+    /**
+     * Build a policy that logs at most the given number of client error warnings per second, without stack traces.
+     *
+     * @param maxLogsPerSecond maximum warnings logged per second, or 0 to suppress all client error warnings
+     * @return client error log policy
+     */
+    public static ClientErrorLogPolicy rateLimited(final int maxLogsPerSecond) {
+        return new ClientErrorLogPolicy(maxLogsPerSecond, false, System::nanoTime);
+    }
+
+    /**
+     * Return a new policy with the same rate limit that also logs exception stack traces.
+     *
+     * @return client error log policy logging stack traces
+     */
+    public ClientErrorLogPolicy withStackTraces() {
+        return new ClientErrorLogPolicy(maxLogsPerSecond, true, nanoClock);
+    }
+
+    /**
+     * Return whether exception stack traces should be logged with client error warnings.
+     *
+     * @return true if stack traces should be logged
+     */
+    public boolean isStackTraceEnabled() {
+        return stackTracesEnabled;
+    }
+
+    /**
+     * Acquire permission to log a client error warning, counting the warning as suppressed if not permitted.
+     *
+     * @return true if the warning should be logged
+     */
+    public boolean tryAcquire() {
+        if (maxLogsPerSecond == UNLIMITED) {
+            return true;
+        }
+
+        final long now = nanoClock.getAsLong();
+        final long windowStart = windowStartNanos.get();
+        if (now - windowStart >= WINDOW_NANOS && windowStartNanos.compareAndSet(windowStart, now)) {
+            logsInWindow.set(0);
+        }
+        if (logsInWindow.incrementAndGet() <= maxLogsPerSecond) {
+            return true;
+        }
+        suppressedCount.increment();
+        return false;
+    }
+
+    /**
+     * Return and reset the number of warnings suppressed since the last call.
+     *
+     * @return number of suppressed warnings
+     */
+    public long drainSuppressedCount() {
+        return suppressedCount.sumThenReset();
+    }
+}
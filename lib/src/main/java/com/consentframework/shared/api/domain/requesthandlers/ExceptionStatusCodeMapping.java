@@ -0,0 +1,81 @@
+package com.consentframework.shared.api.domain.requesthandlers;
+
+import com.consentframework.shared.api.domain.constants.HttpStatusCode;
+import com.consentframework.shared.api.domain.exceptions.BadRequestException;
+import com.consentframework.shared.api.domain.exceptions.ConflictingResourceException;
+import com.consentframework.shared.api.domain.exceptions.ResourceNotFoundException;
+import com.consentframework.shared.api.domain.exceptions.ThrottlingException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps exceptions to the status codes of the error responses built for them by an ApiRequestHandler.
+ *
+ * An exception maps to the status code registered for its class or, failing that, its nearest
+ * registered superclass, and to 500 Internal Server Error if none is registered.  Each exception
+ * class's status code is resolved once and cached, so mapping an exception is a single lookup
+ * however deep its class hierarchy.  Mappings are immutable and should be built once per handler.
+ */
+public final class ExceptionStatusCodeMapping {
+    private static final ExceptionStatusCodeMapping DEFAULTS = new ExceptionStatusCodeMapping(Map.of(
+        BadRequestException.class, HttpStatusCode.BAD_REQUEST,
+        ConflictingResourceException.class, HttpStatusCode.CONFLICT,
+        ResourceNotFoundException.class, HttpStatusCode.NOT_FOUND,
+        ThrottlingException.class, HttpStatusCode.TOO_MANY_REQUESTS));
+
+    private final Map<Class<?>, HttpStatusCode> registeredStatusCodes;
+    private final ClassValue<HttpStatusCode> resolvedStatusCodes = new ClassValue<>() {
+        @Override
+        protected HttpStatusCode computeValue(final Class<?> exceptionType) {
+            for (Class<?> type = exceptionType; type != null; type = type.getSuperclass()) {
+                final HttpStatusCode statusCode = registeredStatusCodes.get(type);
+                if (statusCode != null) {
+                    return statusCode;
+                }
+            }
+            return HttpStatusCode.INTERNAL_SERVER_ERROR;
+        }
+    };
+
+    private ExceptionStatusCodeMapping(final Map<Class<?>, HttpStatusCode> registeredStatusCodes) {
+        this.registeredStatusCodes = Map.copyOf(registeredStatusCodes);
+    }
+
+    /**
+     * Return the default mapping of the shared exceptions: BadRequestException to 400, ResourceNotFoundException
+     * to 404, ConflictingResourceException to 409 and ThrottlingException to 429.
+     *
+     * @return default exception status code mapping
+     */
+    public static ExceptionStatusCodeMapping defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Return a new mapping that also maps the given exception class and its subclasses to a status code.
+     *
+     * @param exceptionType exception class, replacing any status code already registered for it
+     * @param statusCode status code
+     * @return exception status code mapping
+     */
+    public ExceptionStatusCodeMapping withStatusCode(final Class<? extends Exception> exceptionType, final HttpStatusCode statusCode) {
+        if (exceptionType == null || statusCode == null) {
+            throw new IllegalArgumentException(String.format(
+                "exceptionType and statusCode must not be null, were %s and %s", exceptionType, statusCode));
+        }
+        final Map<Class<?>, HttpStatusCode> statusCodes = new HashMap<>(registeredStatusCodes);
+        statusCodes.put(exceptionType, statusCode);
+        return new ExceptionStatusCodeMapping(statusCodes);
+    }
+
+    /**
+     * Return the status code for an exception.
+     *
+     * @param exception exception
+     * @return status code
+     */
+    public HttpStatusCode getStatusCode(final Exception exception) {
+        return resolvedStatusCodes.get(exception.getClass());
+    }
+}
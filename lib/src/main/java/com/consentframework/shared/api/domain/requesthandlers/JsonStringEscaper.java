@@ -0,0 +1,79 @@
+package com.consentframework.shared.api.domain.requesthandlers;
+
+/**
+ * Escapes strings for embedding in JSON string literals.
+ *
+ * Produces the same escapes as the consent models ObjectMapper: quotation marks, reverse solidi
+ * and control characters are escaped, using the short forms for backspace, form feed, newline,
+ * carriage return and tab.  Strings without characters to escape are returned as is.
+ */
+public final class JsonStringEscaper {
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private JsonStringEscaper() {}
+
+    /**
+     * Escape a string for embedding between the quotation marks of a JSON string literal.
+     *
+     * @param value string to escape
+     * @return escaped string, or the original string if it has no characters to escape
+     */
+    public static String escape(final String value) {
+        final int firstEscapeIndex = indexOfFirstEscape(value);
+        if (firstEscapeIndex < 0) {
+            return value;
+        }
+
+        final StringBuilder escaped = new StringBuilder(value.length() + 16);
+        escaped.append(value, 0, firstEscapeIndex);
+        for (int index = firstEscapeIndex; index < value.length(); index++) {
+            appendEscaped(escaped, value.charAt(index));
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Append a string to the builder as a quoted JSON string literal.
+     *
+     * @param builder builder to append to
+     * @param value string to append
+     * @return the builder
+     */
+    public static StringBuilder appendQuoted(final StringBuilder builder, final String value) {
+        builder.append('"');
+        for (int index = 0; index < value.length(); index++) {
+            appendEscaped(builder, value.charAt(index));
+        }
+        return builder.append('"');
+    }
+
+    private static int indexOfFirstEscape(final String value) {
+        for (int index = 0; index < value.length(); index++) {
+            if (requiresEscape(value.charAt(index))) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean requiresEscape(final char character) {
+        return character < 0x20 || character == '"' || character == '\\';
+    }
+
+    private static void appendEscaped(final StringBuilder builder, final char character) {
+        if (!requiresEscape(character)) {
+            builder.append(character);
+            return;
+        }
+        switch (character) {
+            case '"' -> builder.append("\\\"");
+            case '\\' -> builder.append("\\\\");
+            case '\b' -> builder.append("\\b");
+            case '\f' -> builder.append("\\f");
+            case '\n' -> builder.append("\\n");
+            case '\r' -> builder.append("\\r");
+            case '\t' -> builder.append("\\t");
+            default -> builder.append("\\u00").append(HEX_DIGITS[character >> 4]).append(HEX_DIGITS[character & 0xF]);
+        }
+    }
+}
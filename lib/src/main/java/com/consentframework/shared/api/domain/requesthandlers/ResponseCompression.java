@@ -0,0 +1,189 @@
+package com.consentframework.shared.api.domain.requesthandlers;
+
+import com.consentframework.shared.api.domain.entities.ApiRequest;
+import com.consentframework.shared.api.domain.entities.ApiResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Controls when an ApiRequestHandler gzip-compresses response bodies.
+ *
+ * A response body is compressed when it is at least the minimum length and the request's
+ * Accept-Encoding header accepts gzip, then returned Base 64 encoded for API Gateway to decode.
+ * Small bodies are returned as is, since compressing them saves little and Base 64 encoding adds a
+ * third to the compressed size, and so is any body that Base 64 encoded compression would not shrink.
+ * Any body of at least the minimum length gets a Vary: Accept-Encoding header, compressed or not, since
+ * whether it is compressed depends on the request's Accept-Encoding header.
+ */
+public final class ResponseCompression {
+    public static final int DEFAULT_MIN_BODY_LENGTH = 1024;
+
+    private static final ResponseCompression DEFAULTS = new ResponseCompression(DEFAULT_MIN_BODY_LENGTH);
+    private static final ResponseCompression DISABLED = new ResponseCompression(Integer.MAX_VALUE);
+    private static final String GZIP_ALIAS = "x-gzip";
+    private static final String WILDCARD = "*";
+
+    private final int minBodyLength;
+
+    private ResponseCompression(final int minBodyLength) {
+        this.minBodyLength = minBodyLength;
+    }
+
+    /**
+     * Return a policy compressing bodies of at least DEFAULT_MIN_BODY_LENGTH characters.
+     *
+     * @return response compression
+     */
+    public static ResponseCompression defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Return a policy that never compresses bodies.
+     *
+     * @return response compression
+     */
+    public static ResponseCompression disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Return a policy compressing bodies of at least the given length.
+     *
+     * @param minBodyLength minimum body length in characters
+     * @return response compression
+     */
+    public static ResponseCompression forBodiesOfAtLeast(final int minBodyLength) {
+        if (minBodyLength < 0) {
+            throw new IllegalArgumentException(String.format("minBodyLength must not be negative, was %d", minBodyLength));
+        }
+        return new ResponseCompression(minBodyLength);
+    }
+
+    /**
+     * Compress a response body if large enough and accepted by the request.
+     *
+     * @param request API request
+     * @param response uncompressed API response
+     * @return compressed API response, the uncompressed response with a Vary header if large enough to compress,
+     *     or else the given response
+     */
+    public ApiResponse compress(final ApiRequest request, final ApiResponse response) {
+        final String body = response.body();
+        if (body == null || response.isBase64Encoded() || !isCompressible(body.length())) {
+            return response;
+        }
+        if (acceptsGzip(request)) {
+            final String encodedBody = Base64.getEncoder().encodeToString(gzip(body));
+            if (encodedBody.length() < body.length()) {
+                final Map<String, String> headers = (response.headers() == null) ? Map.of() : response.headers();
+                return new ApiResponse(response.statusCode(), ResponseHeaders.withGzipEncoding(headers), encodedBody, true);
+            }
+        }
+        return new ApiResponse(response.statusCode(), ResponseHeaders.withVaryAcceptEncoding(response.headers()), body);
+    }
+
+    /**
+     * Return whether a body of the given length is large enough to be compressed for requests accepting gzip,
+     * in which case its response should vary by Accept-Encoding whether or not it is compressed.
+     *
+     * @param bodyLength body length, in characters or, for bodies written directly as UTF-8, bytes
+     * @return true if the body is at least the minimum length
+     */
+    public boolean isCompressible(final int bodyLength) {
+        return bodyLength >= minBodyLength;
+    }
+
+    /**
+     * Return whether a body of the given length should be compressed for a request.
+     *
+     * @param request API request
+     * @param bodyLength body length, in characters or, for bodies written directly as UTF-8, bytes
+     * @return true if the body is large enough and the request accepts gzip
+     */
+    public boolean shouldCompress(final ApiRequest request, final int bodyLength) {
+        return isCompressible(bodyLength) && acceptsGzip(request);
+    }
+
+    /**
+     * Return whether a request's Accept-Encoding header accepts gzip, explicitly or by wildcard, with a non-zero quality.
+     *
+     * @param request API request
+     * @return true if gzip is accepted
+     */
+    static boolean acceptsGzip(final ApiRequest request) {
+        final String acceptEncoding = (request == null) ? null : findHeader(request.headers(), ResponseHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        double gzipQuality = -1;
+        double wildcardQuality = -1;
+        for (final String coding : acceptEncoding.split(",")) {
+            final int parametersStart = coding.indexOf(';');
+            final String name = ((parametersStart < 0) ? coding : coding.substring(0, parametersStart)).trim();
+            if (name.equalsIgnoreCase(ResponseHeaders.GZIP) || name.equalsIgnoreCase(GZIP_ALIAS)) {
+                gzipQuality = parseQuality(coding, parametersStart);
+            } else if (name.equals(WILDCARD)) {
+                wildcardQuality = parseQuality(coding, parametersStart);
+            }
+        }
+        return (gzipQuality >= 0) ? gzipQuality > 0 : wildcardQuality > 0;
+    }
+
+    /**
+     * Find a header value, matching the header name case-insensitively.
+     */
+    private static String findHeader(final Map<String, Object> headers, final String name) {
+        if (headers == null) {
+            return null;
+        }
+        Object value = headers.get(name);
+        if (value == null) {
+            for (final Map.Entry<String, Object> header : headers.entrySet()) {
+                if (name.equalsIgnoreCase(header.getKey())) {
+                    value = header.getValue();
+                    break;
+                }
+            }
+        }
+        return (value == null) ? null : value.toString();
+    }
+
+    /**
+     * Parse a coding's quality value, eg. 0.5 from "gzip;q=0.5", defaulting to 1 and treating invalid values as 0.
+     */
+    private static double parseQuality(final String coding, final int parametersStart) {
+        if (parametersStart < 0) {
+            return 1;
+        }
+        for (final String parameter : coding.substring(parametersStart + 1).split(";")) {
+            final String trimmedParameter = parameter.trim();
+            if (trimmedParameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(trimmedParameter.substring(2));
+                } catch (final NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static byte[] gzip(final String body) {
+        final byte[] bodyBytes = body.getBytes(StandardCharsets.UTF_8);
+        final ByteArrayOutputStream compressedBody = new ByteArrayOutputStream(bodyBytes.length / 4 + 64);
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressedBody)) {
+            gzipStream.write(bodyBytes);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressedBody.toByteArray();
+    }
+}
@@ -0,0 +1,109 @@
+package com.consentframework.shared.api.domain.requesthandlers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Response header names, values and shared immutable header maps.
+ *
+ * Handlers should return the shared maps rather than building equal maps per response.  Compressed
+ * responses use the gzip variants of the shared maps, which add Content-Encoding and Vary headers, and
+ * responses large enough to have been compressed but sent uncompressed use the Vary variants, so caches
+ * don't serve an uncompressed copy to clients accepting gzip or a compressed copy to clients that don't.
+ * Accept-Encoding is appended to any Vary header the response already has, eg. Vary: Origin.
+ */
+public final class ResponseHeaders {
+    public static final String ACCEPT_ENCODING = "Accept-Encoding";
+    public static final String CACHE_CONTROL = "Cache-Control";
+    public static final String CONTENT_ENCODING = "Content-Encoding";
+    public static final String CONTENT_TYPE = "Content-Type";
+    public static final String VARY = "Vary";
+
+    public static final String APPLICATION_JSON = "application/json";
+    public static final String GZIP = "gzip";
+    public static final String NO_STORE = "no-store";
+
+    /**
+     * JSON content type.
+     */
+    public static final Map<String, String> JSON = Map.of(CONTENT_TYPE, APPLICATION_JSON);
+
+    /**
+     * JSON content type, not to be stored by caches, eg. for responses containing a user's consents.
+     */
+    public static final Map<String, String> JSON_NO_STORE = Map.of(CONTENT_TYPE, APPLICATION_JSON, CACHE_CONTROL, NO_STORE);
+
+    private static final Map<Map<String, String>, Map<String, String>> GZIP_VARIANTS = Map.of(
+        JSON, addGzipEncoding(JSON),
+        JSON_NO_STORE, addGzipEncoding(JSON_NO_STORE));
+    private static final Map<Map<String, String>, Map<String, String>> VARY_VARIANTS = Map.of(
+        JSON, addVaryAcceptEncoding(JSON),
+        JSON_NO_STORE, addVaryAcceptEncoding(JSON_NO_STORE));
+
+    private ResponseHeaders() {}
+
+    /**
+     * Return headers for a gzip-compressed response, reusing the shared map for the shared headers.
+     *
+     * @param headers headers of the uncompressed response
+     * @return immutable headers with Content-Encoding gzip and Accept-Encoding added to Vary
+     */
+    public static Map<String, String> withGzipEncoding(final Map<String, String> headers) {
+        final Map<String, String> sharedHeaders = GZIP_VARIANTS.get(headers);
+        return (sharedHeaders == null) ? addGzipEncoding(headers) : sharedHeaders;
+    }
+
+    /**
+     * Return headers for an uncompressed response that would have been compressed had the request accepted gzip,
+     * reusing the shared map for the shared headers.
+     *
+     * @param headers headers of the uncompressed response, or null for none
+     * @return immutable headers with Accept-Encoding added to Vary
+     */
+    public static Map<String, String> withVaryAcceptEncoding(final Map<String, String> headers) {
+        if (headers == null) {
+            return addVaryAcceptEncoding(Map.of());
+        }
+        final Map<String, String> sharedHeaders = VARY_VARIANTS.get(headers);
+        return (sharedHeaders == null) ? addVaryAcceptEncoding(headers) : sharedHeaders;
+    }
+
+    private static Map<String, String> addGzipEncoding(final Map<String, String> headers) {
+        final Map<String, String> gzipHeaders = new HashMap<>(headers);
+        gzipHeaders.put(CONTENT_ENCODING, GZIP);
+        putVaryAcceptEncoding(gzipHeaders);
+        return Map.copyOf(gzipHeaders);
+    }
+
+    private static Map<String, String> addVaryAcceptEncoding(final Map<String, String> headers) {
+        final Map<String, String> varyHeaders = new HashMap<>(headers);
+        putVaryAcceptEncoding(varyHeaders);
+        return Map.copyOf(varyHeaders);
+    }
+
+    /**
+     * Add Accept-Encoding to the Vary header, keeping the fields and header name casing it already has.
+     */
+    private static void putVaryAcceptEncoding(final Map<String, String> headers) {
+        for (final Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(VARY)) {
+                header.setValue(appendAcceptEncoding(header.getValue()));
+                return;
+            }
+        }
+        headers.put(VARY, ACCEPT_ENCODING);
+    }
+
+    private static String appendAcceptEncoding(final String vary) {
+        if (vary == null || vary.isBlank()) {
+            return ACCEPT_ENCODING;
+        }
+        for (final String field : vary.split(",")) {
+            final String trimmedField = field.trim();
+            if (trimmedField.equalsIgnoreCase(ACCEPT_ENCODING) || trimmedField.equals("*")) {
+                return vary;
+            }
+        }
+        return vary + ", " + ACCEPT_ENCODING;
+    }
+}
@@ -0,0 +1,17 @@
+package com.consentframework.shared.api.infrastructure.batchwrite;
+
+/**
+ * DynamoDB API used by a ConsentBatchWriter to write each batch.
+ */
+public enum ConsentBatchWriteMode {
+    /**
+     * Write each batch with BatchWriteItem, retrying UnprocessedItems.  Items are not written atomically.
+     */
+    BATCH_WRITE_ITEM,
+
+    /**
+     * Write each batch with TransactWriteItems, so each batch of consents and history events is written atomically.
+     * Consumes twice the write capacity of BATCH_WRITE_ITEM.
+     */
+    TRANSACT_WRITE_ITEMS
+}
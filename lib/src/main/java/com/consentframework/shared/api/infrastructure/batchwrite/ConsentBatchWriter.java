@@ -0,0 +1,347 @@
+package com.consentframework.shared.api.infrastructure.batchwrite;
+
+import com.consentframework.shared.api.domain.exceptions.InternalServiceException;
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbConsentHistory;
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbServiceUserConsent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.random.RandomGenerator;
+
+/**
+ * Writes ServiceUserConsent items and ConsentHistory events in batches, eg. for bulk imports.
+ *
+ * Mutations are coalesced into batches of up to 25 items, the BatchWriteItem and TransactWriteItems limit,
+ * keeping each consent with its history event.  Full batches are written on virtual threads, with at most
+ * maxInFlightBatches written at once; further writes block until a batch completes, so producers run at
+ * table capacity rather than buffering without bound.
+ *
+ * BatchWriteItem UnprocessedItems, and TransactWriteItems cancellations caused only by throttling or
+ * transaction conflicts, are retried with exponential backoff and full jitter.  Batches that still fail
+ * are reported by the next flush.  A batch containing a consent still being written by an earlier batch
+ * waits for that batch to complete, so mutations of the same consent are written in order and the
+ * latest one wins.  Writes are rejected once the writer is closed.
+ */
+public class ConsentBatchWriter implements AutoCloseable {
+    public static final int MAX_BATCH_ITEMS = 25;
+
+    private static final Logger logger = LogManager.getLogger(ConsentBatchWriter.class);
+    private static final Set<String> RETRYABLE_CANCELLATION_CODES = Set.of("None", "ThrottlingError", "TransactionConflict");
+
+    private final DynamoDbClient dynamoDbClient;
+    private final TableSchema<DynamoDbServiceUserConsent> consentTableSchema;
+    private final TableSchema<DynamoDbConsentHistory> consentHistoryTableSchema;
+    private final ConsentBatchWriterSettings settings;
+    private final RandomGenerator random;
+    private final Sleeper sleeper;
+
+    private final ExecutorService executor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("consent-batch-writer-", 0).factory());
+    private final Semaphore inFlightBatches;
+    private final AtomicLong writtenItemCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong failedItemCount = new AtomicLong();
+    private final AtomicReference<Exception> firstFailure = new AtomicReference<>();
+
+    /**
+     * Completion latch of the latest in-flight batch writing each consent.
+     */
+    private final Map<String, CountDownLatch> inFlightConsentBatches = new ConcurrentHashMap<>();
+
+    private List<PendingWrite> batch = new ArrayList<>(MAX_BATCH_ITEMS);
+    private Set<String> batchConsentIds = new HashSet<>();
+    private boolean closed;
+
+    /**
+     * Construct a batch writer with the default table schemas.
+     *
+     * @param dynamoDbClient DynamoDB client
+     * @param settings batch writer settings
+     */
+    public ConsentBatchWriter(final DynamoDbClient dynamoDbClient, final ConsentBatchWriterSettings settings) {
+        this(dynamoDbClient, TableSchema.fromImmutableClass(DynamoDbServiceUserConsent.class),
+            TableSchema.fromImmutableClass(DynamoDbConsentHistory.class), settings);
+    }
+
+    /**
+     * Construct a batch writer.
+     *
+     * @param dynamoDbClient DynamoDB client
+     * @param consentTableSchema ServiceUserConsent table schema
+     * @param consentHistoryTableSchema ConsentHistory table schema, eg. from DynamoDbConsentHistoryTableSchema
+     * @param settings batch writer settings
+     */
+    public ConsentBatchWriter(final DynamoDbClient dynamoDbClient, final TableSchema<DynamoDbServiceUserConsent> consentTableSchema,
+            final TableSchema<DynamoDbConsentHistory> consentHistoryTableSchema, final ConsentBatchWriterSettings settings) {
+        this(dynamoDbClient, consentTableSchema, consentHistoryTableSchema, settings, new Random(), Thread::sleep);
+    }
+
+    ConsentBatchWriter(final DynamoDbClient dynamoDbClient, final TableSchema<DynamoDbServiceUserConsent> consentTableSchema,
+            final TableSchema<DynamoDbConsentHistory> consentHistoryTableSchema, final ConsentBatchWriterSettings settings,
+            final RandomGenerator random, final Sleeper sleeper) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.consentTableSchema = consentTableSchema;
+        this.consentHistoryTableSchema = consentHistoryTableSchema;
+        this.settings = settings;
+        this.random = random;
+        this.sleeper = sleeper;
+        this.inFlightBatches = new Semaphore(settings.maxInFlightBatches());
+    }
+
+    /**
+     * Add a consent mutation to the current batch, writing the batch once full.
+     *
+     * @param mutation consent and history event to write
+     * @throws InterruptedException exception thrown if interrupted while waiting for an in-flight batch to complete
+     * @throws IllegalStateException exception thrown if the writer is closed
+     */
+    public synchronized void write(final ConsentMutation mutation) throws InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("ConsentBatchWriter is closed");
+        }
+        final String consentId = mutation.consent().id();
+        if (batch.size() + 2 > MAX_BATCH_ITEMS || batchConsentIds.contains(consentId)) {
+            submitBatch();
+        }
+        batch.add(new PendingWrite(DynamoDbServiceUserConsent.TABLE_NAME, consentTableSchema.itemToMap(mutation.consent(), true)));
+        batch.add(new PendingWrite(DynamoDbConsentHistory.TABLE_NAME,
+            consentHistoryTableSchema.itemToMap(mutation.consentHistory(), true)));
+        batchConsentIds.add(consentId);
+    }
+
+    /**
+     * Write the current partial batch and wait for all in-flight batches to complete.
+     *
+     * @throws InternalServiceException exception thrown if any batch since the last flush could not be written
+     * @throws InterruptedException exception thrown if interrupted while waiting for in-flight batches
+     */
+    public synchronized void flush() throws InternalServiceException, InterruptedException {
+        submitBatch();
+        inFlightBatches.acquire(settings.maxInFlightBatches());
+        inFlightBatches.release(settings.maxInFlightBatches());
+
+        final Exception failure = firstFailure.getAndSet(null);
+        final long failedItems = failedItemCount.getAndSet(0);
+        if (failure != null) {
+            throw new InternalServiceException(String.format("Unable to write %d consent items", failedItems), failure);
+        }
+    }
+
+    /**
+     * Flush remaining mutations and stop the writer.
+     *
+     * @throws InternalServiceException exception thrown if any batch since the last flush could not be written,
+     *     or if interrupted while waiting for in-flight batches
+     */
+    @Override
+    public synchronized void close() throws InternalServiceException {
+        closed = true;
+        try {
+            flush();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalServiceException("Interrupted while flushing consent batches", e);
+        } finally {
+            executor.close();
+        }
+    }
+
+    /**
+     * Return the number of items written since the writer was created.
+     *
+     * @return written item count
+     */
+    public long getWrittenItemCount() {
+        return writtenItemCount.get();
+    }
+
+    /**
+     * Return the number of retried BatchWriteItem and TransactWriteItems requests since the writer was created.
+     *
+     * @return retry count
+     */
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    /**
+     * Return the number of batches currently being written.
+     *
+     * @return in-flight batch count, at most maxInFlightBatches
+     */
+    public int getInFlightBatchCount() {
+        return settings.maxInFlightBatches() - inFlightBatches.availablePermits();
+    }
+
+    private void submitBatch() throws InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        final List<PendingWrite> fullBatch = batch;
+        final Set<String> consentIds = batchConsentIds;
+        batch = new ArrayList<>(MAX_BATCH_ITEMS);
+        batchConsentIds = new HashSet<>();
+
+        for (final String consentId : consentIds) {
+            final CountDownLatch earlierBatchWritten = inFlightConsentBatches.get(consentId);
+            if (earlierBatchWritten != null) {
+                earlierBatchWritten.await();
+            }
+        }
+        inFlightBatches.acquire();
+        final CountDownLatch batchWritten = new CountDownLatch(1);
+        for (final String consentId : consentIds) {
+            inFlightConsentBatches.put(consentId, batchWritten);
+        }
+        executor.execute(() -> {
+            try {
+                writeBatch(fullBatch);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                recordFailure(fullBatch.size(), e);
+            } catch (final RuntimeException e) {
+                recordFailure(fullBatch.size(), e);
+            } finally {
+                for (final String consentId : consentIds) {
+                    inFlightConsentBatches.remove(consentId, batchWritten);
+                }
+                batchWritten.countDown();
+                inFlightBatches.release();
+            }
+        });
+    }
+
+    private void writeBatch(final List<PendingWrite> pendingWrites) throws InterruptedException {
+        if (settings.mode() == ConsentBatchWriteMode.TRANSACT_WRITE_ITEMS) {
+            transactWriteItems(pendingWrites);
+        } else {
+            batchWriteItems(pendingWrites);
+        }
+    }
+
+    private void batchWriteItems(final List<PendingWrite> pendingWrites) throws InterruptedException {
+        Map<String, List<WriteRequest>> requestItems = new HashMap<>();
+        for (final PendingWrite pendingWrite : pendingWrites) {
+            requestItems.computeIfAbsent(pendingWrite.tableName(), tableName -> new ArrayList<>())
+                .add(WriteRequest.builder().putRequest(PutRequest.builder().item(pendingWrite.item()).build()).build());
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            final Map<String, List<WriteRequest>> attemptItems = requestItems;
+            final BatchWriteItemResponse response = dynamoDbClient.batchWriteItem(request -> request.requestItems(attemptItems));
+            final Map<String, List<WriteRequest>> unprocessedItems = response.unprocessedItems();
+            final int unprocessedItemCount = countItems(unprocessedItems);
+            writtenItemCount.addAndGet(countItems(attemptItems) - unprocessedItemCount);
+            if (unprocessedItemCount == 0) {
+                return;
+            }
+            if (attempt == settings.maxAttempts()) {
+                recordFailure(unprocessedItemCount, new IllegalStateException(String.format(
+                    "%d items were still unprocessed after %d BatchWriteItem attempts", unprocessedItemCount, attempt)));
+                return;
+            }
+            backoff(attempt);
+            requestItems = unprocessedItems;
+        }
+    }
+
+    private void transactWriteItems(final List<PendingWrite> pendingWrites) throws InterruptedException {
+        final List<TransactWriteItem> transactItems = new ArrayList<>(pendingWrites.size());
+        for (final PendingWrite pendingWrite : pendingWrites) {
+            transactItems.add(TransactWriteItem.builder()
+                .put(Put.builder().tableName(pendingWrite.tableName()).item(pendingWrite.item()).build())
+                .build());
+        }
+        // Retries reuse the client request token, so a retry of a transaction that did succeed is idempotent
+        final TransactWriteItemsRequest request = TransactWriteItemsRequest.builder()
+            .transactItems(transactItems)
+            .clientRequestToken(UUID.randomUUID().toString())
+            .build();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                dynamoDbClient.transactWriteItems(request);
+                writtenItemCount.addAndGet(transactItems.size());
+                return;
+            } catch (final TransactionCanceledException e) {
+                if (attempt == settings.maxAttempts() || !isRetryable(e)) {
+                    throw e;
+                }
+            }
+            backoff(attempt);
+        }
+    }
+
+    private static boolean isRetryable(final TransactionCanceledException exception) {
+        return exception.hasCancellationReasons() && exception.cancellationReasons().stream()
+            .map(CancellationReason::code)
+            .allMatch(RETRYABLE_CANCELLATION_CODES::contains);
+    }
+
+    /**
+     * Sleep for a random duration up to the exponential backoff for the attempt, ie. "full jitter".
+     */
+    private void backoff(final int attempt) throws InterruptedException {
+        retryCount.incrementAndGet();
+        final long baseBackoffMillis = settings.baseBackoff().toMillis();
+        final long maxBackoffMillis = settings.maxBackoff().toMillis();
+        final int shift = attempt - 1;
+        final long backoffMillis = (shift >= Long.numberOfLeadingZeros(baseBackoffMillis))
+            ? maxBackoffMillis
+            : Math.min(maxBackoffMillis, baseBackoffMillis << shift);
+        sleeper.sleep(random.nextLong(backoffMillis + 1));
+    }
+
+    private void recordFailure(final int itemCount, final Exception failure) {
+        logger.warn("Unable to write {} consent items: {}", itemCount, failure.getMessage());
+        failedItemCount.addAndGet(itemCount);
+        firstFailure.compareAndSet(null, failure);
+    }
+
+    private static int countItems(final Map<String, List<WriteRequest>> requestItems) {
+        int itemCount = 0;
+        for (final List<WriteRequest> tableRequests : requestItems.values()) {
+            itemCount += tableRequests.size();
+        }
+        return itemCount;
+    }
+
+    /**
+     * An item to put into a table.
+     */
+    private record PendingWrite(String tableName, Map<String, AttributeValue> item) {}
+
+    /**
+     * Sleeps between retries, replaceable in tests.
+     */
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+}
@@ -0,0 +1,81 @@
+package com.consentframework.shared.api.infrastructure.batchwrite;
+
+import java.time.Duration;
+
+/**
+ * Settings for a ConsentBatchWriter.
+ *
+ * @param mode DynamoDB API used to write batches
+ * @param maxInFlightBatches maximum number of batches written at once, after which writes block
+ * @param maxAttempts maximum number of attempts to write a batch, including retries of unprocessed items
+ * @param baseBackoff backoff before the first retry, doubling on each later retry
+ * @param maxBackoff maximum backoff before a retry
+ */
+public record ConsentBatchWriterSettings(
+    ConsentBatchWriteMode mode,
+    int maxInFlightBatches,
+    int maxAttempts,
+    Duration baseBackoff,
+    Duration maxBackoff
+) {
+    public static final int DEFAULT_MAX_IN_FLIGHT_BATCHES = 4;
+    public static final int DEFAULT_MAX_ATTEMPTS = 8;
+    public static final Duration DEFAULT_BASE_BACKOFF = Duration.ofMillis(25);
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(5);
+
+    /**
+     * Validate settings.
+     *
+     * @throws IllegalArgumentException exception thrown if a limit is not positive or a backoff is negative
+     */
+    public ConsentBatchWriterSettings {
+        if (mode == null || maxInFlightBatches < 1 || maxAttempts < 1
+                || baseBackoff.isNegative() || maxBackoff.compareTo(baseBackoff) < 0) {
+            throw new IllegalArgumentException(String.format(
+                "Invalid batch writer settings: mode %s, maxInFlightBatches %d, maxAttempts %d, baseBackoff %s, maxBackoff %s",
+                mode, maxInFlightBatches, maxAttempts, baseBackoff, maxBackoff));
+        }
+    }
+
+    /**
+     * Build the default settings, writing with BatchWriteItem.
+     *
+     * @return default settings
+     */
+    public static ConsentBatchWriterSettings defaults() {
+        return new ConsentBatchWriterSettings(ConsentBatchWriteMode.BATCH_WRITE_ITEM, DEFAULT_MAX_IN_FLIGHT_BATCHES,
+            DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_BACKOFF, DEFAULT_MAX_BACKOFF);
+    }
+
+    /**
+     * Return a copy of these settings with the given write mode.
+     *
+     * @param writeMode DynamoDB API used to write batches
+     * @return updated settings
+     */
+    public ConsentBatchWriterSettings withMode(final ConsentBatchWriteMode writeMode) {
+        return new ConsentBatchWriterSettings(writeMode, maxInFlightBatches, maxAttempts, baseBackoff, maxBackoff);
+    }
+
+    /**
+     * Return a copy of these settings with the given maximum number of in-flight batches.
+     *
+     * @param inFlightBatches maximum number of batches written at once
+     * @return updated settings
+     */
+    public ConsentBatchWriterSettings withMaxInFlightBatches(final int inFlightBatches) {
+        return new ConsentBatchWriterSettings(mode, inFlightBatches, maxAttempts, baseBackoff, maxBackoff);
+    }
+
+    /**
+     * Return a copy of these settings with the given retry limit and backoff.
+     *
+     * @param attempts maximum number of attempts to write a batch
+     * @param base backoff before the first retry
+     * @param max maximum backoff before a retry
+     * @return updated settings
+     */
+    public ConsentBatchWriterSettings withRetries(final int attempts, final Duration base, final Duration max) {
+        return new ConsentBatchWriterSettings(mode, maxInFlightBatches, attempts, base, max);
+    }
+}
@@ -0,0 +1,12 @@
+package com.consentframework.shared.api.infrastructure.batchwrite;
+
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbConsentHistory;
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbServiceUserConsent;
+
+/**
+ * A consent mutation to write: the new ServiceUserConsent item and the ConsentHistory event recording the change.
+ *
+ * @param consent ServiceUserConsent item
+ * @param consentHistory ConsentHistory event item
+ */
+public record ConsentMutation(DynamoDbServiceUserConsent consent, DynamoDbConsentHistory consentHistory) {}
@@ -0,0 +1,161 @@
+package com.consentframework.shared.api.infrastructure.caching;
+
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbServiceUserConsent;
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded read-through cache of ServiceUserConsent items, keyed by partition key.
+ *
+ * Consents are reloaded after timeToLive, and not-found results are cached for the shorter
+ * notFoundTimeToLive so that a consent created by another host is seen soon after.  Concurrent
+ * misses for the same consent share a single load.  The least recently used entries are evicted
+ * once maximumSize is reached.
+ *
+ * Writers should pass updated consents to put, or their partition key and new consentVersion to
+ * invalidate, so this host never serves an older consentVersion than it has written.  Version
+ * checks make both safe to call with out-of-order updates, eg. from a DynamoDB stream.
+ */
+public class ServiceUserConsentCache {
+    private final ServiceUserConsentLoader loader;
+    private final Ticker ticker;
+    private final long notFoundTimeToLiveNanos;
+    private final LoadingCache<String, CachedConsent> cache;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder negativeHitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+
+    /**
+     * Construct a consent cache.
+     *
+     * @param loader reads consents on cache misses, eg. ServiceUserConsentLoader.fromTable(table)
+     * @param settings cache settings
+     */
+    public ServiceUserConsentCache(final ServiceUserConsentLoader loader, final ServiceUserConsentCacheSettings settings) {
+        this(loader, settings, Ticker.systemTicker());
+    }
+
+    ServiceUserConsentCache(final ServiceUserConsentLoader loader, final ServiceUserConsentCacheSettings settings, final Ticker ticker) {
+        this.loader = loader;
+        this.ticker = ticker;
+        this.notFoundTimeToLiveNanos = settings.notFoundTimeToLive().toNanos();
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(settings.maximumSize())
+            .expireAfterWrite(settings.timeToLive().toNanos(), TimeUnit.NANOSECONDS)
+            .ticker(ticker)
+            .recordStats()
+            .build(CacheLoader.from(this::load));
+    }
+
+    /**
+     * Read a consent, loading it on a cache miss.
+     *
+     * @param id ServiceUserConsent partition key, ie. "ServiceId|UserId|ConsentId"
+     * @return consent, or empty if not found
+     */
+    public Optional<DynamoDbServiceUserConsent> get(final String id) {
+        final CachedConsent cachedConsent = cache.getIfPresent(id);
+        if (cachedConsent != null && isFresh(cachedConsent)) {
+            hitCount.increment();
+            if (cachedConsent.consent() == null) {
+                negativeHitCount.increment();
+            }
+            return Optional.ofNullable(cachedConsent.consent());
+        }
+
+        missCount.increment();
+        if (cachedConsent != null) {
+            cache.asMap().remove(id, cachedConsent);
+        }
+        try {
+            return Optional.ofNullable(cache.getUnchecked(id).consent());
+        } catch (final UncheckedExecutionException | ExecutionError e) {
+            // Loads do not throw checked exceptions, so rethrow the loader's exception as is
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    /**
+     * Cache a written consent, unless a newer consentVersion is already cached.
+     *
+     * @param consent written consent
+     */
+    public void put(final DynamoDbServiceUserConsent consent) {
+        final CachedConsent writtenConsent = new CachedConsent(consent, ticker.read());
+        cache.asMap().merge(consent.id(), writtenConsent,
+            (cached, written) -> isNewerThan(cached, consent.consentVersion()) ? cached : written);
+    }
+
+    /**
+     * Evict a consent, unless its cached consentVersion is at least the given version.
+     *
+     * @param id ServiceUserConsent partition key
+     * @param consentVersion written consentVersion
+     */
+    public void invalidate(final String id, final int consentVersion) {
+        cache.asMap().computeIfPresent(id, (key, cached) -> isNewerThan(cached, consentVersion - 1) ? cached : null);
+    }
+
+    /**
+     * Evict a consent, eg. after it is deleted.
+     *
+     * @param id ServiceUserConsent partition key
+     */
+    public void invalidate(final String id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Return the approximate number of cached consents and not-found results.
+     *
+     * @return cache size
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Return cache metrics, eg. to publish as CloudWatch metrics.
+     *
+     * @return metrics since the cache was created
+     */
+    public ServiceUserConsentCacheStats getStats() {
+        return new ServiceUserConsentCacheStats(hitCount.sum(), negativeHitCount.sum(), missCount.sum(), loadFailureCount.sum(),
+            cache.stats().evictionCount());
+    }
+
+    private CachedConsent load(final String id) {
+        try {
+            return new CachedConsent(loader.load(id).orElse(null), ticker.read());
+        } catch (final RuntimeException | Error e) {
+            loadFailureCount.increment();
+            throw e;
+        }
+    }
+
+    private boolean isFresh(final CachedConsent cachedConsent) {
+        return cachedConsent.consent() != null || ticker.read() - cachedConsent.cachedAtNanos() < notFoundTimeToLiveNanos;
+    }
+
+    private static boolean isNewerThan(final CachedConsent cachedConsent, final int consentVersion) {
+        return cachedConsent.consent() != null && cachedConsent.consent().consentVersion() > consentVersion;
+    }
+
+    /**
+     * A cached consent, or a cached not-found result if consent is null.
+     */
+    private record CachedConsent(DynamoDbServiceUserConsent consent, long cachedAtNanos) {}
+}
@@ -0,0 +1,61 @@
+package com.consentframework.shared.api.infrastructure.caching;
+
+import java.time.Duration;
+
+/**
+ * Settings for a ServiceUserConsentCache.
+ *
+ * @param maximumSize maximum number of cached consents and not-found results
+ * @param timeToLive time after which a cached consent is reloaded
+ * @param notFoundTimeToLive time after which a cached not-found result is reloaded
+ */
+public record ServiceUserConsentCacheSettings(long maximumSize, Duration timeToLive, Duration notFoundTimeToLive) {
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(1);
+    public static final Duration DEFAULT_NOT_FOUND_TIME_TO_LIVE = Duration.ofSeconds(5);
+
+    /**
+     * Validate settings.
+     *
+     * @throws IllegalArgumentException exception thrown if the size is not positive, a time to live is not positive,
+     *     or notFoundTimeToLive exceeds timeToLive
+     */
+    public ServiceUserConsentCacheSettings {
+        if (maximumSize < 1 || !timeToLive.isPositive() || !notFoundTimeToLive.isPositive()
+                || notFoundTimeToLive.compareTo(timeToLive) > 0) {
+            throw new IllegalArgumentException(String.format(
+                "Invalid consent cache settings: maximumSize %d, timeToLive %s, notFoundTimeToLive %s",
+                maximumSize, timeToLive, notFoundTimeToLive));
+        }
+    }
+
+    /**
+     * Build the default settings.
+     *
+     * @return default settings
+     */
+    public static ServiceUserConsentCacheSettings defaults() {
+        return new ServiceUserConsentCacheSettings(DEFAULT_MAXIMUM_SIZE, DEFAULT_TIME_TO_LIVE, DEFAULT_NOT_FOUND_TIME_TO_LIVE);
+    }
+
+    /**
+     * Return a copy of these settings with the given maximum size.
+     *
+     * @param size maximum number of cached entries
+     * @return updated settings
+     */
+    public ServiceUserConsentCacheSettings withMaximumSize(final long size) {
+        return new ServiceUserConsentCacheSettings(size, timeToLive, notFoundTimeToLive);
+    }
+
+    /**
+     * Return a copy of these settings with the given times to live.
+     *
+     * @param found time after which a cached consent is reloaded
+     * @param notFound time after which a cached not-found result is reloaded
+     * @return updated settings
+     */
+    public ServiceUserConsentCacheSettings withTimeToLive(final Duration found, final Duration notFound) {
+        return new ServiceUserConsentCacheSettings(maximumSize, found, notFound);
+    }
+}
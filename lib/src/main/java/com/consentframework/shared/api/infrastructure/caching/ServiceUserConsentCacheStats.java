@@ -0,0 +1,28 @@
+package com.consentframework.shared.api.infrastructure.caching;
+
+/**
+ * ServiceUserConsentCache metrics since the cache was created.
+ *
+ * @param hitCount number of reads served from the cache, including negativeHitCount
+ * @param negativeHitCount number of reads served from a cached not-found result
+ * @param missCount number of reads that loaded the consent, or waited for a concurrent load
+ * @param loadFailureCount number of loads that threw an exception
+ * @param evictionCount number of entries evicted due to size or expiry
+ */
+public record ServiceUserConsentCacheStats(
+    long hitCount,
+    long negativeHitCount,
+    long missCount,
+    long loadFailureCount,
+    long evictionCount
+) {
+    /**
+     * Return the fraction of reads served from the cache.
+     *
+     * @return hit rate, or 1.0 if there have been no reads
+     */
+    public double hitRate() {
+        final long requestCount = hitCount + missCount;
+        return (requestCount == 0) ? 1.0 : (double) hitCount / requestCount;
+    }
+}
@@ -0,0 +1,31 @@
+package com.consentframework.shared.api.infrastructure.caching;
+
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbServiceUserConsent;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+
+import java.util.Optional;
+
+/**
+ * Reads ServiceUserConsent items on a ServiceUserConsentCache miss.
+ */
+@FunctionalInterface
+public interface ServiceUserConsentLoader {
+    /**
+     * Read a consent.
+     *
+     * @param id ServiceUserConsent partition key, ie. "ServiceId|UserId|ConsentId"
+     * @return consent, or empty if not found
+     */
+    Optional<DynamoDbServiceUserConsent> load(String id);
+
+    /**
+     * Build a loader reading consents from the ServiceUserConsent table with GetItem.
+     *
+     * @param table ServiceUserConsent table
+     * @return loader
+     */
+    static ServiceUserConsentLoader fromTable(final DynamoDbTable<DynamoDbServiceUserConsent> table) {
+        return id -> Optional.ofNullable(table.getItem(Key.builder().partitionValue(id).build()));
+    }
+}
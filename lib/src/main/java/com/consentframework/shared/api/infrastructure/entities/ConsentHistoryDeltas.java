@@ -0,0 +1,85 @@
+package com.consentframework.shared.api.infrastructure.entities;
+
+import com.consentframework.shared.api.infrastructure.mappers.StoredConsentImagePatchCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Delta encoding for ConsentHistory events, storing newImage as a merge patch against oldImage.
+ *
+ * Most consent updates change only consentStatus and consentVersion, so storing the patch rather
+ * than a second full image shrinks events, and the write capacity they consume, for consents with
+ * large consentData.  The first event of a consent, and images a merge patch can't express, are
+ * still stored in full, so a user's history may mix both forms and is read back with reconstruct.
+ */
+public final class ConsentHistoryDeltas {
+    private ConsentHistoryDeltas() {}
+
+    /**
+     * Return a copy of the event with newImage replaced by its merge patch against oldImage, if possible.
+     *
+     * @param consentHistory ConsentHistory event with full images
+     * @return delta-encoded event, or the given event if it has no oldImage or can't be patched
+     * @throws UncheckedIOException exception thrown if unable to write the patch
+     */
+    public static DynamoDbConsentHistory deltaEncode(final DynamoDbConsentHistory consentHistory) {
+        final String newImagePatch = toNewImagePatch(consentHistory);
+        return (newImagePatch == null) ? consentHistory : copyWithNewImage(consentHistory, null, newImagePatch);
+    }
+
+    /**
+     * Return a copy of the event with the full newImage rebuilt from its merge patch, if delta-encoded.
+     *
+     * The patch is applied when newImage is first accessed, so neither image is decoded until then.
+     *
+     * @param consentHistory ConsentHistory event as read from the table
+     * @return event with full images, or the given event if not delta-encoded
+     * @throws IllegalArgumentException exception thrown if the event has a patch but no oldImage
+     */
+    public static DynamoDbConsentHistory reconstruct(final DynamoDbConsentHistory consentHistory) {
+        if (consentHistory.newImagePatch() == null) {
+            return consentHistory;
+        }
+        final LazyConsentImage lazyOldImage = consentHistory.lazyOldImage();
+        if (lazyOldImage == null) {
+            throw new IllegalArgumentException(String.format("ConsentHistory event %s has a newImagePatch but no oldImage",
+                consentHistory.eventId()));
+        }
+        final String newImagePatch = consentHistory.newImagePatch();
+        return copyWithNewImage(consentHistory, LazyConsentImage.of(() -> applyMergePatch(lazyOldImage.get(), newImagePatch)), null);
+    }
+
+    private static String toNewImagePatch(final DynamoDbConsentHistory consentHistory) {
+        if (!StoredConsentImagePatchCodec.canPatch(consentHistory.oldImage(), consentHistory.newImage())) {
+            return null;
+        }
+        try {
+            return StoredConsentImagePatchCodec.toMergePatch(consentHistory.oldImage(), consentHistory.newImage());
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static StoredConsentImage applyMergePatch(final StoredConsentImage oldImage, final String newImagePatch) {
+        try {
+            return StoredConsentImagePatchCodec.applyMergePatch(oldImage, newImagePatch);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static DynamoDbConsentHistory copyWithNewImage(final DynamoDbConsentHistory consentHistory,
+            final LazyConsentImage lazyNewImage, final String newImagePatch) {
+        return DynamoDbConsentHistory.builder()
+            .id(consentHistory.id())
+            .eventId(consentHistory.eventId())
+            .eventType(consentHistory.eventType())
+            .eventTime(consentHistory.eventTime())
+            .serviceUserId(consentHistory.serviceUserId())
+            .lazyOldImage(consentHistory.lazyOldImage())
+            .lazyNewImage(lazyNewImage)
+            .newImagePatch(newImagePatch)
+            .build();
+    }
+}
@@ -0,0 +1,168 @@
+package com.consentframework.shared.api.infrastructure.entities;
+
+import com.consentframework.shared.api.infrastructure.annotations.DynamoDbImmutableStyle;
+import com.consentframework.shared.api.infrastructure.mappers.DynamoDbConsentExpiryTimeConverter;
+import com.google.common.collect.ImmutableMap;
+import jakarta.annotation.Nullable;
+import org.immutables.value.Value.Immutable;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable ConsentHistory consent image, with the same fields and encodings as StoredConsentImage.
+ *
+ * Images are safe to share without defensive copies, and their hash code is computed once on first
+ * use.  When building the new image for a consent update, pass the old image to fromConsent so that
+ * unchanged consentData is shared between the two images rather than copied, and use the withX
+ * methods for copies sharing all unchanged fields.
+ */
+@Immutable(lazyhash = true)
+@DynamoDbImmutableStyle
+public interface ConsentImage {
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * ConsentImage Builder class, intentionally empty.
+     */
+    class Builder extends ImmutableConsentImage.Builder {}
+
+    String id();
+
+    String consentId();
+
+    Integer consentVersion();
+
+    String userId();
+
+    String serviceId();
+
+    String consentStatus();
+
+    @Nullable
+    String consentType();
+
+    @Nullable
+    ImmutableMap<String, String> consentData();
+
+    @Nullable
+    String expiryHour();
+
+    @Nullable
+    OffsetDateTime expiryTime();
+
+    @Nullable
+    String expiryTimeId();
+
+    // Copy methods implemented by ImmutableConsentImage, returning this image if the value is unchanged
+
+    ConsentImage withId(String id);
+
+    ConsentImage withConsentId(String consentId);
+
+    ConsentImage withConsentVersion(Integer consentVersion);
+
+    ConsentImage withUserId(String userId);
+
+    ConsentImage withServiceId(String serviceId);
+
+    ConsentImage withConsentStatus(String consentStatus);
+
+    ConsentImage withConsentType(@Nullable String consentType);
+
+    ConsentImage withConsentData(@Nullable ImmutableMap<String, String> consentData);
+
+    ConsentImage withExpiryHour(@Nullable String expiryHour);
+
+    ConsentImage withExpiryTime(@Nullable OffsetDateTime expiryTime);
+
+    ConsentImage withExpiryTimeId(@Nullable String expiryTimeId);
+
+    /**
+     * Build the image of a ServiceUserConsent item.
+     *
+     * @param consent ServiceUserConsent item, with non-null consentData values
+     * @return consent image
+     */
+    static ConsentImage fromConsent(final DynamoDbServiceUserConsent consent) {
+        return fromConsent(consent, null);
+    }
+
+    /**
+     * Build the new image of an updated ServiceUserConsent item, sharing consentData with the old image if unchanged.
+     *
+     * @param consent updated ServiceUserConsent item, with non-null consentData values
+     * @param oldImage image of the consent before the update, or null if the consent is new
+     * @return consent image
+     */
+    static ConsentImage fromConsent(final DynamoDbServiceUserConsent consent, @Nullable final ConsentImage oldImage) {
+        final ImmutableMap<String, String> consentData = (oldImage != null && Objects.equals(oldImage.consentData(), consent.consentData()))
+            ? oldImage.consentData()
+            : copyOf(consent.consentData());
+        return builder()
+            .id(consent.id())
+            .consentId(consent.consentId())
+            .consentVersion(consent.consentVersion())
+            .userId(consent.userId())
+            .serviceId(consent.serviceId())
+            .consentStatus(consent.consentStatus())
+            .consentType(consent.consentType())
+            .consentData(consentData)
+            .expiryHour(consent.expiryHour())
+            .expiryTime((consent.expiryTime() == null)
+                ? null
+                : DynamoDbConsentExpiryTimeConverter.toExpiryTimeOffsetDateTime(consent.expiryTime()))
+            .expiryTimeId(consent.expiryTimeId())
+            .build();
+    }
+
+    /**
+     * Build an immutable copy of a StoredConsentImage.
+     *
+     * @param storedConsentImage consent image with all required fields set and non-null consentData values
+     * @return consent image
+     */
+    static ConsentImage fromStoredConsentImage(final StoredConsentImage storedConsentImage) {
+        return builder()
+            .id(storedConsentImage.getId())
+            .consentId(storedConsentImage.getConsentId())
+            .consentVersion(storedConsentImage.getConsentVersion())
+            .userId(storedConsentImage.getUserId())
+            .serviceId(storedConsentImage.getServiceId())
+            .consentStatus(storedConsentImage.getConsentStatus())
+            .consentType(storedConsentImage.getConsentType())
+            .consentData(copyOf(storedConsentImage.getConsentData()))
+            .expiryHour(storedConsentImage.getExpiryHour())
+            .expiryTime(storedConsentImage.getExpiryTime())
+            .expiryTimeId(storedConsentImage.getExpiryTimeId())
+            .build();
+    }
+
+    /**
+     * Build a mutable StoredConsentImage copy of this image.
+     *
+     * @return stored consent image
+     */
+    default StoredConsentImage toStoredConsentImage() {
+        return new StoredConsentImage()
+            .id(id())
+            .consentId(consentId())
+            .consentVersion(consentVersion())
+            .userId(userId())
+            .serviceId(serviceId())
+            .consentStatus(consentStatus())
+            .consentType(consentType())
+            .consentData(consentData())
+            .expiryHour(expiryHour())
+            .expiryTime(expiryTime())
+            .expiryTimeId(expiryTimeId());
+    }
+
+    private static ImmutableMap<String, String> copyOf(final Map<String, String> consentData) {
+        // Returns ImmutableMap instances as is, eg. consentData of an image's consent
+        return (consentData == null) ? null : ImmutableMap.copyOf(consentData);
+    }
+}
@@ -0,0 +1,198 @@
+package com.consentframework.shared.api.infrastructure.entities;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import java.util.Objects;
+
+/**
+ * Parsed ServiceUserConsent partition key, "ServiceId|UserId|ConsentId".
+ *
+ * Keys hold the three component values and format the composite id on first use, so batch jobs
+ * holding many keys store each component once.  Service IDs have few distinct values, so they are
+ * interned: all keys and decoded consent images for a service share one serviceId instance.
+ */
+public final class ConsentKey {
+    public static final char SEPARATOR = '|';
+
+    // Weak so that service IDs no longer referenced by any consent can be garbage collected
+    private static final Interner<String> SERVICE_IDS = Interners.newWeakInterner();
+
+    private final String serviceId;
+    private final String userId;
+    private final String consentId;
+
+    // Lazily formatted, racy single-check like String.hashCode since formatting is idempotent
+    private String id;
+    private int hashCode;
+
+    private ConsentKey(final String serviceId, final String userId, final String consentId, final String id) {
+        this.serviceId = internServiceId(serviceId);
+        this.userId = userId;
+        this.consentId = consentId;
+        this.id = id;
+    }
+
+    /**
+     * Build a key from its components.
+     *
+     * @param serviceId service ID
+     * @param userId user ID
+     * @param consentId consent ID
+     * @return consent key
+     * @throws IllegalArgumentException exception thrown if a component is null or contains the separator
+     */
+    public static ConsentKey of(final String serviceId, final String userId, final String consentId) {
+        validateComponent("serviceId", serviceId);
+        validateComponent("userId", userId);
+        validateComponent("consentId", consentId);
+        return new ConsentKey(serviceId, userId, consentId, null);
+    }
+
+    /**
+     * Build a key from its components and the matching partition key, eg. from an entity holding all four,
+     * sharing the given strings rather than copying them.
+     *
+     * @param serviceId service ID
+     * @param userId user ID
+     * @param consentId consent ID
+     * @param id partition key, "ServiceId|UserId|ConsentId", or null to format it on first use
+     * @return consent key
+     * @throws IllegalArgumentException exception thrown if a component is null or contains the separator,
+     *     or if the id does not match the components
+     */
+    public static ConsentKey of(final String serviceId, final String userId, final String consentId, final String id) {
+        validateComponent("serviceId", serviceId);
+        validateComponent("userId", userId);
+        validateComponent("consentId", consentId);
+        if (id != null && !matchesComponents(id, serviceId, userId, consentId)) {
+            throw new IllegalArgumentException(String.format("Consent partition key %s does not match %s, %s and %s",
+                id, serviceId, userId, consentId));
+        }
+        return new ConsentKey(serviceId, userId, consentId, id);
+    }
+
+    /**
+     * Parse a ServiceUserConsent partition key.
+     *
+     * Parsing copies the user ID and consent ID out of the id, so prefer
+     * {@link #of(String, String, String, String)} when the components are already held.
+     *
+     * @param id partition key, "ServiceId|UserId|ConsentId"
+     * @return consent key, retaining the given id rather than formatting another copy
+     * @throws IllegalArgumentException exception thrown if the id is null or does not have exactly three components
+     */
+    public static ConsentKey parse(final String id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Invalid consent partition key: null");
+        }
+        final int userIdStart = id.indexOf(SEPARATOR) + 1;
+        final int consentIdStart = (userIdStart == 0) ? 0 : id.indexOf(SEPARATOR, userIdStart) + 1;
+        if (consentIdStart == 0 || id.indexOf(SEPARATOR, consentIdStart) >= 0) {
+            throw new IllegalArgumentException(String.format("Invalid consent partition key: %s", id));
+        }
+        return new ConsentKey(id.substring(0, userIdStart - 1), id.substring(userIdStart, consentIdStart - 1),
+            id.substring(consentIdStart), id);
+    }
+
+    /**
+     * Return the canonical instance of a service ID.
+     *
+     * @param serviceId service ID, may be null
+     * @return interned service ID, or null
+     */
+    public static String internServiceId(final String serviceId) {
+        return (serviceId == null) ? null : SERVICE_IDS.intern(serviceId);
+    }
+
+    public String serviceId() {
+        return serviceId;
+    }
+
+    public String userId() {
+        return userId;
+    }
+
+    public String consentId() {
+        return consentId;
+    }
+
+    /**
+     * Return the ServiceUserConsent partition key.
+     *
+     * @return "ServiceId|UserId|ConsentId"
+     */
+    public String id() {
+        String formattedId = id;
+        if (formattedId == null) {
+            formattedId = serviceId + SEPARATOR + userId + SEPARATOR + consentId;
+            id = formattedId;
+        }
+        return formattedId;
+    }
+
+    /**
+     * Return the ConsentHistoryByServiceUser GSI partition key.
+     *
+     * @return "ServiceId|UserId"
+     */
+    public String serviceUserId() {
+        return serviceId + SEPARATOR + userId;
+    }
+
+    /**
+     * Return the ActiveConsentsByExpiryHour GSI sort key.
+     *
+     * @param expiryTime expiry time attribute value, eg. from DynamoDbConsentExpiryTimeConverter.toExpiryTimeString
+     * @return expiry time + "|" + partition key
+     */
+    public String expiryTimeId(final String expiryTime) {
+        return expiryTime + SEPARATOR + id();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof ConsentKey other
+            && serviceId.equals(other.serviceId)
+            && userId.equals(other.userId)
+            && consentId.equals(other.consentId);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = hashCode;
+        if (hash == 0) {
+            hash = Objects.hash(serviceId, userId, consentId);
+            hashCode = hash;
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return id();
+    }
+
+    /**
+     * Check that an id equals serviceId + "|" + userId + "|" + consentId without building the concatenation.
+     */
+    private static boolean matchesComponents(final String id, final String serviceId, final String userId, final String consentId) {
+        final int userIdStart = serviceId.length() + 1;
+        final int consentIdStart = userIdStart + userId.length() + 1;
+        return id.length() == consentIdStart + consentId.length()
+            && id.startsWith(serviceId)
+            && id.charAt(userIdStart - 1) == SEPARATOR
+            && id.startsWith(userId, userIdStart)
+            && id.charAt(consentIdStart - 1) == SEPARATOR
+            && id.startsWith(consentId, consentIdStart);
+    }
+
+    private static void validateComponent(final String name, final String value) {
+        if (value == null || value.indexOf(SEPARATOR) >= 0) {
+            throw new IllegalArgumentException(String.format("Invalid consent key %s: %s", name, value));
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.consentframework.shared.api.infrastructure.entities;
 
 import com.consentframework.shared.api.infrastructure.annotations.DynamoDbImmutableStyle;
 import org.immutables.value.Value.Immutable;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbIgnore;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbImmutable;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
@@ -37,4 +38,17 @@ public interface DynamoDbActiveConsentWithExpiryTime {
     String expiryTimeId();
 
     Integer consentVersion();
+
+    /**
+     * Return the partition key, parsed from the id on each call.
+     *
+     * The key isn't memoized, so items don't retain the components alongside the id; callers needing
+     * the key repeatedly should hold on to it.
+     *
+     * @return consent key
+     */
+    @DynamoDbIgnore
+    default ConsentKey consentKey() {
+        return ConsentKey.parse(id());
+    }
 }
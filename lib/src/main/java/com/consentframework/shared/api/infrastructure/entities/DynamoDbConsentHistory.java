@@ -1,10 +1,12 @@
 package com.consentframework.shared.api.infrastructure.entities;
 
 import com.consentframework.shared.api.infrastructure.annotations.DynamoDbImmutableStyle;
-import com.consentframework.shared.api.infrastructure.mappers.DynamoDbConsentConverter;
+import com.consentframework.shared.api.infrastructure.mappers.LazyConsentImageConverter;
 import jakarta.annotation.Nullable;
 import org.immutables.value.Value.Immutable;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbConvertedBy;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbIgnore;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbImmutable;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
@@ -12,6 +14,11 @@ import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortK
 
 /**
  * Represents a ConsentHistory DynamoDB table record.
+ *
+ * Consent images are held as LazyConsentImages, so items read from the table only decode an image
+ * when oldImage or newImage is first called.  equals, hashCode and toString compare, hash and print
+ * the decoded images, so they decode both images too; avoid logging events or storing them in hash
+ * based collections where the images should stay undecoded, and use id and eventId instead.
  */
 @Immutable
 @DynamoDbImmutableStyle
@@ -27,9 +34,31 @@ public interface DynamoDbConsentHistory {
     }
 
     /**
-     * DynamoDbConsentHistory Builder class, intentionally empty.
+     * DynamoDbConsentHistory Builder class, accepting decoded images as well as lazy images.
      */
-    class Builder extends ImmutableDynamoDbConsentHistory.Builder {}
+    class Builder extends ImmutableDynamoDbConsentHistory.Builder {
+        /**
+         * Set the decoded old image.
+         *
+         * @param oldImage old consent image, or null
+         * @return this builder
+         */
+        @DynamoDbIgnore
+        public DynamoDbConsentHistory.Builder oldImage(@Nullable final StoredConsentImage oldImage) {
+            return lazyOldImage((oldImage == null) ? null : LazyConsentImage.of(oldImage));
+        }
+
+        /**
+         * Set the decoded new image.
+         *
+         * @param newImage new consent image, or null
+         * @return this builder
+         */
+        @DynamoDbIgnore
+        public DynamoDbConsentHistory.Builder newImage(@Nullable final StoredConsentImage newImage) {
+            return lazyNewImage((newImage == null) ? null : LazyConsentImage.of(newImage));
+        }
+    }
 
     @DynamoDbPartitionKey
     String id();
@@ -45,10 +74,59 @@ public interface DynamoDbConsentHistory {
     String serviceUserId();
 
     @Nullable
-    @DynamoDbConvertedBy(DynamoDbConsentConverter.class)
-    StoredConsentImage oldImage();
+    @DynamoDbAttribute("oldImage")
+    @DynamoDbConvertedBy(LazyConsentImageConverter.class)
+    LazyConsentImage lazyOldImage();
+
+    @Nullable
+    @DynamoDbAttribute("newImage")
+    @DynamoDbConvertedBy(LazyConsentImageConverter.class)
+    LazyConsentImage lazyNewImage();
+
+    /**
+     * Return the old image, decoding it on first access.
+     *
+     * @return old consent image, or null
+     */
+    @Nullable
+    @DynamoDbIgnore
+    default StoredConsentImage oldImage() {
+        final LazyConsentImage lazyOldImage = lazyOldImage();
+        return (lazyOldImage == null) ? null : lazyOldImage.get();
+    }
+
+    /**
+     * Return the new image, decoding it on first access.
+     *
+     * @return new consent image, or null
+     */
+    @Nullable
+    @DynamoDbIgnore
+    default StoredConsentImage newImage() {
+        final LazyConsentImage lazyNewImage = lazyNewImage();
+        return (lazyNewImage == null) ? null : lazyNewImage.get();
+    }
 
+    /**
+     * Return the JSON merge patch from oldImage to the new image, set instead of newImage on delta-encoded events.
+     *
+     * Use ConsentHistoryDeltas.reconstruct to rebuild newImage for events read with the annotated schema.
+     *
+     * @return new image merge patch, or null if newImage is stored in full
+     */
     @Nullable
-    @DynamoDbConvertedBy(DynamoDbConsentConverter.class)
-    StoredConsentImage newImage();
+    String newImagePatch();
+
+    /**
+     * Return the ServiceUserConsent partition key, parsed from the id on each call.
+     *
+     * The key isn't memoized, so items don't retain the components alongside the id; callers needing
+     * the key repeatedly should hold on to it.
+     *
+     * @return consent key
+     */
+    @DynamoDbIgnore
+    default ConsentKey consentKey() {
+        return ConsentKey.parse(id());
+    }
 }
@@ -0,0 +1,116 @@
+package com.consentframework.shared.api.infrastructure.entities;
+
+import com.consentframework.shared.api.infrastructure.mappers.ConsentImageEncoding;
+import com.consentframework.shared.api.infrastructure.mappers.LazyConsentImageConverter;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticImmutableTableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.WrappedTableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Builds ConsentHistory table schemas with a configurable consent image encoding.
+ *
+ * The annotated DynamoDbConsentHistory schema always writes JSON string images, since
+ * DynamoDbConvertedBy requires a no-argument converter.  This schema declares the same
+ * attributes, keys and GSIs, but writes images with the encoding selected for the table, and can
+ * delta-encode newImage as a merge patch against oldImage.  Items are always read back with full
+ * images, whichever form newImage was stored in.
+ *
+ * When delta encoding, each item is delta-encoded once before it's mapped, rather than per attribute,
+ * and images are only decoded to build the patch if newImage isn't already a patch.
+ */
+public final class DynamoDbConsentHistoryTableSchema {
+    private DynamoDbConsentHistoryTableSchema() {}
+
+    /**
+     * Build a ConsentHistory table schema that writes consent images with the given encoding.
+     *
+     * @param imageEncoding encoding used when writing oldImage and newImage attributes
+     * @return ConsentHistory table schema
+     */
+    public static TableSchema<DynamoDbConsentHistory> create(final ConsentImageEncoding imageEncoding) {
+        return create(imageEncoding, false);
+    }
+
+    /**
+     * Build a ConsentHistory table schema that writes consent images with the given encoding, optionally delta-encoded.
+     *
+     * @param imageEncoding encoding used when writing oldImage and full newImage attributes
+     * @param deltaEncodeNewImages whether to write newImage as a newImagePatch string when the event has an oldImage
+     * @return ConsentHistory table schema
+     */
+    public static TableSchema<DynamoDbConsentHistory> create(final ConsentImageEncoding imageEncoding,
+            final boolean deltaEncodeNewImages) {
+        final LazyConsentImageConverter imageConverter = new LazyConsentImageConverter(imageEncoding);
+        final EnhancedType<LazyConsentImage> imageType = EnhancedType.of(LazyConsentImage.class);
+
+        final TableSchema<DynamoDbConsentHistory> tableSchema = StaticImmutableTableSchema
+            .builder(DynamoDbConsentHistory.class, DynamoDbConsentHistory.Builder.class)
+            .newItemBuilder(DynamoDbConsentHistory::builder, builder -> ConsentHistoryDeltas.reconstruct(builder.build()))
+            .addAttribute(String.class, attribute -> attribute.name(DynamoDbConsentHistory.PARTITION_KEY)
+                .getter(DynamoDbConsentHistory::id)
+                .setter(DynamoDbConsentHistory.Builder::id)
+                .tags(StaticAttributeTags.primaryPartitionKey()))
+            .addAttribute(String.class, attribute -> attribute.name(DynamoDbConsentHistory.SORT_KEY)
+                .getter(DynamoDbConsentHistory::eventId)
+                .setter(DynamoDbConsentHistory.Builder::eventId)
+                .tags(StaticAttributeTags.primarySortKey()))
+            .addAttribute(String.class, attribute -> attribute.name("eventType")
+                .getter(DynamoDbConsentHistory::eventType)
+                .setter(DynamoDbConsentHistory.Builder::eventType))
+            .addAttribute(String.class, attribute -> attribute.name("eventTime")
+                .getter(DynamoDbConsentHistory::eventTime)
+                .setter(DynamoDbConsentHistory.Builder::eventTime))
+            .addAttribute(String.class, attribute -> attribute.name("serviceUserId")
+                .getter(DynamoDbConsentHistory::serviceUserId)
+                .setter(DynamoDbConsentHistory.Builder::serviceUserId)
+                .tags(StaticAttributeTags.secondaryPartitionKey(DynamoDbConsentHistory.CONSENT_HISTORY_BY_SERVICE_USER_GSI_NAME)))
+            .addAttribute(imageType, attribute -> attribute.name("oldImage")
+                .getter(DynamoDbConsentHistory::lazyOldImage)
+                .setter(DynamoDbConsentHistory.Builder::lazyOldImage)
+                .attributeConverter(imageConverter))
+            .addAttribute(imageType, attribute -> attribute.name("newImage")
+                .getter(DynamoDbConsentHistory::lazyNewImage)
+                .setter(DynamoDbConsentHistory.Builder::lazyNewImage)
+                .attributeConverter(imageConverter))
+            .addAttribute(String.class, attribute -> attribute.name("newImagePatch")
+                .getter(DynamoDbConsentHistory::newImagePatch)
+                .setter(DynamoDbConsentHistory.Builder::newImagePatch))
+            .build();
+        return deltaEncodeNewImages ? new DeltaEncodingTableSchema(tableSchema) : tableSchema;
+    }
+
+    /**
+     * Table schema that delta-encodes each item before mapping it with the wrapped schema.
+     */
+    private static final class DeltaEncodingTableSchema
+            extends WrappedTableSchema<DynamoDbConsentHistory, TableSchema<DynamoDbConsentHistory>> {
+        DeltaEncodingTableSchema(final TableSchema<DynamoDbConsentHistory> tableSchema) {
+            super(tableSchema);
+        }
+
+        @Override
+        public Map<String, AttributeValue> itemToMap(final DynamoDbConsentHistory item, final boolean ignoreNulls) {
+            return super.itemToMap(deltaEncode(item), ignoreNulls);
+        }
+
+        @Override
+        public Map<String, AttributeValue> itemToMap(final DynamoDbConsentHistory item, final Collection<String> attributes) {
+            return super.itemToMap(deltaEncode(item), attributes);
+        }
+
+        @Override
+        public AttributeValue attributeValue(final DynamoDbConsentHistory item, final String attributeName) {
+            return super.attributeValue(deltaEncode(item), attributeName);
+        }
+
+        private static DynamoDbConsentHistory deltaEncode(final DynamoDbConsentHistory item) {
+            return (item.newImagePatch() == null) ? ConsentHistoryDeltas.deltaEncode(item) : item;
+        }
+    }
+}
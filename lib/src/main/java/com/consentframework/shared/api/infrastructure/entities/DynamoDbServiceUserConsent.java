@@ -1,8 +1,11 @@
 package com.consentframework.shared.api.infrastructure.entities;
 
 import com.consentframework.shared.api.infrastructure.annotations.DynamoDbImmutableStyle;
+import com.consentframework.shared.api.infrastructure.mappers.ServiceIdAttributeConverter;
 import jakarta.annotation.Nullable;
 import org.immutables.value.Value.Immutable;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbConvertedBy;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbIgnore;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbImmutable;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
@@ -32,6 +35,14 @@ public interface DynamoDbServiceUserConsent {
      * consents with expiry times.  This ensures that all GSI Query responses
      * are automatically sorted in ascending order of expiry time, while
      * maintaining uniqueness of GSI keys.
+     *
+     * To avoid a hot GSI partition when many consents expire in the same
+     * hour, expiryHour may be write-sharded with a "#" + two-digit shard
+     * suffix derived from the consent partition key, eg. "2026-12-31T23:00Z#07",
+     * using DynamoDbConsentExpiryTimeConverter.toExpiryHour(expiryTime, id, shardCount).
+     * Readers then query every shard of an hour and merge the results in
+     * expiryTimeId order.  All writers and readers of a table must use the
+     * same shard count.
      */
     public static final String ACTIVE_CONSENTS_BY_EXPIRY_HOUR_GSI_NAME = "ActiveConsentsByExpiryHour";
 
@@ -72,6 +83,7 @@ public interface DynamoDbServiceUserConsent {
     String expiryTimeId();
 
     @DynamoDbSecondarySortKey(indexNames = { CONSENT_BY_SERVICE_USER_GSI_NAME })
+    @DynamoDbConvertedBy(ServiceIdAttributeConverter.class)
     String serviceId();
 
     @DynamoDbSecondaryPartitionKey(indexNames = { CONSENT_BY_SERVICE_USER_GSI_NAME })
@@ -91,4 +103,17 @@ public interface DynamoDbServiceUserConsent {
 
     @Nullable
     String expiryTime();
+
+    /**
+     * Return the partition key, built on each call from the held id and components without copying them.
+     *
+     * The key isn't memoized, so items don't retain it alongside the id and components.
+     *
+     * @return consent key
+     * @throws IllegalArgumentException exception thrown if the id does not match the components
+     */
+    @DynamoDbIgnore
+    default ConsentKey consentKey() {
+        return ConsentKey.of(serviceId(), userId(), consentId(), id());
+    }
 }
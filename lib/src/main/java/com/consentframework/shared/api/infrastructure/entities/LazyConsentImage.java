@@ -0,0 +1,127 @@
+package com.consentframework.shared.api.infrastructure.entities;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * ConsentHistory consent image that is only decoded when first accessed.
+ *
+ * Items read from the ConsentHistory table keep each image's raw attribute value, so listing events
+ * by eventType, eventTime or serviceUserId doesn't parse either image.  The image is decoded at most
+ * once, even when accessed concurrently, after which the raw value is released.  An image that was
+ * never decoded is written back as its raw value, without encoding it again.  equals, hashCode and
+ * toString use the decoded image, so calling them decodes it.
+ */
+public final class LazyConsentImage {
+    // Guarded by this, both cleared once decoded
+    private Supplier<StoredConsentImage> decoder;
+    private AttributeValue attributeValue;
+
+    // Written before decoded, so visible to any thread that reads decoded as true
+    private StoredConsentImage image;
+    private volatile boolean decoded;
+
+    private LazyConsentImage(final StoredConsentImage image, final Supplier<StoredConsentImage> decoder,
+            final AttributeValue attributeValue) {
+        this.image = image;
+        this.decoder = decoder;
+        this.attributeValue = attributeValue;
+        this.decoded = decoder == null;
+    }
+
+    /**
+     * Wrap an already decoded image.
+     *
+     * @param image consent image
+     * @return decoded lazy image
+     */
+    public static LazyConsentImage of(final StoredConsentImage image) {
+        return new LazyConsentImage(Objects.requireNonNull(image, "image"), null, null);
+    }
+
+    /**
+     * Build an image computed on first access, eg. by applying a merge patch to another image.
+     *
+     * @param decoder function computing the image, called at most once if it succeeds
+     * @return lazy image
+     */
+    public static LazyConsentImage of(final Supplier<StoredConsentImage> decoder) {
+        return new LazyConsentImage(null, Objects.requireNonNull(decoder, "decoder"), null);
+    }
+
+    /**
+     * Build an image decoded from a stored attribute value on first access.
+     *
+     * @param attributeValue stored attribute value
+     * @param decoder function decoding the attribute value, eg. DynamoDbConsentConverter::transformTo
+     * @return lazy image
+     */
+    public static LazyConsentImage fromAttributeValue(final AttributeValue attributeValue,
+            final Function<AttributeValue, StoredConsentImage> decoder) {
+        return new LazyConsentImage(null, () -> decoder.apply(attributeValue), attributeValue);
+    }
+
+    /**
+     * Return the image, decoding it on first access.
+     *
+     * @return consent image
+     * @throws RuntimeException exception thrown by the decoder if the image is invalid, again on each access
+     */
+    public StoredConsentImage get() {
+        if (!decoded) {
+            synchronized (this) {
+                if (!decoded) {
+                    image = decoder.get();
+                    decoder = null;
+                    attributeValue = null;
+                    decoded = true;
+                }
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Return whether the image has been decoded.
+     *
+     * @return true if get has returned the image
+     */
+    public boolean isDecoded() {
+        return decoded;
+    }
+
+    /**
+     * Return the stored attribute value, if the image was read from a table and hasn't been decoded since.
+     *
+     * Once decoded the image may have been modified, so it must be encoded again to be written.
+     *
+     * @return raw attribute value, or null
+     */
+    public synchronized AttributeValue getUndecodedAttributeValue() {
+        return attributeValue;
+    }
+
+    /**
+     * Compare decoded images, decoding both if necessary.
+     */
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof LazyConsentImage other && Objects.equals(get(), other.get());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(get());
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(get());
+    }
+}
@@ -1,5 +1,6 @@
 package com.consentframework.shared.api.infrastructure.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -372,6 +373,14 @@ public class StoredConsentImage {
         this.expiryTimeId = expiryTimeId;
     }
 
+    /**
+     * Returns the parsed ID.  Not cached, since the ID may be changed by setId.
+     */
+    @JsonIgnore
+    public ConsentKey getConsentKey() {
+        return ConsentKey.parse(this.id);
+    }
+
     /**
      * Indicates whether another object is equal to this object.
      */
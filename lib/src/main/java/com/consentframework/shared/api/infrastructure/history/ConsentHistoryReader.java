@@ -0,0 +1,337 @@
+package com.consentframework.shared.api.infrastructure.history;
+
+import com.consentframework.shared.api.infrastructure.entities.ConsentKey;
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbConsentHistory;
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbConsentHistoryTableSchema;
+import com.consentframework.shared.api.infrastructure.mappers.ConsentImageEncoding;
+import com.consentframework.shared.api.infrastructure.pagination.PrefetchingPageReader;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams a user's full consent history from the ConsentHistoryByServiceUser GSI.
+ *
+ * The GSI is paged lazily: a Query is only issued once the previous page has been consumed, or when
+ * prefetching, by a virtual thread buffering up to prefetchPages pages ahead of the consumer, so
+ * exports of users with tens of thousands of events hold a bounded number of pages in memory.
+ * Pages are fetched as raw attribute maps, and each item, including its consent images, is only
+ * decoded when the consumer reaches it, so short-circuiting consumers don't decode the rest of the page.
+ */
+public class ConsentHistoryReader {
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int DEFAULT_PREFETCH_PAGES = 1;
+
+    private static final String SERVICE_USER_ID_NAME = "#serviceUserId";
+    private static final String SERVICE_USER_ID_VALUE = ":serviceUserId";
+    private static final String KEY_CONDITION_EXPRESSION = SERVICE_USER_ID_NAME + " = " + SERVICE_USER_ID_VALUE;
+
+    private final Function<QueryRequest, QueryResponse> queryFunction;
+    private final TableSchema<DynamoDbConsentHistory> tableSchema;
+    private final int pageSize;
+    private final int prefetchPages;
+    private final Executor executor;
+
+    /**
+     * Construct a reader with the default page size and prefetching, reading images in any encoding.
+     *
+     * @param dynamoDbClient DynamoDB client
+     */
+    public ConsentHistoryReader(final DynamoDbClient dynamoDbClient) {
+        this(dynamoDbClient::query, DynamoDbConsentHistoryTableSchema.create(ConsentImageEncoding.JSON),
+            DEFAULT_PAGE_SIZE, DEFAULT_PREFETCH_PAGES);
+    }
+
+    /**
+     * Construct a reader.
+     *
+     * @param queryFunction function issuing a Query request, eg. dynamoDbClient::query
+     * @param tableSchema ConsentHistory table schema used to decode items, eg. from DynamoDbConsentHistoryTableSchema
+     * @param pageSize maximum number of items per Query page
+     * @param prefetchPages number of pages fetched ahead of the consumer, or 0 to fetch each page when it's needed
+     * @throws IllegalArgumentException exception thrown if pageSize is not positive or prefetchPages is negative
+     */
+    public ConsentHistoryReader(final Function<QueryRequest, QueryResponse> queryFunction,
+            final TableSchema<DynamoDbConsentHistory> tableSchema, final int pageSize, final int prefetchPages) {
+        if (pageSize < 1 || prefetchPages < 0) {
+            throw new IllegalArgumentException(String.format(
+                "pageSize must be positive and prefetchPages must not be negative, got %d and %d", pageSize, prefetchPages));
+        }
+        this.queryFunction = queryFunction;
+        this.tableSchema = tableSchema;
+        this.pageSize = pageSize;
+        this.prefetchPages = prefetchPages;
+        this.executor = command -> Thread.ofVirtual().name("consent-history-reader").start(command);
+    }
+
+    /**
+     * Return a lazy stream of a user's ConsentHistory events for a service.
+     *
+     * Close the stream, eg. with try-with-resources, if it may not be fully consumed, to stop prefetching.
+     * Query failures are thrown when the consumer reaches the page that failed.
+     *
+     * @param serviceId service ID
+     * @param userId user ID
+     * @return stream of events in GSI order, with full images
+     */
+    public Stream<DynamoDbConsentHistory> stream(final String serviceId, final String userId) {
+        final PageSource pageSource = (prefetchPages == 0)
+            ? new QueryPageSource(buildQueryRequest(serviceId, userId))
+            : new PrefetchingPageSource(new QueryPageSource(buildQueryRequest(serviceId, userId)));
+        final Iterator<DynamoDbConsentHistory> iterator = new ConsentHistoryIterator(pageSource);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(pageSource::close);
+    }
+
+    /**
+     * Return a publisher of a user's ConsentHistory events for a service.
+     *
+     * Each subscription reads the history independently, delivering events on a virtual thread as they're
+     * requested, and stops reading once cancelled.
+     *
+     * @param serviceId service ID
+     * @param userId user ID
+     * @return cold publisher of events in GSI order, with full images
+     */
+    public Flow.Publisher<DynamoDbConsentHistory> publisher(final String serviceId, final String userId) {
+        return subscriber -> subscriber.onSubscribe(new StreamSubscription(subscriber, () -> stream(serviceId, userId)));
+    }
+
+    private QueryRequest buildQueryRequest(final String serviceId, final String userId) {
+        return QueryRequest.builder()
+            .tableName(DynamoDbConsentHistory.TABLE_NAME)
+            .indexName(DynamoDbConsentHistory.CONSENT_HISTORY_BY_SERVICE_USER_GSI_NAME)
+            .keyConditionExpression(KEY_CONDITION_EXPRESSION)
+            .expressionAttributeNames(Map.of(SERVICE_USER_ID_NAME, "serviceUserId"))
+            .expressionAttributeValues(Map.of(SERVICE_USER_ID_VALUE, AttributeValue.fromS(serviceId + ConsentKey.SEPARATOR + userId)))
+            .limit(pageSize)
+            .build();
+    }
+
+    /**
+     * Source of raw item pages, returning an empty page once the Query is exhausted.
+     */
+    private interface PageSource extends AutoCloseable {
+        List<Map<String, AttributeValue>> nextPage();
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Issues each Query request on the consuming thread, following LastEvaluatedKey and skipping empty pages.
+     */
+    private final class QueryPageSource implements PageSource {
+        private final QueryRequest queryRequest;
+        private Map<String, AttributeValue> exclusiveStartKey;
+        private boolean exhausted;
+
+        QueryPageSource(final QueryRequest queryRequest) {
+            this.queryRequest = queryRequest;
+        }
+
+        @Override
+        public List<Map<String, AttributeValue>> nextPage() {
+            while (!exhausted) {
+                final QueryResponse response = queryFunction.apply((exclusiveStartKey == null)
+                    ? queryRequest
+                    : queryRequest.toBuilder().exclusiveStartKey(exclusiveStartKey).build());
+                exclusiveStartKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                    ? response.lastEvaluatedKey()
+                    : null;
+                exhausted = exclusiveStartKey == null;
+                if (response.hasItems() && !response.items().isEmpty()) {
+                    return response.items();
+                }
+            }
+            return List.of();
+        }
+
+        @Override
+        public void close() {
+            exhausted = true;
+        }
+    }
+
+    /**
+     * Reads pages from a source on a virtual thread, up to prefetchPages ahead of the consumer.
+     */
+    private final class PrefetchingPageSource implements PageSource {
+        private final PrefetchingPageReader<Map<String, AttributeValue>> reader;
+        private boolean started;
+
+        PrefetchingPageSource(final PageSource pageSource) {
+            this.reader = new PrefetchingPageReader<>(sink -> {
+                List<Map<String, AttributeValue>> page = pageSource.nextPage();
+                while (!page.isEmpty()) {
+                    sink.put(page);
+                    page = pageSource.nextPage();
+                }
+            }, prefetchPages);
+        }
+
+        @Override
+        public List<Map<String, AttributeValue>> nextPage() {
+            if (!started) {
+                started = true;
+                executor.execute(reader);
+            }
+            try {
+                return reader.nextPage();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw (CancellationException) new CancellationException("Interrupted while reading ConsentHistory").initCause(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            reader.close();
+        }
+    }
+
+    /**
+     * Iterates the items of each page, decoding each item when it's returned.
+     */
+    private final class ConsentHistoryIterator implements Iterator<DynamoDbConsentHistory> {
+        private final PageSource pageSource;
+        private Iterator<Map<String, AttributeValue>> pageItems = List.<Map<String, AttributeValue>>of().iterator();
+        private boolean exhausted;
+
+        ConsentHistoryIterator(final PageSource pageSource) {
+            this.pageSource = pageSource;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!pageItems.hasNext() && !exhausted) {
+                final List<Map<String, AttributeValue>> page = pageSource.nextPage();
+                exhausted = page.isEmpty();
+                pageItems = page.iterator();
+            }
+            return pageItems.hasNext();
+        }
+
+        @Override
+        public DynamoDbConsentHistory next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return tableSchema.mapToItem(pageItems.next());
+        }
+    }
+
+    /**
+     * Delivers stream elements to a subscriber as they're requested, draining on one virtual thread at a time.
+     */
+    private final class StreamSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super DynamoDbConsentHistory> subscriber;
+        private final Supplier<Stream<DynamoDbConsentHistory>> streamSupplier;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile IllegalArgumentException invalidRequest;
+
+        // Only accessed by the draining thread
+        private Stream<DynamoDbConsentHistory> stream;
+        private Iterator<DynamoDbConsentHistory> iterator;
+        private boolean terminated;
+
+        StreamSubscription(final Flow.Subscriber<? super DynamoDbConsentHistory> subscriber,
+                final Supplier<Stream<DynamoDbConsentHistory>> streamSupplier) {
+            this.subscriber = subscriber;
+            this.streamSupplier = streamSupplier;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException(String.format("Requested %d events, must be positive", n));
+            } else {
+                demand.accumulateAndGet(n, (current, added) -> (current + added < 0) ? Long.MAX_VALUE : current + added);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            if (pendingDrains.getAndIncrement() == 0) {
+                executor.execute(this::drainLoop);
+            }
+        }
+
+        private void drainLoop() {
+            int missed = 1;
+            do {
+                if (!terminated) {
+                    emitRequested();
+                }
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emitRequested() {
+            try {
+                if (cancelled) {
+                    terminate();
+                    return;
+                }
+                if (invalidRequest != null) {
+                    terminate();
+                    subscriber.onError(invalidRequest);
+                    return;
+                }
+                if (iterator == null) {
+                    stream = streamSupplier.get();
+                    iterator = stream.iterator();
+                }
+                while (demand.get() > 0 && !cancelled) {
+                    if (!iterator.hasNext()) {
+                        terminate();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    subscriber.onNext(iterator.next());
+                    demand.decrementAndGet();
+                }
+                if (cancelled) {
+                    terminate();
+                }
+            } catch (final RuntimeException e) {
+                terminate();
+                subscriber.onError(e);
+            }
+        }
+
+        private void terminate() {
+            terminated = true;
+            if (stream != null) {
+                stream.close();
+            }
+        }
+    }
+}
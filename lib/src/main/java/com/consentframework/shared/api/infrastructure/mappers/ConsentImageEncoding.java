@@ -0,0 +1,52 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import software.amazon.awssdk.enhanced.dynamodb.AttributeValueType;
+
+/**
+ * Storage encodings for ConsentHistory consent images.
+ *
+ * The encoding only determines how images are written: DynamoDbConsentConverter reads
+ * images stored with any encoding, so a table can switch encodings without a data migration.
+ */
+public enum ConsentImageEncoding {
+    /**
+     * JSON string attribute value, the original encoding.
+     */
+    JSON(AttributeValueType.S, "JSON string"),
+
+    /**
+     * Binary attribute value containing a format version byte followed by a CBOR-encoded image.
+     */
+    CBOR(AttributeValueType.B, "CBOR binary"),
+
+    /**
+     * Native DynamoDB map attribute value with one entry per image field.
+     */
+    MAP(AttributeValueType.M, "attribute map");
+
+    private final AttributeValueType attributeValueType;
+    private final String description;
+
+    private ConsentImageEncoding(final AttributeValueType attributeValueType, final String description) {
+        this.attributeValueType = attributeValueType;
+        this.description = description;
+    }
+
+    /**
+     * Return the DynamoDB attribute value type images are written as.
+     *
+     * @return attribute value type
+     */
+    public AttributeValueType getAttributeValueType() {
+        return attributeValueType;
+    }
+
+    /**
+     * Return a description of the encoding for log and error messages.
+     *
+     * @return encoding description
+     */
+    public String getDescription() {
+        return description;
+    }
+}
@@ -1,25 +1,43 @@
 package com.consentframework.shared.api.infrastructure.mappers;
 
-import com.consentframework.consentmanagement.api.JSON;
+import com.consentframework.shared.api.infrastructure.entities.ConsentImage;
 import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
 import software.amazon.awssdk.enhanced.dynamodb.AttributeValueType;
 import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
+import java.io.IOException;
+
 /**
- * Convert between StoredConsentImage objects and DynamoDB JSON string attribute values.
+ * Convert between StoredConsentImage objects and DynamoDB attribute values.
+ *
+ * Images are written with the configured ConsentImageEncoding, by default as JSON string attribute values
+ * matching the consent models ObjectMapper output.  Images are read according to the stored attribute value
+ * type, so JSON string, CBOR binary and map images are all readable regardless of the configured encoding.
  */
 public class DynamoDbConsentConverter implements AttributeConverter<StoredConsentImage> {
     private static final Logger logger = LogManager.getLogger(DynamoDbConsentConverter.class);
-    private final ObjectMapper objectMapper;
 
+    private final ConsentImageEncoding encoding;
+
+    /**
+     * Construct a converter that writes JSON string images, used by the DynamoDbConvertedBy annotation.
+     */
     public DynamoDbConsentConverter() {
-        this.objectMapper = new JSON().getMapper();
+        this(ConsentImageEncoding.JSON);
+    }
+
+    /**
+     * Construct a converter that writes images with the given encoding.
+     *
+     * @param encoding encoding used when writing images
+     */
+    public DynamoDbConsentConverter(final ConsentImageEncoding encoding) {
+        this.encoding = encoding;
     }
 
     /**
@@ -31,31 +49,69 @@ public class DynamoDbConsentConverter implements AttributeConverter<StoredConsen
             return null;
         }
 
-        final String consentJsonString;
         try {
-            consentJsonString = this.objectMapper.writeValueAsString(consent);
-        } catch (final JsonProcessingException e) {
-            logger.error("Error converting StoredConsentImage to JSON string: {}", e.getMessage(), e);
-            throw new RuntimeException("Error converting StoredConsentImage to JSON string", e);
+            return switch (encoding) {
+                case JSON -> AttributeValue.fromS(StoredConsentImageJsonCodec.toJsonString(consent));
+                case CBOR -> AttributeValue.fromB(SdkBytes.fromByteArrayUnsafe(StoredConsentImageCborCodec.toBytes(consent)));
+                case MAP -> AttributeValue.fromM(StoredConsentImageAttributeMapCodec.toAttributeMap(consent));
+            };
+        } catch (final IOException e) {
+            logger.error("Error converting StoredConsentImage to {}: {}", encoding.getDescription(), e.getMessage(), e);
+            throw new RuntimeException("Error converting StoredConsentImage to " + encoding.getDescription(), e);
         }
-        return AttributeValue.fromS(consentJsonString);
     }
 
     /**
-     * Convert from a DynamoDB JSON string attribute value to a StoredConsentImage object.
+     * Convert from an immutable ConsentImage to an AttributeValue, identical to the value for the equivalent StoredConsentImage.
+     *
+     * @param consent consent image, or null
+     * @return attribute value, or null
      */
-    @Override
-    public StoredConsentImage transformTo(final AttributeValue input) {
-        if (input == null || input.s() == null) {
+    public AttributeValue toAttributeValue(final ConsentImage consent) {
+        if (consent == null) {
             return null;
         }
-        final String jsonString = input.s();
+
         try {
-            return this.objectMapper.readValue(jsonString, StoredConsentImage.class);
-        } catch (final JsonProcessingException e) {
-            logger.error("Error converting JSON string to StoredConsentImage: {}", e.getMessage(), e);
-            throw new RuntimeException("Error converting JSON string to StoredConsentImage", e);
+            return switch (encoding) {
+                case JSON -> AttributeValue.fromS(StoredConsentImageJsonCodec.toJsonString(consent));
+                case CBOR -> AttributeValue.fromB(SdkBytes.fromByteArrayUnsafe(StoredConsentImageCborCodec.toBytes(consent)));
+                case MAP -> AttributeValue.fromM(StoredConsentImageAttributeMapCodec.toAttributeMap(consent));
+            };
+        } catch (final IOException e) {
+            logger.error("Error converting ConsentImage to {}: {}", encoding.getDescription(), e.getMessage(), e);
+            throw new RuntimeException("Error converting ConsentImage to " + encoding.getDescription(), e);
+        }
+    }
+
+    /**
+     * Convert from a DynamoDB JSON string, binary or map attribute value to a StoredConsentImage object.
+     *
+     * @throws IllegalArgumentException exception thrown if the attribute value is of any other non-null type
+     */
+    @Override
+    public StoredConsentImage transformTo(final AttributeValue input) {
+        if (input == null) {
+            return null;
         }
+        return switch (input.type()) {
+            case S -> transformTo(ConsentImageEncoding.JSON, input);
+            case B -> transformTo(ConsentImageEncoding.CBOR, input);
+            case M -> transformTo(ConsentImageEncoding.MAP, input);
+            case NUL, UNKNOWN_TO_SDK_VERSION -> null;
+            default -> throw unsupportedAttributeValueType(input);
+        };
+    }
+
+    /**
+     * Build the exception for an image stored as an attribute value type other than string, binary, map or null,
+     * so that unreadable images fail rather than reading as null.
+     *
+     * @param input attribute value
+     * @return exception naming the attribute value type
+     */
+    static IllegalArgumentException unsupportedAttributeValueType(final AttributeValue input) {
+        return new IllegalArgumentException(String.format("Unsupported ConsentImage attribute value type: %s", input.type()));
     }
 
     /**
@@ -67,10 +123,23 @@ public class DynamoDbConsentConverter implements AttributeConverter<StoredConsen
     }
 
     /**
-     * Return the DynamoDB attribute value type.
+     * Return the DynamoDB attribute value type that images are written as.
      */
     @Override
     public AttributeValueType attributeValueType() {
-        return AttributeValueType.S;
+        return encoding.getAttributeValueType();
+    }
+
+    private StoredConsentImage transformTo(final ConsentImageEncoding inputEncoding, final AttributeValue input) {
+        try {
+            return switch (inputEncoding) {
+                case JSON -> StoredConsentImageJsonCodec.fromJsonString(input.s());
+                case CBOR -> StoredConsentImageCborCodec.fromBytes(input.b().asByteArrayUnsafe());
+                case MAP -> StoredConsentImageAttributeMapCodec.fromAttributeMap(input.m());
+            };
+        } catch (final IOException | IllegalArgumentException e) {
+            logger.error("Error converting {} to StoredConsentImage: {}", inputEncoding.getDescription(), e.getMessage(), e);
+            throw new RuntimeException("Error converting " + inputEncoding.getDescription() + " to StoredConsentImage", e);
+        }
     }
 }
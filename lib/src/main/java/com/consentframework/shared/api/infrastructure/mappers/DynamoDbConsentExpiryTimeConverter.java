@@ -1,17 +1,39 @@
 package com.consentframework.shared.api.infrastructure.mappers;
 
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Utility functions for converting expiryTime attribute values.
+ *
+ * Timestamps in years 0001 to 9999 are formatted and parsed with UtcTimestampFormat, producing output
+ * identical to the EXPIRY_HOUR_FORMATTER and EXPIRY_TIME_FORMATTER patterns; other timestamps and
+ * strings not in the fixed-width UTC form fall back to java.time.
+ *
+ * When write sharding is enabled, expiryHour values carry a two-digit shard suffix, eg. "2026-12-31T23:00Z#07",
+ * spreading consents expiring in the same hour across shardCount GSI partitions.  The shard is the
+ * Murmur3 32-bit hash of the UTF-8 consent partition key modulo shardCount, so it can be reproduced by any
+ * writer or reader.  A shard count of 1 disables sharding and produces the unsharded expiryHour.
  */
 public final class DynamoDbConsentExpiryTimeConverter {
     public static final DateTimeFormatter EXPIRY_HOUR_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:00'Z'");
     public static final DateTimeFormatter EXPIRY_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
 
+    public static final char EXPIRY_HOUR_SHARD_SEPARATOR = '#';
+    public static final int MAX_EXPIRY_HOUR_SHARD_COUNT = 100;
+
+    private static final char EXPIRY_TIME_ID_SEPARATOR = '|';
+    private static final HashFunction EXPIRY_HOUR_SHARD_HASH_FUNCTION = Hashing.murmur3_32_fixed();
+
     private DynamoDbConsentExpiryTimeConverter() {}
 
     /**
@@ -21,11 +43,81 @@ public final class DynamoDbConsentExpiryTimeConverter {
      * @return The expiryHour string.
      */
     public static String toExpiryHour(final OffsetDateTime expiryTime) {
+        final long epochSecond = expiryTime.toEpochSecond();
+        if (UtcTimestampFormat.isSupported(epochSecond)) {
+            return UtcTimestampFormat.formatHour(epochSecond);
+        }
         return expiryTime.withOffsetSameInstant(ZoneOffset.UTC)
             .truncatedTo(ChronoUnit.HOURS)
             .format(EXPIRY_HOUR_FORMATTER);
     }
 
+    /**
+     * Converts an OffsetDateTime expiryTime to an expiryHour string with the shard suffix for the given consent,
+     * eg. "2026-12-31T23:00Z#07", or without a suffix if shardCount is 1.
+     *
+     * @param expiryTime The expiryTime to convert.
+     * @param id The consent partition key.
+     * @param shardCount The number of expiryHour shards, between 1 and MAX_EXPIRY_HOUR_SHARD_COUNT.
+     * @return The sharded expiryHour string.
+     * @throws IllegalArgumentException exception thrown if id is null or shardCount is out of range
+     */
+    public static String toExpiryHour(final OffsetDateTime expiryTime, final String id, final int shardCount) {
+        final int shard = getExpiryHourShard(id, shardCount);
+        final String expiryHour = toExpiryHour(expiryTime);
+        return (shardCount == 1) ? expiryHour : toShardedExpiryHour(expiryHour, shard);
+    }
+
+    /**
+     * Returns the expiryHour shard for a consent.
+     *
+     * @param id The consent partition key.
+     * @param shardCount The number of expiryHour shards, between 1 and MAX_EXPIRY_HOUR_SHARD_COUNT.
+     * @return The shard, between 0 and shardCount - 1.
+     * @throws IllegalArgumentException exception thrown if id is null or shardCount is out of range, whether or not sharding is enabled
+     */
+    public static int getExpiryHourShard(final String id, final int shardCount) {
+        if (id == null) {
+            throw new IllegalArgumentException("Consent partition key id must not be null");
+        }
+        validateExpiryHourShardCount(shardCount);
+        if (shardCount == 1) {
+            return 0;
+        }
+        return Math.floorMod(EXPIRY_HOUR_SHARD_HASH_FUNCTION.hashString(id, StandardCharsets.UTF_8).asInt(), shardCount);
+    }
+
+    /**
+     * Lists the expiryHour partition keys of all shards of an hour, eg. for scatter-gather reads.
+     *
+     * @param expiryHour The unsharded expiryHour string.
+     * @param shardCount The number of expiryHour shards, between 1 and MAX_EXPIRY_HOUR_SHARD_COUNT.
+     * @return The sharded expiryHour strings in shard order, or only the unsharded expiryHour if shardCount is 1.
+     * @throws IllegalArgumentException exception thrown if shardCount is out of range
+     */
+    public static List<String> toExpiryHourShards(final String expiryHour, final int shardCount) {
+        validateExpiryHourShardCount(shardCount);
+        if (shardCount == 1) {
+            return List.of(expiryHour);
+        }
+        final List<String> expiryHourShards = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            expiryHourShards.add(toShardedExpiryHour(expiryHour, shard));
+        }
+        return expiryHourShards;
+    }
+
+    /**
+     * Removes the shard suffix, if any, from an expiryHour string.
+     *
+     * @param expiryHour The sharded or unsharded expiryHour string.
+     * @return The unsharded expiryHour string.
+     */
+    public static String toUnshardedExpiryHour(final String expiryHour) {
+        final int separatorIndex = expiryHour.indexOf(EXPIRY_HOUR_SHARD_SEPARATOR);
+        return (separatorIndex < 0) ? expiryHour : expiryHour.substring(0, separatorIndex);
+    }
+
     /**
      * Converts an expiryTime and id to an expiryTimeId string in the format "2011-12-03T10:15:12Z|ServiceId|UserId|ConsentId".
      *
@@ -34,7 +126,11 @@ public final class DynamoDbConsentExpiryTimeConverter {
      * @return The expiryTimeId string.
      */
     public static String toExpiryTimeId(final OffsetDateTime expiryTime, final String id) {
-        return String.format("%s|%s", toExpiryTimeString(expiryTime), id);
+        final long epochSecond = expiryTime.toEpochSecond();
+        if (UtcTimestampFormat.isSupported(epochSecond)) {
+            return UtcTimestampFormat.formatTimestampWithSuffix(epochSecond, EXPIRY_TIME_ID_SEPARATOR, String.valueOf(id));
+        }
+        return toExpiryTimeString(expiryTime) + EXPIRY_TIME_ID_SEPARATOR + id;
     }
 
     /**
@@ -46,6 +142,10 @@ public final class DynamoDbConsentExpiryTimeConverter {
      * @return The expiryTime as an ISO 8601 string with UTC timezone and second precision.
      */
     public static String toExpiryTimeString(final OffsetDateTime expiryTime) {
+        final long epochSecond = expiryTime.toEpochSecond();
+        if (UtcTimestampFormat.isSupported(epochSecond)) {
+            return UtcTimestampFormat.formatTimestamp(epochSecond);
+        }
         return expiryTime.withOffsetSameInstant(ZoneOffset.UTC)
             .format(EXPIRY_TIME_FORMATTER);
     }
@@ -57,6 +157,12 @@ public final class DynamoDbConsentExpiryTimeConverter {
      * @return The expiryTime as an OffsetDateTime.
      */
     public static OffsetDateTime toExpiryTimeOffsetDateTime(final String expiryTime) {
+        if (expiryTime.length() == UtcTimestampFormat.TIMESTAMP_LENGTH) {
+            final long epochSecond = UtcTimestampFormat.parseTimestamp(expiryTime, 0);
+            if (epochSecond != UtcTimestampFormat.NOT_PARSEABLE) {
+                return toUtcOffsetDateTime(epochSecond);
+            }
+        }
         return OffsetDateTime.parse(expiryTime)
             .withOffsetSameInstant(ZoneOffset.UTC)
             .truncatedTo(ChronoUnit.SECONDS);
@@ -69,8 +175,42 @@ public final class DynamoDbConsentExpiryTimeConverter {
      * @return The expiryTime as an OffsetDateTime.
      */
     public static OffsetDateTime toOffsetDateTimeFromExpiryTimeId(final String expiryTimeId) {
-        return OffsetDateTime.parse(expiryTimeId.split("\\|")[0])
+        final int separatorIndex = expiryTimeId.indexOf(EXPIRY_TIME_ID_SEPARATOR);
+        final int expiryTimeLength = (separatorIndex < 0) ? expiryTimeId.length() : separatorIndex;
+        if (expiryTimeLength == UtcTimestampFormat.TIMESTAMP_LENGTH) {
+            final long epochSecond = UtcTimestampFormat.parseTimestamp(expiryTimeId, 0);
+            if (epochSecond != UtcTimestampFormat.NOT_PARSEABLE) {
+                return toUtcOffsetDateTime(epochSecond);
+            }
+        }
+        return OffsetDateTime.parse(expiryTimeId.substring(0, expiryTimeLength))
             .withOffsetSameInstant(ZoneOffset.UTC)
             .truncatedTo(ChronoUnit.SECONDS);
     }
+
+    /**
+     * Validates an expiryHour shard count.
+     *
+     * @param shardCount The number of expiryHour shards.
+     * @throws IllegalArgumentException exception thrown if shardCount is not between 1 and MAX_EXPIRY_HOUR_SHARD_COUNT
+     */
+    public static void validateExpiryHourShardCount(final int shardCount) {
+        if (shardCount < 1 || shardCount > MAX_EXPIRY_HOUR_SHARD_COUNT) {
+            throw new IllegalArgumentException(String.format(
+                "Expiry hour shard count must be between 1 and %d, got %d", MAX_EXPIRY_HOUR_SHARD_COUNT, shardCount));
+        }
+    }
+
+    private static String toShardedExpiryHour(final String expiryHour, final int shard) {
+        final char[] chars = new char[expiryHour.length() + 3];
+        expiryHour.getChars(0, expiryHour.length(), chars, 0);
+        chars[expiryHour.length()] = EXPIRY_HOUR_SHARD_SEPARATOR;
+        chars[expiryHour.length() + 1] = (char) ('0' + shard / 10);
+        chars[expiryHour.length() + 2] = (char) ('0' + shard % 10);
+        return new String(chars);
+    }
+
+    private static OffsetDateTime toUtcOffsetDateTime(final long epochSecond) {
+        return OffsetDateTime.of(LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC), ZoneOffset.UTC);
+    }
 }
@@ -0,0 +1,88 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import com.consentframework.consentmanagement.api.JSON;
+import com.consentframework.shared.api.domain.entities.ApiRequest;
+import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Shared registry of the consent models ObjectMapper and thread-safe ObjectReader/ObjectWriter instances.
+ *
+ * The mapper is constructed once per JVM rather than once per caller.  Readers and writers are bound
+ * to a single type and cached per class, and since Jackson eagerly fetches the root (de)serializer
+ * when binding a reader or writer, the first request for a type pays its introspection cost once.
+ * Library types are warmed during class initialization so that cost is paid during Lambda cold start
+ * initialization rather than on the first invocation; consumers can warm their own request and
+ * response content types with {@link #warm(Class...)}.
+ *
+ * The mapper itself is not exposed, since reconfiguring it would leave readers and writers cached
+ * before the change with the old configuration; callers needing other features derive them from a
+ * cached reader or writer, eg. writerFor(type).without(SerializationFeature.INDENT_OUTPUT).
+ */
+public final class JsonMapperRegistry {
+    private static final ObjectMapper OBJECT_MAPPER = new JSON().getMapper();
+
+    private static final ClassValue<ObjectReader> READERS = new ClassValue<ObjectReader>() {
+        @Override
+        protected ObjectReader computeValue(final Class<?> type) {
+            return OBJECT_MAPPER.readerFor(type);
+        }
+    };
+
+    private static final ClassValue<ObjectWriter> WRITERS = new ClassValue<ObjectWriter>() {
+        @Override
+        protected ObjectWriter computeValue(final Class<?> type) {
+            return OBJECT_MAPPER.writerFor(type);
+        }
+    };
+
+    public static final ObjectReader API_REQUEST_READER = readerFor(ApiRequest.class);
+    public static final ObjectReader STORED_CONSENT_IMAGE_READER = readerFor(StoredConsentImage.class);
+    public static final ObjectWriter STORED_CONSENT_IMAGE_WRITER = writerFor(StoredConsentImage.class);
+
+    private JsonMapperRegistry() {}
+
+    /**
+     * Return the shared ObjectReader bound to the given type.
+     *
+     * @param type type to deserialize
+     * @return ObjectReader for the type
+     */
+    public static ObjectReader readerFor(final Class<?> type) {
+        return READERS.get(type);
+    }
+
+    /**
+     * Return the shared ObjectWriter bound to the given type.
+     *
+     * @param type type to serialize
+     * @return ObjectWriter for the type
+     */
+    public static ObjectWriter writerFor(final Class<?> type) {
+        return WRITERS.get(type);
+    }
+
+    /**
+     * Return the mapper's JsonFactory, for codecs streaming JSON with JsonGenerator and JsonParser.
+     *
+     * @return shared JsonFactory
+     */
+    public static JsonFactory getJsonFactory() {
+        return OBJECT_MAPPER.getFactory();
+    }
+
+    /**
+     * Build and cache the ObjectReader and ObjectWriter for each given type, eg. from a handler's static initializer.
+     *
+     * @param types types to warm
+     */
+    public static void warm(final Class<?>... types) {
+        for (final Class<?> type : types) {
+            readerFor(type);
+            writerFor(type);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Writes JSON strings with a streaming JsonGenerator from the shared JsonFactory.
+ *
+ * Generators take their buffers from the factory's recycler pool, so the streaming codecs only
+ * allocate the resulting string and its builder.
+ */
+final class JsonStringWriter {
+    private static final JsonFactory JSON_FACTORY = JsonMapperRegistry.getJsonFactory();
+    private static final int INITIAL_CAPACITY = 512;
+
+    /**
+     * Writes JSON content to a generator.
+     */
+    @FunctionalInterface
+    interface Content {
+        /**
+         * Write the content.
+         *
+         * @param generator JSON generator to write to
+         * @throws IOException exception thrown if unable to write the content
+         */
+        void writeTo(JsonGenerator generator) throws IOException;
+    }
+
+    private JsonStringWriter() {}
+
+    /**
+     * Write JSON content to a string.
+     *
+     * @param content JSON content
+     * @return JSON string
+     * @throws IOException exception thrown if unable to write the content
+     */
+    static String write(final Content content) throws IOException {
+        final StringWriter writer = new StringWriter(INITIAL_CAPACITY);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            content.writeTo(generator);
+        }
+        return writer.toString();
+    }
+}
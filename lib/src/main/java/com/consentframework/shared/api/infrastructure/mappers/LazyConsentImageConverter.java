@@ -0,0 +1,84 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import com.consentframework.shared.api.infrastructure.entities.LazyConsentImage;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeValueType;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Convert between LazyConsentImage holders and DynamoDB attribute values.
+ *
+ * Reading keeps the raw attribute value and defers decoding to DynamoDbConsentConverter until the image
+ * is accessed.  Writing reuses the raw value of an image that was never decoded if it's already in the
+ * configured encoding, and otherwise encodes the image as DynamoDbConsentConverter does.
+ */
+public class LazyConsentImageConverter implements AttributeConverter<LazyConsentImage> {
+    private final DynamoDbConsentConverter imageConverter;
+    private final AttributeValueType attributeValueType;
+
+    /**
+     * Construct a converter that writes JSON string images, used by the DynamoDbConvertedBy annotation.
+     */
+    public LazyConsentImageConverter() {
+        this(ConsentImageEncoding.JSON);
+    }
+
+    /**
+     * Construct a converter that writes images with the given encoding.
+     *
+     * @param encoding encoding used when writing decoded images
+     */
+    public LazyConsentImageConverter(final ConsentImageEncoding encoding) {
+        this.imageConverter = new DynamoDbConsentConverter(encoding);
+        this.attributeValueType = encoding.getAttributeValueType();
+    }
+
+    /**
+     * Convert from a LazyConsentImage to an AttributeValue, reusing the raw value if possible.
+     */
+    @Override
+    public AttributeValue transformFrom(final LazyConsentImage image) {
+        if (image == null) {
+            return null;
+        }
+        final AttributeValue undecodedAttributeValue = image.getUndecodedAttributeValue();
+        if (undecodedAttributeValue != null && undecodedAttributeValue.type().name().equals(attributeValueType.name())) {
+            return undecodedAttributeValue;
+        }
+        return imageConverter.transformFrom(image.get());
+    }
+
+    /**
+     * Wrap a JSON string, binary or map attribute value in a LazyConsentImage without decoding it.
+     *
+     * @throws IllegalArgumentException exception thrown if the attribute value is of any other non-null type
+     */
+    @Override
+    public LazyConsentImage transformTo(final AttributeValue input) {
+        if (input == null) {
+            return null;
+        }
+        return switch (input.type()) {
+            case S, B, M -> LazyConsentImage.fromAttributeValue(input, imageConverter::transformTo);
+            case NUL, UNKNOWN_TO_SDK_VERSION -> null;
+            default -> throw DynamoDbConsentConverter.unsupportedAttributeValueType(input);
+        };
+    }
+
+    /**
+     * Return the EnhancedType for LazyConsentImage holders.
+     */
+    @Override
+    public EnhancedType<LazyConsentImage> type() {
+        return EnhancedType.of(LazyConsentImage.class);
+    }
+
+    /**
+     * Return the DynamoDB attribute value type that decoded images are written as.
+     */
+    @Override
+    public AttributeValueType attributeValueType() {
+        return attributeValueType;
+    }
+}
@@ -0,0 +1,350 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import com.consentframework.shared.api.domain.constants.ApiResponseParameterName;
+import com.consentframework.shared.api.domain.constants.HttpStatusCode;
+import com.consentframework.shared.api.domain.entities.ApiRequest;
+import com.consentframework.shared.api.domain.entities.ApiResponse;
+import com.consentframework.shared.api.domain.exceptions.InternalServiceException;
+import com.consentframework.shared.api.domain.pagination.ListPage;
+import com.consentframework.shared.api.domain.requesthandlers.ResponseCompression;
+import com.consentframework.shared.api.domain.requesthandlers.ResponseHeaders;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes ListPage results as JSON list response bodies, eg. {"data":[...],"nextPageToken":"..."}.
+ *
+ * Results are serialized directly as UTF-8 into a pooled byte buffer rather than through an
+ * intermediate String, and the body is either returned as a typed ApiResponse or written straight
+ * into an API Gateway proxy response on an output stream, eg. a Lambda RequestStreamHandler's, so
+ * no response map is built.  Bodies are gzip-compressed according to the writer's ResponseCompression,
+ * and any body large enough to compress varies by Accept-Encoding whether or not it is compressed.
+ * Bodies over the size cap fail with an InternalServiceException rather than exceeding Lambda's
+ * response payload limit.  Writers are thread-safe and should be built once per handler.
+ *
+ * @param <T> result type
+ */
+public final class ListPageJsonWriter<T> {
+    public static final String DATA_FIELD_NAME = "data";
+    public static final String NEXT_PAGE_TOKEN_FIELD_NAME = "nextPageToken";
+    public static final int DEFAULT_MAX_BODY_BYTES = 5 * 1024 * 1024;
+
+    private static final JsonFactory JSON_FACTORY = JsonMapperRegistry.getJsonFactory();
+    private static final SerializableString DATA = new SerializedString(DATA_FIELD_NAME);
+    private static final SerializableString NEXT_PAGE_TOKEN = new SerializedString(NEXT_PAGE_TOKEN_FIELD_NAME);
+    private static final SerializableString STATUS_CODE = new SerializedString(ApiResponseParameterName.STATUS_CODE.getValue());
+    private static final SerializableString HEADERS = new SerializedString(ApiResponseParameterName.HEADERS.getValue());
+    private static final SerializableString BODY = new SerializedString(ApiResponseParameterName.BODY.getValue());
+    private static final SerializableString IS_BASE64_ENCODED = new SerializedString(ApiResponseParameterName.IS_BASE64_ENCODED.getValue());
+
+    private static final int INITIAL_BUFFER_BYTES = 8 * 1024;
+    private static final int MAX_RETAINED_BUFFER_BYTES = 1024 * 1024;
+
+    private final ResultWriter<T> resultWriter;
+    private final int maxBodyBytes;
+    private final ResponseCompression responseCompression;
+    private final Queue<BodyBuffer> bufferPool = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Writes a single result to a JSON generator.
+     *
+     * @param <T> result type
+     */
+    @FunctionalInterface
+    public interface ResultWriter<T> {
+        /**
+         * Write a result as a JSON value.
+         *
+         * @param generator JSON generator to write to
+         * @param result result to write
+         * @throws IOException exception thrown if unable to write the result
+         */
+        void write(JsonGenerator generator, T result) throws IOException;
+    }
+
+    private ListPageJsonWriter(final ResultWriter<T> resultWriter, final int maxBodyBytes, final ResponseCompression responseCompression) {
+        this.resultWriter = resultWriter;
+        this.maxBodyBytes = maxBodyBytes;
+        this.responseCompression = responseCompression;
+    }
+
+    /**
+     * Build a writer serializing results with the shared ObjectWriter for their type.
+     *
+     * @param resultType result type
+     * @param <T> result type
+     * @return list page writer
+     */
+    public static <T> ListPageJsonWriter<T> forType(final Class<T> resultType) {
+        final ObjectWriter objectWriter = JsonMapperRegistry.writerFor(resultType).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return of(objectWriter::writeValue);
+    }
+
+    /**
+     * Build a writer serializing results with a streaming result writer, eg. StoredConsentImageJsonCodec::writeConsentImage.
+     *
+     * @param resultWriter result writer
+     * @param <T> result type
+     * @return list page writer
+     */
+    public static <T> ListPageJsonWriter<T> of(final ResultWriter<T> resultWriter) {
+        return new ListPageJsonWriter<>(resultWriter, DEFAULT_MAX_BODY_BYTES, ResponseCompression.defaults());
+    }
+
+    /**
+     * Return a new writer with the given body size cap.
+     *
+     * @param maxBodyBytes maximum uncompressed body size in bytes
+     * @return list page writer
+     */
+    public ListPageJsonWriter<T> withMaxBodyBytes(final int maxBodyBytes) {
+        if (maxBodyBytes <= 0) {
+            throw new IllegalArgumentException(String.format("maxBodyBytes must be positive, was %d", maxBodyBytes));
+        }
+        return new ListPageJsonWriter<>(resultWriter, maxBodyBytes, responseCompression);
+    }
+
+    /**
+     * Return a new writer with the given response compression.
+     *
+     * @param compression response compression, eg. ResponseCompression.disabled()
+     * @return list page writer
+     */
+    public ListPageJsonWriter<T> withResponseCompression(final ResponseCompression compression) {
+        return new ListPageJsonWriter<>(resultWriter, maxBodyBytes, compression);
+    }
+
+    /**
+     * Build a 200 Success response for a page, compressing the body if accepted by the request.
+     *
+     * @param request API request
+     * @param page page of results
+     * @param headers response headers, preferably a shared map such as ResponseHeaders.JSON_NO_STORE
+     * @return API response
+     * @throws IOException exception thrown if unable to write a result
+     * @throws InternalServiceException exception thrown if the body exceeds the size cap
+     */
+    public ApiResponse toApiResponse(final ApiRequest request, final ListPage<T> page, final Map<String, String> headers)
+            throws IOException, InternalServiceException {
+        final BodyBuffer body = acquireBuffer();
+        BodyBuffer compressedBody = null;
+        try {
+            writeBody(page, body);
+            compressedBody = compress(request, body);
+            if (compressedBody == null) {
+                return new ApiResponse(HttpStatusCode.SUCCESS.getValue(), uncompressedHeaders(headers, body),
+                    new String(body.bytes, 0, body.size, StandardCharsets.UTF_8));
+            }
+            final ByteBuffer encodedBody = Base64.getEncoder().encode(ByteBuffer.wrap(compressedBody.bytes, 0, compressedBody.size));
+            return new ApiResponse(HttpStatusCode.SUCCESS.getValue(), withGzipEncoding(headers),
+                new String(encodedBody.array(), 0, encodedBody.limit(), StandardCharsets.ISO_8859_1), true);
+        } finally {
+            releaseBuffer(body);
+            releaseBuffer(compressedBody);
+        }
+    }
+
+    /**
+     * Write a 200 Success API Gateway proxy response for a page, compressing the body if accepted by the request.
+     *
+     * The body is escaped into the response directly from its UTF-8 bytes.  The output stream is not closed.
+     *
+     * @param request API request
+     * @param page page of results
+     * @param headers response headers, preferably a shared map such as ResponseHeaders.JSON_NO_STORE
+     * @param outputStream output stream to write the proxy response to
+     * @throws IOException exception thrown if unable to write a result or the response
+     * @throws InternalServiceException exception thrown if the body exceeds the size cap, before anything is written
+     */
+    public void writeApiResponse(final ApiRequest request, final ListPage<T> page, final Map<String, String> headers,
+            final OutputStream outputStream) throws IOException, InternalServiceException {
+        final BodyBuffer body = acquireBuffer();
+        BodyBuffer compressedBody = null;
+        try {
+            writeBody(page, body);
+            compressedBody = compress(request, body);
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+                generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+                generator.writeStartObject();
+                generator.writeFieldName(STATUS_CODE);
+                generator.writeNumber(HttpStatusCode.SUCCESS.getValue());
+                writeHeaders(generator, (compressedBody == null) ? uncompressedHeaders(headers, body) : withGzipEncoding(headers));
+                generator.writeFieldName(BODY);
+                if (compressedBody == null) {
+                    generator.writeUTF8String(body.bytes, 0, body.size);
+                } else {
+                    generator.writeBinary(compressedBody.bytes, 0, compressedBody.size);
+                    generator.writeFieldName(IS_BASE64_ENCODED);
+                    generator.writeBoolean(true);
+                }
+                generator.writeEndObject();
+            }
+        } finally {
+            releaseBuffer(body);
+            releaseBuffer(compressedBody);
+        }
+    }
+
+    /**
+     * Write a page's JSON body to an output stream.
+     *
+     * @param page page of results
+     * @param outputStream output stream to write the body to, which is not closed
+     * @throws IOException exception thrown if unable to write a result or the body
+     * @throws InternalServiceException exception thrown if the body exceeds the size cap, before anything is written
+     */
+    public void writeBody(final ListPage<T> page, final OutputStream outputStream) throws IOException, InternalServiceException {
+        final BodyBuffer body = acquireBuffer();
+        try {
+            writeBody(page, body);
+            outputStream.write(body.bytes, 0, body.size);
+        } finally {
+            releaseBuffer(body);
+        }
+    }
+
+    private void writeBody(final ListPage<T> page, final BodyBuffer body) throws IOException, InternalServiceException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(body)) {
+            generator.writeStartObject();
+            generator.writeFieldName(DATA);
+            generator.writeStartArray();
+            for (final T result : page.resultsOnPage()) {
+                resultWriter.write(generator, result);
+            }
+            generator.writeEndArray();
+            if (page.nextPageToken().isPresent()) {
+                generator.writeFieldName(NEXT_PAGE_TOKEN);
+                generator.writeString(page.nextPageToken().get());
+            }
+            generator.writeEndObject();
+        } catch (final BodyTooLargeException e) {
+            throw new InternalServiceException(String.format("List response body exceeds %d bytes", maxBodyBytes), e);
+        }
+    }
+
+    /**
+     * Gzip a body if large enough and accepted by the request, returning null if not compressed or if
+     * Base 64 encoded compression would not shrink it.
+     */
+    private BodyBuffer compress(final ApiRequest request, final BodyBuffer body) throws IOException {
+        if (!responseCompression.shouldCompress(request, body.size)) {
+            return null;
+        }
+        final BodyBuffer compressedBody = acquireBuffer();
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressedBody)) {
+            gzipStream.write(body.bytes, 0, body.size);
+        } catch (final BodyTooLargeException e) {
+            releaseBuffer(compressedBody);
+            return null;
+        }
+        final long encodedSize = 4L * ((compressedBody.size + 2) / 3);
+        if (encodedSize >= body.size) {
+            releaseBuffer(compressedBody);
+            return null;
+        }
+        return compressedBody;
+    }
+
+    /**
+     * Return the headers for an uncompressed body, adding Vary: Accept-Encoding if the body was large enough to compress.
+     */
+    private Map<String, String> uncompressedHeaders(final Map<String, String> headers, final BodyBuffer body) {
+        return responseCompression.isCompressible(body.size) ? ResponseHeaders.withVaryAcceptEncoding(headers) : headers;
+    }
+
+    private static Map<String, String> withGzipEncoding(final Map<String, String> headers) {
+        return ResponseHeaders.withGzipEncoding((headers == null) ? Map.of() : headers);
+    }
+
+    private static void writeHeaders(final JsonGenerator generator, final Map<String, String> headers) throws IOException {
+        if (headers == null) {
+            return;
+        }
+        generator.writeFieldName(HEADERS);
+        generator.writeStartObject();
+        for (final Map.Entry<String, String> header : headers.entrySet()) {
+            generator.writeStringField(header.getKey(), header.getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    private BodyBuffer acquireBuffer() {
+        final BodyBuffer buffer = bufferPool.poll();
+        return (buffer == null) ? new BodyBuffer(maxBodyBytes) : buffer;
+    }
+
+    /**
+     * Return a buffer to the pool for reuse, unless it has grown too large to keep.
+     */
+    private void releaseBuffer(final BodyBuffer buffer) {
+        if (buffer != null && buffer.bytes.length <= MAX_RETAINED_BUFFER_BYTES) {
+            buffer.size = 0;
+            bufferPool.offer(buffer);
+        }
+    }
+
+    /**
+     * Growable byte buffer failing writes beyond its capacity limit.
+     */
+    private static final class BodyBuffer extends OutputStream {
+        private final int maxSize;
+        private byte[] bytes;
+        private int size;
+
+        BodyBuffer(final int maxSize) {
+            this.maxSize = maxSize;
+            this.bytes = new byte[Math.min(INITIAL_BUFFER_BYTES, maxSize)];
+        }
+
+        @Override
+        public void write(final int value) throws IOException {
+            ensureCapacity(size + 1);
+            bytes[size++] = (byte) value;
+        }
+
+        @Override
+        public void write(final byte[] values, final int offset, final int length) throws IOException {
+            ensureCapacity(size + length);
+            System.arraycopy(values, offset, bytes, size, length);
+            size += length;
+        }
+
+        private void ensureCapacity(final int minCapacity) throws BodyTooLargeException {
+            if (minCapacity > maxSize || minCapacity < 0) {
+                throw new BodyTooLargeException();
+            }
+            if (minCapacity > bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(maxSize, Math.max(minCapacity, 2L * bytes.length)));
+            }
+        }
+    }
+
+    /**
+     * Thrown by a BodyBuffer when a write would exceed its capacity limit.
+     */
+    private static final class BodyTooLargeException extends IOException {
+        BodyTooLargeException() {
+            super(null, null);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import com.consentframework.shared.api.infrastructure.entities.ConsentKey;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeValueType;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Convert serviceId attribute values, interning service IDs read from DynamoDB.
+ *
+ * Service IDs have few distinct values, so items read through a table schema share one serviceId
+ * instance per service, as consent images decoded by the image codecs do.
+ */
+public class ServiceIdAttributeConverter implements AttributeConverter<String> {
+    /**
+     * Convert from a service ID to a string AttributeValue.
+     */
+    @Override
+    public AttributeValue transformFrom(final String serviceId) {
+        return (serviceId == null) ? null : AttributeValue.fromS(serviceId);
+    }
+
+    /**
+     * Convert from a string AttributeValue to the interned service ID, or null for a null or NUL attribute value.
+     */
+    @Override
+    public String transformTo(final AttributeValue input) {
+        return (input == null) ? null : ConsentKey.internServiceId(input.s());
+    }
+
+    /**
+     * Return the EnhancedType for service IDs.
+     */
+    @Override
+    public EnhancedType<String> type() {
+        return EnhancedType.of(String.class);
+    }
+
+    /**
+     * Return the DynamoDB attribute value type, string.
+     */
+    @Override
+    public AttributeValueType attributeValueType() {
+        return AttributeValueType.S;
+    }
+}
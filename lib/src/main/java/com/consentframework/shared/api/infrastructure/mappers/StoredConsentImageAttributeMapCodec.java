@@ -0,0 +1,170 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import com.consentframework.shared.api.infrastructure.entities.ConsentImage;
+import com.consentframework.shared.api.infrastructure.entities.ConsentKey;
+import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Codec between StoredConsentImage objects and native DynamoDB map attribute values.
+ *
+ * Null fields are omitted, consentData is stored as a nested map, consentVersion as a number,
+ * and expiryTime as an ISO 8601 offset date-time string.
+ */
+public final class StoredConsentImageAttributeMapCodec {
+    private static final DateTimeFormatter EXPIRY_TIME_FORMATTER = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+    private static final AttributeValue NULL_ATTRIBUTE_VALUE = AttributeValue.fromNul(true);
+
+    private StoredConsentImageAttributeMapCodec() {}
+
+    /**
+     * Convert a StoredConsentImage to a map of DynamoDB attribute values.
+     *
+     * @param consent consent image to convert
+     * @return attribute value map
+     */
+    public static Map<String, AttributeValue> toAttributeMap(final StoredConsentImage consent) {
+        final Map<String, AttributeValue> attributeMap = new HashMap<>();
+        putString(attributeMap, StoredConsentImage.JSON_PROPERTY_ID, consent.getId());
+        putString(attributeMap, StoredConsentImage.JSON_PROPERTY_CONSENT_ID, consent.getConsentId());
+        putConsentVersion(attributeMap, consent.getConsentVersion());
+        putString(attributeMap, StoredConsentImage.JSON_PROPERTY_USER_ID, consent.getUserId());
+        putString(attributeMap, StoredConsentImage.JSON_PROPERTY_SERVICE_ID, consent.getServiceId());
+        putString(attributeMap, StoredConsentImage.JSON_PROPERTY_CONSENT_STATUS, consent.getConsentStatus());
+        putString(attributeMap, StoredConsentImage.JSON_PROPERTY_CONSENT_TYPE, consent.getConsentType());
+        putConsentDataAttribute(attributeMap, consent.getConsentData());
+        putString(attributeMap, StoredConsentImage.JSON_PROPERTY_EXPIRY_HOUR, consent.getExpiryHour());
+        putExpiryTime(attributeMap, consent.getExpiryTime());
+        putString(attributeMap, StoredConsentImage.JSON_PROPERTY_EXPIRY_TIME_ID, consent.getExpiryTimeId());
+        return attributeMap;
+    }
+
+    /**
+     * Convert a ConsentImage to a map of DynamoDB attribute values, identical to the map of the equivalent StoredConsentImage.
+     *
+     * @param consent consent image to convert
+     * @return attribute value map
+     */
+    public static Map<String, AttributeValue> toAttributeMap(final ConsentImage consent) {
+        final Map<String, AttributeValue> attributeMap = new HashMap<>();
+        putString(attributeMap, StoredConsentImage.JSON_PROPERTY_ID, consent.id());
+        putString(attributeMap, StoredConsentImage.JSON_PROPERTY_CONSENT_ID, consent.consentId());
+        putConsentVersion(attributeMap, consent.consentVersion());
+        putString(attributeMap, StoredConsentImage.JSON_PROPERTY_USER_ID, consent.userId());
+        putString(attributeMap, StoredConsentImage.JSON_PROPERTY_SERVICE_ID, consent.serviceId());
+        putString(attributeMap, StoredConsentImage.JSON_PROPERTY_CONSENT_STATUS, consent.consentStatus());
+        putString(attributeMap, StoredConsentImage.JSON_PROPERTY_CONSENT_TYPE, consent.consentType());
+        putConsentDataAttribute(attributeMap, consent.consentData());
+        putString(attributeMap, StoredConsentImage.JSON_PROPERTY_EXPIRY_HOUR, consent.expiryHour());
+        putExpiryTime(attributeMap, consent.expiryTime());
+        putString(attributeMap, StoredConsentImage.JSON_PROPERTY_EXPIRY_TIME_ID, consent.expiryTimeId());
+        return attributeMap;
+    }
+
+    /**
+     * Convert a map of DynamoDB attribute values to a StoredConsentImage.
+     *
+     * @param attributeMap attribute value map
+     * @return consent image
+     * @throws IllegalArgumentException exception thrown if the map contains unrecognized or invalid attributes
+     */
+    public static StoredConsentImage fromAttributeMap(final Map<String, AttributeValue> attributeMap) {
+        final StoredConsentImage consent = new StoredConsentImage();
+        for (final Map.Entry<String, AttributeValue> attribute : attributeMap.entrySet()) {
+            switch (attribute.getKey()) {
+                case StoredConsentImage.JSON_PROPERTY_ID -> consent.setId(getString(attribute));
+                case StoredConsentImage.JSON_PROPERTY_CONSENT_ID -> consent.setConsentId(getString(attribute));
+                case StoredConsentImage.JSON_PROPERTY_CONSENT_VERSION -> consent.setConsentVersion(getInteger(attribute));
+                case StoredConsentImage.JSON_PROPERTY_USER_ID -> consent.setUserId(getString(attribute));
+                case StoredConsentImage.JSON_PROPERTY_SERVICE_ID -> consent.setServiceId(ConsentKey.internServiceId(getString(attribute)));
+                case StoredConsentImage.JSON_PROPERTY_CONSENT_STATUS -> consent.setConsentStatus(getString(attribute));
+                case StoredConsentImage.JSON_PROPERTY_CONSENT_TYPE -> consent.setConsentType(getString(attribute));
+                case StoredConsentImage.JSON_PROPERTY_CONSENT_DATA -> putConsentData(attribute, consent);
+                case StoredConsentImage.JSON_PROPERTY_EXPIRY_HOUR -> consent.setExpiryHour(getString(attribute));
+                case StoredConsentImage.JSON_PROPERTY_EXPIRY_TIME -> consent.setExpiryTime(getExpiryTime(attribute));
+                case StoredConsentImage.JSON_PROPERTY_EXPIRY_TIME_ID -> consent.setExpiryTimeId(getString(attribute));
+                default -> throw new IllegalArgumentException(
+                    String.format("Unrecognized attribute \"%s\" for StoredConsentImage", attribute.getKey()));
+            }
+        }
+        return consent;
+    }
+
+    private static void putString(final Map<String, AttributeValue> attributeMap, final String name, final String value) {
+        if (value != null) {
+            attributeMap.put(name, AttributeValue.fromS(value));
+        }
+    }
+
+    private static void putConsentVersion(final Map<String, AttributeValue> attributeMap, final Integer consentVersion) {
+        if (consentVersion != null) {
+            attributeMap.put(StoredConsentImage.JSON_PROPERTY_CONSENT_VERSION, AttributeValue.fromN(consentVersion.toString()));
+        }
+    }
+
+    private static void putConsentDataAttribute(final Map<String, AttributeValue> attributeMap, final Map<String, String> consentData) {
+        if (consentData != null) {
+            final Map<String, AttributeValue> consentDataMap = new HashMap<>();
+            consentData.forEach((key, value) ->
+                consentDataMap.put(key, value == null ? NULL_ATTRIBUTE_VALUE : AttributeValue.fromS(value)));
+            attributeMap.put(StoredConsentImage.JSON_PROPERTY_CONSENT_DATA, AttributeValue.fromM(consentDataMap));
+        }
+    }
+
+    private static void putExpiryTime(final Map<String, AttributeValue> attributeMap, final OffsetDateTime expiryTime) {
+        if (expiryTime != null) {
+            attributeMap.put(StoredConsentImage.JSON_PROPERTY_EXPIRY_TIME, AttributeValue.fromS(EXPIRY_TIME_FORMATTER.format(expiryTime)));
+        }
+    }
+
+    private static String getString(final Map.Entry<String, AttributeValue> attribute) {
+        final AttributeValue value = attribute.getValue();
+        if (Boolean.TRUE.equals(value.nul())) {
+            return null;
+        }
+        if (value.s() == null) {
+            throw new IllegalArgumentException(String.format("Expected %s to be a string attribute", attribute.getKey()));
+        }
+        return value.s();
+    }
+
+    private static Integer getInteger(final Map.Entry<String, AttributeValue> attribute) {
+        final AttributeValue value = attribute.getValue();
+        if (value.n() == null) {
+            throw new IllegalArgumentException(String.format("Expected %s to be a number attribute", attribute.getKey()));
+        }
+        return Integer.valueOf(value.n());
+    }
+
+    /**
+     * Add consent data items directly to the consent image to avoid copying an intermediate map.
+     */
+    private static void putConsentData(final Map.Entry<String, AttributeValue> attribute, final StoredConsentImage consent) {
+        if (!attribute.getValue().hasM()) {
+            throw new IllegalArgumentException(String.format("Expected %s to be a map attribute", attribute.getKey()));
+        }
+        consent.setConsentData(Map.of());
+        for (final Map.Entry<String, AttributeValue> consentDataItem : attribute.getValue().m().entrySet()) {
+            consent.putConsentDataItem(consentDataItem.getKey(), getString(consentDataItem));
+        }
+    }
+
+    private static OffsetDateTime getExpiryTime(final Map.Entry<String, AttributeValue> attribute) {
+        final String expiryTime = getString(attribute);
+        if (expiryTime == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(expiryTime, EXPIRY_TIME_FORMATTER).withOffsetSameInstant(ZoneOffset.UTC);
+        } catch (final DateTimeParseException e) {
+            throw new IllegalArgumentException(String.format("Unable to parse expiryTime '%s'", expiryTime), e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import com.consentframework.shared.api.infrastructure.entities.ConsentImage;
+import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Compact binary codec for StoredConsentImage objects.
+ *
+ * Encoded images start with a format version byte so that the binary layout can evolve
+ * while previously stored images remain readable, followed by the image fields encoded
+ * as CBOR in the same order and with the same inclusion rules as StoredConsentImageJsonCodec.
+ */
+public final class StoredConsentImageCborCodec {
+    public static final byte FORMAT_VERSION = 1;
+
+    private static final CBORFactory CBOR_FACTORY = new CBORFactory();
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    private StoredConsentImageCborCodec() {}
+
+    /**
+     * Serialize a StoredConsentImage to version-prefixed CBOR bytes.
+     *
+     * @param consent consent image to serialize
+     * @return encoded consent image
+     * @throws IOException exception thrown if unable to write the consent image
+     */
+    public static byte[] toBytes(final StoredConsentImage consent) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        outputStream.write(FORMAT_VERSION);
+        try (JsonGenerator generator = CBOR_FACTORY.createGenerator(outputStream)) {
+            StoredConsentImageJsonCodec.writeConsentImage(generator, consent);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Serialize a ConsentImage to version-prefixed CBOR bytes, identical to the bytes of the equivalent StoredConsentImage.
+     *
+     * @param consent consent image to serialize
+     * @return encoded consent image
+     * @throws IOException exception thrown if unable to write the consent image
+     */
+    public static byte[] toBytes(final ConsentImage consent) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        outputStream.write(FORMAT_VERSION);
+        try (JsonGenerator generator = CBOR_FACTORY.createGenerator(outputStream)) {
+            StoredConsentImageJsonCodec.writeConsentImage(generator, consent);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Deserialize a StoredConsentImage from version-prefixed CBOR bytes.
+     *
+     * @param bytes encoded consent image
+     * @return consent image
+     * @throws IOException exception thrown if the format version is unsupported or the image is invalid
+     */
+    public static StoredConsentImage fromBytes(final byte[] bytes) throws IOException {
+        if (bytes.length == 0 || bytes[0] != FORMAT_VERSION) {
+            throw new IOException(String.format("Unsupported consent image format version %s",
+                bytes.length == 0 ? "<empty>" : Byte.toString(bytes[0])));
+        }
+        try (JsonParser parser = CBOR_FACTORY.createParser(bytes, 1, bytes.length - 1)) {
+            parser.nextToken();
+            return StoredConsentImageJsonCodec.readConsentImage(parser);
+        }
+    }
+}
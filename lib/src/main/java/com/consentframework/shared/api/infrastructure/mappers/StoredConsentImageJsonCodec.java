@@ -0,0 +1,277 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import com.consentframework.shared.api.infrastructure.entities.ConsentImage;
+import com.consentframework.shared.api.infrastructure.entities.ConsentKey;
+import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerationException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * Streaming JSON codec for StoredConsentImage objects.
+ *
+ * Writes the same bytes as the consent models ObjectMapper: fields follow the StoredConsentImage
+ * JsonPropertyOrder, required fields are always written, optional fields are omitted when null,
+ * and expiryTime is written as an ISO 8601 offset date-time.  Reads images written by either path,
+ * avoiding databind bean introspection and reusing Jackson's recycled parser and generator buffers.
+ */
+public final class StoredConsentImageJsonCodec {
+    private static final JsonFactory JSON_FACTORY = JsonMapperRegistry.getJsonFactory();
+    static final DateTimeFormatter EXPIRY_TIME_FORMATTER = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+
+    private static final SerializableString ID = new SerializedString(StoredConsentImage.JSON_PROPERTY_ID);
+    private static final SerializableString CONSENT_ID = new SerializedString(StoredConsentImage.JSON_PROPERTY_CONSENT_ID);
+    private static final SerializableString CONSENT_VERSION = new SerializedString(StoredConsentImage.JSON_PROPERTY_CONSENT_VERSION);
+    private static final SerializableString USER_ID = new SerializedString(StoredConsentImage.JSON_PROPERTY_USER_ID);
+    private static final SerializableString SERVICE_ID = new SerializedString(StoredConsentImage.JSON_PROPERTY_SERVICE_ID);
+    private static final SerializableString CONSENT_STATUS = new SerializedString(StoredConsentImage.JSON_PROPERTY_CONSENT_STATUS);
+    private static final SerializableString CONSENT_TYPE = new SerializedString(StoredConsentImage.JSON_PROPERTY_CONSENT_TYPE);
+    private static final SerializableString CONSENT_DATA = new SerializedString(StoredConsentImage.JSON_PROPERTY_CONSENT_DATA);
+    private static final SerializableString EXPIRY_HOUR = new SerializedString(StoredConsentImage.JSON_PROPERTY_EXPIRY_HOUR);
+    private static final SerializableString EXPIRY_TIME = new SerializedString(StoredConsentImage.JSON_PROPERTY_EXPIRY_TIME);
+    private static final SerializableString EXPIRY_TIME_ID = new SerializedString(StoredConsentImage.JSON_PROPERTY_EXPIRY_TIME_ID);
+
+    private StoredConsentImageJsonCodec() {}
+
+    /**
+     * Serialize a StoredConsentImage to a JSON string.
+     *
+     * @param consent consent image to serialize
+     * @return JSON string
+     * @throws IOException exception thrown if unable to write the consent image
+     */
+    public static String toJsonString(final StoredConsentImage consent) throws IOException {
+        return JsonStringWriter.write(generator -> writeConsentImage(generator, consent));
+    }
+
+    /**
+     * Deserialize a StoredConsentImage from a JSON string.
+     *
+     * @param json JSON string
+     * @return consent image, or null if the JSON value is null
+     * @throws IOException exception thrown if the JSON is malformed or is not a valid consent image
+     */
+    public static StoredConsentImage fromJsonString(final String json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            parser.nextToken();
+            return readConsentImage(parser);
+        }
+    }
+
+    /**
+     * Write a StoredConsentImage as a JSON object to the given generator.
+     *
+     * @param generator JSON generator to write to
+     * @param consent consent image to write
+     * @throws IOException exception thrown if unable to write the consent image
+     */
+    public static void writeConsentImage(final JsonGenerator generator, final StoredConsentImage consent) throws IOException {
+        generator.writeStartObject();
+        writeStringField(generator, ID, consent.getId());
+        writeStringField(generator, CONSENT_ID, consent.getConsentId());
+        writeConsentVersion(generator, consent.getConsentVersion());
+        writeStringField(generator, USER_ID, consent.getUserId());
+        writeStringField(generator, SERVICE_ID, consent.getServiceId());
+        writeStringField(generator, CONSENT_STATUS, consent.getConsentStatus());
+        writeOptionalStringField(generator, CONSENT_TYPE, consent.getConsentType());
+        writeConsentData(generator, consent.getConsentData());
+        writeOptionalStringField(generator, EXPIRY_HOUR, consent.getExpiryHour());
+        writeExpiryTime(generator, consent.getExpiryTime());
+        writeOptionalStringField(generator, EXPIRY_TIME_ID, consent.getExpiryTimeId());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Serialize a ConsentImage to a JSON string, identical to the JSON string of the equivalent StoredConsentImage.
+     *
+     * @param consent consent image to serialize
+     * @return JSON string
+     * @throws IOException exception thrown if unable to write the consent image
+     */
+    public static String toJsonString(final ConsentImage consent) throws IOException {
+        return JsonStringWriter.write(generator -> writeConsentImage(generator, consent));
+    }
+
+    /**
+     * Write a ConsentImage as a JSON object to the given generator, without copying it to a StoredConsentImage.
+     *
+     * @param generator JSON generator to write to
+     * @param consent consent image to write
+     * @throws IOException exception thrown if unable to write the consent image
+     */
+    public static void writeConsentImage(final JsonGenerator generator, final ConsentImage consent) throws IOException {
+        generator.writeStartObject();
+        writeStringField(generator, ID, consent.id());
+        writeStringField(generator, CONSENT_ID, consent.consentId());
+        writeConsentVersion(generator, consent.consentVersion());
+        writeStringField(generator, USER_ID, consent.userId());
+        writeStringField(generator, SERVICE_ID, consent.serviceId());
+        writeStringField(generator, CONSENT_STATUS, consent.consentStatus());
+        writeOptionalStringField(generator, CONSENT_TYPE, consent.consentType());
+        writeConsentData(generator, consent.consentData());
+        writeOptionalStringField(generator, EXPIRY_HOUR, consent.expiryHour());
+        writeExpiryTime(generator, consent.expiryTime());
+        writeOptionalStringField(generator, EXPIRY_TIME_ID, consent.expiryTimeId());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Read a StoredConsentImage from the JSON value at the parser's current token.
+     *
+     * @param parser JSON parser positioned at the start of the consent image object
+     * @return consent image, or null if the current token is a JSON null
+     * @throws IOException exception thrown if the JSON is malformed or is not a valid consent image
+     */
+    public static StoredConsentImage readConsentImage(final JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected StoredConsentImage to be a JSON object");
+        }
+
+        final StoredConsentImage consent = new StoredConsentImage();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            parser.nextToken();
+            switch (fieldName) {
+                case StoredConsentImage.JSON_PROPERTY_ID -> consent.setId(readString(parser));
+                case StoredConsentImage.JSON_PROPERTY_CONSENT_ID -> consent.setConsentId(readString(parser));
+                case StoredConsentImage.JSON_PROPERTY_CONSENT_VERSION -> consent.setConsentVersion(readInteger(parser));
+                case StoredConsentImage.JSON_PROPERTY_USER_ID -> consent.setUserId(readString(parser));
+                case StoredConsentImage.JSON_PROPERTY_SERVICE_ID -> consent.setServiceId(ConsentKey.internServiceId(readString(parser)));
+                case StoredConsentImage.JSON_PROPERTY_CONSENT_STATUS -> consent.setConsentStatus(readString(parser));
+                case StoredConsentImage.JSON_PROPERTY_CONSENT_TYPE -> consent.setConsentType(readString(parser));
+                case StoredConsentImage.JSON_PROPERTY_CONSENT_DATA -> readConsentData(parser, consent);
+                case StoredConsentImage.JSON_PROPERTY_EXPIRY_HOUR -> consent.setExpiryHour(readString(parser));
+                case StoredConsentImage.JSON_PROPERTY_EXPIRY_TIME -> consent.setExpiryTime(readExpiryTime(parser));
+                case StoredConsentImage.JSON_PROPERTY_EXPIRY_TIME_ID -> consent.setExpiryTimeId(readString(parser));
+                default -> throw new JsonParseException(parser,
+                    String.format("Unrecognized field \"%s\" for StoredConsentImage", fieldName));
+            }
+        }
+        return consent;
+    }
+
+    private static void writeStringField(final JsonGenerator generator, final SerializableString fieldName,
+            final String value) throws IOException {
+        generator.writeFieldName(fieldName);
+        generator.writeString(value);
+    }
+
+    private static void writeStringField(final JsonGenerator generator, final String fieldName,
+            final String value) throws IOException {
+        generator.writeFieldName(fieldName);
+        generator.writeString(value);
+    }
+
+    private static void writeOptionalStringField(final JsonGenerator generator, final SerializableString fieldName,
+            final String value) throws IOException {
+        if (value != null) {
+            writeStringField(generator, fieldName, value);
+        }
+    }
+
+    private static void writeConsentVersion(final JsonGenerator generator, final Integer consentVersion) throws IOException {
+        generator.writeFieldName(CONSENT_VERSION);
+        if (consentVersion == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(consentVersion.intValue());
+        }
+    }
+
+    private static void writeConsentData(final JsonGenerator generator, final Map<String, String> consentData) throws IOException {
+        if (consentData == null) {
+            return;
+        }
+        generator.writeFieldName(CONSENT_DATA);
+        generator.writeStartObject();
+        for (final Map.Entry<String, String> consentDataItem : consentData.entrySet()) {
+            if (consentDataItem.getKey() == null) {
+                throw new JsonGenerationException("Null key for a Map not allowed in JSON", generator);
+            }
+            writeStringField(generator, consentDataItem.getKey(), consentDataItem.getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeExpiryTime(final JsonGenerator generator, final OffsetDateTime expiryTime) throws IOException {
+        if (expiryTime != null) {
+            generator.writeFieldName(EXPIRY_TIME);
+            generator.writeString(EXPIRY_TIME_FORMATTER.format(expiryTime));
+        }
+    }
+
+    /**
+     * Read consent data into the consent image, adding items directly to avoid copying an intermediate map.
+     */
+    private static void readConsentData(final JsonParser parser, final StoredConsentImage consent) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            consent.setConsentData(null);
+            return;
+        }
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected consentData to be a JSON object");
+        }
+
+        consent.setConsentData(Map.of());
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String key = parser.currentName();
+            parser.nextToken();
+            consent.putConsentDataItem(key, readString(parser));
+        }
+    }
+
+    /**
+     * Read a string value, accepting scalar values as their text consistent with Jackson databind.
+     */
+    static String readString(final JsonParser parser) throws IOException {
+        final JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return parser.getText();
+        }
+        throw new JsonParseException(parser, String.format("Expected %s to be a string", parser.currentName()));
+    }
+
+    static Integer readInteger(final JsonParser parser) throws IOException {
+        final JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        throw new JsonParseException(parser, String.format("Expected %s to be an integer", parser.currentName()));
+    }
+
+    /**
+     * Read an ISO 8601 expiry time, adjusted to UTC consistent with Jackson's JavaTimeModule.
+     */
+    static OffsetDateTime readExpiryTime(final JsonParser parser) throws IOException {
+        final String expiryTime = readString(parser);
+        if (expiryTime == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(expiryTime, EXPIRY_TIME_FORMATTER).withOffsetSameInstant(ZoneOffset.UTC);
+        } catch (final DateTimeParseException e) {
+            throw new JsonParseException(parser, String.format("Unable to parse expiryTime '%s'", expiryTime), e);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import com.consentframework.shared.api.infrastructure.entities.ConsentKey;
+import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * JSON Merge Patch (RFC 7386) codec for the difference between two StoredConsentImage objects.
+ *
+ * A patch holds only the fields that differ between the old and new image, with null for fields
+ * removed from the new image.  consentData is patched per key, so a status change on a consent with
+ * large consentData stores only the changed status and version.  Merge patches cannot express null
+ * values, so images with null consentData values can't be patched and must be stored in full.
+ */
+public final class StoredConsentImagePatchCodec {
+    private static final JsonFactory JSON_FACTORY = JsonMapperRegistry.getJsonFactory();
+
+    private StoredConsentImagePatchCodec() {}
+
+    /**
+     * Return whether the new image can be stored as a patch against the old image.
+     *
+     * @param oldImage old consent image, or null
+     * @param newImage new consent image, or null
+     * @return true if both images are present, for the same consent, and the new image has no null consentData values
+     */
+    public static boolean canPatch(final StoredConsentImage oldImage, final StoredConsentImage newImage) {
+        return oldImage != null
+            && newImage != null
+            && Objects.equals(oldImage.getId(), newImage.getId())
+            && (newImage.getConsentData() == null || !newImage.getConsentData().containsValue(null));
+    }
+
+    /**
+     * Serialize the merge patch from the old image to the new image.
+     *
+     * @param oldImage old consent image
+     * @param newImage new consent image, which canPatch must allow
+     * @return JSON merge patch string
+     * @throws IOException exception thrown if unable to write the patch
+     */
+    public static String toMergePatch(final StoredConsentImage oldImage, final StoredConsentImage newImage) throws IOException {
+        return JsonStringWriter.write(generator -> writeMergePatch(generator, oldImage, newImage));
+    }
+
+    /**
+     * Rebuild the new image by applying a merge patch to the old image.
+     *
+     * @param oldImage old consent image, which is not modified
+     * @param mergePatch JSON merge patch string from toMergePatch
+     * @return new consent image
+     * @throws IOException exception thrown if the patch is malformed or has an unrecognized field
+     */
+    public static StoredConsentImage applyMergePatch(final StoredConsentImage oldImage, final String mergePatch) throws IOException {
+        final StoredConsentImage newImage = new StoredConsentImage()
+            .id(oldImage.getId())
+            .consentId(oldImage.getConsentId())
+            .consentVersion(oldImage.getConsentVersion())
+            .userId(oldImage.getUserId())
+            .serviceId(oldImage.getServiceId())
+            .consentStatus(oldImage.getConsentStatus())
+            .consentType(oldImage.getConsentType())
+            .consentData(oldImage.getConsentData())
+            .expiryHour(oldImage.getExpiryHour())
+            .expiryTime(oldImage.getExpiryTime())
+            .expiryTimeId(oldImage.getExpiryTimeId());
+
+        try (JsonParser parser = JSON_FACTORY.createParser(mergePatch)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected consent image merge patch to be a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.currentName();
+                parser.nextToken();
+                switch (fieldName) {
+                    case StoredConsentImage.JSON_PROPERTY_ID -> newImage.setId(StoredConsentImageJsonCodec.readString(parser));
+                    case StoredConsentImage.JSON_PROPERTY_CONSENT_ID ->
+                        newImage.setConsentId(StoredConsentImageJsonCodec.readString(parser));
+                    case StoredConsentImage.JSON_PROPERTY_CONSENT_VERSION ->
+                        newImage.setConsentVersion(StoredConsentImageJsonCodec.readInteger(parser));
+                    case StoredConsentImage.JSON_PROPERTY_USER_ID -> newImage.setUserId(StoredConsentImageJsonCodec.readString(parser));
+                    case StoredConsentImage.JSON_PROPERTY_SERVICE_ID ->
+                        newImage.setServiceId(ConsentKey.internServiceId(StoredConsentImageJsonCodec.readString(parser)));
+                    case StoredConsentImage.JSON_PROPERTY_CONSENT_STATUS ->
+                        newImage.setConsentStatus(StoredConsentImageJsonCodec.readString(parser));
+                    case StoredConsentImage.JSON_PROPERTY_CONSENT_TYPE ->
+                        newImage.setConsentType(StoredConsentImageJsonCodec.readString(parser));
+                    case StoredConsentImage.JSON_PROPERTY_CONSENT_DATA -> applyConsentDataPatch(parser, newImage);
+                    case StoredConsentImage.JSON_PROPERTY_EXPIRY_HOUR ->
+                        newImage.setExpiryHour(StoredConsentImageJsonCodec.readString(parser));
+                    case StoredConsentImage.JSON_PROPERTY_EXPIRY_TIME ->
+                        newImage.setExpiryTime(StoredConsentImageJsonCodec.readExpiryTime(parser));
+                    case StoredConsentImage.JSON_PROPERTY_EXPIRY_TIME_ID ->
+                        newImage.setExpiryTimeId(StoredConsentImageJsonCodec.readString(parser));
+                    default -> throw new JsonParseException(parser,
+                        String.format("Unrecognized field \"%s\" for consent image merge patch", fieldName));
+                }
+            }
+        }
+        return newImage;
+    }
+
+    private static void writeMergePatch(final JsonGenerator generator, final StoredConsentImage oldImage,
+            final StoredConsentImage newImage) throws IOException {
+        generator.writeStartObject();
+        writeChangedString(generator, StoredConsentImage.JSON_PROPERTY_ID, oldImage.getId(), newImage.getId());
+        writeChangedString(generator, StoredConsentImage.JSON_PROPERTY_CONSENT_ID, oldImage.getConsentId(), newImage.getConsentId());
+        if (!Objects.equals(oldImage.getConsentVersion(), newImage.getConsentVersion())) {
+            generator.writeFieldName(StoredConsentImage.JSON_PROPERTY_CONSENT_VERSION);
+            if (newImage.getConsentVersion() == null) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(newImage.getConsentVersion().intValue());
+            }
+        }
+        writeChangedString(generator, StoredConsentImage.JSON_PROPERTY_USER_ID, oldImage.getUserId(), newImage.getUserId());
+        writeChangedString(generator, StoredConsentImage.JSON_PROPERTY_SERVICE_ID, oldImage.getServiceId(), newImage.getServiceId());
+        writeChangedString(generator, StoredConsentImage.JSON_PROPERTY_CONSENT_STATUS,
+            oldImage.getConsentStatus(), newImage.getConsentStatus());
+        writeChangedString(generator, StoredConsentImage.JSON_PROPERTY_CONSENT_TYPE, oldImage.getConsentType(), newImage.getConsentType());
+        writeConsentDataPatch(generator, oldImage.getConsentData(), newImage.getConsentData());
+        writeChangedString(generator, StoredConsentImage.JSON_PROPERTY_EXPIRY_HOUR, oldImage.getExpiryHour(), newImage.getExpiryHour());
+        if (!Objects.equals(oldImage.getExpiryTime(), newImage.getExpiryTime())) {
+            generator.writeFieldName(StoredConsentImage.JSON_PROPERTY_EXPIRY_TIME);
+            generator.writeString((newImage.getExpiryTime() == null)
+                ? null
+                : StoredConsentImageJsonCodec.EXPIRY_TIME_FORMATTER.format(newImage.getExpiryTime()));
+        }
+        writeChangedString(generator, StoredConsentImage.JSON_PROPERTY_EXPIRY_TIME_ID,
+            oldImage.getExpiryTimeId(), newImage.getExpiryTimeId());
+        generator.writeEndObject();
+    }
+
+    private static void writeChangedString(final JsonGenerator generator, final String fieldName, final String oldValue,
+            final String newValue) throws IOException {
+        if (!Objects.equals(oldValue, newValue)) {
+            generator.writeFieldName(fieldName);
+            generator.writeString(newValue);
+        }
+    }
+
+    private static void writeConsentDataPatch(final JsonGenerator generator, final Map<String, String> oldConsentData,
+            final Map<String, String> newConsentData) throws IOException {
+        if (Objects.equals(oldConsentData, newConsentData)) {
+            return;
+        }
+        generator.writeFieldName(StoredConsentImage.JSON_PROPERTY_CONSENT_DATA);
+        if (newConsentData == null) {
+            generator.writeNull();
+            return;
+        }
+
+        // Patching a null target replaces it with the patch object, so only write changes against existing data
+        final Map<String, String> baseConsentData = (oldConsentData == null) ? Map.of() : oldConsentData;
+        generator.writeStartObject();
+        for (final Map.Entry<String, String> consentDataItem : newConsentData.entrySet()) {
+            final String key = consentDataItem.getKey();
+            if (!baseConsentData.containsKey(key) || !Objects.equals(baseConsentData.get(key), consentDataItem.getValue())) {
+                generator.writeFieldName(key);
+                generator.writeString(consentDataItem.getValue());
+            }
+        }
+        for (final String key : baseConsentData.keySet()) {
+            if (!newConsentData.containsKey(key)) {
+                generator.writeFieldName(key);
+                generator.writeNull();
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private static void applyConsentDataPatch(final JsonParser parser, final StoredConsentImage newImage) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            newImage.setConsentData(null);
+            return;
+        }
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected consentData merge patch to be a JSON object");
+        }
+
+        if (newImage.getConsentData() == null) {
+            newImage.setConsentData(Map.of());
+        }
+        // Update the new image's own copy of the old consent data in place
+        final Map<String, String> consentData = newImage.getConsentData();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String key = parser.currentName();
+            parser.nextToken();
+            final String value = StoredConsentImageJsonCodec.readString(parser);
+            if (value == null) {
+                consentData.remove(key);
+            } else {
+                consentData.put(key, value);
+            }
+        }
+    }
+}
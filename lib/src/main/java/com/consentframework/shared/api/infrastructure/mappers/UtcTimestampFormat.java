@@ -0,0 +1,201 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+/**
+ * Fixed-width formatting and parsing of UTC timestamps with second precision, eg. "2011-12-03T10:15:12Z".
+ *
+ * Converts directly between epoch seconds and characters using civil calendar arithmetic, avoiding
+ * DateTimeFormatter field resolution and intermediate date-time objects.  Supports years 0001 to 9999,
+ * the range in which the output is identical to the "yyyy-MM-dd'T'HH:mm:ss'Z'" pattern; callers should
+ * fall back to java.time for timestamps outside that range or strings not in the exact fixed-width form.
+ */
+public final class UtcTimestampFormat {
+    public static final int TIMESTAMP_LENGTH = 20;
+    public static final int HOUR_LENGTH = 17;
+    public static final long NOT_PARSEABLE = Long.MIN_VALUE;
+
+    /**
+     * Epoch second of 0001-01-01T00:00:00Z.
+     */
+    public static final long MIN_EPOCH_SECOND = -62135596800L;
+
+    /**
+     * Epoch second of 9999-12-31T23:59:59Z.
+     */
+    public static final long MAX_EPOCH_SECOND = 253402300799L;
+
+    private static final int SECONDS_PER_DAY = 86400;
+    private static final int DAYS_PER_ERA = 146097;
+    private static final int DAYS_FROM_CIVIL_EPOCH_TO_UNIX_EPOCH = 719468;
+
+    private UtcTimestampFormat() {}
+
+    /**
+     * Return whether the epoch second can be formatted by this class.
+     *
+     * @param epochSecond seconds since 1970-01-01T00:00:00Z
+     * @return true if the timestamp is between years 0001 and 9999
+     */
+    public static boolean isSupported(final long epochSecond) {
+        return epochSecond >= MIN_EPOCH_SECOND && epochSecond <= MAX_EPOCH_SECOND;
+    }
+
+    /**
+     * Format an epoch second as "yyyy-MM-dd'T'HH:mm:ss'Z'".
+     *
+     * @param epochSecond seconds since 1970-01-01T00:00:00Z, which must be supported
+     * @return formatted timestamp
+     */
+    public static String formatTimestamp(final long epochSecond) {
+        final char[] chars = new char[TIMESTAMP_LENGTH];
+        writeTimestamp(epochSecond, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * Format the hour containing an epoch second as "yyyy-MM-dd'T'HH:00'Z'".
+     *
+     * @param epochSecond seconds since 1970-01-01T00:00:00Z, which must be supported
+     * @return formatted hour
+     */
+    public static String formatHour(final long epochSecond) {
+        final char[] chars = new char[HOUR_LENGTH];
+        writeDateAndHour(epochSecond, chars, 0);
+        chars[13] = ':';
+        chars[14] = '0';
+        chars[15] = '0';
+        chars[16] = 'Z';
+        return new String(chars);
+    }
+
+    /**
+     * Format an epoch second as "yyyy-MM-dd'T'HH:mm:ss'Z'" followed by a separator and suffix, eg. an expiryTimeId.
+     *
+     * @param epochSecond seconds since 1970-01-01T00:00:00Z, which must be supported
+     * @param separator separator character
+     * @param suffix suffix string
+     * @return formatted timestamp with suffix
+     */
+    public static String formatTimestampWithSuffix(final long epochSecond, final char separator, final String suffix) {
+        final char[] chars = new char[TIMESTAMP_LENGTH + 1 + suffix.length()];
+        writeTimestamp(epochSecond, chars, 0);
+        chars[TIMESTAMP_LENGTH] = separator;
+        suffix.getChars(0, suffix.length(), chars, TIMESTAMP_LENGTH + 1);
+        return new String(chars);
+    }
+
+    /**
+     * Write an epoch second as the 20 characters "yyyy-MM-dd'T'HH:mm:ss'Z'".
+     *
+     * @param epochSecond seconds since 1970-01-01T00:00:00Z, which must be supported
+     * @param destination destination array
+     * @param offset index to start writing at
+     * @throws IllegalArgumentException exception thrown if the epoch second is not supported
+     */
+    public static void writeTimestamp(final long epochSecond, final char[] destination, final int offset) {
+        writeDateAndHour(epochSecond, destination, offset);
+        final int secondOfDay = Math.floorMod(epochSecond, SECONDS_PER_DAY);
+        destination[offset + 13] = ':';
+        writeTwoDigits((secondOfDay / 60) % 60, destination, offset + 14);
+        destination[offset + 16] = ':';
+        writeTwoDigits(secondOfDay % 60, destination, offset + 17);
+        destination[offset + 19] = 'Z';
+    }
+
+    /**
+     * Parse the 20 characters "yyyy-MM-dd'T'HH:mm:ss'Z'" starting at the given offset.
+     *
+     * @param text text to parse
+     * @param offset index of the first character of the timestamp
+     * @return epoch second, or NOT_PARSEABLE if the characters are not a valid timestamp in exactly this form
+     */
+    public static long parseTimestamp(final CharSequence text, final int offset) {
+        if (offset < 0 || text.length() - offset < TIMESTAMP_LENGTH
+                || text.charAt(offset + 4) != '-' || text.charAt(offset + 7) != '-' || text.charAt(offset + 10) != 'T'
+                || text.charAt(offset + 13) != ':' || text.charAt(offset + 16) != ':' || text.charAt(offset + 19) != 'Z') {
+            return NOT_PARSEABLE;
+        }
+
+        final int year = parseDigits(text, offset, 4);
+        final int month = parseDigits(text, offset + 5, 2);
+        final int day = parseDigits(text, offset + 8, 2);
+        final int hour = parseDigits(text, offset + 11, 2);
+        final int minute = parseDigits(text, offset + 14, 2);
+        final int second = parseDigits(text, offset + 17, 2);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return NOT_PARSEABLE;
+        }
+        return daysFromCivil(year, month, day) * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second;
+    }
+
+    /**
+     * Write "yyyy-MM-dd'T'HH", the first 13 characters shared by timestamps and hours.
+     */
+    private static void writeDateAndHour(final long epochSecond, final char[] destination, final int offset) {
+        if (!isSupported(epochSecond)) {
+            throw new IllegalArgumentException(String.format("Epoch second %d is outside years 0001 to 9999", epochSecond));
+        }
+
+        // Civil-from-days, with eras of 400 years starting on March 1 so that leap days fall at the end of each year
+        final long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        final long shiftedDay = epochDay + DAYS_FROM_CIVIL_EPOCH_TO_UNIX_EPOCH;
+        final long era = Math.floorDiv(shiftedDay, DAYS_PER_ERA);
+        final int dayOfEra = (int) (shiftedDay - era * DAYS_PER_ERA);
+        final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int monthIndex = (5 * dayOfYear + 2) / 153;
+        final int day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+        final int month = (monthIndex < 10) ? monthIndex + 3 : monthIndex - 9;
+        final int year = (int) (yearOfEra + era * 400) + ((month <= 2) ? 1 : 0);
+        final int hour = Math.floorMod(epochSecond, SECONDS_PER_DAY) / 3600;
+
+        writeTwoDigits(year / 100, destination, offset);
+        writeTwoDigits(year % 100, destination, offset + 2);
+        destination[offset + 4] = '-';
+        writeTwoDigits(month, destination, offset + 5);
+        destination[offset + 7] = '-';
+        writeTwoDigits(day, destination, offset + 8);
+        destination[offset + 10] = 'T';
+        writeTwoDigits(hour, destination, offset + 11);
+    }
+
+    /**
+     * Days-from-civil, the inverse of the calculation in writeDateAndHour.
+     */
+    private static long daysFromCivil(final int year, final int month, final int day) {
+        final int marchBasedYear = (month <= 2) ? year - 1 : year;
+        final int era = marchBasedYear / 400;
+        final int yearOfEra = marchBasedYear - era * 400;
+        final int dayOfYear = (153 * ((month > 2) ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return (long) era * DAYS_PER_ERA + dayOfEra - DAYS_FROM_CIVIL_EPOCH_TO_UNIX_EPOCH;
+    }
+
+    private static int lengthOfMonth(final int year, final int month) {
+        return switch (month) {
+            case 2 -> ((year % 4 == 0 && year % 100 != 0) || year % 400 == 0) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static void writeTwoDigits(final int value, final char[] destination, final int offset) {
+        destination[offset] = (char) ('0' + value / 10);
+        destination[offset + 1] = (char) ('0' + value % 10);
+    }
+
+    /**
+     * Parse a fixed number of ASCII digits, returning -1 if any character is not a digit.
+     */
+    private static int parseDigits(final CharSequence text, final int offset, final int length) {
+        int value = 0;
+        for (int index = offset; index < offset + length; index++) {
+            final int digit = text.charAt(index) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
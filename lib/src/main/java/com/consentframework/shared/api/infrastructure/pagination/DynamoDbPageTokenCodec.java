@@ -0,0 +1,279 @@
+package com.consentframework.shared.api.infrastructure.pagination;
+
+import com.consentframework.shared.api.domain.exceptions.BadRequestException;
+import com.consentframework.shared.api.infrastructure.mappers.JsonMapperRegistry;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Converts DynamoDB exclusive start keys to and from opaque, signed page tokens.
+ *
+ * The token payload is a JSON object mapping each key attribute name to its type and value,
+ * eg. {"id":{"S":"ServiceId|UserId|ConsentId"}}, optionally deflated when that makes it smaller.
+ * Tokens are base64url-encoded as a format byte, the payload, and a truncated HMAC-SHA256 tag
+ * over both, so clients cannot forge start keys.  Decoding checks the token length and tag
+ * before inflating or parsing anything, so tampered tokens are rejected cheaply and before
+ * any storage call is made.  Deflaters, inflaters and Macs are reused from small bounded pools
+ * rather than held per thread, since callers may run on short-lived virtual threads.
+ */
+public class DynamoDbPageTokenCodec {
+    public static final String INVALID_PAGE_TOKEN_MESSAGE = "Invalid pageToken";
+    public static final int MIN_SIGNING_KEY_LENGTH = 32;
+    public static final int MAX_PAGE_TOKEN_LENGTH = 2048;
+
+    static final byte FORMAT_JSON = 1;
+    static final byte FORMAT_DEFLATED_JSON = 2;
+    static final int TAG_LENGTH = 16;
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MIN_DEFLATE_PAYLOAD_LENGTH = 64;
+    private static final int MAX_PAYLOAD_LENGTH = 4 * MAX_PAGE_TOKEN_LENGTH;
+    private static final int MAX_POOLED_INSTANCES = 16;
+
+    private static final BlockingQueue<Deflater> DEFLATERS = new ArrayBlockingQueue<>(MAX_POOLED_INSTANCES);
+    private static final BlockingQueue<Inflater> INFLATERS = new ArrayBlockingQueue<>(MAX_POOLED_INSTANCES);
+
+    private static final JsonFactory JSON_FACTORY = JsonMapperRegistry.getJsonFactory();
+    private static final Base64.Encoder BASE64_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_DECODER = Base64.getUrlDecoder();
+
+    private static final String STRING_TYPE = "S";
+    private static final String NUMBER_TYPE = "N";
+    private static final String BINARY_TYPE = "B";
+
+    private final boolean deflate;
+    private final SecretKeySpec secretKey;
+    private final BlockingQueue<Mac> macs = new ArrayBlockingQueue<>(MAX_POOLED_INSTANCES);
+
+    /**
+     * Construct a codec that signs tokens with the given key and deflates large payloads.
+     *
+     * @param signingKey secret HMAC key of at least MIN_SIGNING_KEY_LENGTH bytes
+     */
+    public DynamoDbPageTokenCodec(final byte[] signingKey) {
+        this(signingKey, true);
+    }
+
+    /**
+     * Construct a codec that signs tokens with the given key.
+     *
+     * @param signingKey secret HMAC key of at least MIN_SIGNING_KEY_LENGTH bytes
+     * @param deflate whether to deflate payloads when that makes the token smaller
+     */
+    public DynamoDbPageTokenCodec(final byte[] signingKey, final boolean deflate) {
+        if (signingKey == null || signingKey.length < MIN_SIGNING_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                String.format("Page token signing key must be at least %d bytes", MIN_SIGNING_KEY_LENGTH));
+        }
+        this.deflate = deflate;
+        this.secretKey = new SecretKeySpec(signingKey.clone(), HMAC_ALGORITHM);
+        // Fail fast on an unusable key, and pool the Mac for the first token
+        macs.offer(createMac(secretKey));
+    }
+
+    /**
+     * Encode a DynamoDB key as a page token.
+     *
+     * @param key DynamoDB key attribute values, eg. a Query response LastEvaluatedKey
+     * @return page token
+     * @throws IllegalArgumentException exception thrown if a key attribute is not a string, number or binary value
+     */
+    public String encode(final Map<String, AttributeValue> key) {
+        final byte[] jsonPayload = toJsonBytes(key);
+        final byte[] deflatedPayload = (deflate && jsonPayload.length >= MIN_DEFLATE_PAYLOAD_LENGTH)
+            ? deflatePayload(jsonPayload)
+            : null;
+        final boolean useDeflatedPayload = deflatedPayload != null && deflatedPayload.length < jsonPayload.length;
+        final byte[] payload = useDeflatedPayload ? deflatedPayload : jsonPayload;
+
+        final byte[] token = new byte[1 + payload.length + TAG_LENGTH];
+        token[0] = useDeflatedPayload ? FORMAT_DEFLATED_JSON : FORMAT_JSON;
+        System.arraycopy(payload, 0, token, 1, payload.length);
+        System.arraycopy(computeTag(token, 1 + payload.length), 0, token, 1 + payload.length, TAG_LENGTH);
+        return BASE64_ENCODER.encodeToString(token);
+    }
+
+    /**
+     * Decode a page token into a DynamoDB key.
+     *
+     * @param pageToken page token
+     * @return DynamoDB key attribute values, eg. for a Query request ExclusiveStartKey
+     * @throws BadRequestException exception thrown if the page token is not valid or was not signed with this codec's key
+     */
+    public Map<String, AttributeValue> decode(final String pageToken) throws BadRequestException {
+        if (pageToken == null || pageToken.isEmpty() || pageToken.length() > MAX_PAGE_TOKEN_LENGTH) {
+            throw new BadRequestException(INVALID_PAGE_TOKEN_MESSAGE);
+        }
+
+        final byte[] token;
+        try {
+            token = BASE64_DECODER.decode(pageToken);
+        } catch (final IllegalArgumentException e) {
+            throw new BadRequestException(INVALID_PAGE_TOKEN_MESSAGE, e);
+        }
+        final int payloadEnd = token.length - TAG_LENGTH;
+        if (payloadEnd < 2 || !MessageDigest.isEqual(computeTag(token, payloadEnd), Arrays.copyOfRange(token, payloadEnd, token.length))) {
+            throw new BadRequestException(INVALID_PAGE_TOKEN_MESSAGE);
+        }
+
+        try {
+            return switch (token[0]) {
+                case FORMAT_JSON -> fromJsonBytes(token, 1, payloadEnd - 1);
+                case FORMAT_DEFLATED_JSON -> {
+                    final byte[] jsonPayload = inflatePayload(token, 1, payloadEnd - 1);
+                    yield fromJsonBytes(jsonPayload, 0, jsonPayload.length);
+                }
+                default -> throw new IllegalArgumentException(String.format("Unsupported page token format %d", token[0]));
+            };
+        } catch (final IOException | DataFormatException | IllegalArgumentException e) {
+            throw new BadRequestException(INVALID_PAGE_TOKEN_MESSAGE, e);
+        }
+    }
+
+    private byte[] computeTag(final byte[] token, final int length) {
+        final Mac pooledMac = macs.poll();
+        final Mac mac = (pooledMac == null) ? createMac(secretKey) : pooledMac;
+        mac.update(token, 0, length);
+        final byte[] tag = Arrays.copyOf(mac.doFinal(), TAG_LENGTH);
+        // doFinal resets the Mac, so it can be reused unless the pool is already full
+        macs.offer(mac);
+        return tag;
+    }
+
+    private static Mac createMac(final SecretKeySpec secretKey) {
+        try {
+            final Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialize page token signer", e);
+        }
+    }
+
+    private static byte[] deflatePayload(final byte[] payload) {
+        final Deflater pooledDeflater = DEFLATERS.poll();
+        final Deflater deflater = (pooledDeflater == null) ? new Deflater(Deflater.BEST_SPEED, true) : pooledDeflater;
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            final byte[] buffer = new byte[payload.length];
+            final int length = deflater.deflate(buffer);
+            return deflater.finished() ? Arrays.copyOf(buffer, length) : null;
+        } finally {
+            deflater.reset();
+            if (!DEFLATERS.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+
+    /**
+     * Inflate a payload, bounding its size since tokens are small and should never expand past MAX_PAYLOAD_LENGTH.
+     */
+    private static byte[] inflatePayload(final byte[] token, final int offset, final int length) throws DataFormatException {
+        final Inflater pooledInflater = INFLATERS.poll();
+        final Inflater inflater = (pooledInflater == null) ? new Inflater(true) : pooledInflater;
+        try {
+            inflater.setInput(token, offset, length);
+            byte[] buffer = new byte[Math.min(4 * length, MAX_PAYLOAD_LENGTH)];
+            int inflatedLength = inflater.inflate(buffer);
+            while (!inflater.finished() && !inflater.needsInput() && buffer.length < MAX_PAYLOAD_LENGTH) {
+                buffer = Arrays.copyOf(buffer, Math.min(2 * buffer.length, MAX_PAYLOAD_LENGTH));
+                inflatedLength += inflater.inflate(buffer, inflatedLength, buffer.length - inflatedLength);
+            }
+            if (!inflater.finished()) {
+                throw new DataFormatException("Incomplete or oversized page token payload");
+            }
+            return Arrays.copyOf(buffer, inflatedLength);
+        } finally {
+            inflater.reset();
+            if (!INFLATERS.offer(inflater)) {
+                inflater.end();
+            }
+        }
+    }
+
+    private static byte[] toJsonBytes(final Map<String, AttributeValue> key) {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+            generator.writeStartObject();
+            for (final Map.Entry<String, AttributeValue> keyAttribute : key.entrySet()) {
+                generator.writeObjectFieldStart(keyAttribute.getKey());
+                writeKeyAttributeValue(generator, keyAttribute.getKey(), keyAttribute.getValue());
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static Map<String, AttributeValue> fromJsonBytes(final byte[] payload, final int offset, final int length)
+            throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(payload, offset, length)) {
+            final Map<String, AttributeValue> key = new HashMap<>();
+            expectToken(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String attributeName = parser.currentName();
+                expectToken(parser.nextToken(), JsonToken.START_OBJECT);
+                expectToken(parser.nextToken(), JsonToken.FIELD_NAME);
+                final String attributeType = parser.currentName();
+                expectToken(parser.nextToken(), JsonToken.VALUE_STRING);
+                key.put(attributeName, toKeyAttributeValue(attributeType, parser.getText()));
+                expectToken(parser.nextToken(), JsonToken.END_OBJECT);
+            }
+            if (key.isEmpty()) {
+                throw new IllegalArgumentException("Page token key must have at least one attribute");
+            }
+            return key;
+        }
+    }
+
+    private static void writeKeyAttributeValue(final JsonGenerator generator, final String attributeName,
+            final AttributeValue value) throws IOException {
+        switch (value.type()) {
+            case S -> generator.writeStringField(STRING_TYPE, value.s());
+            case N -> generator.writeStringField(NUMBER_TYPE, value.n());
+            case B -> generator.writeStringField(BINARY_TYPE, BASE64_ENCODER.encodeToString(value.b().asByteArrayUnsafe()));
+            default -> throw new IllegalArgumentException(
+                String.format("Unsupported %s key attribute type %s", attributeName, value.type()));
+        }
+    }
+
+    private static AttributeValue toKeyAttributeValue(final String attributeType, final String value) {
+        return switch (attributeType) {
+            case STRING_TYPE -> AttributeValue.fromS(value);
+            case NUMBER_TYPE -> AttributeValue.fromN(value);
+            case BINARY_TYPE -> AttributeValue.fromB(SdkBytes.fromByteArrayUnsafe(BASE64_DECODER.decode(value)));
+            default -> throw new IllegalArgumentException(String.format("Unsupported key attribute type %s", attributeType));
+        };
+    }
+
+    private static void expectToken(final JsonToken actualToken, final JsonToken expectedToken) {
+        if (actualToken != expectedToken) {
+            throw new IllegalArgumentException(String.format("Expected %s but was %s", expectedToken, actualToken));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.consentframework.shared.api.infrastructure.pagination;
+
+import com.consentframework.shared.api.domain.exceptions.BadRequestException;
+import com.consentframework.shared.api.domain.pagination.ListPage;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Retrieves a single page of DynamoDB Query results using cursor-based pagination.
+ *
+ * Unlike ListPaginator, which slices a fully materialized result list, each call issues one
+ * Query request reading at most limit items, starting after the key encoded in the page token.
+ * The Query response LastEvaluatedKey is returned as the opaque, signed next page token.
+ *
+ * Note that DynamoDB may return a LastEvaluatedKey when the last page exactly fills the
+ * limit, in which case the following page is empty and has no next page token.
+ */
+public class DynamoDbQueryPaginator<T> {
+    private final Function<QueryEnhancedRequest, SdkIterable<Page<T>>> queryFunction;
+    private final DynamoDbPageTokenCodec pageTokenCodec;
+
+    /**
+     * Construct a paginator over a table or index Query, eg. table::query or index::query.
+     *
+     * @param queryFunction function issuing a Query request and returning its pages
+     * @param pageTokenCodec codec used to sign and verify page tokens
+     */
+    public DynamoDbQueryPaginator(final Function<QueryEnhancedRequest, SdkIterable<Page<T>>> queryFunction,
+            final DynamoDbPageTokenCodec pageTokenCodec) {
+        this.queryFunction = queryFunction;
+        this.pageTokenCodec = pageTokenCodec;
+    }
+
+    /**
+     * Retrieve a single page of Query results.
+     *
+     * @param queryRequest Query request, eg. with the query conditional and index sort order
+     * @param limit optional limit on the maximum number of results to retrieve
+     * @param pageToken optional page token returned from a previous page
+     * @return page of results with next page token if DynamoDB may have additional results
+     * @throws BadRequestException exception thrown if the page token is not valid, before any Query is issued
+     */
+    public ListPage<T> getSinglePage(final QueryEnhancedRequest queryRequest, final Integer limit, final String pageToken)
+            throws BadRequestException {
+        final Map<String, AttributeValue> exclusiveStartKey = (pageToken == null) ? null : pageTokenCodec.decode(pageToken);
+        final QueryEnhancedRequest pageRequest = queryRequest.toBuilder()
+            .limit(limit)
+            .exclusiveStartKey(exclusiveStartKey)
+            .build();
+
+        final Iterator<Page<T>> pages = queryFunction.apply(pageRequest).iterator();
+        if (!pages.hasNext()) {
+            return new ListPage<T>(List.of(), Optional.empty());
+        }
+
+        final Page<T> page = pages.next();
+        final Map<String, AttributeValue> lastEvaluatedKey = page.lastEvaluatedKey();
+        final Optional<String> nextPageToken = (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty())
+            ? Optional.empty()
+            : Optional.of(pageTokenCodec.encode(lastEvaluatedKey));
+        return new ListPage<T>(page.items(), nextPageToken);
+    }
+}
@@ -0,0 +1,153 @@
+package com.consentframework.shared.api.infrastructure.pagination;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads pages ahead of a consumer on another thread, holding at most prefetchPages pages in memory.
+ *
+ * Run the reader on its own thread, eg. a virtual thread, to have its page producer read pages into a
+ * bounded queue, then take them in order with {@link #nextPage()}, which returns an empty page once the
+ * producer is done.  A producer failure is thrown to the consumer after the pages read before it.
+ * Closing the reader interrupts the producer and ends the pages, so a consumer that stops early doesn't
+ * leave the producer blocked on a full queue.
+ *
+ * @param <T> page item type
+ */
+public final class PrefetchingPageReader<T> implements Runnable, AutoCloseable {
+    /**
+     * Reads pages, passing each to a sink in order.
+     *
+     * @param <T> page item type
+     */
+    @FunctionalInterface
+    public interface PageProducer<T> {
+        /**
+         * Read all pages.
+         *
+         * @param sink sink accepting each page, blocking while the consumer is prefetchPages pages behind
+         * @throws InterruptedException exception thrown if interrupted while waiting for the consumer
+         */
+        void readPages(PageSink<T> sink) throws InterruptedException;
+    }
+
+    /**
+     * Accepts pages from a PageProducer.
+     *
+     * @param <T> page item type
+     */
+    @FunctionalInterface
+    public interface PageSink<T> {
+        /**
+         * Queue a page for the consumer, ignoring empty pages.
+         *
+         * @param page page of items
+         * @throws InterruptedException exception thrown if interrupted while waiting for the consumer
+         */
+        void put(List<T> page) throws InterruptedException;
+    }
+
+    /**
+     * Non-empty pages of items, followed by an empty page marking the end of the pages.
+     */
+    private final BlockingQueue<List<T>> pages;
+    private final PageProducer<T> pageProducer;
+    private volatile RuntimeException failure;
+    private volatile boolean closed;
+
+    // Guarded by this, so close only interrupts the producer while it is running
+    private Thread producerThread;
+
+    // Only accessed by the consumer
+    private boolean exhausted;
+
+    /**
+     * Construct a prefetching page reader.
+     *
+     * @param pageProducer producer reading the pages
+     * @param prefetchPages maximum number of pages read ahead of the consumer
+     * @throws IllegalArgumentException exception thrown if prefetchPages is not positive
+     */
+    public PrefetchingPageReader(final PageProducer<T> pageProducer, final int prefetchPages) {
+        if (prefetchPages < 1) {
+            throw new IllegalArgumentException(String.format("prefetchPages must be positive, got %d", prefetchPages));
+        }
+        this.pages = new ArrayBlockingQueue<>(prefetchPages);
+        this.pageProducer = pageProducer;
+    }
+
+    /**
+     * Read the pages with the page producer, then mark the end of the pages.
+     */
+    @Override
+    public void run() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            producerThread = Thread.currentThread();
+        }
+        try {
+            try {
+                pageProducer.readPages(this::putPage);
+            } catch (final RuntimeException e) {
+                failure = e;
+            }
+            if (!closed) {
+                pages.put(List.of());
+            }
+        } catch (final InterruptedException e) {
+            // Reader was closed or its executor shut down, no one is waiting for further pages
+        } finally {
+            synchronized (this) {
+                producerThread = null;
+                // Clear an interrupt from close, which is meant for the producer rather than the running thread's next task
+                Thread.interrupted();
+            }
+        }
+    }
+
+    /**
+     * Take the next page, waiting for the producer if it hasn't been read yet.
+     *
+     * @return next non-empty page, or an empty page once all pages have been read or the reader is closed
+     * @throws InterruptedException exception thrown if interrupted while waiting for the producer
+     * @throws RuntimeException exception thrown by the producer, once the pages read before it are taken
+     */
+    public List<T> nextPage() throws InterruptedException {
+        if (exhausted || closed) {
+            return List.of();
+        }
+        final List<T> page = pages.take();
+        if (page.isEmpty()) {
+            exhausted = true;
+            if (failure != null && !closed) {
+                throw failure;
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Stop the producer and end the pages, discarding any pages not yet taken.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            if (producerThread != null) {
+                producerThread.interrupt();
+            }
+        }
+        // Wake a consumer waiting on another thread
+        pages.clear();
+        pages.offer(List.of());
+    }
+
+    private void putPage(final List<T> page) throws InterruptedException {
+        if (!page.isEmpty() && !closed) {
+            pages.put(page);
+        }
+    }
+}
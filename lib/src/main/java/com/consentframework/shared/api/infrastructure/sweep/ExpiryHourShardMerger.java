@@ -0,0 +1,130 @@
+package com.consentframework.shared.api.infrastructure.sweep;
+
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbActiveConsentWithExpiryTime;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Scatter-gather reader merging the Query results of all shards of a write-sharded expiryHour.
+ *
+ * The first page of every shard is requested concurrently on the given executor, and each time a
+ * shard's page is consumed its next page is requested in the background.  Items are merged by
+ * expiryTimeId, so pages are returned in the same order as a Query of an unsharded expiryHour.
+ */
+public final class ExpiryHourShardMerger {
+    private static final Comparator<ShardCursor> CURSOR_ORDER = Comparator.comparing(cursor -> cursor.currentItem().expiryTimeId());
+
+    private final PriorityQueue<ShardCursor> cursors;
+    private final int pageSize;
+
+    /**
+     * Start reading all shards of an expiryHour.
+     *
+     * @param shardResults Query results for each shard, each in expiryTimeId order
+     * @param pageSize maximum number of items per merged page
+     * @param executor executor used to request shard pages, eg. a virtual thread per task executor
+     * @throws InterruptedException exception thrown if interrupted while waiting for the first shard pages
+     */
+    public ExpiryHourShardMerger(final List<SdkIterable<Page<DynamoDbActiveConsentWithExpiryTime>>> shardResults,
+            final int pageSize, final Executor executor) throws InterruptedException {
+        this.pageSize = pageSize;
+        this.cursors = new PriorityQueue<>(Math.max(1, shardResults.size()), CURSOR_ORDER);
+
+        final List<ShardCursor> startedCursors = new ArrayList<>(shardResults.size());
+        for (final SdkIterable<Page<DynamoDbActiveConsentWithExpiryTime>> shardResult : shardResults) {
+            startedCursors.add(new ShardCursor(shardResult.iterator(), executor));
+        }
+        for (final ShardCursor cursor : startedCursors) {
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+    }
+
+    /**
+     * Return the next merged page of items.
+     *
+     * @return up to pageSize items in expiryTimeId order, or an empty list once all shards are exhausted
+     * @throws InterruptedException exception thrown if interrupted while waiting for a shard page
+     */
+    public List<DynamoDbActiveConsentWithExpiryTime> nextPage() throws InterruptedException {
+        if (cursors.isEmpty()) {
+            return List.of();
+        }
+        final List<DynamoDbActiveConsentWithExpiryTime> items = new ArrayList<>(pageSize);
+        while (items.size() < pageSize && !cursors.isEmpty()) {
+            final ShardCursor cursor = cursors.poll();
+            items.add(cursor.currentItem());
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Position within one shard's results, with the shard's next page requested ahead of time.
+     */
+    private static final class ShardCursor {
+        private final Iterator<Page<DynamoDbActiveConsentWithExpiryTime>> pages;
+        private final Executor executor;
+        private CompletableFuture<Page<DynamoDbActiveConsentWithExpiryTime>> nextPage;
+        private List<DynamoDbActiveConsentWithExpiryTime> items = List.of();
+        private int index = -1;
+
+        ShardCursor(final Iterator<Page<DynamoDbActiveConsentWithExpiryTime>> pages, final Executor executor) {
+            this.pages = pages;
+            this.executor = executor;
+            requestNextPage();
+        }
+
+        DynamoDbActiveConsentWithExpiryTime currentItem() {
+            return items.get(index);
+        }
+
+        /**
+         * Move to the next item, waiting for the next page if needed.
+         *
+         * @return false if the shard is exhausted
+         */
+        boolean advance() throws InterruptedException {
+            index++;
+            while (index >= items.size()) {
+                final Page<DynamoDbActiveConsentWithExpiryTime> page = awaitNextPage();
+                if (page == null) {
+                    return false;
+                }
+                items = page.items();
+                index = 0;
+                requestNextPage();
+            }
+            return true;
+        }
+
+        private void requestNextPage() {
+            // The SDK issues the Query request for a page from hasNext, so both calls are made in the background
+            nextPage = CompletableFuture.supplyAsync(() -> pages.hasNext() ? pages.next() : null, executor);
+        }
+
+        private Page<DynamoDbActiveConsentWithExpiryTime> awaitNextPage() throws InterruptedException {
+            try {
+                return nextPage.get();
+            } catch (final ExecutionException e) {
+                // Page requests do not throw checked exceptions
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw (RuntimeException) e.getCause();
+            }
+        }
+    }
+}
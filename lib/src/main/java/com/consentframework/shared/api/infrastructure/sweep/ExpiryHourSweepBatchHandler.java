@@ -0,0 +1,21 @@
+package com.consentframework.shared.api.infrastructure.sweep;
+
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbActiveConsentWithExpiryTime;
+
+import java.util.List;
+
+/**
+ * Callback processing a batch of expiring consents found by an ExpiryHourSweeper.
+ */
+@FunctionalInterface
+public interface ExpiryHourSweepBatchHandler {
+    /**
+     * Process a batch of expiring consents, eg. by marking them as expired.
+     *
+     * The sweep checkpoint is saved only after this method returns, so a batch may be handled
+     * again if the sweep is interrupted while processing it; handlers should be idempotent.
+     *
+     * @param batch consents ordered by expiryTimeId
+     */
+    void handleBatch(List<DynamoDbActiveConsentWithExpiryTime> batch);
+}
@@ -0,0 +1,23 @@
+package com.consentframework.shared.api.infrastructure.sweep;
+
+/**
+ * Position of the last ActiveConsentsByExpiryHour GSI item successfully processed by a sweep, and the
+ * window that sweep covered, so that only a later sweep of the same window resumes from it.
+ *
+ * @param windowStart first expiryHour of the swept window, eg. 2026-12-31T20:00Z
+ * @param windowEnd exclusive end of the swept window, formatted as an expiry time, eg. 2027-01-01T01:00:00Z
+ * @param expiryHour expiryHour GSI partition key of the last processed item
+ * @param expiryTimeId expiryTimeId GSI sort key of the last processed item
+ */
+public record ExpiryHourSweepCheckpoint(String windowStart, String windowEnd, String expiryHour, String expiryTimeId) {
+    /**
+     * Return whether this checkpoint was saved by a sweep of the given window.
+     *
+     * @param sweepWindowStart first expiryHour of the window
+     * @param sweepWindowEnd exclusive end of the window, formatted as an expiry time
+     * @return true if the windows match
+     */
+    public boolean isForWindow(final String sweepWindowStart, final String sweepWindowEnd) {
+        return windowStart.equals(sweepWindowStart) && windowEnd.equals(sweepWindowEnd);
+    }
+}
@@ -0,0 +1,29 @@
+package com.consentframework.shared.api.infrastructure.sweep;
+
+import java.util.Optional;
+
+/**
+ * Durable storage for sweep checkpoints, eg. a DynamoDB item keyed by sweep name, so that a sweep
+ * interrupted by a Lambda timeout or crash resumes after the last processed batch.  A store holds the
+ * progress of one sweep window at a time; sweeping another window replaces it.
+ */
+public interface ExpiryHourSweepCheckpointStore {
+    /**
+     * Load the most recently saved checkpoint.
+     *
+     * @return checkpoint, or empty if no batches have been processed
+     */
+    Optional<ExpiryHourSweepCheckpoint> load();
+
+    /**
+     * Save a checkpoint after a batch has been processed.
+     *
+     * @param checkpoint position of the last item in the processed batch
+     */
+    void save(ExpiryHourSweepCheckpoint checkpoint);
+
+    /**
+     * Delete the saved checkpoint, eg. to sweep a window again from its start.
+     */
+    void clear();
+}
@@ -0,0 +1,11 @@
+package com.consentframework.shared.api.infrastructure.sweep;
+
+/**
+ * Summary of a completed sweep.
+ *
+ * @param expiryHoursQueried number of expiryHour partitions queried, excluding hours skipped by a checkpoint
+ * @param expiryHoursSkipped number of expiryHour partitions skipped since a checkpoint of the same window was after them
+ * @param batchesProcessed number of batches passed to the batch handler
+ * @param itemsProcessed number of items passed to the batch handler
+ */
+public record ExpiryHourSweepResult(int expiryHoursQueried, int expiryHoursSkipped, int batchesProcessed, long itemsProcessed) {}
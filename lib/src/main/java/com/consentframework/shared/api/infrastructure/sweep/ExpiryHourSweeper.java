@@ -0,0 +1,340 @@
+package com.consentframework.shared.api.infrastructure.sweep;
+
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbActiveConsentWithExpiryTime;
+import com.consentframework.shared.api.infrastructure.mappers.DynamoDbConsentExpiryTimeConverter;
+import com.consentframework.shared.api.infrastructure.pagination.PrefetchingPageReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Sweeps the ActiveConsentsByExpiryHour GSI for consents expiring within a time window.
+ *
+ * Each expiryHour partition in the window is read by its own Query on a virtual thread, with at most
+ * maxConcurrency partitions read at once.  Partitions are read ahead of the batch handler by a bounded
+ * number of pages, and results are passed to the handler in hour order and then expiryTimeId order,
+ * so items reach the handler in ascending expiry time regardless of which Query completes first.
+ *
+ * After each batch is handled the position of its last item and the sweep window are saved to the
+ * checkpoint store, and a later sweep of the same window resumes after that position, skipping earlier
+ * hours and starting mid-hour.  Checkpoints saved by sweeps of other windows are ignored, so a backfill
+ * of earlier hours is swept in full; clear the checkpoint store to sweep the same window again.
+ *
+ * If expiryHour values are write-sharded, every shard of an hour is queried concurrently and the shards
+ * are merged by an ExpiryHourShardMerger, so up to maxConcurrency * expiryHourShardCount Query requests
+ * may be in flight.  Checkpoints record the unsharded expiryHour, since merged items are in expiryTimeId
+ * order across all shards of the hour.
+ */
+public class ExpiryHourSweeper {
+    public static final int DEFAULT_MAX_CONCURRENCY = 8;
+    public static final int DEFAULT_BATCH_SIZE = 25;
+
+    /**
+     * Number of pages each partition reader may fetch ahead of the batch handler.
+     */
+    static final int PREFETCH_PAGES = 2;
+
+    private static final Logger logger = LogManager.getLogger(ExpiryHourSweeper.class);
+
+    private final Function<QueryEnhancedRequest, SdkIterable<Page<DynamoDbActiveConsentWithExpiryTime>>> queryFunction;
+    private final ExpiryHourSweepCheckpointStore checkpointStore;
+    private final int maxConcurrency;
+    private final int batchSize;
+    private final int expiryHourShardCount;
+
+    /**
+     * Construct a sweeper with the default concurrency and batch size.
+     *
+     * @param queryFunction function issuing a Query against the ActiveConsentsByExpiryHour GSI, eg. index::query
+     * @param checkpointStore store for sweep progress
+     */
+    public ExpiryHourSweeper(final Function<QueryEnhancedRequest, SdkIterable<Page<DynamoDbActiveConsentWithExpiryTime>>> queryFunction,
+            final ExpiryHourSweepCheckpointStore checkpointStore) {
+        this(queryFunction, checkpointStore, DEFAULT_MAX_CONCURRENCY, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Construct a sweeper.
+     *
+     * @param queryFunction function issuing a Query against the ActiveConsentsByExpiryHour GSI, eg. index::query
+     * @param checkpointStore store for sweep progress
+     * @param maxConcurrency maximum number of expiryHour partitions queried at once
+     * @param batchSize maximum number of items per batch, also used as the Query page limit
+     * @throws IllegalArgumentException exception thrown if maxConcurrency or batchSize is not positive
+     */
+    public ExpiryHourSweeper(final Function<QueryEnhancedRequest, SdkIterable<Page<DynamoDbActiveConsentWithExpiryTime>>> queryFunction,
+            final ExpiryHourSweepCheckpointStore checkpointStore, final int maxConcurrency, final int batchSize) {
+        this(queryFunction, checkpointStore, maxConcurrency, batchSize, 1);
+    }
+
+    /**
+     * Construct a sweeper over write-sharded expiryHour partitions.
+     *
+     * @param queryFunction function issuing a Query against the ActiveConsentsByExpiryHour GSI, eg. index::query
+     * @param checkpointStore store for sweep progress
+     * @param maxConcurrency maximum number of expiryHours queried at once
+     * @param batchSize maximum number of items per batch, also used as the Query page limit
+     * @param expiryHourShardCount number of shards per expiryHour that items were written with, or 1 if unsharded
+     * @throws IllegalArgumentException exception thrown if maxConcurrency or batchSize is not positive,
+     *     or expiryHourShardCount is not between 1 and MAX_EXPIRY_HOUR_SHARD_COUNT
+     */
+    public ExpiryHourSweeper(final Function<QueryEnhancedRequest, SdkIterable<Page<DynamoDbActiveConsentWithExpiryTime>>> queryFunction,
+            final ExpiryHourSweepCheckpointStore checkpointStore, final int maxConcurrency, final int batchSize,
+            final int expiryHourShardCount) {
+        if (maxConcurrency < 1 || batchSize < 1) {
+            throw new IllegalArgumentException(String.format(
+                "maxConcurrency and batchSize must be positive, got %d and %d", maxConcurrency, batchSize));
+        }
+        DynamoDbConsentExpiryTimeConverter.validateExpiryHourShardCount(expiryHourShardCount);
+        this.queryFunction = queryFunction;
+        this.checkpointStore = checkpointStore;
+        this.maxConcurrency = maxConcurrency;
+        this.batchSize = batchSize;
+        this.expiryHourShardCount = expiryHourShardCount;
+    }
+
+    /**
+     * Sweep consents expiring at or after the start of the hour containing windowStart, and before windowEnd.
+     *
+     * @param windowStart start of the window, rounded down to the hour
+     * @param windowEnd exclusive end of the window
+     * @param batchHandler callback processing each batch of consents
+     * @return sweep summary
+     * @throws InterruptedException exception thrown if interrupted while waiting for Query results
+     * @throws IllegalArgumentException exception thrown if windowEnd is before windowStart
+     */
+    public ExpiryHourSweepResult sweep(final OffsetDateTime windowStart, final OffsetDateTime windowEnd,
+            final ExpiryHourSweepBatchHandler batchHandler) throws InterruptedException {
+        if (windowEnd.isBefore(windowStart)) {
+            throw new IllegalArgumentException(String.format("Sweep window end %s is before start %s", windowEnd, windowStart));
+        }
+
+        final List<String> expiryHours = getExpiryHours(windowStart, windowEnd);
+        final String windowStartExpiryHour = DynamoDbConsentExpiryTimeConverter.toExpiryHour(windowStart);
+        final String windowEndExpiryTime = DynamoDbConsentExpiryTimeConverter.toExpiryTimeString(windowEnd);
+        final Optional<ExpiryHourSweepCheckpoint> checkpoint = loadCheckpoint(windowStartExpiryHour, windowEndExpiryTime);
+        final String checkpointExpiryHour = checkpoint
+            .map(position -> DynamoDbConsentExpiryTimeConverter.toUnshardedExpiryHour(position.expiryHour()))
+            .orElse("");
+
+        final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("expiry-hour-sweep-", 0).factory());
+        final List<ExpiryHourReader> readers = new ArrayList<>(expiryHours.size());
+        for (int hourIndex = 0; hourIndex < expiryHours.size(); hourIndex++) {
+            final String expiryHour = expiryHours.get(hourIndex);
+            final int checkpointOrder = expiryHour.compareTo(checkpointExpiryHour);
+            if (checkpointOrder < 0) {
+                continue;
+            }
+            final String resumeAfterExpiryTimeId = (checkpointOrder == 0) ? checkpoint.get().expiryTimeId() : null;
+            final boolean isLastHour = hourIndex == expiryHours.size() - 1;
+            readers.add(new ExpiryHourReader(expiryHour, resumeAfterExpiryTimeId, isLastHour ? windowEndExpiryTime : null, executor));
+        }
+
+        final BatchCollector batchCollector = new BatchCollector(batchHandler, windowStartExpiryHour, windowEndExpiryTime);
+        try {
+            for (int readerIndex = 0; readerIndex < Math.min(maxConcurrency, readers.size()); readerIndex++) {
+                readers.get(readerIndex).start();
+            }
+            for (int readerIndex = 0; readerIndex < readers.size(); readerIndex++) {
+                readers.get(readerIndex).drainTo(batchCollector);
+                if (readerIndex + maxConcurrency < readers.size()) {
+                    readers.get(readerIndex + maxConcurrency).start();
+                }
+            }
+            batchCollector.flush();
+        } finally {
+            readers.forEach(ExpiryHourReader::close);
+            executor.shutdownNow();
+            executor.close();
+        }
+
+        final int expiryHoursSkipped = expiryHours.size() - readers.size();
+        logger.info("Swept {} items in {} batches across {} expiry hours, skipping {} hours before the checkpoint",
+            batchCollector.itemsProcessed, batchCollector.batchesProcessed, readers.size(), expiryHoursSkipped);
+        return new ExpiryHourSweepResult(readers.size(), expiryHoursSkipped, batchCollector.batchesProcessed,
+            batchCollector.itemsProcessed);
+    }
+
+    /**
+     * Load the saved checkpoint if it was saved by a sweep of the same window.
+     */
+    private Optional<ExpiryHourSweepCheckpoint> loadCheckpoint(final String windowStartExpiryHour, final String windowEndExpiryTime) {
+        final Optional<ExpiryHourSweepCheckpoint> checkpoint = checkpointStore.load();
+        if (checkpoint.isPresent() && !checkpoint.get().isForWindow(windowStartExpiryHour, windowEndExpiryTime)) {
+            logger.info("Ignoring checkpoint for sweep window {} to {}", checkpoint.get().windowStart(), checkpoint.get().windowEnd());
+            return Optional.empty();
+        }
+        return checkpoint;
+    }
+
+    /**
+     * List the expiryHour partition keys from the hour containing windowStart up to windowEnd.
+     */
+    static List<String> getExpiryHours(final OffsetDateTime windowStart, final OffsetDateTime windowEnd) {
+        final List<String> expiryHours = new ArrayList<>();
+        OffsetDateTime hour = windowStart.withOffsetSameInstant(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS);
+        while (hour.isBefore(windowEnd)) {
+            expiryHours.add(DynamoDbConsentExpiryTimeConverter.toExpiryHour(hour));
+            hour = hour.plusHours(1);
+        }
+        return expiryHours;
+    }
+
+    /**
+     * Reads one expiryHour partition on a virtual thread, handing pages to the sweeping thread through a PrefetchingPageReader.
+     */
+    private final class ExpiryHourReader {
+        private final String expiryHour;
+        private final String resumeAfterExpiryTimeId;
+        private final String endBeforeExpiryTimeId;
+        private final ExecutorService executor;
+        private final PrefetchingPageReader<DynamoDbActiveConsentWithExpiryTime> pageReader =
+            new PrefetchingPageReader<>(this::readPages, PREFETCH_PAGES);
+
+        ExpiryHourReader(final String expiryHour, final String resumeAfterExpiryTimeId, final String endBeforeExpiryTimeId,
+                final ExecutorService executor) {
+            this.expiryHour = expiryHour;
+            this.resumeAfterExpiryTimeId = resumeAfterExpiryTimeId;
+            this.endBeforeExpiryTimeId = endBeforeExpiryTimeId;
+            this.executor = executor;
+        }
+
+        void start() {
+            executor.execute(pageReader);
+        }
+
+        void drainTo(final BatchCollector batchCollector) throws InterruptedException {
+            List<DynamoDbActiveConsentWithExpiryTime> items = pageReader.nextPage();
+            while (!items.isEmpty()) {
+                batchCollector.addAll(items);
+                items = pageReader.nextPage();
+            }
+        }
+
+        void close() {
+            pageReader.close();
+        }
+
+        private void readPages(final PrefetchingPageReader.PageSink<DynamoDbActiveConsentWithExpiryTime> pages)
+                throws InterruptedException {
+            if (expiryHourShardCount == 1) {
+                for (final Page<DynamoDbActiveConsentWithExpiryTime> page : queryFunction.apply(buildQueryRequest(expiryHour))) {
+                    if (!putItemsBeforeWindowEnd(pages, page.items())) {
+                        return;
+                    }
+                }
+                return;
+            }
+
+            final List<SdkIterable<Page<DynamoDbActiveConsentWithExpiryTime>>> shardResults = new ArrayList<>(expiryHourShardCount);
+            for (final String expiryHourShard : DynamoDbConsentExpiryTimeConverter.toExpiryHourShards(expiryHour, expiryHourShardCount)) {
+                shardResults.add(queryFunction.apply(buildQueryRequest(expiryHourShard)));
+            }
+            final ExpiryHourShardMerger shardMerger = new ExpiryHourShardMerger(shardResults, batchSize, executor);
+            List<DynamoDbActiveConsentWithExpiryTime> items = shardMerger.nextPage();
+            while (!items.isEmpty() && putItemsBeforeWindowEnd(pages, items)) {
+                items = shardMerger.nextPage();
+            }
+        }
+
+        /**
+         * Queue the leading items expiring before the window end.
+         *
+         * @return false if the window end was reached
+         */
+        private boolean putItemsBeforeWindowEnd(final PrefetchingPageReader.PageSink<DynamoDbActiveConsentWithExpiryTime> pages,
+                final List<DynamoDbActiveConsentWithExpiryTime> items) throws InterruptedException {
+            final int endIndex = getEndIndex(items);
+            if (endIndex > 0) {
+                pages.put(endIndex == items.size() ? items : items.subList(0, endIndex));
+            }
+            return endIndex == items.size();
+        }
+
+        private QueryEnhancedRequest buildQueryRequest(final String partitionValue) {
+            final QueryConditional queryConditional;
+            if (resumeAfterExpiryTimeId != null) {
+                queryConditional = QueryConditional.sortGreaterThan(
+                    Key.builder().partitionValue(partitionValue).sortValue(resumeAfterExpiryTimeId).build());
+            } else if (endBeforeExpiryTimeId != null) {
+                queryConditional = QueryConditional.sortLessThan(
+                    Key.builder().partitionValue(partitionValue).sortValue(endBeforeExpiryTimeId).build());
+            } else {
+                queryConditional = QueryConditional.keyEqualTo(Key.builder().partitionValue(partitionValue).build());
+            }
+            return QueryEnhancedRequest.builder()
+                .queryConditional(queryConditional)
+                .limit(batchSize)
+                .build();
+        }
+
+        /**
+         * Return the number of leading items expiring before the end of the window.
+         */
+        private int getEndIndex(final List<DynamoDbActiveConsentWithExpiryTime> items) {
+            if (endBeforeExpiryTimeId == null) {
+                return items.size();
+            }
+            int endIndex = 0;
+            while (endIndex < items.size() && items.get(endIndex).expiryTimeId().compareTo(endBeforeExpiryTimeId) < 0) {
+                endIndex++;
+            }
+            return endIndex;
+        }
+    }
+
+    /**
+     * Groups items into batches for the batch handler, saving a checkpoint after each batch.
+     */
+    private final class BatchCollector {
+        private final ExpiryHourSweepBatchHandler batchHandler;
+        private final String windowStartExpiryHour;
+        private final String windowEndExpiryTime;
+        private final List<DynamoDbActiveConsentWithExpiryTime> batch = new ArrayList<>(batchSize);
+        private int batchesProcessed;
+        private long itemsProcessed;
+
+        BatchCollector(final ExpiryHourSweepBatchHandler batchHandler, final String windowStartExpiryHour,
+                final String windowEndExpiryTime) {
+            this.batchHandler = batchHandler;
+            this.windowStartExpiryHour = windowStartExpiryHour;
+            this.windowEndExpiryTime = windowEndExpiryTime;
+        }
+
+        void addAll(final List<DynamoDbActiveConsentWithExpiryTime> items) {
+            for (final DynamoDbActiveConsentWithExpiryTime item : items) {
+                batch.add(item);
+                if (batch.size() == batchSize) {
+                    flush();
+                }
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            final DynamoDbActiveConsentWithExpiryTime lastItem = batch.get(batch.size() - 1);
+            batchHandler.handleBatch(List.copyOf(batch));
+            checkpointStore.save(new ExpiryHourSweepCheckpoint(windowStartExpiryHour, windowEndExpiryTime,
+                DynamoDbConsentExpiryTimeConverter.toUnshardedExpiryHour(lastItem.expiryHour()), lastItem.expiryTimeId()));
+            batchesProcessed++;
+            itemsProcessed += batch.size();
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.consentframework.shared.api.domain.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.consentframework.consentmanagement.api.JSON;
+import com.consentframework.shared.api.domain.constants.HttpStatusCode;
+import com.consentframework.shared.api.infrastructure.mappers.JsonMapperRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+class ApiResponseTest {
+    private static final ObjectMapper OBJECT_MAPPER = new JSON().getMapper();
+    private static final String TEST_BODY = "{\"status\":\"ACTIVE\"}";
+    private static final Map<String, String> TEST_HEADERS = Map.of("content-type", "application/json");
+
+    @Test
+    void of() {
+        assertEquals(new ApiResponse(200, null, TEST_BODY), ApiResponse.of(HttpStatusCode.SUCCESS, TEST_BODY));
+    }
+
+    @Test
+    void toMapWithStatusCodeOnly() {
+        assertEquals(Map.of("statusCode", 404), ApiResponse.of(HttpStatusCode.NOT_FOUND, null).toMap());
+    }
+
+    @Test
+    void toMapWithBody() {
+        assertEquals(Map.of("statusCode", 200, "body", TEST_BODY), ApiResponse.of(HttpStatusCode.SUCCESS, TEST_BODY).toMap());
+    }
+
+    @Test
+    void toMapWithHeaders() {
+        assertEquals(Map.of("statusCode", 200, "headers", TEST_HEADERS), new ApiResponse(200, TEST_HEADERS, null).toMap());
+    }
+
+    @Test
+    void toMapWithHeadersAndBody() {
+        final Map<String, Object> response = new ApiResponse(200, TEST_HEADERS, TEST_BODY).toMap();
+        assertEquals(Map.of("statusCode", 200, "headers", TEST_HEADERS, "body", TEST_BODY), response);
+        assertThrows(UnsupportedOperationException.class, () -> response.put("body", "other"));
+    }
+
+    @Test
+    void toMapWhenBase64Encoded() {
+        final Map<String, Object> response = new ApiResponse(200, TEST_HEADERS, "e30=", true).toMap();
+        assertEquals(Map.of("statusCode", 200, "headers", TEST_HEADERS, "body", "e30=", "isBase64Encoded", true), response);
+        assertThrows(UnsupportedOperationException.class, () -> response.put("body", "other"));
+        assertEquals(Map.of("statusCode", 204, "isBase64Encoded", true), new ApiResponse(204, null, null, true).toMap());
+    }
+
+    @Test
+    void toMutableMap() {
+        final Map<String, Object> response = new ApiResponse(200, TEST_HEADERS, TEST_BODY).toMutableMap();
+        assertEquals(new ApiResponse(200, TEST_HEADERS, TEST_BODY).toMap(), response);
+        response.put("body", "other");
+        assertEquals("other", response.get("body"));
+
+        assertEquals(Map.of("statusCode", 404), ApiResponse.of(HttpStatusCode.NOT_FOUND, null).toMutableMap());
+        assertEquals(new ApiResponse(204, null, null, true).toMap(), new ApiResponse(204, null, null, true).toMutableMap());
+    }
+
+    @Test
+    void serializesAsResponseMap() throws Exception {
+        final ApiResponse response = new ApiResponse(200, TEST_HEADERS, TEST_BODY);
+        assertEquals(OBJECT_MAPPER.readTree(OBJECT_MAPPER.writeValueAsString(response.toMap())),
+            OBJECT_MAPPER.readTree(JsonMapperRegistry.writerFor(ApiResponse.class).writeValueAsString(response)));
+        assertEquals("{\"statusCode\":404}", JsonMapperRegistry.writerFor(ApiResponse.class)
+            .writeValueAsString(ApiResponse.of(HttpStatusCode.NOT_FOUND, null)));
+
+        final ApiResponse encodedResponse = new ApiResponse(200, TEST_HEADERS, "e30=", true);
+        assertEquals(
+            OBJECT_MAPPER.readTree(OBJECT_MAPPER.writeValueAsString(encodedResponse.toMap())),
+            OBJECT_MAPPER.readTree(JsonMapperRegistry.writerFor(ApiResponse.class).writeValueAsString(encodedResponse)));
+    }
+}
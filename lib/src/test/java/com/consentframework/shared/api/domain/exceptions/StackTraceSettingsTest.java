@@ -0,0 +1,92 @@
+package com.consentframework.shared.api.domain.exceptions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+class StackTraceSettingsTest {
+    private static final String TEST_MESSAGE = "Test error message";
+
+    @AfterEach
+    void restoreDefault() {
+        StackTraceSettings.setStackTracesEnabled(true);
+    }
+
+    @Test
+    void stackTracesEnabledByDefault() {
+        assertTrue(StackTraceSettings.isStackTraceEnabled());
+    }
+
+    @ParameterizedTest
+    @MethodSource("clientExceptionConstructors")
+    void clientExceptionsCaptureStackTracesWhenEnabled(final BiFunction<String, Throwable, Exception> constructor) {
+        final Exception exception = constructor.apply(TEST_MESSAGE, null);
+        assertTrue(exception.getStackTrace().length > 0);
+        assertEquals(TEST_MESSAGE, exception.getMessage());
+    }
+
+    @ParameterizedTest
+    @MethodSource("clientExceptionConstructors")
+    void clientExceptionsSkipStackTracesWhenDisabled(final BiFunction<String, Throwable, Exception> constructor) {
+        StackTraceSettings.setStackTracesEnabled(false);
+        assertFalse(StackTraceSettings.isStackTraceEnabled());
+
+        final Throwable cause = new RuntimeException("Underlying cause");
+        final Exception exception = constructor.apply(TEST_MESSAGE, cause);
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals(TEST_MESSAGE, exception.getMessage());
+        assertSame(cause, exception.getCause());
+
+        exception.addSuppressed(cause);
+        assertSame(cause, exception.getSuppressed()[0]);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void clientExceptionsWithoutCauseAcceptInitCause(final boolean stackTracesEnabled) {
+        StackTraceSettings.setStackTracesEnabled(stackTracesEnabled);
+        final Throwable cause = new RuntimeException("Underlying cause");
+
+        for (final Function<String, Exception> constructor : messageOnlyConstructors()) {
+            final Exception exception = constructor.apply(TEST_MESSAGE);
+            assertSame(exception, exception.initCause(cause));
+            assertSame(cause, exception.getCause());
+            assertEquals(stackTracesEnabled, exception.getStackTrace().length > 0);
+        }
+    }
+
+    @Test
+    void internalServiceExceptionAlwaysCapturesStackTrace() {
+        StackTraceSettings.setStackTracesEnabled(false);
+        assertTrue(new InternalServiceException(TEST_MESSAGE).getStackTrace().length > 0);
+    }
+
+    private static List<Function<String, Exception>> messageOnlyConstructors() {
+        return List.of(BadRequestException::new, ConflictingResourceException::new, ResourceNotFoundException::new,
+            ThrottlingException::new, message -> new ThrottlingException(message, Duration.ofSeconds(1)));
+    }
+
+    private static Stream<BiFunction<String, Throwable, Exception>> clientExceptionConstructors() {
+        return Stream.of(
+            BadRequestException::new,
+            ConflictingResourceException::new,
+            ResourceNotFoundException::new,
+            (message, cause) -> (cause == null) ? new BadRequestException(message) : new BadRequestException(message, cause),
+            (message, cause) -> (cause == null) ? new ConflictingResourceException(message) : new ConflictingResourceException(message, cause),
+            (message, cause) -> (cause == null) ? new ResourceNotFoundException(message) : new ResourceNotFoundException(message, cause)
+        );
+    }
+}
@@ -0,0 +1,32 @@
+package com.consentframework.shared.api.domain.exceptions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+class ThrottlingExceptionTest {
+    @Test
+    void testWithRetryAfterAndCause() {
+        final String errorMessage = "Rate exceeded";
+        final Throwable cause = new RuntimeException("Underlying cause");
+        final ThrottlingException exception = new ThrottlingException(errorMessage, Duration.ofSeconds(2), cause);
+
+        assertEquals(errorMessage, exception.getMessage());
+        assertEquals(cause, exception.getCause());
+        assertEquals(Optional.of(Duration.ofSeconds(2)), exception.getRetryAfter());
+    }
+
+    @Test
+    void testWithoutRetryAfter() {
+        assertEquals(Optional.empty(), new ThrottlingException("Rate exceeded").getRetryAfter());
+    }
+
+    @Test
+    void testNegativeRetryAfter() {
+        assertThrows(IllegalArgumentException.class, () -> new ThrottlingException("Rate exceeded", Duration.ofSeconds(-1)));
+    }
+}
@@ -0,0 +1,42 @@
+package com.consentframework.shared.api.domain.parsers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import org.junit.jupiter.api.Test;
+
+class ApiParameterTest {
+    @Test
+    void path() {
+        assertEquals(new ApiParameter<String>(ApiParameter.Location.PATH, TestConstants.USER_ID_PARAM_NAME, String.class,
+            true, null, null, null), ApiParameter.path(TestConstants.USER_ID_PARAM_NAME));
+    }
+
+    @Test
+    void stringQueryWithDefault() {
+        assertEquals(new ApiParameter<String>(ApiParameter.Location.QUERY, TestConstants.PAGE_TOKEN_PARAM_NAME, String.class,
+            false, "0", null, null), ApiParameter.stringQuery(TestConstants.PAGE_TOKEN_PARAM_NAME).withDefault("0"));
+    }
+
+    @Test
+    void intQueryWithRequiredRange() {
+        assertEquals(new ApiParameter<Integer>(ApiParameter.Location.QUERY, TestConstants.LIMIT_PARAM_NAME, Integer.class,
+            true, null, 1, 100), ApiParameter.intQuery(TestConstants.LIMIT_PARAM_NAME).withRange(1, 100).asRequired());
+    }
+
+    @Test
+    void withRangeWhenNotInteger() {
+        final IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+            ApiParameter.stringQuery(TestConstants.PAGE_TOKEN_PARAM_NAME).withRange(1, 100));
+        assertEquals("Cannot set a range on String parameter pageToken", exception.getMessage());
+    }
+
+    @Test
+    void withInvertedRange() {
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+            ApiParameter.intQuery(TestConstants.LIMIT_PARAM_NAME).withRange(100, 1));
+        assertEquals("Invalid range for limit parameter, minimum 100 is greater than maximum 1", exception.getMessage());
+        assertEquals(5, ApiParameter.intQuery(TestConstants.LIMIT_PARAM_NAME).withRange(5, 5).maximum());
+    }
+}
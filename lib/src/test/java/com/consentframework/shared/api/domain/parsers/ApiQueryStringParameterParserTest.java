@@ -10,6 +10,8 @@ import com.consentframework.shared.api.domain.exceptions.BadRequestException;
 import com.consentframework.shared.api.testcommon.constants.TestConstants;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.util.Map;
 
@@ -109,9 +111,18 @@ class ApiQueryStringParameterParserTest {
             assertEquals(5, parsedParameterValue);
         }
 
-        @Test
-        void testWhenStringNotParseableAsInteger() {
-            final Map<String, Object> queryParameters = Map.of(TestConstants.PAGE_TOKEN_PARAM_NAME, "InvalidPageToken");
+        @ParameterizedTest
+        @ValueSource(strings = {"-5", "+5", "0012"})
+        void testWhenSignedOrPaddedIntegerPassedAsString(final String limitStringValue) throws BadRequestException {
+            final ApiRequest request = buildRequest(Map.of(TestConstants.LIMIT_PARAM_NAME, limitStringValue));
+            assertEquals(Integer.parseInt(limitStringValue),
+                ApiQueryStringParameterParser.parseIntQueryStringParameter(request, TestConstants.LIMIT_PARAM_NAME));
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"InvalidPageToken", "", "-", "+", "1.5", "5 ", "2147483648", "-99999999999"})
+        void testWhenStringNotParseableAsInteger(final String pageTokenValue) {
+            final Map<String, Object> queryParameters = Map.of(TestConstants.PAGE_TOKEN_PARAM_NAME, pageTokenValue);
             final ApiRequest request = buildRequest(queryParameters);
 
             final BadRequestException thrownException = assertThrows(BadRequestException.class, () ->
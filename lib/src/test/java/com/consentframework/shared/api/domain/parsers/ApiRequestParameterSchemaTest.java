@@ -0,0 +1,136 @@
+package com.consentframework.shared.api.domain.parsers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.consentframework.shared.api.domain.constants.HttpMethod;
+import com.consentframework.shared.api.domain.entities.ApiRequest;
+import com.consentframework.shared.api.domain.exceptions.BadRequestException;
+import com.consentframework.shared.api.domain.exceptions.ParameterValidationException;
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Map;
+
+class ApiRequestParameterSchemaTest {
+    private static final ApiParameter<Integer> LIMIT = ApiParameter.intQuery(TestConstants.LIMIT_PARAM_NAME)
+        .withDefault(25)
+        .withRange(1, 100);
+    private static final ApiParameter<String> PAGE_TOKEN = ApiParameter.stringQuery(TestConstants.PAGE_TOKEN_PARAM_NAME);
+    private static final ApiParameter<Integer> VERSION = ApiParameter.intQuery("version").asRequired();
+    private static final ApiRequestParameterSchema SCHEMA = ApiRequestParameterSchema.of(
+        List.of(TestConstants.USER_ID_PARAM_NAME), LIMIT, PAGE_TOKEN, VERSION);
+
+    private static final Map<String, String> VALID_PATH_PARAMETERS = Map.of(TestConstants.USER_ID_PARAM_NAME, TestConstants.TEST_USER_ID);
+
+    @Test
+    void parseValidRequest() throws BadRequestException {
+        final ApiRequest request = buildRequest(VALID_PATH_PARAMETERS, Map.of(
+            TestConstants.LIMIT_PARAM_NAME, "10",
+            TestConstants.PAGE_TOKEN_PARAM_NAME, TestConstants.TEST_PAGE_TOKEN,
+            "version", 3
+        ));
+
+        final ApiRequestParameters parameters = SCHEMA.parse(request);
+        assertEquals(TestConstants.TEST_USER_ID, parameters.getPathParameter(TestConstants.USER_ID_PARAM_NAME));
+        assertEquals(10, parameters.get(LIMIT));
+        assertEquals(TestConstants.TEST_PAGE_TOKEN, parameters.get(PAGE_TOKEN));
+        assertEquals(3, parameters.get(VERSION));
+        assertEquals(3, parameters.get(ApiParameter.intQuery("version").asRequired()));
+    }
+
+    @Test
+    void parseAppliesDefaults() throws BadRequestException {
+        final ApiRequestParameters parameters = SCHEMA.parse(buildRequest(VALID_PATH_PARAMETERS, Map.of("version", "-1")));
+        assertEquals(25, parameters.get(LIMIT));
+        assertNull(parameters.get(PAGE_TOKEN));
+        assertEquals(-1, parameters.get(VERSION));
+    }
+
+    @Test
+    void parseMatchesPerCallParsers() throws BadRequestException {
+        final ApiRequest request = buildRequest(VALID_PATH_PARAMETERS, Map.of(TestConstants.LIMIT_PARAM_NAME, 50, "version", "7"));
+        final ApiRequestParameters parameters = SCHEMA.parse(request);
+
+        assertEquals(ApiPathParameterParser.parsePathParameter(request, TestConstants.USER_ID_PARAM_NAME),
+            parameters.getPathParameter(TestConstants.USER_ID_PARAM_NAME));
+        assertEquals(ApiQueryStringParameterParser.parseIntQueryStringParameter(request, TestConstants.LIMIT_PARAM_NAME),
+            parameters.get(LIMIT));
+        assertEquals(ApiQueryStringParameterParser.parseIntQueryStringParameter(request, "version"), parameters.get(VERSION));
+    }
+
+    @Test
+    void parseReportsAllFailures() {
+        final ApiRequest request = buildRequest(null, Map.of(
+            TestConstants.LIMIT_PARAM_NAME, 500,
+            TestConstants.PAGE_TOKEN_PARAM_NAME, 1
+        ));
+
+        final ParameterValidationException exception = assertThrows(ParameterValidationException.class, () -> SCHEMA.parse(request));
+        final List<String> expectedFailureMessages = List.of(
+            "Unable to parse userId path parameter from request",
+            "Invalid limit query parameter, expected a value between 1 and 100",
+            "Unable to parse pageToken query parameter from request",
+            "Missing required version query parameter"
+        );
+        assertEquals(expectedFailureMessages, exception.getFailureMessages());
+        assertEquals(String.join("; ", expectedFailureMessages), exception.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"NotANumber", "1.5", "2147483648", "0", "101"})
+    void parseWhenInvalidLimit(final String limitValue) {
+        final ApiRequest request = buildRequest(VALID_PATH_PARAMETERS, Map.of(TestConstants.LIMIT_PARAM_NAME, limitValue, "version", 1));
+        final ParameterValidationException exception = assertThrows(ParameterValidationException.class, () -> SCHEMA.parse(request));
+        assertEquals(1, exception.getFailureMessages().size());
+    }
+
+    @Test
+    void parseWhenWrongTypeForInteger() {
+        final ApiRequest request = buildRequest(VALID_PATH_PARAMETERS, Map.of("version", true));
+        final ParameterValidationException exception = assertThrows(ParameterValidationException.class, () -> SCHEMA.parse(request));
+        assertEquals(List.of("Unable to parse version query parameter from request"), exception.getFailureMessages());
+    }
+
+    @Test
+    void parseWhenNullRequest() {
+        final ParameterValidationException exception = assertThrows(ParameterValidationException.class, () -> SCHEMA.parse(null));
+        assertEquals(List.of("Unable to parse userId path parameter from request", "Missing required version query parameter"),
+            exception.getFailureMessages());
+    }
+
+    @Test
+    void getWhenNotDeclared() throws BadRequestException {
+        final ApiRequestParameters parameters = ApiRequestParameterSchema.of(PAGE_TOKEN).parse(buildRequest(null, null));
+        assertThrows(IllegalArgumentException.class, () -> parameters.get(LIMIT));
+        assertThrows(IllegalArgumentException.class, () -> parameters.getPathParameter(TestConstants.PAGE_TOKEN_PARAM_NAME));
+    }
+
+    @Test
+    void ofWithoutPathParameters() throws BadRequestException {
+        final ApiRequestParameters parameters = ApiRequestParameterSchema.of((List<String>) null, LIMIT).parse(buildRequest(null, null));
+        assertEquals(25, parameters.get(LIMIT));
+    }
+
+    @Test
+    void ofWhenDuplicateParameter() {
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+            ApiRequestParameterSchema.of(LIMIT, ApiParameter.intQuery(TestConstants.LIMIT_PARAM_NAME)));
+        assertEquals("Duplicate QUERY parameter limit", exception.getMessage());
+    }
+
+    @Test
+    void ofWhenUnsupportedType() {
+        final ApiParameter<Boolean> parameter = new ApiParameter<Boolean>(ApiParameter.Location.QUERY, "flag", Boolean.class,
+            false, null, null, null);
+        assertThrows(IllegalArgumentException.class, () -> ApiRequestParameterSchema.of(parameter));
+    }
+
+    private static ApiRequest buildRequest(final Map<String, String> pathParameters, final Map<String, Object> queryParameters) {
+        return new ApiRequest(HttpMethod.GET.name(), "/", "/", pathParameters, queryParameters, null, false, null);
+    }
+}
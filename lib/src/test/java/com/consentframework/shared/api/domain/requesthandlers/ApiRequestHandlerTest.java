@@ -13,6 +13,8 @@ import java.util.Map;
  * Abstract request handler test with common assertion helper methods.
  */
 public abstract class ApiRequestHandlerTest {
+    private static final String ERROR_RESPONSE_BODY_FORMAT = "{\"message\":\"%s\"}";
+
     protected abstract void testHandleNullRequest() throws Exception;
 
     protected abstract void testHandleRequestMissingPathParameters() throws Exception;
@@ -41,6 +43,6 @@ public abstract class ApiRequestHandlerTest {
         final Object responseBody = getResponseBody(response);
         assertTrue(responseBody instanceof String,
             String.format("Expected response body to be String but was %s", responseBody.getClass().getName()));
-        assertEquals(String.format(ApiRequestHandler.ERROR_RESPONSE_BODY, expectedMessage), responseBody);
+        assertEquals(String.format(ERROR_RESPONSE_BODY_FORMAT, expectedMessage), responseBody);
     }
 }
@@ -0,0 +1,310 @@
+package com.consentframework.shared.api.domain.requesthandlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consentframework.shared.api.domain.constants.ApiResponseParameterName;
+import com.consentframework.shared.api.domain.constants.HttpMethod;
+import com.consentframework.shared.api.domain.constants.HttpStatusCode;
+import com.consentframework.shared.api.domain.entities.ApiRequest;
+import com.consentframework.shared.api.domain.entities.ApiResponse;
+import com.consentframework.shared.api.domain.exceptions.BadRequestException;
+import com.consentframework.shared.api.domain.exceptions.ConflictingResourceException;
+import com.consentframework.shared.api.domain.exceptions.ResourceNotFoundException;
+import com.consentframework.shared.api.domain.exceptions.ThrottlingException;
+import com.consentframework.shared.api.domain.parsers.ApiPathParameterParser;
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+
+class AsyncApiRequestHandlerTest extends ApiRequestHandlerTest {
+    private static final Map<String, String> VALID_PATH_PARAMS = Map.of(TestConstants.USER_ID_PARAM_NAME, "someUser");
+    private static final ApiRequest VALID_REQUEST = buildApiRequest(VALID_PATH_PARAMS);
+    private static final Duration REMAINING_TIME = Duration.ofSeconds(10);
+
+    @Test
+    protected void testHandleNullRequest() {
+        final FanOutHandler handler = new FanOutHandler((request, scope) -> CompletableFuture.completedFuture(Map.of()));
+        assertExceptionResponse(HttpStatusCode.BAD_REQUEST, "Missing required path parameters, expected userId",
+            handler.handleRequest(null, REMAINING_TIME));
+    }
+
+    @Test
+    protected void testHandleRequestMissingPathParameters() {
+        final FanOutHandler handler = new FanOutHandler((request, scope) -> CompletableFuture.completedFuture(Map.of()));
+        assertExceptionResponse(HttpStatusCode.BAD_REQUEST, "Missing required path parameters, expected userId",
+            handler.handleRequest(buildApiRequest(Map.of())));
+    }
+
+    @Test
+    void testForkedCallsRunConcurrently() {
+        final CyclicBarrier bothStarted = new CyclicBarrier(2);
+        final FanOutHandler handler = new FanOutHandler((request, scope) -> {
+            final CompletableFuture<String> consent = scope.fork(() -> {
+                bothStarted.await(5, TimeUnit.SECONDS);
+                return "consent";
+            });
+            final CompletableFuture<String> history = scope.fork(() -> {
+                bothStarted.await(5, TimeUnit.SECONDS);
+                return "history";
+            });
+            return consent.thenCombine(history, (first, second) -> successResponse(first + "," + second));
+        });
+
+        final Map<String, Object> response = handler.handleRequest(VALID_REQUEST, REMAINING_TIME);
+        assertSuccessResponse(response);
+        assertEquals("consent,history", getResponseBody(response));
+    }
+
+    @Test
+    void testTrackedCallsComplete() {
+        final FanOutHandler handler = new FanOutHandler((request, scope) -> scope.track(CompletableFuture.supplyAsync(() -> "consent"))
+            .thenApply(AsyncApiRequestHandlerTest::successResponse));
+
+        assertSuccessResponse(handler.handleRequest(VALID_REQUEST));
+    }
+
+    @Test
+    void testFailedCallsMappedToErrorResponses() {
+        final FanOutHandler notFoundHandler = new FanOutHandler((request, scope) -> scope.fork(() -> {
+            throw new ResourceNotFoundException("Consent not found");
+        }));
+        assertExceptionResponse(HttpStatusCode.NOT_FOUND, "Consent not found",
+            notFoundHandler.handleRequest(VALID_REQUEST, REMAINING_TIME));
+
+        final FanOutHandler conflictHandler = new FanOutHandler((request, scope) -> scope.fork(() -> "consent")
+            .thenCompose(consent -> scope.fork(() -> {
+                throw new ConflictingResourceException("Conflict");
+            })));
+        assertExceptionResponse(HttpStatusCode.CONFLICT, "Conflict", conflictHandler.handleRequest(VALID_REQUEST, REMAINING_TIME));
+
+        final FanOutHandler joiningHandler = new FanOutHandler((request, scope) -> {
+            scope.fork(() -> {
+                throw new BadRequestException("Invalid consent");
+            }).join();
+            return CompletableFuture.completedFuture(Map.of());
+        });
+        assertExceptionResponse(HttpStatusCode.BAD_REQUEST, "Invalid consent",
+            joiningHandler.handleRequest(VALID_REQUEST, REMAINING_TIME));
+
+        final FanOutHandler throttledHandler = new FanOutHandler((request, scope) -> scope.fork(() -> {
+            throw new ThrottlingException("Rate exceeded", Duration.ofSeconds(1));
+        }));
+        final Map<String, Object> throttledResponse = throttledHandler.handleRequest(VALID_REQUEST, REMAINING_TIME);
+        assertExceptionResponse(HttpStatusCode.TOO_MANY_REQUESTS, "Rate exceeded", throttledResponse);
+        assertEquals(Map.of(ApiRequestHandler.RETRY_AFTER_HEADER, "1"), throttledResponse.get(ApiResponseParameterName.HEADERS.getValue()));
+
+        final FanOutHandler throwingHandler = new FanOutHandler((request, scope) -> {
+            throw new IllegalStateException("Unexpected");
+        });
+        assertExceptionResponse(HttpStatusCode.INTERNAL_SERVER_ERROR, "Unexpected", throwingHandler.handleRequest(VALID_REQUEST));
+    }
+
+    @Test
+    void testErrorsPropagated() {
+        final FanOutHandler handler = new FanOutHandler((request, scope) -> scope.fork(() -> {
+            throw new AssertionError("Failed assertion");
+        }));
+        assertThrows(AssertionError.class, () -> handler.handleRequest(VALID_REQUEST, REMAINING_TIME));
+    }
+
+    @Test
+    void testOutstandingCallsCancelledOnTimeout() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final CompletableFuture<String> trackedCall = new CompletableFuture<>();
+        final AtomicReference<AsyncRequestScope> requestScope = new AtomicReference<>();
+        final FanOutHandler handler = new FanOutHandler((request, scope) -> {
+            requestScope.set(scope);
+            final CompletableFuture<String> forkedCall = scope.fork(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(Duration.ofMinutes(1));
+                } catch (final InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return "consent";
+            });
+            awaitLatch(started);
+            return forkedCall.thenCombine(scope.track(trackedCall), (first, second) -> successResponse(first));
+        });
+
+        final Map<String, Object> response = handler.handleRequest(VALID_REQUEST,
+            AsyncApiRequestHandler.DEFAULT_DEADLINE_MARGIN.plusMillis(50));
+
+        assertExceptionResponse(HttpStatusCode.INTERNAL_SERVER_ERROR, AsyncApiRequestHandler.REQUEST_TIMEOUT_MESSAGE, response);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(trackedCall.isCancelled());
+        assertTrue(requestScope.get().isCancelled());
+        assertEquals(Optional.of(Duration.ZERO), requestScope.get().getRemainingTime());
+    }
+
+    @Test
+    void testCallsOutstandingAfterResponseCancelled() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final FanOutHandler handler = new FanOutHandler((request, scope) -> {
+            scope.fork(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(Duration.ofMinutes(1));
+                } catch (final InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return null;
+            });
+            return scope.fork(() -> {
+                started.await();
+                return successResponse("consent");
+            });
+        });
+
+        assertSuccessResponse(handler.handleRequest(VALID_REQUEST, REMAINING_TIME));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testCallsAfterCancellationCancelledImmediately() {
+        final AtomicReference<AsyncRequestScope> requestScope = new AtomicReference<>();
+        final FanOutHandler handler = new FanOutHandler((request, scope) -> {
+            requestScope.set(scope);
+            return CompletableFuture.completedFuture(successResponse("consent"));
+        });
+        assertSuccessResponse(handler.handleRequest(VALID_REQUEST, REMAINING_TIME));
+
+        final AtomicBoolean called = new AtomicBoolean();
+        final CompletableFuture<Boolean> forkedCall = requestScope.get().fork(() -> called.getAndSet(true));
+        final CompletableFuture<String> trackedCall = requestScope.get().track(new CompletableFuture<>());
+
+        assertTrue(forkedCall.isCancelled());
+        assertTrue(trackedCall.isCancelled());
+        assertFalse(called.get());
+    }
+
+    @Test
+    void testDeadlineDerivedFromRemainingTime() {
+        final AtomicLong nanoTime = new AtomicLong(1_000);
+        final List<Optional<Duration>> remainingTimes = new ArrayList<>();
+        final FanOutHandler handler = new FanOutHandler(Duration.ofMillis(100), nanoTime::get, (request, scope) -> {
+            remainingTimes.add(scope.getRemainingTime());
+            return CompletableFuture.completedFuture(successResponse("consent"));
+        });
+
+        assertSuccessResponse(handler.handleRequest(VALID_REQUEST, Duration.ofMillis(300)));
+        assertSuccessResponse(handler.handleRequest(VALID_REQUEST));
+        assertEquals(List.of(Optional.of(Duration.ofMillis(200)), Optional.empty()), remainingTimes);
+    }
+
+    @Test
+    void testExpiredDeadlineSkipsHandling() {
+        final AtomicBoolean handled = new AtomicBoolean();
+        final FanOutHandler handler = new FanOutHandler((request, scope) -> {
+            handled.set(true);
+            return CompletableFuture.completedFuture(successResponse("consent"));
+        });
+
+        assertExceptionResponse(HttpStatusCode.INTERNAL_SERVER_ERROR, AsyncApiRequestHandler.REQUEST_TIMEOUT_MESSAGE,
+            handler.handleRequest(VALID_REQUEST, AsyncApiRequestHandler.DEFAULT_DEADLINE_MARGIN));
+        assertFalse(handled.get());
+    }
+
+    @Test
+    void testCancelledResponse() {
+        final FanOutHandler cancelledHandler = new FanOutHandler((request, scope) -> {
+            final CompletableFuture<Map<String, Object>> response = new CompletableFuture<>();
+            response.cancel(true);
+            return response;
+        });
+        assertExceptionResponse(HttpStatusCode.INTERNAL_SERVER_ERROR, AsyncApiRequestHandler.REQUEST_CANCELLED_MESSAGE,
+            cancelledHandler.handleRequest(VALID_REQUEST, REMAINING_TIME));
+
+        final FanOutHandler cancelledCallHandler = new FanOutHandler((request, scope) -> {
+            final CompletableFuture<String> call = scope.track(new CompletableFuture<>());
+            call.cancel(true);
+            return call.thenApply(AsyncApiRequestHandlerTest::successResponse);
+        });
+        assertExceptionResponse(HttpStatusCode.INTERNAL_SERVER_ERROR, AsyncApiRequestHandler.REQUEST_CANCELLED_MESSAGE,
+            cancelledCallHandler.handleRequest(VALID_REQUEST, REMAINING_TIME));
+    }
+
+    @Test
+    void testInterruptedWhileWaiting() {
+        final FanOutHandler handler = new FanOutHandler((request, scope) -> new CompletableFuture<>());
+
+        Thread.currentThread().interrupt();
+        final Map<String, Object> response = handler.handleRequest(VALID_REQUEST);
+
+        assertTrue(Thread.interrupted());
+        assertExceptionResponse(HttpStatusCode.INTERNAL_SERVER_ERROR, AsyncApiRequestHandler.REQUEST_CANCELLED_MESSAGE, response);
+    }
+
+    @Test
+    void testInvalidDeadlineMargin() {
+        final BiFunction<ApiRequest, AsyncRequestScope, CompletableFuture<Map<String, Object>>> body =
+            (request, scope) -> CompletableFuture.completedFuture(Map.of());
+        assertThrows(IllegalArgumentException.class, () -> new FanOutHandler(Duration.ofMillis(-1), System::nanoTime, body));
+        assertThrows(IllegalArgumentException.class, () -> new FanOutHandler(null, System::nanoTime, body));
+    }
+
+    private static void awaitLatch(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, Object> successResponse(final String responseBody) {
+        return ApiResponse.of(HttpStatusCode.SUCCESS, responseBody).toMap();
+    }
+
+    private static ApiRequest buildApiRequest(final Map<String, String> pathParameters) {
+        return new ApiRequest(HttpMethod.GET.name(), "/v1/users/{userId}/consents", "/v1/users/someUser/consents",
+            pathParameters, null, null, false, null);
+    }
+
+    /**
+     * Handler delegating to a function after parsing its path parameters.
+     */
+    private static final class FanOutHandler extends AsyncApiRequestHandler {
+        private final BiFunction<ApiRequest, AsyncRequestScope, CompletableFuture<Map<String, Object>>> body;
+
+        FanOutHandler(final BiFunction<ApiRequest, AsyncRequestScope, CompletableFuture<Map<String, Object>>> body) {
+            super(List.of(TestConstants.USER_ID_PARAM_NAME));
+            this.body = body;
+        }
+
+        FanOutHandler(final Duration deadlineMargin, final LongSupplier nanoClock,
+                final BiFunction<ApiRequest, AsyncRequestScope, CompletableFuture<Map<String, Object>>> body) {
+            super(List.of(TestConstants.USER_ID_PARAM_NAME), ClientErrorLogPolicy.unlimited(), deadlineMargin,
+                ExceptionStatusCodeMapping.defaults(), nanoClock);
+            this.body = body;
+        }
+
+        @Override
+        protected CompletableFuture<Map<String, Object>> handleRequestAsync(final ApiRequest request, final AsyncRequestScope scope) {
+            try {
+                ApiPathParameterParser.parsePathParameter(request, TestConstants.USER_ID_PARAM_NAME);
+            } catch (final BadRequestException e) {
+                return CompletableFuture.completedFuture(logAndBuildMissingPathParamResponse(e));
+            }
+            return body.apply(request, scope);
+        }
+    }
+}
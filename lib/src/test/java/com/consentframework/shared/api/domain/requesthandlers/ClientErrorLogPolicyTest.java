@@ -0,0 +1,71 @@
+package com.consentframework.shared.api.domain.requesthandlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class ClientErrorLogPolicyTest {
+    private final AtomicLong nanoTime = new AtomicLong(1_000L);
+
+    @Test
+    void unlimited() {
+        final ClientErrorLogPolicy policy = ClientErrorLogPolicy.unlimited();
+        for (int index = 0; index < 1000; index++) {
+            assertTrue(policy.tryAcquire());
+        }
+        assertEquals(0, policy.drainSuppressedCount());
+        assertFalse(policy.isStackTraceEnabled());
+    }
+
+    @Test
+    void rateLimitedWithinWindow() {
+        final ClientErrorLogPolicy policy = new ClientErrorLogPolicy(2, false, nanoTime::get);
+        assertTrue(policy.tryAcquire());
+        assertTrue(policy.tryAcquire());
+        assertFalse(policy.tryAcquire());
+        assertFalse(policy.tryAcquire());
+        assertEquals(2, policy.drainSuppressedCount());
+        assertEquals(0, policy.drainSuppressedCount());
+    }
+
+    @Test
+    void rateLimitedResetsAfterWindow() {
+        final ClientErrorLogPolicy policy = new ClientErrorLogPolicy(1, false, nanoTime::get);
+        assertTrue(policy.tryAcquire());
+        assertFalse(policy.tryAcquire());
+
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertFalse(policy.tryAcquire());
+
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertTrue(policy.tryAcquire());
+        assertFalse(policy.tryAcquire());
+        assertEquals(3, policy.drainSuppressedCount());
+    }
+
+    @Test
+    void rateLimitedToZero() {
+        final ClientErrorLogPolicy policy = ClientErrorLogPolicy.rateLimited(0);
+        assertFalse(policy.tryAcquire());
+        assertEquals(1, policy.drainSuppressedCount());
+    }
+
+    @Test
+    void rateLimitedWhenNegative() {
+        assertThrows(IllegalArgumentException.class, () -> ClientErrorLogPolicy.rateLimited(-1));
+    }
+
+    @Test
+    void withStackTraces() {
+        final ClientErrorLogPolicy policy = new ClientErrorLogPolicy(1, false, nanoTime::get).withStackTraces();
+        assertTrue(policy.isStackTraceEnabled());
+        assertTrue(policy.tryAcquire());
+        assertFalse(policy.tryAcquire());
+    }
+}
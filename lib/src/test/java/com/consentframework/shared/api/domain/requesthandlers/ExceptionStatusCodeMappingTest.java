@@ -0,0 +1,68 @@
+package com.consentframework.shared.api.domain.requesthandlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.consentframework.shared.api.domain.constants.HttpStatusCode;
+import com.consentframework.shared.api.domain.exceptions.BadRequestException;
+import com.consentframework.shared.api.domain.exceptions.ConflictingResourceException;
+import com.consentframework.shared.api.domain.exceptions.InternalServiceException;
+import com.consentframework.shared.api.domain.exceptions.ParameterValidationException;
+import com.consentframework.shared.api.domain.exceptions.ResourceNotFoundException;
+import com.consentframework.shared.api.domain.exceptions.ThrottlingException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class ExceptionStatusCodeMappingTest {
+    @Test
+    void testDefaults() {
+        final ExceptionStatusCodeMapping mapping = ExceptionStatusCodeMapping.defaults();
+
+        assertEquals(HttpStatusCode.BAD_REQUEST, mapping.getStatusCode(new BadRequestException("Invalid")));
+        assertEquals(HttpStatusCode.BAD_REQUEST, mapping.getStatusCode(new ParameterValidationException(List.of("Invalid limit"))));
+        assertEquals(HttpStatusCode.NOT_FOUND, mapping.getStatusCode(new ResourceNotFoundException("Not found")));
+        assertEquals(HttpStatusCode.CONFLICT, mapping.getStatusCode(new ConflictingResourceException("Conflict")));
+        assertEquals(HttpStatusCode.TOO_MANY_REQUESTS, mapping.getStatusCode(new ThrottlingException("Rate exceeded")));
+        assertEquals(HttpStatusCode.INTERNAL_SERVER_ERROR, mapping.getStatusCode(new InternalServiceException("Unexpected")));
+        assertEquals(HttpStatusCode.INTERNAL_SERVER_ERROR, mapping.getStatusCode(new IllegalStateException("Unexpected")));
+        assertSame(mapping, ExceptionStatusCodeMapping.defaults());
+    }
+
+    @Test
+    void testRegisteredSubclassTakesPrecedence() {
+        final ExceptionStatusCodeMapping mapping = ExceptionStatusCodeMapping.defaults()
+            .withStatusCode(RuntimeException.class, HttpStatusCode.BAD_REQUEST)
+            .withStatusCode(IllegalStateException.class, HttpStatusCode.CONFLICT)
+            .withStatusCode(ParameterValidationException.class, HttpStatusCode.NOT_FOUND);
+
+        assertEquals(HttpStatusCode.CONFLICT, mapping.getStatusCode(new IllegalStateException("Conflict")));
+        assertEquals(HttpStatusCode.BAD_REQUEST, mapping.getStatusCode(new IllegalArgumentException("Invalid")));
+        assertEquals(HttpStatusCode.BAD_REQUEST, mapping.getStatusCode(new BadRequestException("Invalid")));
+        assertEquals(HttpStatusCode.NOT_FOUND, mapping.getStatusCode(new ParameterValidationException(List.of("Invalid limit"))));
+        assertEquals(HttpStatusCode.INTERNAL_SERVER_ERROR, mapping.getStatusCode(new InternalServiceException("Unexpected")));
+    }
+
+    @Test
+    void testRegistrationDoesNotChangeOriginal() {
+        final ExceptionStatusCodeMapping mapping = ExceptionStatusCodeMapping.defaults();
+        assertEquals(HttpStatusCode.INTERNAL_SERVER_ERROR, mapping.getStatusCode(new IllegalArgumentException("Invalid")));
+
+        final ExceptionStatusCodeMapping overridden = mapping
+            .withStatusCode(IllegalArgumentException.class, HttpStatusCode.BAD_REQUEST)
+            .withStatusCode(ResourceNotFoundException.class, HttpStatusCode.BAD_REQUEST);
+
+        assertEquals(HttpStatusCode.BAD_REQUEST, overridden.getStatusCode(new IllegalArgumentException("Invalid")));
+        assertEquals(HttpStatusCode.BAD_REQUEST, overridden.getStatusCode(new ResourceNotFoundException("Not found")));
+        assertEquals(HttpStatusCode.INTERNAL_SERVER_ERROR, mapping.getStatusCode(new IllegalArgumentException("Invalid")));
+        assertEquals(HttpStatusCode.NOT_FOUND, mapping.getStatusCode(new ResourceNotFoundException("Not found")));
+    }
+
+    @Test
+    void testInvalidRegistration() {
+        final ExceptionStatusCodeMapping mapping = ExceptionStatusCodeMapping.defaults();
+        assertThrows(IllegalArgumentException.class, () -> mapping.withStatusCode(null, HttpStatusCode.BAD_REQUEST));
+        assertThrows(IllegalArgumentException.class, () -> mapping.withStatusCode(IllegalStateException.class, null));
+    }
+}
@@ -0,0 +1,46 @@
+package com.consentframework.shared.api.domain.requesthandlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.consentframework.consentmanagement.api.JSON;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class JsonStringEscaperTest {
+    private static final ObjectMapper OBJECT_MAPPER = new JSON().getMapper();
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "",
+        "Invalid limit",
+        "Quoted \"value\"",
+        "Back\\slash",
+        "Line\nbreak\r\n\ttab\bback\fform",
+        "Null\u0000and\u001funit separator",
+        "Unicode é ✓ 😀 and   and </script>"
+    })
+    void escapeMatchesObjectMapper(final String value) throws Exception {
+        final String expected = OBJECT_MAPPER.writeValueAsString(value);
+        assertEquals(expected.substring(1, expected.length() - 1), JsonStringEscaper.escape(value));
+        assertEquals(expected, JsonStringEscaper.appendQuoted(new StringBuilder(), value).toString());
+    }
+
+    @Test
+    void escapeAllAsciiCharactersMatchesObjectMapper() throws Exception {
+        final StringBuilder allAsciiCharacters = new StringBuilder();
+        for (char character = 0; character < 0x80; character++) {
+            allAsciiCharacters.append(character);
+        }
+        final String value = allAsciiCharacters.toString();
+        assertEquals(OBJECT_MAPPER.writeValueAsString(value), JsonStringEscaper.appendQuoted(new StringBuilder(), value).toString());
+    }
+
+    @Test
+    void escapeWhenNothingToEscape() {
+        final String value = "Missing required path parameters, expected userId";
+        assertSame(value, JsonStringEscaper.escape(value));
+    }
+}
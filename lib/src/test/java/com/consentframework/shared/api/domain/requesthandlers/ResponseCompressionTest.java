@@ -0,0 +1,125 @@
+package com.consentframework.shared.api.domain.requesthandlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consentframework.shared.api.domain.constants.HttpMethod;
+import com.consentframework.shared.api.domain.entities.ApiRequest;
+import com.consentframework.shared.api.domain.entities.ApiResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+class ResponseCompressionTest {
+    private static final String LARGE_BODY = "{\"data\":[" + "{\"consentId\":\"TestConsentId\",\"consentStatus\":\"ACTIVE\"},".repeat(50)
+        + "{}]}";
+    private static final ApiRequest GZIP_REQUEST = buildApiRequest(Map.of("accept-encoding", "gzip, deflate, br"));
+
+    @Test
+    void testCompressesLargeBody() throws IOException {
+        final ApiResponse response = new ApiResponse(200, ResponseHeaders.JSON_NO_STORE, LARGE_BODY);
+
+        final ApiResponse compressedResponse = ResponseCompression.defaults().compress(GZIP_REQUEST, response);
+
+        assertEquals(200, compressedResponse.statusCode());
+        assertTrue(compressedResponse.isBase64Encoded());
+        assertSame(ResponseHeaders.withGzipEncoding(ResponseHeaders.JSON_NO_STORE), compressedResponse.headers());
+        assertTrue(compressedResponse.body().length() < LARGE_BODY.length() / 4);
+        assertEquals(LARGE_BODY, gunzip(compressedResponse.body()));
+    }
+
+    @Test
+    void testCompressesBodyWithoutHeaders() throws IOException {
+        final ApiResponse compressedResponse = ResponseCompression.forBodiesOfAtLeast(0)
+            .compress(GZIP_REQUEST, new ApiResponse(200, null, LARGE_BODY));
+
+        assertEquals(Map.of(ResponseHeaders.CONTENT_ENCODING, ResponseHeaders.GZIP, ResponseHeaders.VARY, ResponseHeaders.ACCEPT_ENCODING),
+            compressedResponse.headers());
+        assertEquals(LARGE_BODY, gunzip(compressedResponse.body()));
+    }
+
+    @Test
+    void testDoesNotCompress() {
+        final ApiResponse response = new ApiResponse(200, ResponseHeaders.JSON, LARGE_BODY);
+        final ApiResponse smallResponse = new ApiResponse(200, ResponseHeaders.JSON, "{\"data\":[]}");
+        final ApiResponse incompressibleResponse = new ApiResponse(200, ResponseHeaders.JSON, "aZ3$kQ9!xW");
+        final ApiResponse encodedResponse = new ApiResponse(200, ResponseHeaders.JSON, "e30=", true);
+        final ApiResponse emptyResponse = new ApiResponse(204, null, null);
+
+        assertSame(response, ResponseCompression.disabled().compress(GZIP_REQUEST, response));
+        assertSame(smallResponse, ResponseCompression.defaults().compress(GZIP_REQUEST, smallResponse));
+        assertSame(encodedResponse, ResponseCompression.forBodiesOfAtLeast(0).compress(GZIP_REQUEST, encodedResponse));
+        assertSame(emptyResponse, ResponseCompression.forBodiesOfAtLeast(0).compress(GZIP_REQUEST, emptyResponse));
+        assertEquals(new ApiResponse(200, ResponseHeaders.withVaryAcceptEncoding(ResponseHeaders.JSON), "aZ3$kQ9!xW"),
+            ResponseCompression.forBodiesOfAtLeast(1).compress(GZIP_REQUEST, incompressibleResponse));
+    }
+
+    @Test
+    void testVariesUncompressedBodyOfCompressibleLength() {
+        final ApiResponse response = new ApiResponse(200, ResponseHeaders.JSON_NO_STORE, LARGE_BODY);
+
+        for (final ApiRequest request : new ApiRequest[] {buildApiRequest(null), buildApiRequest(Map.of("Accept-Encoding", "br")), null}) {
+            final ApiResponse uncompressedResponse = ResponseCompression.defaults().compress(request, response);
+
+            assertFalse(uncompressedResponse.isBase64Encoded());
+            assertSame(ResponseHeaders.withVaryAcceptEncoding(ResponseHeaders.JSON_NO_STORE), uncompressedResponse.headers());
+            assertEquals(LARGE_BODY, uncompressedResponse.body());
+        }
+        assertEquals(Map.of(ResponseHeaders.VARY, ResponseHeaders.ACCEPT_ENCODING),
+            ResponseCompression.forBodiesOfAtLeast(0).compress(null, new ApiResponse(200, null, LARGE_BODY)).headers());
+    }
+
+    @Test
+    void testIsCompressible() {
+        assertTrue(ResponseCompression.defaults().isCompressible(ResponseCompression.DEFAULT_MIN_BODY_LENGTH));
+        assertFalse(ResponseCompression.defaults().isCompressible(ResponseCompression.DEFAULT_MIN_BODY_LENGTH - 1));
+        assertFalse(ResponseCompression.disabled().isCompressible(LARGE_BODY.length()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip", "GZIP", "x-gzip", "br;q=1.0, gzip;q=0.5", "*", "identity, *;q=0.1", "gzip ; level=1 ; Q=1"})
+    void testAcceptsGzip(final String acceptEncoding) {
+        assertTrue(ResponseCompression.acceptsGzip(buildApiRequest(Map.of("Accept-Encoding", acceptEncoding))));
+        assertTrue(ResponseCompression.acceptsGzip(buildApiRequest(Map.of("ACCEPT-ENCODING", acceptEncoding))));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "identity", "br, deflate", "gzip;q=0", "gzip;q=0.0, *", "*;q=0", "gzip;q=invalid", "*, gzip;q=0"})
+    void testDoesNotAcceptGzip(final String acceptEncoding) {
+        assertFalse(ResponseCompression.acceptsGzip(buildApiRequest(Map.of("Accept-Encoding", acceptEncoding))));
+    }
+
+    @Test
+    void testDoesNotAcceptGzipWithoutHeader() {
+        assertFalse(ResponseCompression.acceptsGzip(buildApiRequest(Map.of("Content-Type", "application/json"))));
+        assertFalse(ResponseCompression.acceptsGzip(buildApiRequest(null)));
+        assertFalse(ResponseCompression.acceptsGzip(null));
+    }
+
+    @Test
+    void testInvalidMinBodyLength() {
+        assertThrows(IllegalArgumentException.class, () -> ResponseCompression.forBodiesOfAtLeast(-1));
+    }
+
+    private static ApiRequest buildApiRequest(final Map<String, Object> headers) {
+        return new ApiRequest(HttpMethod.GET.name(), "/v1/users/{userId}/consents", "/v1/users/someUser/consents",
+            null, null, headers, false, null);
+    }
+
+    private static String gunzip(final String encodedBody) throws IOException {
+        try (InputStream gzipStream = new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(encodedBody)))) {
+            return new String(gzipStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
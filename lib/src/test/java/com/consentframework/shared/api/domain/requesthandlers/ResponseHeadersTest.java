@@ -0,0 +1,53 @@
+package com.consentframework.shared.api.domain.requesthandlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+class ResponseHeadersTest {
+    @Test
+    void testSharedGzipVariants() {
+        assertEquals(Map.of("Content-Type", "application/json", "Content-Encoding", "gzip", "Vary", "Accept-Encoding"),
+            ResponseHeaders.withGzipEncoding(ResponseHeaders.JSON));
+        assertSame(ResponseHeaders.withGzipEncoding(ResponseHeaders.JSON),
+            ResponseHeaders.withGzipEncoding(Map.of("Content-Type", "application/json")));
+        assertSame(ResponseHeaders.withGzipEncoding(ResponseHeaders.JSON_NO_STORE),
+            ResponseHeaders.withGzipEncoding(ResponseHeaders.JSON_NO_STORE));
+    }
+
+    @Test
+    void testSharedVaryVariants() {
+        assertEquals(Map.of("Content-Type", "application/json", "Cache-Control", "no-store", "Vary", "Accept-Encoding"),
+            ResponseHeaders.withVaryAcceptEncoding(ResponseHeaders.JSON_NO_STORE));
+        assertSame(ResponseHeaders.withVaryAcceptEncoding(ResponseHeaders.JSON),
+            ResponseHeaders.withVaryAcceptEncoding(Map.of("Content-Type", "application/json")));
+        assertEquals(Map.of("Content-Type", "text/csv", "Vary", "Accept-Encoding"),
+            ResponseHeaders.withVaryAcceptEncoding(Map.of("Content-Type", "text/csv")));
+        assertEquals(Map.of("Vary", "Accept-Encoding"), ResponseHeaders.withVaryAcceptEncoding(null));
+    }
+
+    @Test
+    void testVaryAcceptEncodingAppendedToExistingVary() {
+        assertEquals(Map.of("Content-Type", "text/csv", "Vary", "Origin, Accept-Encoding"),
+            ResponseHeaders.withVaryAcceptEncoding(Map.of("Content-Type", "text/csv", "Vary", "Origin")));
+        assertEquals(Map.of("Content-Encoding", "gzip", "vary", "Origin, Accept-Encoding"),
+            ResponseHeaders.withGzipEncoding(Map.of("vary", "Origin")));
+        assertEquals(Map.of("Vary", "Origin, accept-encoding"),
+            ResponseHeaders.withVaryAcceptEncoding(Map.of("Vary", "Origin, accept-encoding")));
+        assertEquals(Map.of("Vary", "*"), ResponseHeaders.withVaryAcceptEncoding(Map.of("Vary", "*")));
+        assertEquals(Map.of("Vary", "Accept-Encoding"), ResponseHeaders.withVaryAcceptEncoding(Map.of("Vary", " ")));
+    }
+
+    @Test
+    void testGzipVariantOfOtherHeaders() {
+        final Map<String, String> headers = ResponseHeaders.withGzipEncoding(Map.of("Content-Type", "text/csv"));
+
+        assertEquals(Map.of("Content-Type", "text/csv", "Content-Encoding", "gzip", "Vary", "Accept-Encoding"), headers);
+        assertThrows(UnsupportedOperationException.class, () -> headers.put("Cache-Control", "no-store"));
+        assertThrows(UnsupportedOperationException.class, () -> ResponseHeaders.JSON_NO_STORE.put("Cache-Control", "no-cache"));
+    }
+}
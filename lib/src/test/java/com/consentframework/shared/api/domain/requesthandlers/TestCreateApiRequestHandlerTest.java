@@ -2,18 +2,42 @@ package com.consentframework.shared.api.domain.requesthandlers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.consentframework.shared.api.domain.constants.ApiResponseParameterName;
 import com.consentframework.shared.api.domain.constants.HttpMethod;
 import com.consentframework.shared.api.domain.constants.HttpStatusCode;
 import com.consentframework.shared.api.domain.entities.ApiRequest;
+import com.consentframework.shared.api.domain.entities.ApiResponse;
+import com.consentframework.shared.api.domain.exceptions.BadRequestException;
+import com.consentframework.shared.api.domain.exceptions.ResourceNotFoundException;
+import com.consentframework.shared.api.domain.exceptions.ThrottlingException;
+import com.consentframework.shared.api.domain.parsers.ApiParameter;
+import com.consentframework.shared.api.domain.parsers.ApiRequestParameterSchema;
+import com.consentframework.shared.api.domain.parsers.ApiRequestParameters;
 import com.consentframework.shared.api.testcommon.constants.TestConstants;
 import com.consentframework.shared.api.testcommon.infrastructure.TestContentParser;
 import com.consentframework.shared.api.testcommon.infrastructure.TestCreateRequestHandler;
 import com.consentframework.shared.api.testcommon.infrastructure.TestCreateResponseContent;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.logging.log4j.core.config.Property;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 class TestCreateApiRequestHandlerTest extends ApiRequestHandlerTest {
     private static final String TEST_USER_ID = "someUser";
@@ -22,6 +46,25 @@ class TestCreateApiRequestHandlerTest extends ApiRequestHandlerTest {
     private static final String VALID_REQUEST_BODY = "{\"status\": \"" + TEST_STATUS + "\"}";
 
     private ApiRequestHandler handler = new TestCreateRequestHandler();
+    private CapturingAppender logAppender;
+    private Level originalLogLevel;
+
+    @BeforeEach
+    void addLogAppender() {
+        final LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        originalLogLevel = context.getLogger(ApiRequestHandler.class.getName()).getLevel();
+        logAppender = new CapturingAppender();
+        logAppender.start();
+        context.getLogger(ApiRequestHandler.class.getName()).addAppender(logAppender);
+    }
+
+    @AfterEach
+    void removeLogAppender() {
+        final LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        context.getLogger(ApiRequestHandler.class.getName()).removeAppender(logAppender);
+        logAppender.stop();
+        Configurator.setLevel(ApiRequestHandler.class, originalLogLevel);
+    }
 
     @Test
     protected void testHandleNullRequest() {
@@ -84,6 +127,185 @@ class TestCreateApiRequestHandlerTest extends ApiRequestHandlerTest {
         assertExceptionResponse(HttpStatusCode.NOT_FOUND, "Resource not found", response);
     }
 
+    @Test
+    void testMissingPathParametersResponseIsReused() {
+        final Map<String, Object> response = handler.handleRequest(null);
+        assertSame(response, handler.handleRequest(buildApiRequest(Map.of(), null, null)));
+        assertThrows(UnsupportedOperationException.class, () -> response.put("body", "other"));
+    }
+
+    @Test
+    void testRequestParseFailureResponseIsReused() {
+        final ApiRequest request = buildApiRequest(VALID_PATH_PARAMS, null, "Invalid body");
+        final Map<String, Object> response = handler.handleRequest(request);
+        assertExceptionResponse(HttpStatusCode.BAD_REQUEST, ApiRequestHandler.REQUEST_PARSE_FAILURE_MESSAGE, response);
+        assertSame(response, handler.handleRequest(request));
+    }
+
+    @Test
+    void testMissingPathParametersResponseWhenNoRequiredPathParameters() {
+        final ApiRequestHandler handlerWithoutPathParameters = new ApiRequestHandler(null) {
+            @Override
+            protected Map<String, Object> handleRequest(final ApiRequest request) {
+                return logAndBuildMissingPathParamResponse(new BadRequestException("Missing"));
+            }
+        };
+        assertExceptionResponse(HttpStatusCode.BAD_REQUEST, "Missing required path parameters, expected ",
+            handlerWithoutPathParameters.handleRequest(null));
+    }
+
+    @Test
+    void testErrorResponseEscapesMessage() {
+        final Map<String, Object> response = handler.logAndBuildErrorResponse(new BadRequestException("Invalid \"limit\"\n"));
+        assertStatusCodeEquals(HttpStatusCode.BAD_REQUEST, response);
+        assertEquals("{\"message\":\"Invalid \\\"limit\\\"\\n\"}", getResponseBody(response));
+    }
+
+    @Test
+    void testThrottlingErrorResponse() {
+        final Map<String, Object> response = handler.logAndBuildErrorResponse(
+            new ThrottlingException("Rate exceeded", Duration.ofMillis(1500)));
+        assertExceptionResponse(HttpStatusCode.TOO_MANY_REQUESTS, "Rate exceeded", response);
+        assertEquals(Map.of(ApiRequestHandler.RETRY_AFTER_HEADER, "2"), response.get(ApiResponseParameterName.HEADERS.getValue()));
+
+        assertEquals(new ApiResponse(429, Map.of(ApiRequestHandler.RETRY_AFTER_HEADER, "3"), "{\"message\":\"Rate exceeded\"}"),
+            handler.buildErrorResponse(new ThrottlingException("Rate exceeded", Duration.ofSeconds(3))));
+        assertEquals(ApiResponse.of(HttpStatusCode.TOO_MANY_REQUESTS, "{\"message\":\"Rate exceeded\"}"),
+            handler.buildErrorResponse(new ThrottlingException("Rate exceeded")));
+    }
+
+    @Test
+    void testSuccessResponseHeadersAndCompression() {
+        final Map<String, Object> gzipHeaders = Map.of("Accept-Encoding", "gzip");
+        final ApiRequest request = new ApiRequest(HttpMethod.GET.name(), "/v1/users/{userId}/consents", "/v1/users/someUser/consents",
+            VALID_PATH_PARAMS, null, gzipHeaders, false, null);
+        final String largeBody = "{\"status\":\"" + TEST_STATUS.repeat(200) + "\"}";
+
+        final Map<String, Object> smallResponse = handler.buildApiSuccessResponse(request, VALID_REQUEST_BODY);
+        assertEquals(Map.of("statusCode", 200, "headers", ResponseHeaders.JSON, "body", VALID_REQUEST_BODY), smallResponse);
+
+        final Map<String, Object> largeResponse = handler.buildApiSuccessResponse(request, largeBody);
+        assertSame(ResponseHeaders.withGzipEncoding(ResponseHeaders.JSON), largeResponse.get(ApiResponseParameterName.HEADERS.getValue()));
+        assertEquals(true, largeResponse.get(ApiResponseParameterName.IS_BASE64_ENCODED.getValue()));
+
+        final ApiRequestHandler uncompressedHandler = new ApiRequestHandler(List.of(TestConstants.USER_ID_PARAM_NAME),
+                ClientErrorLogPolicy.unlimited(), ExceptionStatusCodeMapping.defaults(), ResponseCompression.disabled()) {
+            @Override
+            protected Map<String, Object> handleRequest(final ApiRequest request) {
+                return buildApiSuccessResponse(request, largeBody);
+            }
+        };
+        assertEquals(new ApiResponse(200, ResponseHeaders.JSON_NO_STORE, largeBody),
+            uncompressedHandler.buildSuccessResponse(request, largeBody, ResponseHeaders.JSON_NO_STORE));
+        assertEquals(largeBody, getResponseBody(uncompressedHandler.handleRequest(request)));
+    }
+
+    @Test
+    void testCustomExceptionStatusCodeMapping() {
+        final ExceptionStatusCodeMapping mapping = ExceptionStatusCodeMapping.defaults()
+            .withStatusCode(IllegalArgumentException.class, HttpStatusCode.BAD_REQUEST);
+        final ApiRequestHandler mappingHandler = new ApiRequestHandler(List.of(TestConstants.USER_ID_PARAM_NAME),
+                ClientErrorLogPolicy.unlimited(), mapping) {
+            @Override
+            protected Map<String, Object> handleRequest(final ApiRequest request) {
+                return logAndBuildErrorResponse(new IllegalArgumentException("Invalid consent version"));
+            }
+        };
+
+        assertExceptionResponse(HttpStatusCode.BAD_REQUEST, "Invalid consent version", mappingHandler.handleRequest(null));
+        assertExceptionResponse(HttpStatusCode.INTERNAL_SERVER_ERROR, "Invalid consent version",
+            handler.logAndBuildErrorResponse(new IllegalArgumentException("Invalid consent version")));
+    }
+
+    @Test
+    void testErrorResponseWhenNullMessage() {
+        final Map<String, Object> response = handler.logAndBuildErrorResponse(new IllegalStateException());
+        assertExceptionResponse(HttpStatusCode.INTERNAL_SERVER_ERROR, "null", response);
+    }
+
+    @Test
+    void testBuiltResponseMapsAreMutable() {
+        final Map<String, Object> successResponse = handler.buildApiSuccessResponse(VALID_REQUEST_BODY);
+        successResponse.put("headers", ResponseHeaders.JSON);
+        assertEquals(Map.of("statusCode", 200, "headers", ResponseHeaders.JSON, "body", VALID_REQUEST_BODY), successResponse);
+
+        final Map<String, Object> errorResponse = handler.logAndBuildErrorResponse(new ResourceNotFoundException("Consent not found"));
+        errorResponse.put("headers", ResponseHeaders.JSON);
+        assertEquals(ResponseHeaders.JSON, errorResponse.get("headers"));
+    }
+
+    @Test
+    void testBuildTypedResponses() {
+        assertEquals(ApiResponse.of(HttpStatusCode.SUCCESS, "{}"), handler.buildSuccessResponse("{}"));
+        assertEquals(ApiResponse.of(HttpStatusCode.NOT_FOUND, "{\"message\":\"Consent not found\"}"),
+            handler.buildErrorResponse(new ResourceNotFoundException("Consent not found")));
+    }
+
+    @Test
+    void testToErrorResponseBodyMatchesObjectMapper() throws Exception {
+        final String message = "Unicode é, quote \" and control \u0001";
+        assertEquals(TestContentParser.OBJECT_MAPPER.writeValueAsString(Map.of("message", message)),
+            ApiRequestHandler.toErrorResponseBody(message));
+    }
+
+    @Test
+    void testClientErrorLogPolicyRateLimitsWarnings() {
+        Configurator.setLevel(ApiRequestHandler.class, Level.WARN);
+        final AtomicLong nanoTime = new AtomicLong();
+        final ClientErrorLogPolicy policy = new ClientErrorLogPolicy(1, false, nanoTime::get).withStackTraces();
+        final ApiRequestHandler rateLimitedHandler = new ApiRequestHandler(List.of(TestConstants.USER_ID_PARAM_NAME), policy) {
+            @Override
+            protected Map<String, Object> handleRequest(final ApiRequest request) {
+                return logAndBuildErrorResponse(new BadRequestException("Invalid request"));
+            }
+        };
+
+        for (int index = 0; index < 3; index++) {
+            assertExceptionResponse(HttpStatusCode.BAD_REQUEST, "Invalid request", rateLimitedHandler.handleRequest(null));
+        }
+        assertExceptionResponse(HttpStatusCode.BAD_REQUEST, "Missing required path parameters, expected userId",
+            rateLimitedHandler.logAndBuildMissingPathParamResponse(new BadRequestException("Missing")));
+        assertExceptionResponse(HttpStatusCode.INTERNAL_SERVER_ERROR, "Unexpected",
+            rateLimitedHandler.logAndBuildErrorResponse(new IllegalStateException("Unexpected")));
+        assertEquals(List.of("Invalid request", "Unexpected"), logAppender.getMessages());
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertExceptionResponse(HttpStatusCode.BAD_REQUEST, "Invalid request", rateLimitedHandler.handleRequest(null));
+        assertEquals(List.of("Invalid request", "Unexpected", "Invalid request (3 similar client error warnings suppressed)"),
+            logAppender.getMessages());
+        assertTrue(logAppender.events.get(0).getThrown() instanceof BadRequestException);
+        assertEquals(0, policy.drainSuppressedCount());
+
+        Configurator.setLevel(ApiRequestHandler.class, Level.OFF);
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertExceptionResponse(HttpStatusCode.BAD_REQUEST, "Invalid request", rateLimitedHandler.handleRequest(null));
+        assertEquals(3, logAppender.events.size());
+        assertEquals(0, policy.drainSuppressedCount());
+    }
+
+    @Test
+    void testBuildParameterSchema() throws Exception {
+        final ApiParameter<Integer> errorCode = ApiParameter.intQuery(TestCreateRequestHandler.MOCK_ERROR_CODE_QUERY_PARAM);
+        final ApiRequestParameterSchema schema = handler.buildParameterSchema(errorCode);
+
+        final ApiRequestParameters parameters = schema.parse(buildApiRequest(VALID_PATH_PARAMS,
+            Map.of(TestCreateRequestHandler.MOCK_ERROR_CODE_QUERY_PARAM, "404"), null));
+        assertEquals(TEST_USER_ID, parameters.getPathParameter(TestConstants.USER_ID_PARAM_NAME));
+        assertEquals(404, parameters.get(errorCode));
+    }
+
+    @Test
+    void testToJsonStringMatchesProvidedMapper() throws Exception {
+        final TestCreateResponseContent responseContent = new TestCreateResponseContent().status(TEST_STATUS);
+        assertEquals(handler.toJsonString(TestContentParser.OBJECT_MAPPER, responseContent),
+            handler.toJsonString(TestContentParser.OBJECT_MAPPER.writerFor(TestCreateResponseContent.class), responseContent));
+    }
+
+    @Test
+    void testToJsonStringWhenNull() throws Exception {
+        assertEquals("null", handler.toJsonString(TestContentParser.OBJECT_MAPPER.writer(), null));
+    }
+
     private ApiRequest buildApiRequest(final Map<String, String> pathParameters, final Map<String, Object> queryStringParameters,
             final String requestBody) {
         return new ApiRequest(HttpMethod.POST.name(), "/v1/users/{userId}/consents", "/v1/users/someUser/consents",
@@ -97,4 +319,24 @@ class TestCreateApiRequestHandlerTest extends ApiRequestHandlerTest {
             response
         );
     }
+
+    /**
+     * Appender capturing log events, to assert on logged warnings.
+     */
+    private static final class CapturingAppender extends AbstractAppender {
+        private final List<LogEvent> events = new CopyOnWriteArrayList<>();
+
+        CapturingAppender() {
+            super("CapturingAppender", null, null, true, Property.EMPTY_ARRAY);
+        }
+
+        @Override
+        public void append(final LogEvent event) {
+            events.add(event.toImmutable());
+        }
+
+        List<String> getMessages() {
+            return events.stream().map(event -> event.getMessage().getFormattedMessage()).toList();
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package com.consentframework.shared.api.infrastructure.batchwrite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+class ConsentBatchWriterSettingsTest {
+    @Test
+    void withMethodsCopySettings() {
+        final ConsentBatchWriterSettings settings = ConsentBatchWriterSettings.defaults()
+            .withMode(ConsentBatchWriteMode.TRANSACT_WRITE_ITEMS)
+            .withMaxInFlightBatches(2)
+            .withRetries(3, Duration.ZERO, Duration.ofMillis(100));
+
+        assertEquals(new ConsentBatchWriterSettings(ConsentBatchWriteMode.TRANSACT_WRITE_ITEMS, 2, 3, Duration.ZERO, Duration.ofMillis(100)),
+            settings);
+    }
+
+    @Test
+    void invalidSettingsAreRejected() {
+        final ConsentBatchWriterSettings settings = ConsentBatchWriterSettings.defaults();
+
+        assertThrows(IllegalArgumentException.class, () -> settings.withMode(null));
+        assertThrows(IllegalArgumentException.class, () -> settings.withMaxInFlightBatches(0));
+        assertThrows(IllegalArgumentException.class, () -> settings.withRetries(0, Duration.ZERO, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> settings.withRetries(1, Duration.ofMillis(-1), Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> settings.withRetries(1, Duration.ofMillis(2), Duration.ofMillis(1)));
+    }
+}
@@ -0,0 +1,436 @@
+package com.consentframework.shared.api.infrastructure.batchwrite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consentframework.shared.api.domain.exceptions.InternalServiceException;
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbConsentHistory;
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbServiceUserConsent;
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+class ConsentBatchWriterTest {
+    private static final TableSchema<DynamoDbServiceUserConsent> CONSENT_SCHEMA =
+        TableSchema.fromImmutableClass(DynamoDbServiceUserConsent.class);
+    private static final TableSchema<DynamoDbConsentHistory> HISTORY_SCHEMA = TableSchema.fromImmutableClass(DynamoDbConsentHistory.class);
+    private static final ConsentBatchWriterSettings SETTINGS = ConsentBatchWriterSettings.defaults()
+        .withRetries(4, Duration.ofMillis(10), Duration.ofMillis(15));
+
+    private final FakeDynamoDbClient dynamoDbClient = new FakeDynamoDbClient();
+    private final List<Long> sleeps = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void writeCoalescesMutationsIntoBatchesOfConsentAndHistoryPairs() throws Exception {
+        final List<ConsentMutation> mutations = createMutations(30);
+        final ConsentBatchWriter writer = createWriter(SETTINGS);
+        for (final ConsentMutation mutation : mutations) {
+            writer.write(mutation);
+        }
+        writer.flush();
+
+        final List<BatchWriteItemRequest> requests = getRequestsByFirstConsentId();
+        assertEquals(List.of(24, 24, 12), requests.stream().map(ConsentBatchWriterTest::countItems).toList());
+        final BatchWriteItemRequest firstRequest = requests.get(0);
+        assertEquals(CONSENT_SCHEMA.itemToMap(mutations.get(0).consent(), true),
+            firstRequest.requestItems().get(DynamoDbServiceUserConsent.TABLE_NAME).get(0).putRequest().item());
+        assertEquals(HISTORY_SCHEMA.itemToMap(mutations.get(0).consentHistory(), true),
+            firstRequest.requestItems().get(DynamoDbConsentHistory.TABLE_NAME).get(0).putRequest().item());
+        assertEquals(12, firstRequest.requestItems().get(DynamoDbConsentHistory.TABLE_NAME).size());
+        assertEquals(60, writer.getWrittenItemCount());
+        assertEquals(0, writer.getRetryCount());
+        assertEquals(0, writer.getInFlightBatchCount());
+    }
+
+    @Test
+    void writeStartsNewBatchWhenConsentIsAlreadyInBatch() throws Exception {
+        final ConsentMutation mutation = createMutations(1).get(0);
+        final ConsentBatchWriter writer = createWriter(SETTINGS.withMaxInFlightBatches(1));
+        writer.write(mutation);
+        writer.write(mutation);
+        writer.flush();
+
+        assertEquals(List.of(2, 2), dynamoDbClient.batchWriteRequests.stream().map(ConsentBatchWriterTest::countItems).toList());
+    }
+
+    @Test
+    void writeHoldsConsentUntilEarlierBatchWritingItCompletes() throws Exception {
+        final CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        final CountDownLatch firstBatchRelease = new CountDownLatch(1);
+        final AtomicInteger batchWriteCount = new AtomicInteger();
+        dynamoDbClient.batchWriteHandler = request -> {
+            if (batchWriteCount.incrementAndGet() == 1) {
+                firstBatchStarted.countDown();
+                try {
+                    firstBatchRelease.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return BatchWriteItemResponse.builder().build();
+        };
+        final List<ConsentMutation> mutations = createMutations(2);
+        final ConsentBatchWriter writer = createWriter(SETTINGS.withMaxInFlightBatches(4));
+
+        final Thread producer = Thread.ofPlatform().start(() -> {
+            try {
+                writer.write(mutations.get(0));
+                writer.write(mutations.get(0));
+                writer.write(mutations.get(1));
+                writer.flush();
+            } catch (final Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        firstBatchStarted.await();
+        waitUntilBlocked(producer);
+        assertEquals(1, dynamoDbClient.batchWriteRequests.size());
+        assertEquals(1, writer.getInFlightBatchCount());
+
+        firstBatchRelease.countDown();
+        producer.join();
+        assertEquals(List.of(2, 4), dynamoDbClient.batchWriteRequests.stream().map(ConsentBatchWriterTest::countItems).toList());
+        assertEquals(6, writer.getWrittenItemCount());
+    }
+
+    @Test
+    void unprocessedItemsAreRetriedWithJitteredBackoff() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        dynamoDbClient.batchWriteHandler = request -> (attempts.incrementAndGet() < 4)
+            ? BatchWriteItemResponse.builder().unprocessedItems(Map.of(DynamoDbConsentHistory.TABLE_NAME,
+                request.requestItems().get(DynamoDbConsentHistory.TABLE_NAME))).build()
+            : BatchWriteItemResponse.builder().build();
+
+        final ConsentBatchWriter writer = createWriter(SETTINGS);
+        for (final ConsentMutation mutation : createMutations(3)) {
+            writer.write(mutation);
+        }
+        writer.flush();
+
+        assertEquals(List.of(6, 3, 3, 3), dynamoDbClient.batchWriteRequests.stream().map(ConsentBatchWriterTest::countItems).toList());
+        assertEquals(6, writer.getWrittenItemCount());
+        assertEquals(3, writer.getRetryCount());
+        assertEquals(3, sleeps.size());
+        final List<Long> maxSleeps = List.of(10L, 15L, 15L);
+        for (int retry = 0; retry < sleeps.size(); retry++) {
+            assertTrue(sleeps.get(retry) >= 0 && sleeps.get(retry) <= maxSleeps.get(retry), "Unexpected backoff " + sleeps);
+        }
+    }
+
+    @Test
+    void flushThrowsWhenUnprocessedItemsExhaustRetries() throws Exception {
+        dynamoDbClient.batchWriteHandler = request -> BatchWriteItemResponse.builder()
+            .unprocessedItems(Map.of(DynamoDbConsentHistory.TABLE_NAME, request.requestItems().get(DynamoDbConsentHistory.TABLE_NAME)))
+            .build();
+        final ConsentBatchWriterSettings settings = SETTINGS.withRetries(70, Duration.ofMillis(1), Duration.ofMillis(2));
+
+        final ConsentBatchWriter writer = createWriter(settings);
+        writer.write(createMutations(1).get(0));
+        final InternalServiceException exception = assertThrows(InternalServiceException.class, writer::flush);
+
+        assertEquals("Unable to write 1 consent items", exception.getMessage());
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertEquals(70, dynamoDbClient.batchWriteRequests.size());
+        assertEquals(1, writer.getWrittenItemCount());
+        assertEquals(69, writer.getRetryCount());
+        assertTrue(sleeps.stream().allMatch(sleep -> sleep >= 0 && sleep <= 2), "Unexpected backoff " + sleeps);
+
+        dynamoDbClient.batchWriteHandler = request -> BatchWriteItemResponse.builder().build();
+        writer.write(createMutations(1).get(0));
+        writer.flush();
+        assertEquals(3, writer.getWrittenItemCount());
+    }
+
+    @Test
+    void flushThrowsWhenBatchWriteFails() throws Exception {
+        final DynamoDbException failure = (DynamoDbException) DynamoDbException.builder().message("Simulated failure").build();
+        dynamoDbClient.batchWriteHandler = request -> {
+            throw failure;
+        };
+
+        final ConsentBatchWriter writer = createWriter(SETTINGS);
+        writer.write(createMutations(1).get(0));
+        final InternalServiceException exception = assertThrows(InternalServiceException.class, writer::flush);
+
+        assertEquals("Unable to write 2 consent items", exception.getMessage());
+        assertSame(failure, exception.getCause());
+    }
+
+    @Test
+    void flushThrowsWhenInterruptedDuringBackoff() throws Exception {
+        dynamoDbClient.batchWriteHandler = request -> BatchWriteItemResponse.builder()
+            .unprocessedItems(request.requestItems())
+            .build();
+        final ConsentBatchWriter writer = new ConsentBatchWriter(dynamoDbClient, CONSENT_SCHEMA, HISTORY_SCHEMA, SETTINGS,
+            new Random(0), millis -> {
+                throw new InterruptedException("Simulated interrupt");
+            });
+
+        writer.write(createMutations(1).get(0));
+        final InternalServiceException exception = assertThrows(InternalServiceException.class, writer::flush);
+
+        assertInstanceOf(InterruptedException.class, exception.getCause());
+        assertEquals(0, writer.getWrittenItemCount());
+    }
+
+    @Test
+    void transactWriteItemsRetriesThrottledTransactionWithSameToken() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        dynamoDbClient.transactWriteHandler = request -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw createCancellation("None", "TransactionConflict", "ThrottlingError");
+            }
+            return TransactWriteItemsResponse.builder().build();
+        };
+
+        final List<ConsentMutation> mutations = createMutations(2);
+        final ConsentBatchWriter writer = createWriter(SETTINGS.withMode(ConsentBatchWriteMode.TRANSACT_WRITE_ITEMS));
+        for (final ConsentMutation mutation : mutations) {
+            writer.write(mutation);
+        }
+        writer.flush();
+
+        assertEquals(2, dynamoDbClient.transactWriteRequests.size());
+        final TransactWriteItemsRequest request = dynamoDbClient.transactWriteRequests.get(0);
+        assertEquals(request.clientRequestToken(), dynamoDbClient.transactWriteRequests.get(1).clientRequestToken());
+        assertEquals(List.of(DynamoDbServiceUserConsent.TABLE_NAME, DynamoDbConsentHistory.TABLE_NAME,
+            DynamoDbServiceUserConsent.TABLE_NAME, DynamoDbConsentHistory.TABLE_NAME),
+            request.transactItems().stream().map(item -> item.put().tableName()).toList());
+        final TransactWriteItem firstItem = request.transactItems().get(0);
+        assertEquals(CONSENT_SCHEMA.itemToMap(mutations.get(0).consent(), true), firstItem.put().item());
+        assertEquals(4, writer.getWrittenItemCount());
+        assertEquals(1, writer.getRetryCount());
+        assertTrue(dynamoDbClient.batchWriteRequests.isEmpty());
+    }
+
+    @Test
+    void transactWriteItemsDoesNotRetryFailedCondition() throws Exception {
+        final TransactionCanceledException cancellation = createCancellation("None", "ConditionalCheckFailed");
+        dynamoDbClient.transactWriteHandler = request -> {
+            throw cancellation;
+        };
+
+        final ConsentBatchWriter writer = createWriter(SETTINGS.withMode(ConsentBatchWriteMode.TRANSACT_WRITE_ITEMS));
+        writer.write(createMutations(1).get(0));
+        final InternalServiceException exception = assertThrows(InternalServiceException.class, writer::flush);
+
+        assertSame(cancellation, exception.getCause());
+        assertEquals(1, dynamoDbClient.transactWriteRequests.size());
+        assertEquals(0, writer.getRetryCount());
+    }
+
+    @Test
+    void transactWriteItemsThrowsWhenRetriesAreExhausted() throws Exception {
+        dynamoDbClient.transactWriteHandler = request -> {
+            throw (TransactionCanceledException) TransactionCanceledException.builder().message("Simulated cancellation").build();
+        };
+
+        final ConsentBatchWriter writer = createWriter(SETTINGS.withMode(ConsentBatchWriteMode.TRANSACT_WRITE_ITEMS));
+        writer.write(createMutations(1).get(0));
+        assertThrows(InternalServiceException.class, writer::flush);
+
+        assertEquals(1, dynamoDbClient.transactWriteRequests.size());
+
+        dynamoDbClient.transactWriteHandler = request -> {
+            throw createCancellation("ThrottlingError", "ThrottlingError");
+        };
+        writer.write(createMutations(1).get(0));
+        assertThrows(InternalServiceException.class, writer::flush);
+
+        assertEquals(1 + SETTINGS.maxAttempts(), dynamoDbClient.transactWriteRequests.size());
+    }
+
+    @Test
+    void writeBlocksWhileMaxBatchesAreInFlight() throws Exception {
+        final CountDownLatch batchWriteRelease = new CountDownLatch(1);
+        dynamoDbClient.batchWriteHandler = request -> {
+            try {
+                batchWriteRelease.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return BatchWriteItemResponse.builder().build();
+        };
+        final List<ConsentMutation> mutations = createMutations(25);
+        final ConsentBatchWriter writer = createWriter(SETTINGS.withMaxInFlightBatches(1));
+
+        for (final ConsentMutation mutation : mutations.subList(0, 13)) {
+            writer.write(mutation);
+        }
+        assertEquals(1, writer.getInFlightBatchCount());
+
+        final Thread producer = Thread.ofPlatform().start(() -> {
+            try {
+                for (final ConsentMutation mutation : mutations.subList(13, 25)) {
+                    writer.write(mutation);
+                }
+                writer.close();
+            } catch (final Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        waitUntilBlocked(producer);
+        assertEquals(1, writer.getInFlightBatchCount());
+        assertEquals(0, writer.getWrittenItemCount());
+
+        batchWriteRelease.countDown();
+        producer.join();
+        assertEquals(50, writer.getWrittenItemCount());
+        assertEquals(0, writer.getInFlightBatchCount());
+    }
+
+    @Test
+    void closeFlushesPartialBatch() throws Exception {
+        try (ConsentBatchWriter writer = new ConsentBatchWriter(dynamoDbClient, SETTINGS)) {
+            writer.write(createMutations(1).get(0));
+            assertTrue(dynamoDbClient.batchWriteRequests.isEmpty());
+        }
+
+        assertEquals(1, dynamoDbClient.batchWriteRequests.size());
+        assertNull(dynamoDbClient.batchWriteRequests.get(0).returnConsumedCapacity());
+    }
+
+    @Test
+    void writeAfterCloseThrows() throws Exception {
+        final ConsentBatchWriter writer = createWriter(SETTINGS);
+        writer.close();
+
+        final IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> writer.write(createMutations(1).get(0)));
+
+        assertEquals("ConsentBatchWriter is closed", exception.getMessage());
+        assertEquals(0, writer.getInFlightBatchCount());
+        writer.close();
+    }
+
+    @Test
+    void closeThrowsWhenInterrupted() throws Exception {
+        final ConsentBatchWriter writer = createWriter(SETTINGS);
+        writer.write(createMutations(1).get(0));
+
+        Thread.currentThread().interrupt();
+        final InternalServiceException exception = assertThrows(InternalServiceException.class, writer::close);
+
+        assertTrue(Thread.interrupted());
+        assertInstanceOf(InterruptedException.class, exception.getCause());
+        assertTrue(dynamoDbClient.batchWriteRequests.isEmpty());
+    }
+
+    private ConsentBatchWriter createWriter(final ConsentBatchWriterSettings settings) {
+        return new ConsentBatchWriter(dynamoDbClient, CONSENT_SCHEMA, HISTORY_SCHEMA, settings, new Random(0), sleeps::add);
+    }
+
+    private List<BatchWriteItemRequest> getRequestsByFirstConsentId() {
+        return dynamoDbClient.batchWriteRequests.stream()
+            .sorted((first, second) -> getFirstConsentId(first).compareTo(getFirstConsentId(second)))
+            .toList();
+    }
+
+    private static String getFirstConsentId(final BatchWriteItemRequest request) {
+        return request.requestItems().get(DynamoDbServiceUserConsent.TABLE_NAME).get(0).putRequest().item().get("id").s();
+    }
+
+    private static int countItems(final BatchWriteItemRequest request) {
+        return request.requestItems().values().stream().mapToInt(List::size).sum();
+    }
+
+    private static void waitUntilBlocked(final Thread thread) throws InterruptedException {
+        while (thread.getState() != Thread.State.WAITING) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static TransactionCanceledException createCancellation(final String... reasonCodes) {
+        final List<CancellationReason> reasons = new ArrayList<>();
+        for (final String reasonCode : reasonCodes) {
+            reasons.add(CancellationReason.builder().code(reasonCode).build());
+        }
+        return (TransactionCanceledException) TransactionCanceledException.builder()
+            .message("Simulated cancellation")
+            .cancellationReasons(reasons)
+            .build();
+    }
+
+    private static List<ConsentMutation> createMutations(final int count) {
+        final List<ConsentMutation> mutations = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            final String consentId = String.format("Consent%03d", index);
+            final String id = String.format("%s|%s|%s", TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID, consentId);
+            final DynamoDbServiceUserConsent consent = DynamoDbServiceUserConsent.builder()
+                .id(id)
+                .serviceId(TestConstants.TEST_SERVICE_ID)
+                .userId(TestConstants.TEST_USER_ID)
+                .consentId(consentId)
+                .consentVersion(1)
+                .consentStatus(TestConstants.TEST_CONSENT_STATUS)
+                .consentData(TestConstants.TEST_CONSENT_DATA)
+                .build();
+            final DynamoDbConsentHistory consentHistory = DynamoDbConsentHistory.builder()
+                .id(id)
+                .eventId("Event" + index)
+                .eventType("INSERT")
+                .eventTime("2026-10-17T12:00:00Z")
+                .serviceUserId(TestConstants.TEST_SERVICE_ID + "|" + TestConstants.TEST_USER_ID)
+                .newImage(TestConstants.TEST_STORED_CONSENT)
+                .build();
+            mutations.add(new ConsentMutation(consent, consentHistory));
+        }
+        return mutations;
+    }
+
+    /**
+     * Records BatchWriteItem and TransactWriteItems requests, responding with the configured handlers.
+     */
+    private static final class FakeDynamoDbClient implements DynamoDbClient {
+        private final List<BatchWriteItemRequest> batchWriteRequests = Collections.synchronizedList(new ArrayList<>());
+        private final List<TransactWriteItemsRequest> transactWriteRequests = Collections.synchronizedList(new ArrayList<>());
+        private volatile Function<BatchWriteItemRequest, BatchWriteItemResponse> batchWriteHandler =
+            request -> BatchWriteItemResponse.builder().build();
+        private volatile Function<TransactWriteItemsRequest, TransactWriteItemsResponse> transactWriteHandler =
+            request -> TransactWriteItemsResponse.builder().build();
+
+        @Override
+        public BatchWriteItemResponse batchWriteItem(final BatchWriteItemRequest request) {
+            batchWriteRequests.add(request);
+            return batchWriteHandler.apply(request);
+        }
+
+        @Override
+        public TransactWriteItemsResponse transactWriteItems(final TransactWriteItemsRequest request) {
+            transactWriteRequests.add(request);
+            return transactWriteHandler.apply(request);
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
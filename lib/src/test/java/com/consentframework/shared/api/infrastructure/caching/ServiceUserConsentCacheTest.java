@@ -0,0 +1,287 @@
+package com.consentframework.shared.api.infrastructure.caching;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbServiceUserConsent;
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import com.google.common.base.Ticker;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClientExtension;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbIndex;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class ServiceUserConsentCacheTest {
+    private static final ServiceUserConsentCacheSettings SETTINGS = ServiceUserConsentCacheSettings.defaults()
+        .withMaximumSize(3)
+        .withTimeToLive(Duration.ofMinutes(1), Duration.ofSeconds(5));
+    private static final String MISSING_ID = "TestServiceId|TestUserId|MissingConsentId";
+
+    private final Map<String, DynamoDbServiceUserConsent> table = new ConcurrentHashMap<>();
+    private final AtomicInteger loadCount = new AtomicInteger();
+    private final FakeTicker ticker = new FakeTicker();
+    private final ServiceUserConsentCache cache = new ServiceUserConsentCache(this::load, SETTINGS, ticker);
+
+    @Test
+    void getLoadsConsentOnceUntilTimeToLiveExpires() {
+        final DynamoDbServiceUserConsent consent = putConsent(TestConstants.TEST_PARTITION_KEY, 1);
+
+        assertEquals(Optional.of(consent), cache.get(TestConstants.TEST_PARTITION_KEY));
+        assertEquals(Optional.of(consent), cache.get(TestConstants.TEST_PARTITION_KEY));
+        assertEquals(1, loadCount.get());
+
+        final DynamoDbServiceUserConsent updatedConsent = putConsent(TestConstants.TEST_PARTITION_KEY, 2);
+        ticker.advance(Duration.ofSeconds(59));
+        assertEquals(Optional.of(consent), cache.get(TestConstants.TEST_PARTITION_KEY));
+        ticker.advance(Duration.ofSeconds(1));
+        assertEquals(Optional.of(updatedConsent), cache.get(TestConstants.TEST_PARTITION_KEY));
+
+        assertEquals(2, loadCount.get());
+        assertEquals(new ServiceUserConsentCacheStats(2, 0, 2, 0, 1), cache.getStats());
+        assertEquals(0.5, cache.getStats().hitRate());
+    }
+
+    @Test
+    void getCachesNotFoundForNotFoundTimeToLive() {
+        assertEquals(Optional.empty(), cache.get(MISSING_ID));
+        ticker.advance(Duration.ofSeconds(4));
+        assertEquals(Optional.empty(), cache.get(MISSING_ID));
+        assertEquals(1, loadCount.get());
+
+        final DynamoDbServiceUserConsent consent = putConsent(MISSING_ID, 1);
+        ticker.advance(Duration.ofSeconds(1));
+        assertEquals(Optional.of(consent), cache.get(MISSING_ID));
+
+        assertEquals(2, loadCount.get());
+        assertEquals(new ServiceUserConsentCacheStats(1, 1, 2, 0, 0), cache.getStats());
+    }
+
+    @Test
+    void getEvictsLeastRecentlyUsedConsentAtMaximumSize() {
+        for (int index = 0; index < 4; index++) {
+            putConsent("Consent" + index, 1);
+            cache.get("Consent" + index);
+        }
+
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getStats().evictionCount());
+        cache.get("Consent0");
+        assertEquals(5, loadCount.get());
+    }
+
+    @Test
+    void getSharesConcurrentLoads() throws Exception {
+        final DynamoDbServiceUserConsent consent = putConsent(TestConstants.TEST_PARTITION_KEY, 1);
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch loadRelease = new CountDownLatch(1);
+        final ServiceUserConsentCache blockingCache = new ServiceUserConsentCache(id -> {
+            loadStarted.countDown();
+            try {
+                loadRelease.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return load(id);
+        }, SETTINGS, ticker);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final Future<Optional<DynamoDbServiceUserConsent>> firstRead = executor.submit(() -> blockingCache.get(consent.id()));
+            loadStarted.await();
+            final Future<Optional<DynamoDbServiceUserConsent>> secondRead = executor.submit(() -> blockingCache.get(consent.id()));
+            loadRelease.countDown();
+
+            assertEquals(Optional.of(consent), firstRead.get());
+            assertEquals(Optional.of(consent), secondRead.get());
+        }
+        assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    void getRethrowsLoaderExceptionWithoutCaching() {
+        final IllegalStateException failure = new IllegalStateException("Simulated GetItem failure");
+        final ServiceUserConsentCache failingCache = new ServiceUserConsentCache(id -> {
+            loadCount.incrementAndGet();
+            throw failure;
+        }, SETTINGS, ticker);
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> failingCache.get(TestConstants.TEST_PARTITION_KEY)));
+        assertThrows(IllegalStateException.class, () -> failingCache.get(TestConstants.TEST_PARTITION_KEY));
+
+        assertEquals(2, loadCount.get());
+        assertEquals(new ServiceUserConsentCacheStats(0, 0, 2, 2, 0), failingCache.getStats());
+        assertEquals(0, failingCache.size());
+    }
+
+    @Test
+    void getRethrowsLoaderError() {
+        final AssertionError failure = new AssertionError("Simulated error");
+        final ServiceUserConsentCache failingCache = new ServiceUserConsentCache(id -> {
+            throw failure;
+        }, SETTINGS, ticker);
+
+        assertSame(failure, assertThrows(AssertionError.class, () -> failingCache.get(TestConstants.TEST_PARTITION_KEY)));
+        assertEquals(1, failingCache.getStats().loadFailureCount());
+    }
+
+    @Test
+    void putKeepsNewestConsentVersion() {
+        final DynamoDbServiceUserConsent firstVersion = putConsent(TestConstants.TEST_PARTITION_KEY, 1);
+        cache.get(TestConstants.TEST_PARTITION_KEY);
+        final DynamoDbServiceUserConsent thirdVersion = createConsent(TestConstants.TEST_PARTITION_KEY, 3);
+
+        cache.put(thirdVersion);
+        assertEquals(Optional.of(thirdVersion), cache.get(TestConstants.TEST_PARTITION_KEY));
+        cache.put(createConsent(TestConstants.TEST_PARTITION_KEY, 2));
+        assertEquals(Optional.of(thirdVersion), cache.get(TestConstants.TEST_PARTITION_KEY));
+        cache.put(firstVersion);
+        assertEquals(Optional.of(thirdVersion), cache.get(TestConstants.TEST_PARTITION_KEY));
+
+        assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    void putReplacesCachedNotFound() {
+        cache.get(MISSING_ID);
+        final DynamoDbServiceUserConsent consent = createConsent(MISSING_ID, 1);
+
+        cache.put(consent);
+
+        assertEquals(Optional.of(consent), cache.get(MISSING_ID));
+        assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    void invalidateEvictsOlderConsentVersions() {
+        putConsent(TestConstants.TEST_PARTITION_KEY, 2);
+        cache.get(TestConstants.TEST_PARTITION_KEY);
+
+        cache.invalidate(TestConstants.TEST_PARTITION_KEY, 1);
+        cache.invalidate(TestConstants.TEST_PARTITION_KEY, 2);
+        assertEquals(1, cache.size());
+
+        final DynamoDbServiceUserConsent thirdVersion = putConsent(TestConstants.TEST_PARTITION_KEY, 3);
+        cache.invalidate(TestConstants.TEST_PARTITION_KEY, 3);
+        assertEquals(0, cache.size());
+        assertEquals(Optional.of(thirdVersion), cache.get(TestConstants.TEST_PARTITION_KEY));
+
+        cache.invalidate(TestConstants.TEST_PARTITION_KEY);
+        cache.invalidate(MISSING_ID, 1);
+        assertEquals(0, cache.size());
+        assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    void cacheUsesSystemTickerByDefault() {
+        final DynamoDbServiceUserConsent consent = putConsent(TestConstants.TEST_PARTITION_KEY, 1);
+        final ServiceUserConsentCache systemTickerCache = new ServiceUserConsentCache(this::load, ServiceUserConsentCacheSettings.defaults());
+
+        assertEquals(Optional.of(consent), systemTickerCache.get(TestConstants.TEST_PARTITION_KEY));
+        assertEquals(Optional.of(consent), systemTickerCache.get(TestConstants.TEST_PARTITION_KEY));
+        assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    void fromTableLoaderGetsItemByPartitionKey() {
+        final DynamoDbServiceUserConsent consent = putConsent(TestConstants.TEST_PARTITION_KEY, 1);
+        final ServiceUserConsentLoader loader = ServiceUserConsentLoader.fromTable(new MapBackedTable());
+
+        assertEquals(Optional.of(consent), loader.load(TestConstants.TEST_PARTITION_KEY));
+        assertEquals(Optional.empty(), loader.load(MISSING_ID));
+    }
+
+    @Test
+    void settingsRejectInvalidValues() {
+        assertEquals(1.0, new ServiceUserConsentCacheStats(0, 0, 0, 0, 0).hitRate());
+        assertThrows(IllegalArgumentException.class, () -> SETTINGS.withMaximumSize(0));
+        assertThrows(IllegalArgumentException.class, () -> SETTINGS.withTimeToLive(Duration.ZERO, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> SETTINGS.withTimeToLive(Duration.ofSeconds(1), Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> SETTINGS.withTimeToLive(Duration.ofSeconds(1), Duration.ofSeconds(2)));
+    }
+
+    private Optional<DynamoDbServiceUserConsent> load(final String id) {
+        loadCount.incrementAndGet();
+        return Optional.ofNullable(table.get(id));
+    }
+
+    private DynamoDbServiceUserConsent putConsent(final String id, final int consentVersion) {
+        final DynamoDbServiceUserConsent consent = createConsent(id, consentVersion);
+        table.put(id, consent);
+        return consent;
+    }
+
+    private static DynamoDbServiceUserConsent createConsent(final String id, final int consentVersion) {
+        return DynamoDbServiceUserConsent.builder()
+            .id(id)
+            .serviceId(TestConstants.TEST_SERVICE_ID)
+            .userId(TestConstants.TEST_USER_ID)
+            .consentId(TestConstants.TEST_CONSENT_ID)
+            .consentVersion(consentVersion)
+            .consentStatus(TestConstants.TEST_CONSENT_STATUS)
+            .build();
+    }
+
+    /**
+     * ServiceUserConsent table supporting only GetItem, reading from the test's table map.
+     */
+    private final class MapBackedTable implements DynamoDbTable<DynamoDbServiceUserConsent> {
+        @Override
+        public DynamoDbServiceUserConsent getItem(final Key key) {
+            return table.get(key.partitionKeyValue().s());
+        }
+
+        @Override
+        public DynamoDbEnhancedClientExtension mapperExtension() {
+            return null;
+        }
+
+        @Override
+        public TableSchema<DynamoDbServiceUserConsent> tableSchema() {
+            return TableSchema.fromImmutableClass(DynamoDbServiceUserConsent.class);
+        }
+
+        @Override
+        public String tableName() {
+            return DynamoDbServiceUserConsent.TABLE_NAME;
+        }
+
+        @Override
+        public Key keyFrom(final DynamoDbServiceUserConsent item) {
+            return Key.builder().partitionValue(item.id()).build();
+        }
+
+        @Override
+        public DynamoDbIndex<DynamoDbServiceUserConsent> index(final String indexName) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Ticker advanced manually by tests.
+     */
+    private static final class FakeTicker extends Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        void advance(final Duration duration) {
+            nanos.addAndGet(duration.toNanos());
+        }
+    }
+}
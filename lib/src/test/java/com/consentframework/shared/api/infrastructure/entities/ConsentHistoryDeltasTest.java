@@ -0,0 +1,68 @@
+package com.consentframework.shared.api.infrastructure.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+
+class ConsentHistoryDeltasTest {
+    private static final DynamoDbConsentHistory TEST_CONSENT_HISTORY =
+        createConsentHistory(TestConstants.TEST_STORED_CONSENT, TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME, null);
+
+    @Test
+    void deltaEncodeThenReconstruct() {
+        final DynamoDbConsentHistory deltaEncodedHistory = ConsentHistoryDeltas.deltaEncode(TEST_CONSENT_HISTORY);
+
+        assertNull(deltaEncodedHistory.newImage());
+        assertEquals(TEST_CONSENT_HISTORY.oldImage(), deltaEncodedHistory.oldImage());
+        assertEquals("{\"consentVersion\":2,\"expiryHour\":\"2011-10-31T20:00Z\",\"expiryTime\":\"2011-10-31T20:51:12Z\","
+            + "\"expiryTimeId\":\"2011-10-31T20:51:12Z|" + TestConstants.TEST_PARTITION_KEY + "\"}", deltaEncodedHistory.newImagePatch());
+        assertEquals(TEST_CONSENT_HISTORY, ConsentHistoryDeltas.reconstruct(deltaEncodedHistory));
+    }
+
+    @Test
+    void deltaEncodeWhenNoOldImage() {
+        final DynamoDbConsentHistory consentHistory = createConsentHistory(null, TestConstants.TEST_STORED_CONSENT, null);
+        assertSame(consentHistory, ConsentHistoryDeltas.deltaEncode(consentHistory));
+    }
+
+    @Test
+    void reconstructWhenNotDeltaEncoded() {
+        assertSame(TEST_CONSENT_HISTORY, ConsentHistoryDeltas.reconstruct(TEST_CONSENT_HISTORY));
+    }
+
+    @Test
+    void reconstructWhenNoOldImage() {
+        final DynamoDbConsentHistory consentHistory = createConsentHistory(null, null, "{}");
+
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> ConsentHistoryDeltas.reconstruct(consentHistory));
+        assertEquals("ConsentHistory event TestEventId has a newImagePatch but no oldImage", exception.getMessage());
+    }
+
+    @Test
+    void reconstructWhenInvalidPatch() {
+        final DynamoDbConsentHistory consentHistory = createConsentHistory(TestConstants.TEST_STORED_CONSENT, null, "{\"unknown\":1}");
+        final DynamoDbConsentHistory reconstructedHistory = ConsentHistoryDeltas.reconstruct(consentHistory);
+        assertThrows(UncheckedIOException.class, reconstructedHistory::newImage);
+    }
+
+    private static DynamoDbConsentHistory createConsentHistory(final StoredConsentImage oldImage, final StoredConsentImage newImage,
+            final String newImagePatch) {
+        return DynamoDbConsentHistory.builder()
+            .id(TestConstants.TEST_PARTITION_KEY)
+            .eventId("TestEventId")
+            .eventType("MODIFY")
+            .eventTime("2011-10-31T20:51:12Z")
+            .serviceUserId(TestConstants.TEST_SERVICE_ID + "|" + TestConstants.TEST_USER_ID)
+            .oldImage(oldImage)
+            .newImage(newImage)
+            .newImagePatch(newImagePatch)
+            .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.consentframework.shared.api.infrastructure.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+class ConsentImageTest {
+    private static final DynamoDbServiceUserConsent TEST_CONSENT =
+        createConsent(2, TestConstants.TEST_CONSENT_STATUS, new HashMap<>(TestConstants.TEST_CONSENT_DATA));
+
+    @Test
+    void fromConsentCopiesFields() {
+        final ConsentImage image = ConsentImage.fromConsent(TEST_CONSENT);
+
+        assertEquals(ConsentImage.fromStoredConsentImage(TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME), image);
+        assertEquals(OffsetDateTime.of(2011, 10, 31, 20, 51, 12, 0, ZoneOffset.UTC), image.expiryTime());
+        assertEquals(TestConstants.TEST_CONSENT_DATA, image.consentData());
+    }
+
+    @Test
+    void fromConsentWithoutOptionalFields() {
+        final DynamoDbServiceUserConsent consent = DynamoDbServiceUserConsent.builder()
+            .id(TestConstants.TEST_PARTITION_KEY)
+            .serviceId(TestConstants.TEST_SERVICE_ID)
+            .userId(TestConstants.TEST_USER_ID)
+            .consentId(TestConstants.TEST_CONSENT_ID)
+            .consentVersion(1)
+            .consentStatus(TestConstants.TEST_CONSENT_STATUS)
+            .build();
+
+        final ConsentImage image = ConsentImage.fromConsent(consent, ConsentImage.fromConsent(TEST_CONSENT));
+
+        assertNull(image.consentType());
+        assertNull(image.consentData());
+        assertNull(image.expiryTime());
+    }
+
+    @Test
+    void fromConsentSharesUnchangedConsentDataWithOldImage() {
+        final ConsentImage oldImage = ConsentImage.fromConsent(TEST_CONSENT);
+        final DynamoDbServiceUserConsent revokedConsent = createConsent(3, "REVOKED", new HashMap<>(TestConstants.TEST_CONSENT_DATA));
+
+        final ConsentImage newImage = ConsentImage.fromConsent(revokedConsent, oldImage);
+
+        assertSame(oldImage.consentData(), newImage.consentData());
+        assertEquals("REVOKED", newImage.consentStatus());
+
+        final DynamoDbServiceUserConsent updatedConsent = createConsent(4, "REVOKED", Map.of("testKey1", "updatedValue"));
+        assertEquals(Map.of("testKey1", "updatedValue"), ConsentImage.fromConsent(updatedConsent, newImage).consentData());
+    }
+
+    @Test
+    void fromConsentReusesImmutableConsentData() {
+        final ImmutableMap<String, String> consentData = ImmutableMap.copyOf(TestConstants.TEST_CONSENT_DATA);
+        final DynamoDbServiceUserConsent consent = createConsent(1, TestConstants.TEST_CONSENT_STATUS, consentData);
+
+        assertSame(consentData, ConsentImage.fromConsent(consent).consentData());
+    }
+
+    @Test
+    void withMethodsShareUnchangedFields() {
+        final ConsentImage image = ConsentImage.fromConsent(TEST_CONSENT);
+        final ConsentImage revokedImage = image.withConsentVersion(3).withConsentStatus("REVOKED");
+
+        assertSame(image.consentData(), revokedImage.consentData());
+        assertSame(image.expiryTime(), revokedImage.expiryTime());
+        assertSame(image, image.withConsentStatus(image.consentStatus()));
+
+        final ConsentImage copy = image.withId(image.id())
+            .withConsentId(TestConstants.TEST_CONSENT_ID)
+            .withUserId(TestConstants.TEST_USER_ID)
+            .withServiceId(TestConstants.TEST_SERVICE_ID)
+            .withConsentType("OtherConsentType")
+            .withConsentData(ImmutableMap.of())
+            .withExpiryHour(null)
+            .withExpiryTime(null)
+            .withExpiryTimeId(null);
+        assertEquals("OtherConsentType", copy.consentType());
+        assertTrue(copy.consentData().isEmpty());
+        assertNull(copy.expiryTimeId());
+    }
+
+    @Test
+    void equalsAndHashCode() {
+        final ConsentImage image = ConsentImage.fromConsent(TEST_CONSENT);
+        final ConsentImage equalImage = ConsentImage.fromStoredConsentImage(TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME);
+
+        assertNotSame(image, equalImage);
+        assertEquals(image, equalImage);
+        assertEquals(image.hashCode(), equalImage.hashCode());
+        assertEquals(image.hashCode(), image.hashCode());
+        assertNotEquals(image, image.withConsentVersion(3));
+        assertNotEquals(image, TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME);
+        assertTrue(image.toString().contains(TestConstants.TEST_PARTITION_KEY));
+    }
+
+    @Test
+    void storedConsentImageRoundTrip() {
+        final StoredConsentImage storedConsentImage = TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME;
+        assertEquals(storedConsentImage, ConsentImage.fromStoredConsentImage(storedConsentImage).toStoredConsentImage());
+    }
+
+    @Test
+    void builderRequiresRequiredFields() {
+        assertThrows(IllegalStateException.class, () -> ConsentImage.builder().id(TestConstants.TEST_PARTITION_KEY).build());
+        assertThrows(NullPointerException.class, () -> ConsentImage.fromStoredConsentImage(new StoredConsentImage()));
+    }
+
+    private static DynamoDbServiceUserConsent createConsent(final int consentVersion, final String consentStatus,
+            final Map<String, String> consentData) {
+        return DynamoDbServiceUserConsent.builder()
+            .id(TestConstants.TEST_PARTITION_KEY)
+            .serviceId(TestConstants.TEST_SERVICE_ID)
+            .userId(TestConstants.TEST_USER_ID)
+            .consentId(TestConstants.TEST_CONSENT_ID)
+            .consentVersion(consentVersion)
+            .consentStatus(consentStatus)
+            .consentType(TestConstants.TEST_CONSENT_TYPE)
+            .consentData(consentData)
+            .expiryHour("2011-10-31T20:00Z")
+            .expiryTime("2011-10-31T20:51:12Z")
+            .expiryTimeId("2011-10-31T20:51:12Z|" + TestConstants.TEST_PARTITION_KEY)
+            .build();
+    }
+}
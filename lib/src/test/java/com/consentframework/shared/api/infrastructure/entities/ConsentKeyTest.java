@@ -0,0 +1,156 @@
+package com.consentframework.shared.api.infrastructure.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class ConsentKeyTest {
+    private static final ConsentKey TEST_CONSENT_KEY =
+        ConsentKey.of(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID, TestConstants.TEST_CONSENT_ID);
+
+    @Test
+    void ofFormatsId() {
+        assertEquals(TestConstants.TEST_PARTITION_KEY, TEST_CONSENT_KEY.id());
+        assertSame(TEST_CONSENT_KEY.id(), TEST_CONSENT_KEY.id());
+        assertEquals(TestConstants.TEST_PARTITION_KEY, TEST_CONSENT_KEY.toString());
+        assertEquals("TestServiceId|TestUserId", TEST_CONSENT_KEY.serviceUserId());
+        assertEquals("2011-10-31T20:51:12Z|" + TestConstants.TEST_PARTITION_KEY, TEST_CONSENT_KEY.expiryTimeId("2011-10-31T20:51:12Z"));
+    }
+
+    @Test
+    void parseRetainsIdAndInternsServiceId() {
+        final String id = new String(TestConstants.TEST_PARTITION_KEY);
+        final ConsentKey consentKey = ConsentKey.parse(id);
+
+        assertSame(id, consentKey.id());
+        assertEquals(TestConstants.TEST_SERVICE_ID, consentKey.serviceId());
+        assertEquals(TestConstants.TEST_USER_ID, consentKey.userId());
+        assertEquals(TestConstants.TEST_CONSENT_ID, consentKey.consentId());
+        assertSame(TEST_CONSENT_KEY.serviceId(), consentKey.serviceId());
+        assertSame(TEST_CONSENT_KEY.serviceId(), ConsentKey.internServiceId(new String(TestConstants.TEST_SERVICE_ID)));
+        assertNull(ConsentKey.internServiceId(null));
+    }
+
+    @Test
+    void ofWithIdSharesStrings() {
+        final String id = new String(TestConstants.TEST_PARTITION_KEY);
+        final String userId = new String(TestConstants.TEST_USER_ID);
+        final String consentId = new String(TestConstants.TEST_CONSENT_ID);
+        final ConsentKey consentKey = ConsentKey.of(TestConstants.TEST_SERVICE_ID, userId, consentId, id);
+
+        assertSame(id, consentKey.id());
+        assertSame(userId, consentKey.userId());
+        assertSame(consentId, consentKey.consentId());
+        assertEquals(TEST_CONSENT_KEY, consentKey);
+        assertEquals(TestConstants.TEST_PARTITION_KEY,
+            ConsentKey.of(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID, TestConstants.TEST_CONSENT_ID, null).id());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "TestServiceId|TestUserId|TestConsentI", "TestServiceId|TestUserId|TestConsentIdX",
+        "TestServiceIdXTestUserId|TestConsentId", "TestServiceId|TestUserIdXTestConsentId", "OtherServiceI|TestUserId|TestConsentId",
+        "TestServiceId|OtherUseri|TestConsentId", "TestServiceId|TestUserId|OtherConsent" })
+    void ofWhenIdDoesNotMatch(final String id) {
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> ConsentKey.of(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID, TestConstants.TEST_CONSENT_ID, id));
+        assertEquals("Consent partition key " + id + " does not match TestServiceId, TestUserId and TestConsentId",
+            exception.getMessage());
+    }
+
+    @Test
+    void parseAllowsEmptyComponents() {
+        final ConsentKey consentKey = ConsentKey.parse("||");
+
+        assertEquals(ConsentKey.of("", "", ""), consentKey);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "TestServiceId", "TestServiceId|TestUserId", "TestServiceId|TestUserId|TestConsentId|Extra" })
+    void parseWhenInvalid(final String id) {
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> ConsentKey.parse(id));
+        assertEquals("Invalid consent partition key: " + id, exception.getMessage());
+    }
+
+    @Test
+    void parseWhenNull() {
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> ConsentKey.parse(null));
+        assertEquals("Invalid consent partition key: null", exception.getMessage());
+    }
+
+    @Test
+    void ofWhenInvalidComponent() {
+        assertThrows(IllegalArgumentException.class, () -> ConsentKey.of(null, "TestUserId", "TestConsentId"));
+        assertThrows(IllegalArgumentException.class, () -> ConsentKey.of("TestServiceId", "Test|UserId", "TestConsentId"));
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> ConsentKey.of("TestServiceId", "TestUserId", "Test|ConsentId"));
+        assertEquals("Invalid consent key consentId: Test|ConsentId", exception.getMessage());
+    }
+
+    @Test
+    void equalsAndHashCodeUseComponents() {
+        final ConsentKey parsedKey = ConsentKey.parse(TestConstants.TEST_PARTITION_KEY);
+
+        assertEquals(TEST_CONSENT_KEY, TEST_CONSENT_KEY);
+        assertEquals(TEST_CONSENT_KEY, parsedKey);
+        assertEquals(TEST_CONSENT_KEY.hashCode(), parsedKey.hashCode());
+        assertEquals(TEST_CONSENT_KEY.hashCode(), TEST_CONSENT_KEY.hashCode());
+        assertNotEquals(TEST_CONSENT_KEY, ConsentKey.of("OtherServiceId", TestConstants.TEST_USER_ID, TestConstants.TEST_CONSENT_ID));
+        assertNotEquals(TEST_CONSENT_KEY, ConsentKey.of(TestConstants.TEST_SERVICE_ID, "OtherUserId", TestConstants.TEST_CONSENT_ID));
+        assertNotEquals(TEST_CONSENT_KEY, ConsentKey.of(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID, "OtherConsentId"));
+        assertFalse(TEST_CONSENT_KEY.equals(TestConstants.TEST_PARTITION_KEY));
+    }
+
+    @Test
+    void entitiesExposeConsentKeyWithoutMappingIt() {
+        final DynamoDbServiceUserConsent consent = DynamoDbServiceUserConsent.builder()
+            .id(TestConstants.TEST_PARTITION_KEY)
+            .serviceId(TestConstants.TEST_SERVICE_ID)
+            .userId(TestConstants.TEST_USER_ID)
+            .consentId(TestConstants.TEST_CONSENT_ID)
+            .consentVersion(1)
+            .consentStatus(TestConstants.TEST_CONSENT_STATUS)
+            .build();
+        final DynamoDbActiveConsentWithExpiryTime activeConsent = DynamoDbActiveConsentWithExpiryTime.builder()
+            .id(TestConstants.TEST_PARTITION_KEY)
+            .expiryHour("2011-10-31T20:00Z")
+            .expiryTimeId(TEST_CONSENT_KEY.expiryTimeId("2011-10-31T20:51:12Z"))
+            .consentVersion(1)
+            .build();
+        final DynamoDbConsentHistory consentHistory = DynamoDbConsentHistory.builder()
+            .id(TestConstants.TEST_PARTITION_KEY)
+            .eventId("TestEventId")
+            .eventType("INSERT")
+            .eventTime("2011-10-31T20:51:12Z")
+            .serviceUserId(TEST_CONSENT_KEY.serviceUserId())
+            .build();
+
+        assertEquals(TEST_CONSENT_KEY, consent.consentKey());
+        assertSame(consent.id(), consent.consentKey().id());
+        assertSame(consent.userId(), consent.consentKey().userId());
+        assertSame(consent.consentId(), consent.consentKey().consentId());
+        assertEquals(TEST_CONSENT_KEY, activeConsent.consentKey());
+        assertEquals(TEST_CONSENT_KEY, consentHistory.consentKey());
+
+        final TableSchema<DynamoDbServiceUserConsent> consentSchema = TableSchema.fromImmutableClass(DynamoDbServiceUserConsent.class);
+        final Map<String, AttributeValue> consentItem = consentSchema.itemToMap(consent, false);
+        assertFalse(consentItem.containsKey("consentKey"));
+        final Map<String, AttributeValue> itemWithServiceIdCopy = new HashMap<>(consentItem);
+        itemWithServiceIdCopy.put("serviceId", AttributeValue.fromS(new String(TestConstants.TEST_SERVICE_ID)));
+        assertSame(TEST_CONSENT_KEY.serviceId(), consentSchema.mapToItem(itemWithServiceIdCopy).serviceId());
+        assertFalse(TableSchema.fromImmutableClass(DynamoDbActiveConsentWithExpiryTime.class).attributeNames().contains("consentKey"));
+        assertFalse(TableSchema.fromImmutableClass(DynamoDbConsentHistory.class).attributeNames().contains("consentKey"));
+    }
+}
@@ -0,0 +1,202 @@
+package com.consentframework.shared.api.infrastructure.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consentframework.shared.api.infrastructure.mappers.ConsentImageEncoding;
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+
+class DynamoDbConsentHistoryTableSchemaTest {
+    private static final TableSchema<DynamoDbConsentHistory> ANNOTATED_SCHEMA =
+        TableSchema.fromImmutableClass(DynamoDbConsentHistory.class);
+
+    private static final DynamoDbConsentHistory TEST_CONSENT_HISTORY = DynamoDbConsentHistory.builder()
+        .id(TestConstants.TEST_PARTITION_KEY)
+        .eventId("TestEventId")
+        .eventType("UPDATE")
+        .eventTime("2011-10-31T20:51:12Z")
+        .serviceUserId(TestConstants.TEST_SERVICE_ID + "|" + TestConstants.TEST_USER_ID)
+        .oldImage(TestConstants.TEST_STORED_CONSENT)
+        .newImage(TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME)
+        .build();
+
+    @Test
+    void jsonEncodingMatchesAnnotatedSchema() {
+        final TableSchema<DynamoDbConsentHistory> schema = DynamoDbConsentHistoryTableSchema.create(ConsentImageEncoding.JSON);
+        assertEquals(ANNOTATED_SCHEMA.itemToMap(TEST_CONSENT_HISTORY, false), schema.itemToMap(TEST_CONSENT_HISTORY, false));
+    }
+
+    @Test
+    void keysMatchAnnotatedSchema() {
+        final TableMetadata expectedMetadata = ANNOTATED_SCHEMA.tableMetadata();
+        final TableMetadata metadata = DynamoDbConsentHistoryTableSchema.create(ConsentImageEncoding.CBOR).tableMetadata();
+
+        assertEquals(expectedMetadata.primaryPartitionKey(), metadata.primaryPartitionKey());
+        assertEquals(expectedMetadata.primarySortKey(), metadata.primarySortKey());
+        assertEquals(expectedMetadata.indexPartitionKey(DynamoDbConsentHistory.CONSENT_HISTORY_BY_SERVICE_USER_GSI_NAME),
+            metadata.indexPartitionKey(DynamoDbConsentHistory.CONSENT_HISTORY_BY_SERVICE_USER_GSI_NAME));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ConsentImageEncoding.class)
+    void roundTripWithEncoding(final ConsentImageEncoding encoding) {
+        final TableSchema<DynamoDbConsentHistory> schema = DynamoDbConsentHistoryTableSchema.create(encoding);
+        final Map<String, AttributeValue> item = schema.itemToMap(TEST_CONSENT_HISTORY, true);
+
+        assertEquals(encoding.getAttributeValueType().name(), item.get("newImage").type().name());
+        assertEquals(TEST_CONSENT_HISTORY, schema.mapToItem(item));
+        assertEquals(TEST_CONSENT_HISTORY, ANNOTATED_SCHEMA.mapToItem(item));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ConsentImageEncoding.class)
+    void roundTripWithDeltaEncoding(final ConsentImageEncoding encoding) {
+        final TableSchema<DynamoDbConsentHistory> schema = DynamoDbConsentHistoryTableSchema.create(encoding, true);
+        final Map<String, AttributeValue> item = schema.itemToMap(TEST_CONSENT_HISTORY, true);
+
+        assertFalse(item.containsKey("newImage"));
+        assertEquals(encoding.getAttributeValueType().name(), item.get("oldImage").type().name());
+        assertEquals(TEST_CONSENT_HISTORY, schema.mapToItem(item));
+        assertEquals(TEST_CONSENT_HISTORY, DynamoDbConsentHistoryTableSchema.create(encoding).mapToItem(item));
+
+        final DynamoDbConsentHistory annotatedItem = ANNOTATED_SCHEMA.mapToItem(item);
+        assertNull(annotatedItem.newImage());
+        assertEquals(TEST_CONSENT_HISTORY, ConsentHistoryDeltas.reconstruct(annotatedItem));
+    }
+
+    @Test
+    void deltaEncodingShrinksItem() {
+        final Map<String, AttributeValue> item = DynamoDbConsentHistoryTableSchema.create(ConsentImageEncoding.JSON, true)
+            .itemToMap(TEST_CONSENT_HISTORY, true);
+        final Map<String, AttributeValue> fullItem = ANNOTATED_SCHEMA.itemToMap(TEST_CONSENT_HISTORY, true);
+
+        assertTrue(item.get("newImagePatch").s().length() < fullItem.get("newImage").s().length() / 2);
+    }
+
+    @Test
+    void deltaEncodingWhenNoOldImage() {
+        final DynamoDbConsentHistory consentHistory = DynamoDbConsentHistory.builder()
+            .id(TestConstants.TEST_PARTITION_KEY)
+            .eventId("TestEventId")
+            .eventType("INSERT")
+            .eventTime("2011-10-31T20:51:12Z")
+            .serviceUserId(TestConstants.TEST_SERVICE_ID + "|" + TestConstants.TEST_USER_ID)
+            .newImage(TestConstants.TEST_STORED_CONSENT)
+            .build();
+        final TableSchema<DynamoDbConsentHistory> schema = DynamoDbConsentHistoryTableSchema.create(ConsentImageEncoding.JSON, true);
+
+        assertEquals(ANNOTATED_SCHEMA.itemToMap(consentHistory, true), schema.itemToMap(consentHistory, true));
+        assertEquals(consentHistory, schema.mapToItem(schema.itemToMap(consentHistory, true)));
+    }
+
+    @Test
+    void deltaEncodingKeepsExistingPatch() {
+        final DynamoDbConsentHistory deltaEncodedHistory = ConsentHistoryDeltas.deltaEncode(TEST_CONSENT_HISTORY);
+        final Map<String, AttributeValue> item = DynamoDbConsentHistoryTableSchema.create(ConsentImageEncoding.JSON, true)
+            .itemToMap(deltaEncodedHistory, true);
+
+        assertEquals(ANNOTATED_SCHEMA.itemToMap(deltaEncodedHistory, true), item);
+    }
+
+    @Test
+    void deltaEncodingKeepsExistingPatchWithoutDecodingImages() {
+        final Map<String, AttributeValue> fullItem = DynamoDbConsentHistoryTableSchema.create(ConsentImageEncoding.JSON)
+            .itemToMap(TEST_CONSENT_HISTORY, true);
+        final LazyConsentImage lazyOldImage = ANNOTATED_SCHEMA.mapToItem(fullItem).lazyOldImage();
+        final DynamoDbConsentHistory deltaEncodedHistory = DynamoDbConsentHistory.builder()
+            .id(TEST_CONSENT_HISTORY.id())
+            .eventId(TEST_CONSENT_HISTORY.eventId())
+            .eventType(TEST_CONSENT_HISTORY.eventType())
+            .eventTime(TEST_CONSENT_HISTORY.eventTime())
+            .serviceUserId(TEST_CONSENT_HISTORY.serviceUserId())
+            .lazyOldImage(lazyOldImage)
+            .newImagePatch(ConsentHistoryDeltas.deltaEncode(TEST_CONSENT_HISTORY).newImagePatch())
+            .build();
+        final TableSchema<DynamoDbConsentHistory> schema = DynamoDbConsentHistoryTableSchema.create(ConsentImageEncoding.JSON, true);
+
+        final Map<String, AttributeValue> item = schema.itemToMap(deltaEncodedHistory, true);
+
+        assertEquals(fullItem.get("oldImage"), item.get("oldImage"));
+        assertEquals(deltaEncodedHistory.newImagePatch(), item.get("newImagePatch").s());
+        assertEquals(item.get("newImagePatch"), schema.attributeValue(deltaEncodedHistory, "newImagePatch"));
+        assertFalse(lazyOldImage.isDecoded());
+    }
+
+    @Test
+    void deltaEncodingMapsRequestedAttributes() {
+        final TableSchema<DynamoDbConsentHistory> schema = DynamoDbConsentHistoryTableSchema.create(ConsentImageEncoding.JSON, true);
+        final Map<String, AttributeValue> item = schema.itemToMap(TEST_CONSENT_HISTORY, true);
+
+        assertEquals(Map.of("newImagePatch", item.get("newImagePatch")), schema.itemToMap(TEST_CONSENT_HISTORY, List.of("newImagePatch")));
+        assertNull(schema.attributeValue(TEST_CONSENT_HISTORY, "newImage"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ConsentImageEncoding.class)
+    void mapToItemDefersImageDecoding(final ConsentImageEncoding encoding) {
+        final TableSchema<DynamoDbConsentHistory> schema = DynamoDbConsentHistoryTableSchema.create(encoding);
+        final Map<String, AttributeValue> item = schema.itemToMap(TEST_CONSENT_HISTORY, true);
+
+        for (final DynamoDbConsentHistory consentHistory : List.of(schema.mapToItem(item), ANNOTATED_SCHEMA.mapToItem(item))) {
+            assertEquals("UPDATE", consentHistory.eventType());
+            assertFalse(consentHistory.lazyOldImage().isDecoded());
+            assertFalse(consentHistory.lazyNewImage().isDecoded());
+            assertEquals(TestConstants.TEST_STORED_CONSENT, consentHistory.oldImage());
+            assertTrue(consentHistory.lazyOldImage().isDecoded());
+            assertFalse(consentHistory.lazyNewImage().isDecoded());
+        }
+    }
+
+    @Test
+    void itemToMapReusesUndecodedImages() {
+        final TableSchema<DynamoDbConsentHistory> schema = DynamoDbConsentHistoryTableSchema.create(ConsentImageEncoding.CBOR);
+        final Map<String, AttributeValue> item = schema.itemToMap(TEST_CONSENT_HISTORY, true);
+        final DynamoDbConsentHistory consentHistory = schema.mapToItem(item);
+
+        final Map<String, AttributeValue> rewrittenItem = schema.itemToMap(consentHistory, true);
+
+        assertSame(item.get("oldImage"), rewrittenItem.get("oldImage"));
+        assertSame(item.get("newImage"), rewrittenItem.get("newImage"));
+        assertFalse(consentHistory.lazyOldImage().isDecoded());
+    }
+
+    @Test
+    void deltaEncodedNewImageDecodedOnAccess() {
+        final TableSchema<DynamoDbConsentHistory> schema = DynamoDbConsentHistoryTableSchema.create(ConsentImageEncoding.JSON, true);
+        final DynamoDbConsentHistory consentHistory = schema.mapToItem(schema.itemToMap(TEST_CONSENT_HISTORY, true));
+
+        assertFalse(consentHistory.lazyOldImage().isDecoded());
+        assertFalse(consentHistory.lazyNewImage().isDecoded());
+        assertEquals(TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME, consentHistory.newImage());
+        assertTrue(consentHistory.lazyOldImage().isDecoded());
+    }
+
+    @Test
+    void builderAcceptsNullImages() {
+        final DynamoDbConsentHistory consentHistory = DynamoDbConsentHistory.builder()
+            .id(TestConstants.TEST_PARTITION_KEY)
+            .eventId("TestEventId")
+            .eventType("REMOVE")
+            .eventTime("2011-10-31T20:51:12Z")
+            .serviceUserId(TestConstants.TEST_SERVICE_ID + "|" + TestConstants.TEST_USER_ID)
+            .oldImage(null)
+            .newImage(null)
+            .build();
+
+        assertNull(consentHistory.oldImage());
+        assertNull(consentHistory.newImage());
+        assertEquals(consentHistory, ANNOTATED_SCHEMA.mapToItem(ANNOTATED_SCHEMA.itemToMap(consentHistory, true)));
+    }
+}
@@ -0,0 +1,111 @@
+package com.consentframework.shared.api.infrastructure.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consentframework.shared.api.infrastructure.mappers.DynamoDbConsentConverter;
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class LazyConsentImageTest {
+    private static final DynamoDbConsentConverter CONVERTER = new DynamoDbConsentConverter();
+    private static final AttributeValue TEST_ATTRIBUTE_VALUE = CONVERTER.transformFrom(TestConstants.TEST_STORED_CONSENT);
+
+    @Test
+    void ofDecodedImage() {
+        final LazyConsentImage image = LazyConsentImage.of(TestConstants.TEST_STORED_CONSENT);
+
+        assertTrue(image.isDecoded());
+        assertSame(TestConstants.TEST_STORED_CONSENT, image.get());
+        assertNull(image.getUndecodedAttributeValue());
+        assertThrows(NullPointerException.class, () -> LazyConsentImage.of((StoredConsentImage) null));
+    }
+
+    @Test
+    void fromAttributeValueDecodesOnceOnFirstAccess() {
+        final AtomicInteger decodeCount = new AtomicInteger();
+        final LazyConsentImage image = LazyConsentImage.fromAttributeValue(TEST_ATTRIBUTE_VALUE, attributeValue -> {
+            decodeCount.incrementAndGet();
+            return CONVERTER.transformTo(attributeValue);
+        });
+
+        assertFalse(image.isDecoded());
+        assertSame(TEST_ATTRIBUTE_VALUE, image.getUndecodedAttributeValue());
+        assertEquals(0, decodeCount.get());
+
+        final StoredConsentImage decodedImage = image.get();
+        assertEquals(TestConstants.TEST_STORED_CONSENT, decodedImage);
+        assertSame(decodedImage, image.get());
+        assertTrue(image.isDecoded());
+        assertNull(image.getUndecodedAttributeValue());
+        assertEquals(1, decodeCount.get());
+    }
+
+    @Test
+    void getDecodesOnceWhenAccessedConcurrently() throws Exception {
+        final AtomicInteger decodeCount = new AtomicInteger();
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final LazyConsentImage image = LazyConsentImage.of(() -> {
+            decodeCount.incrementAndGet();
+            return CONVERTER.transformTo(TEST_ATTRIBUTE_VALUE);
+        });
+
+        final List<Future<StoredConsentImage>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int index = 0; index < 8; index++) {
+                results.add(executor.submit(() -> {
+                    startLatch.await();
+                    return image.get();
+                }));
+            }
+            startLatch.countDown();
+            for (final Future<StoredConsentImage> result : results) {
+                assertSame(results.get(0).get(), result.get());
+            }
+        }
+        assertEquals(1, decodeCount.get());
+    }
+
+    @Test
+    void getRetriesAfterDecodeFailure() {
+        final AtomicInteger decodeCount = new AtomicInteger();
+        final LazyConsentImage image = LazyConsentImage.of(() -> {
+            if (decodeCount.incrementAndGet() == 1) {
+                throw new IllegalStateException("Decode failed");
+            }
+            return TestConstants.TEST_STORED_CONSENT;
+        });
+
+        assertThrows(IllegalStateException.class, image::get);
+        assertFalse(image.isDecoded());
+        assertSame(TestConstants.TEST_STORED_CONSENT, image.get());
+        assertEquals(2, decodeCount.get());
+    }
+
+    @Test
+    void equalsAndHashCodeCompareDecodedImages() {
+        final LazyConsentImage image = LazyConsentImage.fromAttributeValue(TEST_ATTRIBUTE_VALUE, CONVERTER::transformTo);
+        final LazyConsentImage decodedImage = LazyConsentImage.of(TestConstants.TEST_STORED_CONSENT);
+
+        assertEquals(image, image);
+        assertEquals(decodedImage, image);
+        assertEquals(decodedImage.hashCode(), image.hashCode());
+        assertEquals(TestConstants.TEST_STORED_CONSENT.toString(), image.toString());
+        assertNotEquals(decodedImage, LazyConsentImage.of(TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME));
+        assertFalse(decodedImage.equals(TestConstants.TEST_STORED_CONSENT));
+    }
+}
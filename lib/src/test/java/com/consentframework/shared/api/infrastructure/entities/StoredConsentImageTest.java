@@ -12,6 +12,16 @@ import java.time.OffsetDateTime;
 import java.util.Map;
 
 class StoredConsentImageTest {
+    @Test
+    void getConsentKeyParsesId() {
+        final StoredConsentImage consent = cloneStoredConsentImage(TestConstants.TEST_STORED_CONSENT);
+        assertEquals(ConsentKey.of(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID, TestConstants.TEST_CONSENT_ID),
+            consent.getConsentKey());
+
+        consent.setId("TestServiceId|TestUserId|OtherConsentId");
+        assertEquals("OtherConsentId", consent.getConsentKey().consentId());
+    }
+
     @Test
     void equalsWhenNull() {
         final StoredConsentImage consent = TestConstants.TEST_STORED_CONSENT;
@@ -0,0 +1,359 @@
+package com.consentframework.shared.api.infrastructure.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbConsentHistory;
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbConsentHistoryTableSchema;
+import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
+import com.consentframework.shared.api.infrastructure.mappers.ConsentImageEncoding;
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+class ConsentHistoryReaderTest {
+    private static final TableSchema<DynamoDbConsentHistory> TABLE_SCHEMA =
+        DynamoDbConsentHistoryTableSchema.create(ConsentImageEncoding.JSON);
+    private static final String SERVICE_USER_ID = TestConstants.TEST_SERVICE_ID + "|" + TestConstants.TEST_USER_ID;
+
+    private final FakeHistoryIndex index = new FakeHistoryIndex();
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 3 })
+    void streamReadsAllPages(final int prefetchPages) {
+        final List<DynamoDbConsentHistory> expectedEvents = index.putEvents(5, 2);
+        final ConsentHistoryReader reader = new ConsentHistoryReader(index, TABLE_SCHEMA, 2, prefetchPages);
+
+        try (Stream<DynamoDbConsentHistory> events = reader.stream(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID)) {
+            assertEquals(expectedEvents, events.toList());
+        }
+
+        assertEquals(3, index.receivedRequests.size());
+        final QueryRequest firstRequest = index.receivedRequests.get(0);
+        assertEquals(DynamoDbConsentHistory.TABLE_NAME, firstRequest.tableName());
+        assertEquals(DynamoDbConsentHistory.CONSENT_HISTORY_BY_SERVICE_USER_GSI_NAME, firstRequest.indexName());
+        assertEquals("#serviceUserId = :serviceUserId", firstRequest.keyConditionExpression());
+        assertEquals(Map.of("#serviceUserId", "serviceUserId"), firstRequest.expressionAttributeNames());
+        assertEquals(AttributeValue.fromS(SERVICE_USER_ID), firstRequest.expressionAttributeValues().get(":serviceUserId"));
+        assertEquals(2, firstRequest.limit());
+        assertTrue(firstRequest.exclusiveStartKey().isEmpty());
+        assertEquals(index.pageKey(1), index.receivedRequests.get(1).exclusiveStartKey());
+        assertEquals(index.pageKey(2), index.receivedRequests.get(2).exclusiveStartKey());
+    }
+
+    @Test
+    void streamSkipsEmptyPages() {
+        final List<DynamoDbConsentHistory> expectedEvents = index.putEvents(2, 1);
+        index.pages.add(1, List.of());
+        index.pages.add(List.of());
+        final ConsentHistoryReader reader = new ConsentHistoryReader(index, TABLE_SCHEMA, 1, 0);
+
+        assertEquals(expectedEvents, reader.stream(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID).toList());
+        assertEquals(4, index.receivedRequests.size());
+    }
+
+    @Test
+    void streamWhenNoEvents() {
+        final ConsentHistoryReader reader = new ConsentHistoryReader(index, TABLE_SCHEMA, 1, 1);
+        assertEquals(List.of(), reader.stream(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID).toList());
+    }
+
+    @Test
+    void streamReadsPagesOnDemandWithoutPrefetching() {
+        final List<DynamoDbConsentHistory> expectedEvents = index.putEvents(6, 2);
+        final ConsentHistoryReader reader = new ConsentHistoryReader(index, TABLE_SCHEMA, 2, 0);
+
+        final Stream<DynamoDbConsentHistory> events = reader.stream(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID);
+        assertEquals(0, index.receivedRequests.size());
+        assertEquals(expectedEvents.subList(0, 3), events.limit(3).toList());
+        assertEquals(2, index.receivedRequests.size());
+    }
+
+    @Test
+    void streamDecodesItemsWhenReached() {
+        final List<DynamoDbConsentHistory> expectedEvents = index.putEvents(2, 2);
+        index.pages.get(0).set(1, Map.of("newImage", AttributeValue.fromS("not a consent image")));
+        final ConsentHistoryReader reader = new ConsentHistoryReader(index, TABLE_SCHEMA, 2, 0);
+
+        assertEquals(expectedEvents.get(0), reader.stream(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID).findFirst().get());
+        assertThrows(RuntimeException.class, () -> reader.stream(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID).toList());
+    }
+
+    @Test
+    void streamPrefetchesNextPage() throws InterruptedException {
+        index.putEvents(6, 2);
+        final ConsentHistoryReader reader = new ConsentHistoryReader(index, TABLE_SCHEMA, 2, 1);
+
+        try (Stream<DynamoDbConsentHistory> events = reader.stream(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID)) {
+            events.findFirst();
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (index.receivedRequests.size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(index.receivedRequests.size() >= 2);
+        }
+    }
+
+    @Test
+    void streamReconstructsDeltaEncodedEvents() {
+        final DynamoDbConsentHistory event =
+            createEvent(0, TestConstants.TEST_STORED_CONSENT, TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME);
+        final Map<String, AttributeValue> item = DynamoDbConsentHistoryTableSchema.create(ConsentImageEncoding.JSON, true)
+            .itemToMap(event, true);
+        index.pages.add(new ArrayList<>(List.of(item)));
+        final ConsentHistoryReader reader = new ConsentHistoryReader(index, TABLE_SCHEMA, 1, 1);
+
+        final DynamoDbConsentHistory readEvent = reader.stream(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID).findFirst().get();
+        assertEquals(event, readEvent);
+        assertNull(readEvent.newImagePatch());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1 })
+    void streamThrowsQueryFailureWhenReached(final int prefetchPages) {
+        final List<DynamoDbConsentHistory> expectedEvents = index.putEvents(4, 2);
+        index.failingPage = 1;
+        final ConsentHistoryReader reader = new ConsentHistoryReader(index, TABLE_SCHEMA, 2, prefetchPages);
+
+        final List<DynamoDbConsentHistory> readEvents = new ArrayList<>();
+        final IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> reader.stream(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID).forEach(readEvents::add));
+        assertEquals("Query failed", exception.getMessage());
+        assertEquals(expectedEvents.subList(0, 2), readEvents);
+    }
+
+    @Test
+    void streamWhenInterrupted() {
+        index.putEvents(2, 1);
+        final ConsentHistoryReader reader = new ConsentHistoryReader(index, TABLE_SCHEMA, 1, 1);
+
+        Thread.currentThread().interrupt();
+        final CancellationException exception = assertThrows(CancellationException.class,
+            () -> reader.stream(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID).toList());
+        assertTrue(Thread.interrupted());
+        assertInstanceOf(InterruptedException.class, exception.getCause());
+    }
+
+    @Test
+    void constructWithDynamoDbClient() {
+        final List<DynamoDbConsentHistory> expectedEvents = index.putEvents(1, 1);
+        final DynamoDbClient dynamoDbClient = new DynamoDbClient() {
+            @Override
+            public QueryResponse query(final QueryRequest request) {
+                return index.apply(request);
+            }
+
+            @Override
+            public String serviceName() {
+                return SERVICE_NAME;
+            }
+
+            @Override
+            public void close() {}
+        };
+
+        final ConsentHistoryReader reader = new ConsentHistoryReader(dynamoDbClient);
+        assertEquals(expectedEvents, reader.stream(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID).toList());
+        assertEquals(ConsentHistoryReader.DEFAULT_PAGE_SIZE, index.receivedRequests.get(0).limit());
+    }
+
+    @Test
+    void constructWhenInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsentHistoryReader(index, TABLE_SCHEMA, 0, 1));
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> new ConsentHistoryReader(index, TABLE_SCHEMA, 1, -1));
+        assertEquals("pageSize must be positive and prefetchPages must not be negative, got 1 and -1", exception.getMessage());
+    }
+
+    @Test
+    void publisherDeliversRequestedEvents() throws Exception {
+        final List<DynamoDbConsentHistory> expectedEvents = index.putEvents(5, 2);
+        final ConsentHistoryReader reader = new ConsentHistoryReader(index, TABLE_SCHEMA, 2, 1);
+        final CollectingSubscriber subscriber = new CollectingSubscriber(1, Long.MAX_VALUE);
+
+        reader.publisher(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID).subscribe(subscriber);
+
+        assertNull(subscriber.completion.get(5, TimeUnit.SECONDS));
+        assertEquals(expectedEvents, subscriber.events);
+    }
+
+    @Test
+    void publisherDeliversUnboundedDemand() throws Exception {
+        final List<DynamoDbConsentHistory> expectedEvents = index.putEvents(3, 1);
+        final ConsentHistoryReader reader = new ConsentHistoryReader(index, TABLE_SCHEMA, 1, 0);
+        final CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE, Long.MAX_VALUE);
+
+        reader.publisher(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID).subscribe(subscriber);
+        subscriber.completion.get(5, TimeUnit.SECONDS);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(expectedEvents, subscriber.events);
+    }
+
+    @Test
+    void publisherStopsWhenCancelled() throws Exception {
+        final List<DynamoDbConsentHistory> expectedEvents = index.putEvents(6, 2);
+        final ConsentHistoryReader reader = new ConsentHistoryReader(index, TABLE_SCHEMA, 2, 0);
+        final CollectingSubscriber subscriber = new CollectingSubscriber(1, 3);
+
+        reader.publisher(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID).subscribe(subscriber);
+
+        assertEquals(expectedEvents.subList(0, 3), subscriber.cancelled.get(5, TimeUnit.SECONDS));
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+        Thread.sleep(50);
+        assertEquals(expectedEvents.subList(0, 3), subscriber.events);
+        assertEquals(2, index.receivedRequests.size());
+        assertFalse(subscriber.completion.isDone());
+    }
+
+    @Test
+    void publisherSignalsInvalidRequest() {
+        index.putEvents(2, 1);
+        final ConsentHistoryReader reader = new ConsentHistoryReader(index, TABLE_SCHEMA, 1, 1);
+        final CollectingSubscriber subscriber = new CollectingSubscriber(0, Long.MAX_VALUE);
+
+        reader.publisher(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID).subscribe(subscriber);
+
+        final Exception exception = assertThrows(Exception.class, () -> subscriber.completion.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        assertEquals("Requested 0 events, must be positive", exception.getCause().getMessage());
+    }
+
+    @Test
+    void publisherSignalsQueryFailure() {
+        index.putEvents(2, 1);
+        index.failingPage = 0;
+        final ConsentHistoryReader reader = new ConsentHistoryReader(index, TABLE_SCHEMA, 1, 1);
+        final CollectingSubscriber subscriber = new CollectingSubscriber(1, Long.MAX_VALUE);
+
+        reader.publisher(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID).subscribe(subscriber);
+
+        final Exception exception = assertThrows(Exception.class, () -> subscriber.completion.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertTrue(subscriber.events.isEmpty());
+    }
+
+    private static DynamoDbConsentHistory createEvent(final int eventIndex, final StoredConsentImage oldImage,
+            final StoredConsentImage newImage) {
+        return DynamoDbConsentHistory.builder()
+            .id(TestConstants.TEST_PARTITION_KEY)
+            .eventId(String.format("TestEventId%03d", eventIndex))
+            .eventType((oldImage == null) ? "INSERT" : "MODIFY")
+            .eventTime("2011-10-31T20:51:12Z")
+            .serviceUserId(SERVICE_USER_ID)
+            .oldImage(oldImage)
+            .newImage(newImage)
+            .build();
+    }
+
+    /**
+     * Serves fixed pages of raw items for the user's GSI partition, keyed by page index.
+     */
+    private static final class FakeHistoryIndex implements Function<QueryRequest, QueryResponse> {
+        private final List<List<Map<String, AttributeValue>>> pages = new CopyOnWriteArrayList<>();
+        private final List<QueryRequest> receivedRequests = new CopyOnWriteArrayList<>();
+        private volatile int failingPage = -1;
+
+        List<DynamoDbConsentHistory> putEvents(final int eventCount, final int pageSize) {
+            final List<DynamoDbConsentHistory> events = IntStream.range(0, eventCount)
+                .mapToObj(eventIndex -> createEvent(eventIndex, (eventIndex == 0) ? null : TestConstants.TEST_STORED_CONSENT,
+                    TestConstants.TEST_STORED_CONSENT))
+                .toList();
+            for (int startIndex = 0; startIndex < eventCount; startIndex += pageSize) {
+                pages.add(new ArrayList<>(events.subList(startIndex, Math.min(startIndex + pageSize, eventCount)).stream()
+                    .map(event -> TABLE_SCHEMA.itemToMap(event, true))
+                    .toList()));
+            }
+            return events;
+        }
+
+        Map<String, AttributeValue> pageKey(final int pageIndex) {
+            return Map.of("page", AttributeValue.fromN(Integer.toString(pageIndex)));
+        }
+
+        @Override
+        public QueryResponse apply(final QueryRequest request) {
+            receivedRequests.add(request);
+            final int pageIndex = request.hasExclusiveStartKey() ? Integer.parseInt(request.exclusiveStartKey().get("page").n()) : 0;
+            if (pageIndex == failingPage) {
+                throw new IllegalStateException("Query failed");
+            }
+            if (pageIndex >= pages.size()) {
+                return QueryResponse.builder().items(List.of()).build();
+            }
+            final QueryResponse.Builder response = QueryResponse.builder().items(pages.get(pageIndex));
+            if (pageIndex + 1 < pages.size()) {
+                response.lastEvaluatedKey(pageKey(pageIndex + 1));
+            }
+            return response.build();
+        }
+    }
+
+    /**
+     * Requests a fixed number of events at a time, cancelling after a given number of events.
+     */
+    private static final class CollectingSubscriber implements Flow.Subscriber<DynamoDbConsentHistory> {
+        private final long requestSize;
+        private final long cancelAfter;
+        private final List<DynamoDbConsentHistory> events = Collections.synchronizedList(new ArrayList<>());
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+        private final CompletableFuture<List<DynamoDbConsentHistory>> cancelled = new CompletableFuture<>();
+        private volatile Flow.Subscription subscription;
+
+        CollectingSubscriber(final long requestSize, final long cancelAfter) {
+            this.requestSize = requestSize;
+            this.cancelAfter = cancelAfter;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(requestSize);
+        }
+
+        @Override
+        public void onNext(final DynamoDbConsentHistory event) {
+            events.add(event);
+            if (events.size() == cancelAfter) {
+                subscription.cancel();
+                cancelled.complete(List.copyOf(events));
+            } else if (requestSize != Long.MAX_VALUE) {
+                subscription.request(requestSize);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            completion.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completion.complete(null);
+        }
+    }
+}
@@ -6,14 +6,22 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.consentframework.consentmanagement.api.JSON;
+import com.consentframework.shared.api.infrastructure.entities.ConsentImage;
 import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
 import com.consentframework.shared.api.testcommon.constants.TestConstants;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.enhanced.dynamodb.AttributeValueType;
 import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 class DynamoDbConsentConverterTest {
     private DynamoDbConsentConverter converter;
 
@@ -45,6 +53,22 @@ class DynamoDbConsentConverterTest {
         assertEquals(TestConstants.TEST_CONSENT_DATA, consent.getConsentData());
     }
 
+    @Test
+    void transformFromWhenInvalid() {
+        final Map<String, String> consentData = new HashMap<>();
+        consentData.put(null, "testValue");
+        final StoredConsentImage consent = new StoredConsentImage().consentData(consentData);
+
+        final RuntimeException exception = assertThrows(RuntimeException.class, () -> converter.transformFrom(consent));
+        assertEquals("Error converting StoredConsentImage to JSON string", exception.getMessage());
+    }
+
+    @Test
+    void transformFromMatchesObjectMapper() throws Exception {
+        final String expectedJsonString = new JSON().getMapper().writeValueAsString(TestConstants.TEST_STORED_CONSENT);
+        assertEquals(expectedJsonString, converter.transformFrom(TestConstants.TEST_STORED_CONSENT).s());
+    }
+
     @Test
     void transformToWhenNull() {
         final StoredConsentImage consent = converter.transformTo(null);
@@ -88,5 +112,66 @@ class DynamoDbConsentConverterTest {
     @Test
     void attributeValueType() {
         assertEquals(AttributeValueType.S, converter.attributeValueType());
+        assertEquals(AttributeValueType.B, new DynamoDbConsentConverter(ConsentImageEncoding.CBOR).attributeValueType());
+        assertEquals(AttributeValueType.M, new DynamoDbConsentConverter(ConsentImageEncoding.MAP).attributeValueType());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ConsentImageEncoding.class)
+    void transformFromWithEncoding(final ConsentImageEncoding encoding) {
+        final AttributeValue attributeValue = new DynamoDbConsentConverter(encoding)
+            .transformFrom(TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME);
+        assertEquals(encoding.getAttributeValueType().name(), attributeValue.type().name());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ConsentImageEncoding.class)
+    void toAttributeValueMatchesTransformFrom(final ConsentImageEncoding encoding) {
+        final DynamoDbConsentConverter encodingConverter = new DynamoDbConsentConverter(encoding);
+        final StoredConsentImage consent = TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME;
+
+        assertEquals(encodingConverter.transformFrom(consent),
+            encodingConverter.toAttributeValue(ConsentImage.fromStoredConsentImage(consent)));
+    }
+
+    @Test
+    void toAttributeValueWhenNull() {
+        assertNull(converter.toAttributeValue(null));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ConsentImageEncoding.class)
+    void transformToReadsAnyEncoding(final ConsentImageEncoding encoding) {
+        final AttributeValue attributeValue = new DynamoDbConsentConverter(encoding)
+            .transformFrom(TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME);
+        assertEquals(TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME, converter.transformTo(attributeValue));
+    }
+
+    @Test
+    void transformToWhenNullAttributeValue() {
+        assertNull(converter.transformTo(AttributeValue.fromNul(true)));
+    }
+
+    @Test
+    void transformToWhenUnsupportedAttributeValueType() {
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> converter.transformTo(AttributeValue.fromN("1")));
+        assertEquals("Unsupported ConsentImage attribute value type: N", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> converter.transformTo(AttributeValue.fromL(List.of())));
+        assertThrows(IllegalArgumentException.class, () -> converter.transformTo(AttributeValue.fromSs(List.of("TestValue"))));
+    }
+
+    @Test
+    void transformToWhenInvalidBinary() {
+        final RuntimeException exception = assertThrows(RuntimeException.class, () ->
+            converter.transformTo(AttributeValue.fromB(SdkBytes.fromByteArray(new byte[] {0}))));
+        assertEquals("Error converting CBOR binary to StoredConsentImage", exception.getMessage());
+    }
+
+    @Test
+    void transformToWhenInvalidMap() {
+        final RuntimeException exception = assertThrows(RuntimeException.class, () ->
+            converter.transformTo(AttributeValue.fromM(Map.of("invalidKey", AttributeValue.fromS("value")))));
+        assertEquals("Error converting attribute map to StoredConsentImage", exception.getMessage());
     }
 }
@@ -1,15 +1,24 @@
 package com.consentframework.shared.api.infrastructure.mappers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.consentframework.shared.api.testcommon.constants.TestConstants;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 
 class DynamoDbConsentExpiryTimeConverterTest {
     private static final OffsetDateTime TEST_EXPIRY_TIME_PST = OffsetDateTime.of(2011, 10, 31, 20, 51, 12, 20, ZoneOffset.of("-08:00"));
+    // Murmur3 32-bit hash of the UTF-8 test partition key, modulo 100
+    private static final int EXPECTED_TEST_PARTITION_KEY_SHARD = 85;
     private static final OffsetDateTime TEST_EXPIRY_TIME_UTC = OffsetDateTime.of(2011, 10, 31, 20, 51, 12, 20, ZoneOffset.UTC);
 
     @Test
@@ -70,4 +79,121 @@ class DynamoDbConsentExpiryTimeConverterTest {
         final OffsetDateTime expiryTime = DynamoDbConsentExpiryTimeConverter.toOffsetDateTimeFromExpiryTimeId(expiryTimeId);
         assertEquals(OffsetDateTime.of(2011, 10, 31, 20, 51, 12, 0, ZoneOffset.UTC), expiryTime);
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"+10000-01-01T00:00:00Z", "0000-06-15T12:30:45Z", "-0001-06-15T12:30:45Z", "2026-12-31T23:59:59Z"})
+    void formatMatchesDateTimeFormatter(final String expiryTimeText) {
+        final OffsetDateTime expiryTime = OffsetDateTime.parse(expiryTimeText).withOffsetSameInstant(ZoneOffset.ofHours(5));
+        final OffsetDateTime utcExpiryTime = expiryTime.withOffsetSameInstant(ZoneOffset.UTC);
+
+        assertEquals(utcExpiryTime.truncatedTo(ChronoUnit.HOURS).format(DynamoDbConsentExpiryTimeConverter.EXPIRY_HOUR_FORMATTER),
+            DynamoDbConsentExpiryTimeConverter.toExpiryHour(expiryTime));
+        final String expectedExpiryTimeString = utcExpiryTime.format(DynamoDbConsentExpiryTimeConverter.EXPIRY_TIME_FORMATTER);
+        assertEquals(expectedExpiryTimeString, DynamoDbConsentExpiryTimeConverter.toExpiryTimeString(expiryTime));
+        assertEquals(String.format("%s|%s", expectedExpiryTimeString, TestConstants.TEST_PARTITION_KEY),
+            DynamoDbConsentExpiryTimeConverter.toExpiryTimeId(expiryTime, TestConstants.TEST_PARTITION_KEY));
+    }
+
+    @Test
+    void toExpiryTimeId_withNullId() {
+        assertEquals("2011-10-31T20:51:12Z|null", DynamoDbConsentExpiryTimeConverter.toExpiryTimeId(TEST_EXPIRY_TIME_UTC, null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "2011-10-31T20:51:12Z",
+        "2011-10-31T20:51:12+01:00",
+        "2011-10-31T20:51:12.999Z",
+        "0000-10-31T20:51:12Z",
+        "+10000-10-31T20:51:12Z"
+    })
+    void parseMatchesOffsetDateTimeParse(final String expiryTimeString) {
+        final OffsetDateTime expectedExpiryTime = OffsetDateTime.parse(expiryTimeString)
+            .withOffsetSameInstant(ZoneOffset.UTC)
+            .truncatedTo(ChronoUnit.SECONDS);
+        assertEquals(expectedExpiryTime, DynamoDbConsentExpiryTimeConverter.toExpiryTimeOffsetDateTime(expiryTimeString));
+        assertEquals(expectedExpiryTime, DynamoDbConsentExpiryTimeConverter.toOffsetDateTimeFromExpiryTimeId(expiryTimeString));
+        assertEquals(expectedExpiryTime, DynamoDbConsentExpiryTimeConverter.toOffsetDateTimeFromExpiryTimeId(
+            expiryTimeString + "|" + TestConstants.TEST_PARTITION_KEY));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "2011-02-29T20:51:12Z", "2011-10-31T20:51:12", "NotATimestampValue!!"})
+    void parseWhenInvalid(final String expiryTimeString) {
+        assertThrows(DateTimeParseException.class, () -> DynamoDbConsentExpiryTimeConverter.toExpiryTimeOffsetDateTime(expiryTimeString));
+        assertThrows(DateTimeParseException.class, () ->
+            DynamoDbConsentExpiryTimeConverter.toOffsetDateTimeFromExpiryTimeId(expiryTimeString + "|" + TestConstants.TEST_PARTITION_KEY));
+    }
+
+    @Test
+    void toExpiryHour_withShardCount() {
+        final String expiryHour = DynamoDbConsentExpiryTimeConverter.toExpiryHour(
+            TEST_EXPIRY_TIME_PST, TestConstants.TEST_PARTITION_KEY, 16);
+        assertEquals("2011-11-01T04:00Z#" + String.format("%02d",
+            DynamoDbConsentExpiryTimeConverter.getExpiryHourShard(TestConstants.TEST_PARTITION_KEY, 16)), expiryHour);
+    }
+
+    @Test
+    void toExpiryHour_withSingleShard() {
+        final String expiryHour = DynamoDbConsentExpiryTimeConverter.toExpiryHour(
+            TEST_EXPIRY_TIME_PST, TestConstants.TEST_PARTITION_KEY, 1);
+        assertEquals("2011-11-01T04:00Z", expiryHour);
+    }
+
+    @Test
+    void getExpiryHourShard_isStable() {
+        assertEquals(0, DynamoDbConsentExpiryTimeConverter.getExpiryHourShard(TestConstants.TEST_PARTITION_KEY, 1));
+        assertEquals(EXPECTED_TEST_PARTITION_KEY_SHARD,
+            DynamoDbConsentExpiryTimeConverter.getExpiryHourShard(TestConstants.TEST_PARTITION_KEY, 100));
+        assertEquals(EXPECTED_TEST_PARTITION_KEY_SHARD % 10,
+            DynamoDbConsentExpiryTimeConverter.getExpiryHourShard(TestConstants.TEST_PARTITION_KEY, 10));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 7, 16, 100})
+    void getExpiryHourShard_isEvenlyDistributed(final int shardCount) {
+        final int idCount = 2000 * shardCount;
+        final int[] shardSizes = new int[shardCount];
+        for (int idIndex = 0; idIndex < idCount; idIndex++) {
+            shardSizes[DynamoDbConsentExpiryTimeConverter.getExpiryHourShard(
+                String.format("%s|TestUserId%d|%s", TestConstants.TEST_SERVICE_ID, idIndex, TestConstants.TEST_CONSENT_ID), shardCount)]++;
+        }
+        for (final int shardSize : shardSizes) {
+            assertTrue(Math.abs(shardSize - 2000) < 200, "Expected about 2000 ids per shard, got " + shardSize);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 16})
+    void getExpiryHourShard_withNullId(final int shardCount) {
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> DynamoDbConsentExpiryTimeConverter.getExpiryHourShard(null, shardCount));
+        assertEquals("Consent partition key id must not be null", exception.getMessage());
+        assertThrows(IllegalArgumentException.class,
+            () -> DynamoDbConsentExpiryTimeConverter.toExpiryHour(OffsetDateTime.now(), null, shardCount));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, 101})
+    void shardCountOutOfRange(final int shardCount) {
+        assertThrows(IllegalArgumentException.class, () -> DynamoDbConsentExpiryTimeConverter.getExpiryHourShard(
+            TestConstants.TEST_PARTITION_KEY, shardCount));
+        assertThrows(IllegalArgumentException.class, () -> DynamoDbConsentExpiryTimeConverter.toExpiryHourShards(
+            "2011-11-01T04:00Z", shardCount));
+    }
+
+    @Test
+    void toExpiryHourShards() {
+        assertEquals(List.of("2011-11-01T04:00Z"), DynamoDbConsentExpiryTimeConverter.toExpiryHourShards("2011-11-01T04:00Z", 1));
+        final List<String> expiryHourShards = DynamoDbConsentExpiryTimeConverter.toExpiryHourShards("2011-11-01T04:00Z", 12);
+        assertEquals(12, expiryHourShards.size());
+        assertEquals("2011-11-01T04:00Z#00", expiryHourShards.get(0));
+        assertEquals("2011-11-01T04:00Z#11", expiryHourShards.get(11));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2011-11-01T04:00Z", "2011-11-01T04:00Z#00", "2011-11-01T04:00Z#99"})
+    void toUnshardedExpiryHour(final String expiryHour) {
+        assertEquals("2011-11-01T04:00Z", DynamoDbConsentExpiryTimeConverter.toUnshardedExpiryHour(expiryHour));
+    }
 }
@@ -0,0 +1,62 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.consentframework.shared.api.domain.constants.HttpMethod;
+import com.consentframework.shared.api.domain.entities.ApiRequest;
+import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import com.consentframework.shared.api.testcommon.infrastructure.TestCreateResponseContent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+class JsonMapperRegistryTest {
+    @Test
+    void readerForReturnsSharedInstance() {
+        assertSame(JsonMapperRegistry.API_REQUEST_READER, JsonMapperRegistry.readerFor(ApiRequest.class));
+        assertSame(JsonMapperRegistry.STORED_CONSENT_IMAGE_READER, JsonMapperRegistry.readerFor(StoredConsentImage.class));
+        assertNotSame(JsonMapperRegistry.readerFor(ApiRequest.class), JsonMapperRegistry.readerFor(StoredConsentImage.class));
+    }
+
+    @Test
+    void writerForReturnsSharedInstance() {
+        assertSame(JsonMapperRegistry.STORED_CONSENT_IMAGE_WRITER, JsonMapperRegistry.writerFor(StoredConsentImage.class));
+    }
+
+    @Test
+    void getJsonFactoryReturnsWriterFactory() {
+        assertSame(JsonMapperRegistry.writerFor(StoredConsentImage.class).getFactory(), JsonMapperRegistry.getJsonFactory());
+    }
+
+    @Test
+    void warmCachesReaderAndWriter() {
+        JsonMapperRegistry.warm(TestCreateResponseContent.class);
+        assertSame(JsonMapperRegistry.readerFor(TestCreateResponseContent.class),
+            JsonMapperRegistry.readerFor(TestCreateResponseContent.class));
+        assertSame(JsonMapperRegistry.writerFor(TestCreateResponseContent.class),
+            JsonMapperRegistry.writerFor(TestCreateResponseContent.class));
+    }
+
+    @Test
+    void apiRequestReaderIgnoresUnknownProperties() throws Exception {
+        final String requestJson = "{\"httpMethod\":\"GET\",\"path\":\"/v1/users/TestUserId\","
+            + "\"pathParameters\":{\"userId\":\"TestUserId\"},\"requestContext\":{\"stage\":\"prod\"}}";
+        final ApiRequest request = JsonMapperRegistry.API_REQUEST_READER.readValue(requestJson);
+
+        final ApiRequest expectedRequest = new ApiRequest(HttpMethod.GET.name(), null, "/v1/users/TestUserId",
+            Map.of(TestConstants.USER_ID_PARAM_NAME, TestConstants.TEST_USER_ID), null, null, false, null);
+        assertEquals(expectedRequest, request);
+    }
+
+    @Test
+    void storedConsentImageWriterMatchesCodec() throws Exception {
+        final String consentJsonString = JsonMapperRegistry.STORED_CONSENT_IMAGE_WRITER
+            .writeValueAsString(TestConstants.TEST_STORED_CONSENT);
+        assertEquals(StoredConsentImageJsonCodec.toJsonString(TestConstants.TEST_STORED_CONSENT), consentJsonString);
+        assertEquals(TestConstants.TEST_STORED_CONSENT,
+            JsonMapperRegistry.STORED_CONSENT_IMAGE_READER.readValue(consentJsonString));
+    }
+}
@@ -0,0 +1,83 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.consentframework.shared.api.infrastructure.entities.LazyConsentImage;
+import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+
+class LazyConsentImageConverterTest {
+    private final LazyConsentImageConverter converter = new LazyConsentImageConverter();
+
+    @ParameterizedTest
+    @EnumSource(ConsentImageEncoding.class)
+    void transformToDefersDecoding(final ConsentImageEncoding encoding) {
+        final AttributeValue attributeValue = new DynamoDbConsentConverter(encoding).transformFrom(TestConstants.TEST_STORED_CONSENT);
+
+        final LazyConsentImage image = converter.transformTo(attributeValue);
+
+        assertFalse(image.isDecoded());
+        assertEquals(TestConstants.TEST_STORED_CONSENT, image.get());
+    }
+
+    @Test
+    void transformToWhenNull() {
+        assertNull(converter.transformTo(null));
+        assertNull(converter.transformTo(AttributeValue.fromNul(true)));
+        assertNull(converter.transformTo(AttributeValue.fromS(null)));
+    }
+
+    @Test
+    void transformToWhenUnsupported() {
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> converter.transformTo(AttributeValue.fromL(List.of())));
+        assertEquals("Unsupported ConsentImage attribute value type: L", exception.getMessage());
+    }
+
+    @Test
+    void transformFromReusesUndecodedAttributeValue() {
+        final AttributeValue attributeValue = converter.transformFrom(LazyConsentImage.of(TestConstants.TEST_STORED_CONSENT));
+        assertSame(attributeValue, converter.transformFrom(converter.transformTo(attributeValue)));
+    }
+
+    @Test
+    void transformFromEncodesImageInOtherEncoding() {
+        final AttributeValue attributeValue = converter.transformFrom(LazyConsentImage.of(TestConstants.TEST_STORED_CONSENT));
+        final LazyConsentImageConverter cborConverter = new LazyConsentImageConverter(ConsentImageEncoding.CBOR);
+
+        final AttributeValue cborAttributeValue = cborConverter.transformFrom(converter.transformTo(attributeValue));
+
+        assertEquals(AttributeValue.Type.B, cborAttributeValue.type());
+        assertEquals(TestConstants.TEST_STORED_CONSENT, cborConverter.transformTo(cborAttributeValue).get());
+    }
+
+    @Test
+    void transformFromEncodesDecodedImage() {
+        final AttributeValue attributeValue = converter.transformFrom(LazyConsentImage.of(TestConstants.TEST_STORED_CONSENT));
+        final LazyConsentImage image = converter.transformTo(attributeValue);
+        final StoredConsentImage decodedImage = image.get();
+        decodedImage.setConsentStatus("REVOKED");
+
+        assertEquals("REVOKED", converter.transformTo(converter.transformFrom(image)).get().getConsentStatus());
+        assertNull(converter.transformFrom(null));
+    }
+
+    @Test
+    void type() {
+        assertEquals(EnhancedType.of(LazyConsentImage.class), converter.type());
+        assertEquals(ConsentImageEncoding.JSON.getAttributeValueType(), converter.attributeValueType());
+        assertEquals(ConsentImageEncoding.MAP.getAttributeValueType(),
+            new LazyConsentImageConverter(ConsentImageEncoding.MAP).attributeValueType());
+    }
+}
@@ -0,0 +1,189 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consentframework.consentmanagement.api.JSON;
+import com.consentframework.shared.api.domain.constants.HttpMethod;
+import com.consentframework.shared.api.domain.entities.ApiRequest;
+import com.consentframework.shared.api.domain.entities.ApiResponse;
+import com.consentframework.shared.api.domain.exceptions.InternalServiceException;
+import com.consentframework.shared.api.domain.pagination.ListPage;
+import com.consentframework.shared.api.domain.requesthandlers.ResponseCompression;
+import com.consentframework.shared.api.domain.requesthandlers.ResponseHeaders;
+import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+class ListPageJsonWriterTest {
+    private static final ObjectMapper OBJECT_MAPPER = new JSON().getMapper();
+    private static final ApiRequest GZIP_REQUEST = buildApiRequest(Map.of("Accept-Encoding", "gzip"));
+    private static final ApiRequest IDENTITY_REQUEST = buildApiRequest(null);
+    private static final ListPage<StoredConsentImage> SMALL_PAGE = new ListPage<>(
+        List.of(TestConstants.TEST_STORED_CONSENT, TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME), Optional.of("TestPageToken"));
+    private static final ListPage<StoredConsentImage> LARGE_PAGE = new ListPage<>(buildConsents(200), Optional.empty());
+
+    private final ListPageJsonWriter<StoredConsentImage> writer = ListPageJsonWriter.of(StoredConsentImageJsonCodec::writeConsentImage);
+
+    @Test
+    void testBodyMatchesObjectMapper() throws Exception {
+        final String expectedBody = OBJECT_MAPPER.writeValueAsString(Map.of(
+            ListPageJsonWriter.DATA_FIELD_NAME, SMALL_PAGE.resultsOnPage(),
+            ListPageJsonWriter.NEXT_PAGE_TOKEN_FIELD_NAME, "TestPageToken"));
+
+        final ApiResponse response = writer.toApiResponse(IDENTITY_REQUEST, SMALL_PAGE, ResponseHeaders.JSON_NO_STORE);
+
+        assertEquals(200, response.statusCode());
+        assertSame(ResponseHeaders.JSON_NO_STORE, response.headers());
+        assertFalse(response.isBase64Encoded());
+        assertEquals(OBJECT_MAPPER.readTree(expectedBody), OBJECT_MAPPER.readTree(response.body()));
+        assertEquals(response, ListPageJsonWriter.forType(StoredConsentImage.class)
+            .toApiResponse(IDENTITY_REQUEST, SMALL_PAGE, ResponseHeaders.JSON_NO_STORE));
+    }
+
+    @Test
+    void testBodyWithoutNextPageToken() throws Exception {
+        final ApiResponse response = writer.toApiResponse(GZIP_REQUEST, new ListPage<>(List.of(), Optional.empty()), null);
+        assertEquals(new ApiResponse(200, null, "{\"data\":[]}"), response);
+    }
+
+    @Test
+    void testCompressedResponse() throws Exception {
+        final ApiResponse uncompressedResponse = writer.toApiResponse(IDENTITY_REQUEST, LARGE_PAGE, ResponseHeaders.JSON);
+        final String uncompressedBody = uncompressedResponse.body();
+        assertSame(ResponseHeaders.withVaryAcceptEncoding(ResponseHeaders.JSON), uncompressedResponse.headers());
+
+        final ApiResponse response = writer.toApiResponse(GZIP_REQUEST, LARGE_PAGE, ResponseHeaders.JSON);
+
+        assertTrue(response.isBase64Encoded());
+        assertSame(ResponseHeaders.withGzipEncoding(ResponseHeaders.JSON), response.headers());
+        assertTrue(response.body().length() < uncompressedBody.length() / 4);
+        assertEquals(uncompressedBody, gunzip(response.body()));
+    }
+
+    @Test
+    void testWriteApiResponseMatchesTypedResponse() throws Exception {
+        for (final ApiRequest request : List.of(IDENTITY_REQUEST, GZIP_REQUEST)) {
+            for (final Map<String, String> headers : Arrays.asList(ResponseHeaders.JSON, null)) {
+                final CloseTrackingOutputStream outputStream = new CloseTrackingOutputStream();
+                writer.writeApiResponse(request, LARGE_PAGE, headers, outputStream);
+
+                final Map<String, Object> expectedResponse = writer.toApiResponse(request, LARGE_PAGE, headers).toMap();
+                assertEquals(OBJECT_MAPPER.valueToTree(expectedResponse),
+                    OBJECT_MAPPER.readTree(outputStream.toByteArray()));
+                assertFalse(outputStream.closed);
+            }
+        }
+    }
+
+    @Test
+    void testWriteBody() throws Exception {
+        final CloseTrackingOutputStream outputStream = new CloseTrackingOutputStream();
+        writer.writeBody(SMALL_PAGE, outputStream);
+
+        assertArrayEquals(writer.toApiResponse(IDENTITY_REQUEST, SMALL_PAGE, null).body().getBytes(StandardCharsets.UTF_8),
+            outputStream.toByteArray());
+        assertFalse(outputStream.closed);
+    }
+
+    @Test
+    void testBodyOverSizeCap() throws Exception {
+        final ListPageJsonWriter<StoredConsentImage> cappedWriter = writer.withMaxBodyBytes(1000);
+
+        final InternalServiceException exception = assertThrows(InternalServiceException.class,
+            () -> cappedWriter.toApiResponse(IDENTITY_REQUEST, LARGE_PAGE, ResponseHeaders.JSON));
+        assertEquals("List response body exceeds 1000 bytes", exception.getMessage());
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertThrows(InternalServiceException.class, () -> cappedWriter.writeApiResponse(GZIP_REQUEST, LARGE_PAGE, null, outputStream));
+        assertThrows(InternalServiceException.class, () -> cappedWriter.writeBody(LARGE_PAGE, outputStream));
+        assertEquals(0, outputStream.size());
+
+        assertEquals(writer.toApiResponse(IDENTITY_REQUEST, SMALL_PAGE, null),
+            cappedWriter.toApiResponse(IDENTITY_REQUEST, SMALL_PAGE, null));
+    }
+
+    @Test
+    void testUncompressedWhenCompressionDoesNotHelp() throws Exception {
+        final ListPage<StoredConsentImage> emptyPage = new ListPage<>(List.of(), Optional.empty());
+        final ListPageJsonWriter<StoredConsentImage> compressingWriter =
+            writer.withResponseCompression(ResponseCompression.forBodiesOfAtLeast(0));
+
+        final ApiResponse expectedResponse =
+            new ApiResponse(200, Map.of(ResponseHeaders.VARY, ResponseHeaders.ACCEPT_ENCODING), "{\"data\":[]}");
+        assertEquals(expectedResponse, compressingWriter.toApiResponse(GZIP_REQUEST, emptyPage, null));
+        assertEquals(expectedResponse, compressingWriter.withMaxBodyBytes(12).toApiResponse(GZIP_REQUEST, emptyPage, null));
+        final ApiResponse uncompressedResponse = writer.withResponseCompression(ResponseCompression.disabled())
+            .toApiResponse(GZIP_REQUEST, LARGE_PAGE, ResponseHeaders.JSON);
+        assertFalse(uncompressedResponse.isBase64Encoded());
+        assertSame(ResponseHeaders.JSON, uncompressedResponse.headers());
+    }
+
+    @Test
+    void testLargeBuffersNotRetained() throws Exception {
+        final ListPage<StoredConsentImage> veryLargePage = new ListPage<>(buildConsents(5000), Optional.empty());
+        final ListPageJsonWriter<StoredConsentImage> uncompressedWriter = writer.withResponseCompression(ResponseCompression.disabled());
+
+        final String body = uncompressedWriter.toApiResponse(IDENTITY_REQUEST, veryLargePage, null).body();
+
+        assertTrue(body.length() > 1024 * 1024);
+        assertEquals(body, uncompressedWriter.toApiResponse(IDENTITY_REQUEST, veryLargePage, null).body());
+    }
+
+    @Test
+    void testInvalidMaxBodyBytes() {
+        assertThrows(IllegalArgumentException.class, () -> writer.withMaxBodyBytes(0));
+    }
+
+    private static List<StoredConsentImage> buildConsents(final int count) {
+        return IntStream.range(0, count)
+            .mapToObj(index -> new StoredConsentImage()
+                .id(TestConstants.TEST_PARTITION_KEY + index)
+                .serviceId(TestConstants.TEST_SERVICE_ID)
+                .userId(TestConstants.TEST_USER_ID)
+                .consentId(TestConstants.TEST_CONSENT_ID + index)
+                .consentVersion(1)
+                .consentStatus(TestConstants.TEST_CONSENT_STATUS)
+                .consentType(TestConstants.TEST_CONSENT_TYPE)
+                .consentData(TestConstants.TEST_CONSENT_DATA))
+            .toList();
+    }
+
+    private static ApiRequest buildApiRequest(final Map<String, Object> headers) {
+        return new ApiRequest(HttpMethod.GET.name(), "/v1/users/{userId}/consents", "/v1/users/TestUserId/consents",
+            null, null, headers, false, null);
+    }
+
+    private static String gunzip(final String encodedBody) throws IOException {
+        try (InputStream gzipStream = new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(encodedBody)))) {
+            return new String(gzipStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class CloseTrackingOutputStream extends ByteArrayOutputStream {
+        private boolean closed;
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.consentframework.shared.api.infrastructure.entities.ConsentKey;
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeValueType;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+class ServiceIdAttributeConverterTest {
+    private final ServiceIdAttributeConverter converter = new ServiceIdAttributeConverter();
+
+    @Test
+    void transformFrom() {
+        assertEquals(AttributeValue.fromS(TestConstants.TEST_SERVICE_ID), converter.transformFrom(TestConstants.TEST_SERVICE_ID));
+    }
+
+    @Test
+    void transformToInternsServiceId() {
+        final String serviceIdCopy = new String(TestConstants.TEST_SERVICE_ID);
+        assertNotSame(TestConstants.TEST_SERVICE_ID, serviceIdCopy);
+
+        final String serviceId = converter.transformTo(AttributeValue.fromS(serviceIdCopy));
+
+        assertEquals(TestConstants.TEST_SERVICE_ID, serviceId);
+        assertSame(ConsentKey.internServiceId(TestConstants.TEST_SERVICE_ID), serviceId);
+        assertSame(serviceId, converter.transformTo(AttributeValue.fromS(new String(TestConstants.TEST_SERVICE_ID))));
+    }
+
+    @Test
+    void transformWhenNull() {
+        assertNull(converter.transformFrom(null));
+        assertNull(converter.transformTo(null));
+        assertNull(converter.transformTo(AttributeValue.fromNul(true)));
+        assertNull(converter.transformTo(AttributeValue.fromS(null)));
+    }
+
+    @Test
+    void type() {
+        assertEquals(EnhancedType.of(String.class), converter.type());
+        assertEquals(AttributeValueType.S, converter.attributeValueType());
+    }
+}
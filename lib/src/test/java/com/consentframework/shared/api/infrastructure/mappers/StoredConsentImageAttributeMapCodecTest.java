@@ -0,0 +1,111 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.consentframework.shared.api.infrastructure.entities.ConsentImage;
+import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class StoredConsentImageAttributeMapCodecTest {
+    @Test
+    void toAttributeMap() {
+        final Map<String, AttributeValue> attributeMap = StoredConsentImageAttributeMapCodec.toAttributeMap(
+            TestConstants.TEST_STORED_CONSENT);
+
+        assertEquals(AttributeValue.fromS(TestConstants.TEST_PARTITION_KEY), attributeMap.get(StoredConsentImage.JSON_PROPERTY_ID));
+        assertEquals(AttributeValue.fromN("1"), attributeMap.get(StoredConsentImage.JSON_PROPERTY_CONSENT_VERSION));
+        assertEquals(AttributeValue.fromM(Map.of(
+            "testKey1", AttributeValue.fromS("testValue1"),
+            "testKey2", AttributeValue.fromS("testValue2")
+        )), attributeMap.get(StoredConsentImage.JSON_PROPERTY_CONSENT_DATA));
+        assertNull(attributeMap.get(StoredConsentImage.JSON_PROPERTY_EXPIRY_TIME));
+    }
+
+    @Test
+    void toAttributeMapForConsentImageMatchesStoredConsentImage() {
+        final StoredConsentImage consent = TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME;
+        assertEquals(StoredConsentImageAttributeMapCodec.toAttributeMap(consent),
+            StoredConsentImageAttributeMapCodec.toAttributeMap(ConsentImage.fromStoredConsentImage(consent)));
+        assertEquals(StoredConsentImageAttributeMapCodec.toAttributeMap(TestConstants.TEST_STORED_CONSENT),
+            StoredConsentImageAttributeMapCodec.toAttributeMap(ConsentImage.fromStoredConsentImage(TestConstants.TEST_STORED_CONSENT)));
+    }
+
+    @Test
+    void roundTripWithExpiryTime() {
+        final StoredConsentImage consent = TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME;
+        assertEquals(consent, StoredConsentImageAttributeMapCodec.fromAttributeMap(
+            StoredConsentImageAttributeMapCodec.toAttributeMap(consent)));
+    }
+
+    @Test
+    void fromAttributeMapInternsServiceId() {
+        final Map<String, AttributeValue> attributeMap = StoredConsentImageAttributeMapCodec.toAttributeMap(
+            TestConstants.TEST_STORED_CONSENT);
+
+        assertSame(StoredConsentImageAttributeMapCodec.fromAttributeMap(attributeMap).getServiceId(),
+            StoredConsentImageAttributeMapCodec.fromAttributeMap(Map.copyOf(attributeMap)).getServiceId());
+    }
+
+    @Test
+    void roundTripWithNullValues() {
+        final Map<String, String> consentData = new HashMap<>();
+        consentData.put("nullKey", null);
+        final StoredConsentImage consent = new StoredConsentImage().consentData(consentData);
+
+        assertEquals(consent, StoredConsentImageAttributeMapCodec.fromAttributeMap(
+            StoredConsentImageAttributeMapCodec.toAttributeMap(consent)));
+    }
+
+    @Test
+    void fromAttributeMapWhenNullAttributes() {
+        final StoredConsentImage consent = StoredConsentImageAttributeMapCodec.fromAttributeMap(Map.of(
+            StoredConsentImage.JSON_PROPERTY_CONSENT_TYPE, AttributeValue.fromNul(true),
+            StoredConsentImage.JSON_PROPERTY_EXPIRY_TIME, AttributeValue.fromNul(true)
+        ));
+        assertEquals(new StoredConsentImage(), consent);
+    }
+
+    @Test
+    void fromAttributeMapWhenUnrecognizedAttribute() {
+        validateInvalidAttribute("invalidKey", AttributeValue.fromS("value"),
+            "Unrecognized attribute \"invalidKey\" for StoredConsentImage");
+    }
+
+    @Test
+    void fromAttributeMapWhenStringHasWrongType() {
+        validateInvalidAttribute(StoredConsentImage.JSON_PROPERTY_ID, AttributeValue.fromN("1"),
+            "Expected id to be a string attribute");
+    }
+
+    @Test
+    void fromAttributeMapWhenNumberHasWrongType() {
+        validateInvalidAttribute(StoredConsentImage.JSON_PROPERTY_CONSENT_VERSION, AttributeValue.fromS("1"),
+            "Expected consentVersion to be a number attribute");
+    }
+
+    @Test
+    void fromAttributeMapWhenMapHasWrongType() {
+        validateInvalidAttribute(StoredConsentImage.JSON_PROPERTY_CONSENT_DATA, AttributeValue.fromS("{}"),
+            "Expected consentData to be a map attribute");
+    }
+
+    @Test
+    void fromAttributeMapWhenInvalidExpiryTime() {
+        validateInvalidAttribute(StoredConsentImage.JSON_PROPERTY_EXPIRY_TIME, AttributeValue.fromS("2011-10-31"),
+            "Unable to parse expiryTime '2011-10-31'");
+    }
+
+    private void validateInvalidAttribute(final String name, final AttributeValue value, final String expectedMessage) {
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+            StoredConsentImageAttributeMapCodec.fromAttributeMap(Map.of(name, value)));
+        assertEquals(expectedMessage, exception.getMessage());
+    }
+}
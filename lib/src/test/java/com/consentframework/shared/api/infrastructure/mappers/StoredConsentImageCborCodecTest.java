@@ -0,0 +1,59 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consentframework.shared.api.infrastructure.entities.ConsentImage;
+import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+class StoredConsentImageCborCodecTest {
+    @Test
+    void roundTrip() throws Exception {
+        final byte[] bytes = StoredConsentImageCborCodec.toBytes(TestConstants.TEST_STORED_CONSENT);
+        assertEquals(StoredConsentImageCborCodec.FORMAT_VERSION, bytes[0]);
+        assertEquals(TestConstants.TEST_STORED_CONSENT, StoredConsentImageCborCodec.fromBytes(bytes));
+    }
+
+    @Test
+    void roundTripWithExpiryTime() throws Exception {
+        final StoredConsentImage consent = TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME;
+        assertEquals(consent, StoredConsentImageCborCodec.fromBytes(StoredConsentImageCborCodec.toBytes(consent)));
+    }
+
+    @Test
+    void toBytesForConsentImageMatchesStoredConsentImage() throws Exception {
+        final StoredConsentImage consent = TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME;
+        assertArrayEquals(StoredConsentImageCborCodec.toBytes(consent),
+            StoredConsentImageCborCodec.toBytes(ConsentImage.fromStoredConsentImage(consent)));
+    }
+
+    @Test
+    void toBytesSmallerThanJson() throws Exception {
+        final byte[] jsonBytes = StoredConsentImageJsonCodec.toJsonString(TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME)
+            .getBytes(StandardCharsets.UTF_8);
+        final byte[] cborBytes = StoredConsentImageCborCodec.toBytes(TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME);
+        assertTrue(cborBytes.length < jsonBytes.length,
+            String.format("Expected CBOR size %d to be less than JSON size %d", cborBytes.length, jsonBytes.length));
+    }
+
+    @Test
+    void fromBytesWhenEmpty() {
+        final IOException exception = assertThrows(IOException.class, () -> StoredConsentImageCborCodec.fromBytes(new byte[0]));
+        assertEquals("Unsupported consent image format version <empty>", exception.getMessage());
+    }
+
+    @Test
+    void fromBytesWhenUnsupportedVersion() throws Exception {
+        final byte[] bytes = StoredConsentImageCborCodec.toBytes(TestConstants.TEST_STORED_CONSENT);
+        bytes[0] = 99;
+        final IOException exception = assertThrows(IOException.class, () -> StoredConsentImageCborCodec.fromBytes(bytes));
+        assertEquals("Unsupported consent image format version 99", exception.getMessage());
+    }
+}
@@ -0,0 +1,135 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.consentframework.consentmanagement.api.JSON;
+import com.consentframework.shared.api.infrastructure.entities.ConsentImage;
+import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+class StoredConsentImageJsonCodecTest {
+    private static final ObjectMapper OBJECT_MAPPER = new JSON().getMapper();
+    private static final OffsetDateTime TEST_EXPIRY_TIME = OffsetDateTime.of(2011, 10, 31, 20, 51, 12, 20, ZoneOffset.of("-08:00"));
+
+    @ParameterizedTest
+    @MethodSource("consentImages")
+    void toJsonStringMatchesObjectMapper(final StoredConsentImage consent) throws Exception {
+        assertEquals(OBJECT_MAPPER.writeValueAsString(consent), StoredConsentImageJsonCodec.toJsonString(consent));
+    }
+
+    @ParameterizedTest
+    @MethodSource("immutableConsentImages")
+    void toJsonStringForConsentImageMatchesStoredConsentImage(final StoredConsentImage consent) throws Exception {
+        assertEquals(StoredConsentImageJsonCodec.toJsonString(consent),
+            StoredConsentImageJsonCodec.toJsonString(ConsentImage.fromStoredConsentImage(consent)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("consentImages")
+    void fromJsonStringMatchesObjectMapper(final StoredConsentImage consent) throws Exception {
+        final String consentJsonString = OBJECT_MAPPER.writeValueAsString(consent);
+        assertEquals(OBJECT_MAPPER.readValue(consentJsonString, StoredConsentImage.class),
+            StoredConsentImageJsonCodec.fromJsonString(consentJsonString));
+    }
+
+    @Test
+    void fromJsonStringInternsServiceId() throws Exception {
+        final String consentJsonString = StoredConsentImageJsonCodec.toJsonString(TestConstants.TEST_STORED_CONSENT);
+
+        assertSame(StoredConsentImageJsonCodec.fromJsonString(consentJsonString).getServiceId(),
+            StoredConsentImageJsonCodec.fromJsonString(consentJsonString).getServiceId());
+    }
+
+    @Test
+    void fromJsonStringWhenNull() throws Exception {
+        assertNull(StoredConsentImageJsonCodec.fromJsonString("null"));
+    }
+
+    @Test
+    void fromJsonStringWhenScalarValuesForStrings() throws Exception {
+        final String consentJsonString = "{\"id\":1,\"consentStatus\":true,\"consentData\":{\"testKey\":2.5}}";
+        assertEquals(OBJECT_MAPPER.readValue(consentJsonString, StoredConsentImage.class),
+            StoredConsentImageJsonCodec.fromJsonString(consentJsonString));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "[]",
+        "{\"invalidKey\":1}",
+        "{\"id\":{}}",
+        "{\"consentVersion\":\"1\"}",
+        "{\"consentData\":[]}",
+        "{\"expiryTime\":\"2011-10-31\"}",
+        "{\"id\":\"unterminated"
+    })
+    void fromJsonStringWhenInvalid(final String consentJsonString) {
+        assertThrows(JsonProcessingException.class, () -> OBJECT_MAPPER.readValue(consentJsonString, StoredConsentImage.class));
+        assertThrows(IOException.class, () -> StoredConsentImageJsonCodec.fromJsonString(consentJsonString));
+    }
+
+    @Test
+    void toJsonStringWhenNullConsentDataKey() {
+        final Map<String, String> consentData = new HashMap<>();
+        consentData.put(null, "testValue");
+        final StoredConsentImage consent = new StoredConsentImage().consentData(consentData);
+
+        assertThrows(IOException.class, () -> StoredConsentImageJsonCodec.toJsonString(consent));
+    }
+
+    private static Stream<StoredConsentImage> consentImages() {
+        final Map<String, String> consentDataWithNullValue = new HashMap<>();
+        consentDataWithNullValue.put("nullKey", null);
+        consentDataWithNullValue.put("escaped\"\\\nKey", "unicodeé Value");
+
+        return Stream.of(
+            TestConstants.TEST_STORED_CONSENT,
+            new StoredConsentImage(),
+            new StoredConsentImage().consentData(null),
+            new StoredConsentImage().consentData(Map.of()),
+            cloneStoredConsentImage(TestConstants.TEST_STORED_CONSENT)
+                .consentData(consentDataWithNullValue)
+                .expiryHour(DynamoDbConsentExpiryTimeConverter.toExpiryHour(TEST_EXPIRY_TIME))
+                .expiryTime(TEST_EXPIRY_TIME)
+                .expiryTimeId(DynamoDbConsentExpiryTimeConverter.toExpiryTimeId(TEST_EXPIRY_TIME, TestConstants.TEST_PARTITION_KEY))
+        );
+    }
+
+    private static Stream<StoredConsentImage> immutableConsentImages() {
+        return Stream.of(
+            TestConstants.TEST_STORED_CONSENT,
+            TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME,
+            cloneStoredConsentImage(TestConstants.TEST_STORED_CONSENT).consentType(null).consentData(null),
+            cloneStoredConsentImage(TestConstants.TEST_STORED_CONSENT)
+                .consentData(Map.of("escaped\"\\\nKey", "unicodeé Value"))
+                .expiryTime(TEST_EXPIRY_TIME)
+        );
+    }
+
+    private static StoredConsentImage cloneStoredConsentImage(final StoredConsentImage originalConsent) {
+        return new StoredConsentImage()
+            .id(originalConsent.getId())
+            .serviceId(originalConsent.getServiceId())
+            .userId(originalConsent.getUserId())
+            .consentId(originalConsent.getConsentId())
+            .consentVersion(originalConsent.getConsentVersion())
+            .consentStatus(originalConsent.getConsentStatus())
+            .consentType(originalConsent.getConsentType())
+            .consentData(originalConsent.getConsentData());
+    }
+}
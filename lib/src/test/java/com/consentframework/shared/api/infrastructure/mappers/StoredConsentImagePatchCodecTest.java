@@ -0,0 +1,123 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+class StoredConsentImagePatchCodecTest {
+    private static final OffsetDateTime TEST_EXPIRY_TIME = OffsetDateTime.of(2011, 10, 31, 20, 51, 12, 0, ZoneOffset.UTC);
+
+    @ParameterizedTest
+    @MethodSource("imagePairs")
+    void applyMergePatchRebuildsNewImage(final StoredConsentImage oldImage, final StoredConsentImage newImage) throws Exception {
+        final StoredConsentImage oldImageCopy = copyOf(oldImage);
+        final String mergePatch = StoredConsentImagePatchCodec.toMergePatch(oldImage, newImage);
+
+        assertEquals(newImage, StoredConsentImagePatchCodec.applyMergePatch(oldImage, mergePatch));
+        assertEquals(oldImageCopy, oldImage);
+    }
+
+    @Test
+    void toMergePatchWritesOnlyChangedFields() throws Exception {
+        final StoredConsentImage newImage = copyOf(TestConstants.TEST_STORED_CONSENT).consentVersion(2).consentStatus("REVOKED");
+
+        assertEquals("{\"consentVersion\":2,\"consentStatus\":\"REVOKED\"}",
+            StoredConsentImagePatchCodec.toMergePatch(TestConstants.TEST_STORED_CONSENT, newImage));
+        assertEquals("{}", StoredConsentImagePatchCodec.toMergePatch(TestConstants.TEST_STORED_CONSENT, TestConstants.TEST_STORED_CONSENT));
+    }
+
+    @Test
+    void toMergePatchWritesChangedConsentDataKeys() throws Exception {
+        final StoredConsentImage newImage = copyOf(TestConstants.TEST_STORED_CONSENT)
+            .consentData(Map.of("testKey1", "testValue1", "testKey3", "testValue3"));
+
+        assertEquals("{\"consentData\":{\"testKey3\":\"testValue3\",\"testKey2\":null}}",
+            StoredConsentImagePatchCodec.toMergePatch(TestConstants.TEST_STORED_CONSENT, newImage));
+    }
+
+    @Test
+    void canPatch() {
+        final Map<String, String> consentDataWithNullValue = new HashMap<>();
+        consentDataWithNullValue.put("nullKey", null);
+
+        assertTrue(StoredConsentImagePatchCodec.canPatch(TestConstants.TEST_STORED_CONSENT,
+            TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME));
+        assertTrue(StoredConsentImagePatchCodec.canPatch(TestConstants.TEST_STORED_CONSENT,
+            copyOf(TestConstants.TEST_STORED_CONSENT).consentData(null)));
+        assertFalse(StoredConsentImagePatchCodec.canPatch(null, TestConstants.TEST_STORED_CONSENT));
+        assertFalse(StoredConsentImagePatchCodec.canPatch(TestConstants.TEST_STORED_CONSENT, null));
+        assertFalse(StoredConsentImagePatchCodec.canPatch(TestConstants.TEST_STORED_CONSENT,
+            copyOf(TestConstants.TEST_STORED_CONSENT).id("OtherServiceId|OtherUserId|OtherConsentId")));
+        assertFalse(StoredConsentImagePatchCodec.canPatch(TestConstants.TEST_STORED_CONSENT,
+            copyOf(TestConstants.TEST_STORED_CONSENT).consentData(consentDataWithNullValue)));
+    }
+
+    @Test
+    void applyMergePatchInternsServiceId() throws Exception {
+        final StoredConsentImage consent = StoredConsentImagePatchCodec.applyMergePatch(TestConstants.TEST_STORED_CONSENT,
+            "{\"serviceId\":\"" + new String(TestConstants.TEST_SERVICE_ID) + "\"}");
+        assertSame(TestConstants.TEST_STORED_CONSENT.getConsentKey().serviceId(), consent.getServiceId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "[]",
+        "{\"unknownField\":\"value\"}",
+        "{\"consentData\":\"value\"}",
+        "{\"consentVersion\":\"2\"}",
+        "{\"consentStatus\":{}}"
+    })
+    void applyMergePatchWhenInvalid(final String mergePatch) {
+        assertThrows(IOException.class, () -> StoredConsentImagePatchCodec.applyMergePatch(TestConstants.TEST_STORED_CONSENT, mergePatch));
+    }
+
+    private static Stream<Arguments> imagePairs() {
+        final StoredConsentImage consent = TestConstants.TEST_STORED_CONSENT;
+        final StoredConsentImage consentWithExpiryTime = TestConstants.TEST_STORED_CONSENT_WITH_EXPIRY_TIME;
+        return Stream.of(
+            Arguments.of(consent, copyOf(consent).consentVersion(2).consentStatus("REVOKED")),
+            Arguments.of(consent, consentWithExpiryTime),
+            Arguments.of(consentWithExpiryTime, consent),
+            Arguments.of(consentWithExpiryTime, copyOf(consentWithExpiryTime).expiryTime(TEST_EXPIRY_TIME.plusHours(1))),
+            Arguments.of(consent, copyOf(consent).consentData(Map.of("testKey1", "updatedValue", "testKey3", "testValue3"))),
+            Arguments.of(consent, copyOf(consent).consentData(Map.of())),
+            Arguments.of(consent, copyOf(consent).consentData(null)),
+            Arguments.of(copyOf(consent).consentData(null), consent),
+            Arguments.of(consent, copyOf(consent).consentType(null).consentVersion(null)),
+            Arguments.of(new StoredConsentImage(), copyOf(consent).id(null)),
+            Arguments.of(consent, consent)
+        );
+    }
+
+    private static StoredConsentImage copyOf(final StoredConsentImage consent) {
+        return new StoredConsentImage()
+            .id(consent.getId())
+            .consentId(consent.getConsentId())
+            .consentVersion(consent.getConsentVersion())
+            .userId(consent.getUserId())
+            .serviceId(consent.getServiceId())
+            .consentStatus(consent.getConsentStatus())
+            .consentType(consent.getConsentType())
+            .consentData(consent.getConsentData())
+            .expiryHour(consent.getExpiryHour())
+            .expiryTime(consent.getExpiryTime())
+            .expiryTimeId(consent.getExpiryTimeId());
+    }
+}
@@ -0,0 +1,131 @@
+package com.consentframework.shared.api.infrastructure.mappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+class UtcTimestampFormatTest {
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DynamoDbConsentExpiryTimeConverter.EXPIRY_TIME_FORMATTER;
+    private static final DateTimeFormatter HOUR_FORMATTER = DynamoDbConsentExpiryTimeConverter.EXPIRY_HOUR_FORMATTER;
+    private static final int RANDOM_SAMPLES = 200_000;
+
+    @Test
+    void supportedRangeBoundaries() {
+        assertEquals(OffsetDateTime.of(1, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).toEpochSecond(), UtcTimestampFormat.MIN_EPOCH_SECOND);
+        assertEquals(OffsetDateTime.of(9999, 12, 31, 23, 59, 59, 0, ZoneOffset.UTC).toEpochSecond(), UtcTimestampFormat.MAX_EPOCH_SECOND);
+        assertTrue(UtcTimestampFormat.isSupported(UtcTimestampFormat.MIN_EPOCH_SECOND));
+        assertTrue(UtcTimestampFormat.isSupported(UtcTimestampFormat.MAX_EPOCH_SECOND));
+        assertFalse(UtcTimestampFormat.isSupported(UtcTimestampFormat.MIN_EPOCH_SECOND - 1));
+        assertFalse(UtcTimestampFormat.isSupported(UtcTimestampFormat.MAX_EPOCH_SECOND + 1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {
+        0L, -1L, 1L, 86399L, 86400L, -86400L, -86401L,
+        951782400L, 951868800L, 4107542400L, 4107456000L,
+        -62135596800L, 253402300799L, 1330473600L, 1798761599L
+    })
+    void formatMatchesDateTimeFormatterAtBoundaries(final long epochSecond) {
+        validateFormatMatchesDateTimeFormatter(epochSecond);
+    }
+
+    @Test
+    void formatMatchesDateTimeFormatterForRandomTimestamps() {
+        final Random random = new Random(20261231L);
+        for (int sample = 0; sample < RANDOM_SAMPLES; sample++) {
+            final long epochSecond = UtcTimestampFormat.MIN_EPOCH_SECOND
+                + Math.floorMod(random.nextLong(), UtcTimestampFormat.MAX_EPOCH_SECOND - UtcTimestampFormat.MIN_EPOCH_SECOND + 1);
+            validateFormatMatchesDateTimeFormatter(epochSecond);
+        }
+    }
+
+    @Test
+    void formatMatchesDateTimeFormatterForEveryDayAroundNow() {
+        final long startEpochSecond = OffsetDateTime.of(1999, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).toEpochSecond();
+        for (long epochSecond = startEpochSecond; epochSecond < startEpochSecond + 120L * 365 * 86400; epochSecond += 86400 + 3601) {
+            validateFormatMatchesDateTimeFormatter(epochSecond);
+        }
+    }
+
+    @Test
+    void formatTimestampWithSuffix() {
+        assertEquals("1970-01-01T00:00:00Z|Service|Üser", UtcTimestampFormat.formatTimestampWithSuffix(0L, '|', "Service|Üser"));
+    }
+
+    @Test
+    void writeTimestampAtOffset() {
+        final char[] chars = "[                    ]".toCharArray();
+        UtcTimestampFormat.writeTimestamp(1798761599L, chars, 1);
+        assertEquals("[2026-12-31T23:59:59Z]", new String(chars));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {-62135596801L, 253402300800L, Long.MIN_VALUE, Long.MAX_VALUE})
+    void formatWhenUnsupported(final long epochSecond) {
+        assertThrows(IllegalArgumentException.class, () -> UtcTimestampFormat.formatTimestamp(epochSecond));
+        assertThrows(IllegalArgumentException.class, () -> UtcTimestampFormat.formatHour(epochSecond));
+    }
+
+    @Test
+    void parseAtOffset() {
+        assertEquals(1798761599L, UtcTimestampFormat.parseTimestamp("id=2026-12-31T23:59:59Z|suffix", 3));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "",
+        "2026-12-31T23:59:59",
+        "2026-12-31T23:59:59+00:00",
+        "2026-12-31 23:59:59Z",
+        "2026/12/31T23:59:59Z",
+        "2026-12-31T23.59:59Z",
+        "2026-12-31T23:59.59Z",
+        "2026-12+31T23:59:59Z",
+        "2026-12-31T23:59:5aZ",
+        "0000-01-01T00:00:00Z",
+        "2026-00-01T00:00:00Z",
+        "2026-13-01T00:00:00Z",
+        "2026-01-00T00:00:00Z",
+        "2026-02-29T00:00:00Z",
+        "2100-02-29T00:00:00Z",
+        "2026-04-31T00:00:00Z",
+        "2026-12-32T00:00:00Z",
+        "2026-12-31T24:00:00Z",
+        "2026-12-31T23:60:00Z",
+        "2026-12-31T23:59:60Z",
+        "-026-12-31T23:59:59Z"
+    })
+    void parseWhenNotParseable(final String text) {
+        assertEquals(UtcTimestampFormat.NOT_PARSEABLE, UtcTimestampFormat.parseTimestamp(text, 0));
+    }
+
+    @Test
+    void parseWhenNegativeOffset() {
+        assertEquals(UtcTimestampFormat.NOT_PARSEABLE, UtcTimestampFormat.parseTimestamp("2026-12-31T23:59:59Z", -1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2000-02-29T12:00:00Z", "2024-02-29T00:00:00Z", "1600-02-29T23:59:59Z", "2026-11-30T00:00:00Z"})
+    void parseLeapDaysAndMonthEnds(final String text) {
+        assertEquals(OffsetDateTime.parse(text).toEpochSecond(), UtcTimestampFormat.parseTimestamp(text, 0));
+    }
+
+    private static void validateFormatMatchesDateTimeFormatter(final long epochSecond) {
+        final LocalDateTime dateTime = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        final String expectedTimestamp = TIMESTAMP_FORMATTER.format(dateTime);
+        assertEquals(expectedTimestamp, UtcTimestampFormat.formatTimestamp(epochSecond));
+        assertEquals(HOUR_FORMATTER.format(dateTime), UtcTimestampFormat.formatHour(epochSecond));
+        assertEquals(epochSecond, UtcTimestampFormat.parseTimestamp(expectedTimestamp, 0));
+    }
+}
@@ -0,0 +1,228 @@
+package com.consentframework.shared.api.infrastructure.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consentframework.shared.api.domain.exceptions.BadRequestException;
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+class DynamoDbPageTokenCodecTest {
+    private static final Map<String, AttributeValue> TEST_KEY = Map.of(
+        "id", AttributeValue.fromS(TestConstants.TEST_PARTITION_KEY),
+        "eventNumber", AttributeValue.fromN("42"),
+        "checksum", AttributeValue.fromB(SdkBytes.fromByteArray(new byte[] {1, 2, -3}))
+    );
+    private static final Map<String, AttributeValue> TEST_SMALL_KEY = Map.of("id", AttributeValue.fromS("a"));
+
+    private final DynamoDbPageTokenCodec codec = new DynamoDbPageTokenCodec(TestConstants.TEST_PAGE_TOKEN_SIGNING_KEY);
+
+    @Test
+    void roundTrip() throws Exception {
+        final String pageToken = codec.encode(TEST_KEY);
+        assertTrue(pageToken.matches("[A-Za-z0-9_-]+"), "Expected URL-safe page token but was " + pageToken);
+        assertEquals(TEST_KEY, codec.decode(pageToken));
+    }
+
+    @Test
+    void encodeWhenSmallKey() throws Exception {
+        final String pageToken = codec.encode(TEST_SMALL_KEY);
+        assertEquals(DynamoDbPageTokenCodec.FORMAT_JSON, Base64.getUrlDecoder().decode(pageToken)[0]);
+        assertEquals(TEST_SMALL_KEY, codec.decode(pageToken));
+    }
+
+    @Test
+    void encodeWhenCompressibleKey() throws Exception {
+        final Map<String, AttributeValue> key = Map.of("id", AttributeValue.fromS("TestServiceId|".repeat(20)));
+        final String deflatedPageToken = codec.encode(key);
+        final String uncompressedPageToken = new DynamoDbPageTokenCodec(TestConstants.TEST_PAGE_TOKEN_SIGNING_KEY, false).encode(key);
+
+        assertEquals(DynamoDbPageTokenCodec.FORMAT_DEFLATED_JSON, Base64.getUrlDecoder().decode(deflatedPageToken)[0]);
+        assertEquals(DynamoDbPageTokenCodec.FORMAT_JSON, Base64.getUrlDecoder().decode(uncompressedPageToken)[0]);
+        assertTrue(deflatedPageToken.length() < uncompressedPageToken.length());
+        assertEquals(key, codec.decode(deflatedPageToken));
+        assertEquals(key, codec.decode(uncompressedPageToken));
+    }
+
+    @Test
+    void encodeWhenIncompressibleKey() throws Exception {
+        final Random random = new Random(0);
+        final StringBuilder randomValue = new StringBuilder();
+        random.ints(64, 'A', 'z' + 1).forEach(character -> randomValue.append((char) character));
+        final Map<String, AttributeValue> key = Map.of("id", AttributeValue.fromS(randomValue.toString()));
+
+        final String pageToken = codec.encode(key);
+        assertEquals(DynamoDbPageTokenCodec.FORMAT_JSON, Base64.getUrlDecoder().decode(pageToken)[0]);
+        assertEquals(key, codec.decode(pageToken));
+    }
+
+    @Test
+    void encodeWhenUnsupportedKeyType() {
+        final Map<String, AttributeValue> key = Map.of("id", AttributeValue.fromBool(true));
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> codec.encode(key));
+        assertEquals("Unsupported id key attribute type BOOL", exception.getMessage());
+    }
+
+    @Test
+    void concurrentRoundTrips() {
+        IntStream.range(0, 1000).parallel().forEach(index -> {
+            final Map<String, AttributeValue> key = Map.of("id", AttributeValue.fromS("TestConsentId" + index));
+            try {
+                assertEquals(key, codec.decode(codec.encode(key)));
+            } catch (final BadRequestException e) {
+                throw new AssertionError(e);
+            }
+        });
+    }
+
+    @Test
+    void concurrentDeflatedRoundTripsOnVirtualThreads() throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Boolean>> roundTrips = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int index = 0; index < 200; index++) {
+                final Map<String, AttributeValue> key = Map.of("id", AttributeValue.fromS("TestServiceId|".repeat(20) + index));
+                roundTrips.add(executor.submit(() -> {
+                    start.await();
+                    final String pageToken = codec.encode(key);
+                    return Base64.getUrlDecoder().decode(pageToken)[0] == DynamoDbPageTokenCodec.FORMAT_DEFLATED_JSON
+                        && key.equals(codec.decode(pageToken));
+                }));
+            }
+            start.countDown();
+            for (final Future<Boolean> roundTrip : roundTrips) {
+                assertTrue(roundTrip.get());
+            }
+        }
+    }
+
+    @Test
+    void constructWhenSigningKeyTooShort() {
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+            new DynamoDbPageTokenCodec(new byte[DynamoDbPageTokenCodec.MIN_SIGNING_KEY_LENGTH - 1]));
+        assertEquals("Page token signing key must be at least 32 bytes", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new DynamoDbPageTokenCodec(null));
+    }
+
+    @Test
+    void decodeWhenNullOrEmpty() {
+        validateInvalidPageToken(null);
+        validateInvalidPageToken("");
+    }
+
+    @Test
+    void decodeWhenTooLong() {
+        validateInvalidPageToken("A".repeat(DynamoDbPageTokenCodec.MAX_PAGE_TOKEN_LENGTH + 1));
+    }
+
+    @Test
+    void decodeWhenNotBase64() {
+        validateInvalidPageToken("not*base64");
+    }
+
+    @Test
+    void decodeWhenTooShort() {
+        validateInvalidPageToken(Base64.getUrlEncoder().encodeToString(new byte[DynamoDbPageTokenCodec.TAG_LENGTH + 1]));
+    }
+
+    @Test
+    void decodeWhenTampered() {
+        final byte[] token = Base64.getUrlDecoder().decode(codec.encode(TEST_KEY));
+        for (int index = 0; index < token.length; index++) {
+            final byte[] tamperedToken = token.clone();
+            tamperedToken[index] ^= 1;
+            validateInvalidPageToken(Base64.getUrlEncoder().encodeToString(tamperedToken));
+        }
+    }
+
+    @Test
+    void decodeWhenSignedWithDifferentKey() {
+        final byte[] otherSigningKey = TestConstants.TEST_PAGE_TOKEN_SIGNING_KEY.clone();
+        otherSigningKey[0] ^= 1;
+        validateInvalidPageToken(new DynamoDbPageTokenCodec(otherSigningKey).encode(TEST_KEY));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "{}",
+        "[]",
+        "{\"id\":\"value\"}",
+        "{\"id\":{}}",
+        "{\"id\":{\"S\":1}}",
+        "{\"id\":{\"BOOL\":\"true\"}}",
+        "{\"id\":{\"S\":\"a\",\"N\":\"1\"}}",
+        "{\"id\":{\"B\":\"not*base64\"}}",
+        "{\"id\":{\"S\":\"unterminated"
+    })
+    void decodeWhenSignedInvalidContent(final String tokenContent) {
+        validateInvalidPageToken(sign(DynamoDbPageTokenCodec.FORMAT_JSON, tokenContent.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void decodeWhenSignedUnsupportedFormat() {
+        validateInvalidPageToken(sign((byte) 9, "{\"id\":{\"S\":\"a\"}}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void decodeWhenSignedInvalidDeflatedPayload() {
+        validateInvalidPageToken(sign(DynamoDbPageTokenCodec.FORMAT_DEFLATED_JSON, new byte[] {-1, -1, -1, -1}));
+    }
+
+    @Test
+    void decodeWhenSignedOversizedDeflatedPayload() {
+        final byte[] oversizedPayload = ("{\"id\":{\"S\":\"" + "a".repeat(4 * DynamoDbPageTokenCodec.MAX_PAGE_TOKEN_LENGTH) + "\"}}")
+            .getBytes(StandardCharsets.UTF_8);
+        validateInvalidPageToken(sign(DynamoDbPageTokenCodec.FORMAT_DEFLATED_JSON, deflate(oversizedPayload)));
+    }
+
+    private void validateInvalidPageToken(final String pageToken) {
+        final BadRequestException exception = assertThrows(BadRequestException.class, () -> codec.decode(pageToken));
+        assertEquals(DynamoDbPageTokenCodec.INVALID_PAGE_TOKEN_MESSAGE, exception.getMessage());
+    }
+
+    private static String sign(final byte format, final byte[] payload) {
+        try {
+            final Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(TestConstants.TEST_PAGE_TOKEN_SIGNING_KEY, "HmacSHA256"));
+            final byte[] token = new byte[1 + payload.length + DynamoDbPageTokenCodec.TAG_LENGTH];
+            token[0] = format;
+            System.arraycopy(payload, 0, token, 1, payload.length);
+            mac.update(token, 0, 1 + payload.length);
+            System.arraycopy(mac.doFinal(), 0, token, 1 + payload.length, DynamoDbPageTokenCodec.TAG_LENGTH);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+        } catch (final Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static byte[] deflate(final byte[] payload) {
+        final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        deflater.setInput(payload);
+        deflater.finish();
+        final byte[] buffer = new byte[payload.length];
+        final int length = deflater.deflate(buffer);
+        deflater.end();
+        return Arrays.copyOf(buffer, length);
+    }
+}
@@ -0,0 +1,91 @@
+package com.consentframework.shared.api.infrastructure.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consentframework.shared.api.domain.exceptions.BadRequestException;
+import com.consentframework.shared.api.domain.pagination.ListPage;
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class DynamoDbQueryPaginatorTest {
+    private static final List<String> ALL_RESULTS = List.of("a", "b", "c", "d", "e");
+    private static final DynamoDbPageTokenCodec PAGE_TOKEN_CODEC = new DynamoDbPageTokenCodec(TestConstants.TEST_PAGE_TOKEN_SIGNING_KEY);
+    private static final QueryEnhancedRequest QUERY_REQUEST = QueryEnhancedRequest.builder()
+        .queryConditional(QueryConditional.keyEqualTo(Key.builder().partitionValue("TestUserId").build()))
+        .build();
+
+    private final List<QueryEnhancedRequest> receivedRequests = new ArrayList<>();
+    private final DynamoDbQueryPaginator<String> paginator = new DynamoDbQueryPaginator<String>(this::query, PAGE_TOKEN_CODEC);
+
+    @Test
+    void getSinglePageWithoutLimitOrPageToken() throws BadRequestException {
+        final ListPage<String> page = paginator.getSinglePage(QUERY_REQUEST, null, null);
+        assertEquals(ALL_RESULTS, page.resultsOnPage());
+        assertTrue(page.nextPageToken().isEmpty());
+        assertNull(receivedRequests.get(0).limit());
+        assertNull(receivedRequests.get(0).exclusiveStartKey());
+    }
+
+    @Test
+    void getAllPagesWithLimit() throws BadRequestException {
+        final List<String> retrievedResults = new ArrayList<>();
+        String pageToken = null;
+        do {
+            final ListPage<String> page = paginator.getSinglePage(QUERY_REQUEST, 2, pageToken);
+            assertTrue(page.resultsOnPage().size() <= 2);
+            retrievedResults.addAll(page.resultsOnPage());
+            pageToken = page.nextPageToken().orElse(null);
+        } while (pageToken != null);
+
+        assertEquals(ALL_RESULTS, retrievedResults);
+        assertEquals(3, receivedRequests.size());
+        assertEquals(Map.of("id", AttributeValue.fromS("d")), receivedRequests.get(2).exclusiveStartKey());
+        assertEquals(QUERY_REQUEST.queryConditional(), receivedRequests.get(2).queryConditional());
+    }
+
+    @Test
+    void getSinglePageWhenNoPages() throws BadRequestException {
+        final DynamoDbQueryPaginator<String> emptyPaginator = new DynamoDbQueryPaginator<String>(
+            request -> List.<Page<String>>of()::iterator, PAGE_TOKEN_CODEC);
+        final ListPage<String> page = emptyPaginator.getSinglePage(QUERY_REQUEST, 2, null);
+        assertTrue(page.resultsOnPage().isEmpty());
+        assertTrue(page.nextPageToken().isEmpty());
+    }
+
+    @Test
+    void getSinglePageWhenInvalidPageToken() {
+        assertThrows(BadRequestException.class, () -> paginator.getSinglePage(QUERY_REQUEST, 2, "InvalidPageToken"));
+        assertTrue(receivedRequests.isEmpty());
+    }
+
+    /**
+     * Simulate a DynamoDB Query over ALL_RESULTS with "id" as the sort key.
+     */
+    private SdkIterable<Page<String>> query(final QueryEnhancedRequest request) {
+        receivedRequests.add(request);
+        final int startIndex = (request.exclusiveStartKey() == null)
+            ? 0
+            : ALL_RESULTS.indexOf(request.exclusiveStartKey().get("id").s()) + 1;
+        final int endIndex = (request.limit() == null) ? ALL_RESULTS.size() : Math.min(startIndex + request.limit(), ALL_RESULTS.size());
+        final List<String> items = ALL_RESULTS.subList(startIndex, endIndex);
+        final Page.Builder<String> pageBuilder = Page.builder(String.class).items(items);
+        if (endIndex < ALL_RESULTS.size()) {
+            pageBuilder.lastEvaluatedKey(Map.of("id", AttributeValue.fromS(items.get(items.size() - 1))));
+        }
+        final Page<String> page = pageBuilder.build();
+        return () -> List.of(page).iterator();
+    }
+}
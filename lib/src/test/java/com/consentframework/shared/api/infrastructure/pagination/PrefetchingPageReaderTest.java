@@ -0,0 +1,108 @@
+package com.consentframework.shared.api.infrastructure.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class PrefetchingPageReaderTest {
+    @Test
+    void nextPageReturnsPagesInOrderSkippingEmptyPages() throws Exception {
+        final PrefetchingPageReader<String> reader = new PrefetchingPageReader<>(sink -> {
+            sink.put(List.of("a", "b"));
+            sink.put(List.of());
+            sink.put(List.of("c"));
+        }, 1);
+        Thread.ofVirtual().start(reader);
+
+        assertEquals(List.of("a", "b"), reader.nextPage());
+        assertEquals(List.of("c"), reader.nextPage());
+        assertEquals(List.of(), reader.nextPage());
+        assertEquals(List.of(), reader.nextPage());
+    }
+
+    @Test
+    void nextPageThrowsFailureAfterEarlierPages() throws Exception {
+        final IllegalStateException failure = new IllegalStateException("Query failed");
+        final PrefetchingPageReader<String> reader = new PrefetchingPageReader<>(sink -> {
+            sink.put(List.of("a"));
+            throw failure;
+        }, 2);
+        reader.run();
+
+        assertEquals(List.of("a"), reader.nextPage());
+        assertSame(failure, assertThrows(IllegalStateException.class, reader::nextPage));
+        assertEquals(List.of(), reader.nextPage());
+    }
+
+    @Test
+    void closeInterruptsBlockedProducer() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final PrefetchingPageReader<String> reader = new PrefetchingPageReader<>(sink -> {
+            sink.put(List.of("a"));
+            blocked.countDown();
+            try {
+                sink.put(List.of("b"));
+            } catch (final InterruptedException e) {
+                interrupted.set(true);
+                throw e;
+            }
+        }, 1);
+        final Thread producer = Thread.ofVirtual().start(reader);
+        assertTrue(blocked.await(10, TimeUnit.SECONDS));
+
+        reader.close();
+
+        assertTrue(producer.join(Duration.ofSeconds(10)));
+        assertTrue(interrupted.get());
+        assertEquals(List.of(), reader.nextPage());
+    }
+
+    @Test
+    void closeWakesWaitingConsumer() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final PrefetchingPageReader<String> reader = new PrefetchingPageReader<>(sink -> release.await(), 1);
+        final Thread producer = Thread.ofVirtual().start(reader);
+        final Thread consumer = Thread.ofVirtual().start(() -> {
+            try {
+                assertEquals(List.of(), reader.nextPage());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        reader.close();
+
+        assertTrue(consumer.join(Duration.ofSeconds(10)));
+        assertTrue(producer.join(Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void runAfterCloseDoesNotReadPages() throws Exception {
+        final AtomicBoolean read = new AtomicBoolean();
+        final PrefetchingPageReader<String> reader = new PrefetchingPageReader<>(sink -> read.set(true), 1);
+
+        reader.close();
+        reader.run();
+
+        assertFalse(read.get());
+        assertEquals(List.of(), reader.nextPage());
+    }
+
+    @Test
+    void constructWithInvalidPrefetchPages() {
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> new PrefetchingPageReader<String>(sink -> { }, 0));
+        assertEquals("prefetchPages must be positive, got 0", exception.getMessage());
+    }
+}
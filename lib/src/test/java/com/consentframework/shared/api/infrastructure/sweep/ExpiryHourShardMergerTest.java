@@ -0,0 +1,118 @@
+package com.consentframework.shared.api.infrastructure.sweep;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbActiveConsentWithExpiryTime;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+class ExpiryHourShardMergerTest {
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Test
+    void nextPageMergesShardsInExpiryTimeIdOrder() throws InterruptedException {
+        final List<DynamoDbActiveConsentWithExpiryTime> shard0 = buildItems("2026-12-31T23:00Z#00", 0, 3, 6, 9, 12, 15);
+        final List<DynamoDbActiveConsentWithExpiryTime> shard1 = buildItems("2026-12-31T23:00Z#01", 1, 2, 4);
+        final List<DynamoDbActiveConsentWithExpiryTime> shard2 = buildItems("2026-12-31T23:00Z#02", 5, 7, 8, 10, 11, 13, 14);
+        final ExpiryHourShardMerger shardMerger = new ExpiryHourShardMerger(
+            List.of(toPages(shard0, 2), toPages(shard1, 1), toPages(shard2, 4), toPages(List.of(), 1)), 4, executor);
+
+        final List<DynamoDbActiveConsentWithExpiryTime> mergedItems = new ArrayList<>();
+        for (List<DynamoDbActiveConsentWithExpiryTime> page = shardMerger.nextPage(); !page.isEmpty(); page = shardMerger.nextPage()) {
+            assertTrue(page.size() <= 4);
+            mergedItems.addAll(page);
+        }
+
+        final List<DynamoDbActiveConsentWithExpiryTime> expectedItems = new ArrayList<>(shard0);
+        expectedItems.addAll(shard1);
+        expectedItems.addAll(shard2);
+        expectedItems.sort(Comparator.comparing(DynamoDbActiveConsentWithExpiryTime::expiryTimeId));
+        assertEquals(expectedItems, mergedItems);
+        assertTrue(shardMerger.nextPage().isEmpty());
+    }
+
+    @Test
+    void nextPageWithoutShards() throws InterruptedException {
+        assertTrue(new ExpiryHourShardMerger(List.of(), 4, executor).nextPage().isEmpty());
+    }
+
+    @Test
+    void constructWhenFirstShardPageFails() {
+        final IllegalStateException exception = assertThrows(IllegalStateException.class, () -> new ExpiryHourShardMerger(
+            List.of(toPages(buildItems("2026-12-31T23:00Z#00", 0, 1), 1), toFailingPages(List.of())), 4, executor));
+        assertEquals("Simulated Query failure", exception.getMessage());
+    }
+
+    @Test
+    void nextPageWhenLaterShardPageFails() throws InterruptedException {
+        final ExpiryHourShardMerger shardMerger = new ExpiryHourShardMerger(List.of(
+            toPages(buildItems("2026-12-31T23:00Z#00", 0, 2, 4), 1),
+            toFailingPages(buildItems("2026-12-31T23:00Z#01", 1, 3))), 2, executor);
+
+        assertEquals(2, shardMerger.nextPage().size());
+        final IllegalStateException exception = assertThrows(IllegalStateException.class, shardMerger::nextPage);
+        assertEquals("Simulated Query failure", exception.getMessage());
+    }
+
+    private static List<DynamoDbActiveConsentWithExpiryTime> buildItems(final String expiryHour, final int... minutes) {
+        final List<DynamoDbActiveConsentWithExpiryTime> items = new ArrayList<>();
+        for (final int minute : minutes) {
+            final String id = "TestServiceId|TestUserId|TestConsentId" + minute;
+            items.add(DynamoDbActiveConsentWithExpiryTime.builder()
+                .id(id)
+                .expiryHour(expiryHour)
+                .expiryTimeId(String.format("2026-12-31T23:%02d:00Z|%s", minute, id))
+                .consentVersion(1)
+                .build());
+        }
+        return items;
+    }
+
+    private static SdkIterable<Page<DynamoDbActiveConsentWithExpiryTime>> toPages(final List<DynamoDbActiveConsentWithExpiryTime> items,
+            final int pageSize) {
+        final List<Page<DynamoDbActiveConsentWithExpiryTime>> pages = new ArrayList<>();
+        for (int startIndex = 0; startIndex < items.size(); startIndex += pageSize) {
+            pages.add(Page.builder(DynamoDbActiveConsentWithExpiryTime.class)
+                .items(items.subList(startIndex, Math.min(startIndex + pageSize, items.size())))
+                .build());
+        }
+        return pages::iterator;
+    }
+
+    /**
+     * Return a single page of items, followed by a failure reading the next page.
+     */
+    private static SdkIterable<Page<DynamoDbActiveConsentWithExpiryTime>> toFailingPages(
+            final List<DynamoDbActiveConsentWithExpiryTime> items) {
+        final Page<DynamoDbActiveConsentWithExpiryTime> firstPage = Page.builder(DynamoDbActiveConsentWithExpiryTime.class)
+            .items(items)
+            .build();
+        return () -> new Iterator<>() {
+            private boolean hasReadFirstPage = items.isEmpty();
+
+            @Override
+            public boolean hasNext() {
+                if (hasReadFirstPage) {
+                    throw new IllegalStateException("Simulated Query failure");
+                }
+                return true;
+            }
+
+            @Override
+            public Page<DynamoDbActiveConsentWithExpiryTime> next() {
+                hasReadFirstPage = true;
+                return firstPage;
+            }
+        };
+    }
+}
@@ -0,0 +1,300 @@
+package com.consentframework.shared.api.infrastructure.sweep;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbActiveConsentWithExpiryTime;
+import com.consentframework.shared.api.infrastructure.mappers.DynamoDbConsentExpiryTimeConverter;
+import com.consentframework.shared.api.testcommon.infrastructure.InMemoryExpiryHourIndex;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ExpiryHourSweeperTest {
+    private static final OffsetDateTime WINDOW_START = OffsetDateTime.of(2026, 12, 31, 20, 0, 0, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime WINDOW_END = WINDOW_START.plusHours(5);
+    private static final TableSchema<DynamoDbActiveConsentWithExpiryTime> TABLE_SCHEMA =
+        TableSchema.fromImmutableClass(DynamoDbActiveConsentWithExpiryTime.class);
+
+    private final InMemoryExpiryHourIndex index = new InMemoryExpiryHourIndex();
+    private final InMemoryCheckpointStore checkpointStore = new InMemoryCheckpointStore();
+    private final List<List<DynamoDbActiveConsentWithExpiryTime>> handledBatches = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void sweepHandsBatchesInExpiryTimeOrder() throws InterruptedException {
+        final List<DynamoDbActiveConsentWithExpiryTime> expectedItems = putItemsEveryTenMinutes(WINDOW_START, WINDOW_END);
+        index.withPageReadDelay(20);
+
+        final ExpiryHourSweeper sweeper = new ExpiryHourSweeper(index::query, checkpointStore, 3, 4);
+        final ExpiryHourSweepResult result = sweeper.sweep(WINDOW_START, WINDOW_END, handledBatches::add);
+
+        assertEquals(expectedItems, getHandledItems());
+        assertTrue(handledBatches.stream().allMatch(batch -> batch.size() <= 4));
+        assertEquals(new ExpiryHourSweepResult(5, 0, 8, 30), result);
+        assertEquals(Optional.of(toCheckpoint(expectedItems.get(29))), checkpointStore.load());
+        assertTrue(index.getMaxActivePageReads() > 1, "Expected expiry hours to be queried concurrently");
+        assertTrue(index.getMaxActivePageReads() <= 3, "Expected at most maxConcurrency concurrent Query requests");
+    }
+
+    @Test
+    void sweepRoundsWindowStartDownToHourAndExcludesWindowEnd() throws InterruptedException {
+        final List<DynamoDbActiveConsentWithExpiryTime> allItems =
+            putItemsEveryTenMinutes(WINDOW_START.minusHours(1), WINDOW_END.plusHours(1));
+        final OffsetDateTime windowStart = WINDOW_START.plusMinutes(25).withOffsetSameInstant(ZoneOffset.ofHours(-8));
+        final OffsetDateTime windowEnd = WINDOW_START.plusHours(1).plusMinutes(30);
+
+        final ExpiryHourSweepResult result = new ExpiryHourSweeper(index::query, checkpointStore)
+            .sweep(windowStart, windowEnd, handledBatches::add);
+
+        assertEquals(allItems.subList(6, 15), getHandledItems());
+        assertEquals(new ExpiryHourSweepResult(2, 0, 1, 9), result);
+        assertEquals(toKeyConditionExpression(QueryConditional.keyEqualTo(Key.builder().partitionValue("2026-12-31T20:00Z").build())),
+            getKeyConditionExpression("2026-12-31T20:00Z"));
+        assertEquals(toKeyConditionExpression(QueryConditional.sortLessThan(
+            Key.builder().partitionValue("2026-12-31T21:00Z").sortValue("2026-12-31T21:30:00Z").build())),
+            getKeyConditionExpression("2026-12-31T21:00Z"));
+    }
+
+    @Test
+    void sweepResumesFromCheckpointAfterBatchHandlerFailure() throws InterruptedException {
+        final List<DynamoDbActiveConsentWithExpiryTime> expectedItems = putItemsEveryTenMinutes(WINDOW_START, WINDOW_END);
+        final ExpiryHourSweeper sweeper = new ExpiryHourSweeper(index::query, checkpointStore, 2, 8);
+        final AtomicInteger failingBatchCount = new AtomicInteger();
+
+        final ExpiryHourSweepBatchHandler failingBatchHandler = batch -> {
+            if (failingBatchCount.incrementAndGet() == 2) {
+                throw new IllegalStateException("Simulated batch handler failure");
+            }
+            handledBatches.add(batch);
+        };
+
+        final IllegalStateException failure = assertThrows(IllegalStateException.class,
+            () -> sweeper.sweep(WINDOW_START, WINDOW_END, failingBatchHandler));
+        assertEquals("Simulated batch handler failure", failure.getMessage());
+        assertEquals(Optional.of(toCheckpoint(expectedItems.get(7))), checkpointStore.load());
+
+        index.getReceivedRequests().clear();
+        final ExpiryHourSweepResult result = sweeper.sweep(WINDOW_START, WINDOW_END, handledBatches::add);
+
+        assertEquals(expectedItems, getHandledItems());
+        assertEquals(new ExpiryHourSweepResult(4, 1, 3, 22), result);
+        assertEquals(toKeyConditionExpression(QueryConditional.sortGreaterThan(
+            Key.builder().partitionValue("2026-12-31T21:00Z").sortValue(expectedItems.get(7).expiryTimeId()).build())),
+            getKeyConditionExpression("2026-12-31T21:00Z"));
+    }
+
+    @Test
+    void sweepResumesWithinLastHourBeforeWindowEnd() throws InterruptedException {
+        final List<DynamoDbActiveConsentWithExpiryTime> allItems = putItemsEveryTenMinutes(WINDOW_START, WINDOW_END);
+        final OffsetDateTime windowEnd = WINDOW_END.minusMinutes(20);
+        checkpointStore.save(toCheckpoint(WINDOW_START, windowEnd, allItems.get(25)));
+
+        final ExpiryHourSweepResult result = new ExpiryHourSweeper(index::query, checkpointStore, 2, 1)
+            .sweep(WINDOW_START, windowEnd, handledBatches::add);
+
+        assertEquals(allItems.subList(26, 28), getHandledItems());
+        assertEquals(new ExpiryHourSweepResult(1, 4, 2, 2), result);
+    }
+
+    @Test
+    void sweepWhenCheckpointAfterWindow() throws InterruptedException {
+        putItemsEveryTenMinutes(WINDOW_START, WINDOW_END);
+        checkpointStore.save(new ExpiryHourSweepCheckpoint("2026-12-31T20:00Z", "2027-01-01T01:00:00Z",
+            "2027-01-01T01:00Z", "2027-01-01T01:00:00Z|TestId"));
+
+        final ExpiryHourSweepResult result = new ExpiryHourSweeper(index::query, checkpointStore)
+            .sweep(WINDOW_START, WINDOW_END, handledBatches::add);
+
+        assertEquals(new ExpiryHourSweepResult(0, 5, 0, 0), result);
+        assertTrue(index.getReceivedRequests().isEmpty());
+    }
+
+    @Test
+    void sweepIgnoresCheckpointOfOtherWindow() throws InterruptedException {
+        final List<DynamoDbActiveConsentWithExpiryTime> allItems = putItemsEveryTenMinutes(WINDOW_START, WINDOW_END);
+        final ExpiryHourSweeper sweeper = new ExpiryHourSweeper(index::query, checkpointStore, 2, 10);
+        final OffsetDateTime laterWindowStart = WINDOW_START.plusHours(3);
+        assertEquals(new ExpiryHourSweepResult(2, 0, 2, 12), sweeper.sweep(laterWindowStart, WINDOW_END, handledBatches::add));
+        assertEquals(Optional.of(toCheckpoint(laterWindowStart, WINDOW_END, allItems.get(29))), checkpointStore.load());
+
+        handledBatches.clear();
+        final ExpiryHourSweepResult result = sweeper.sweep(WINDOW_START, laterWindowStart, handledBatches::add);
+
+        assertEquals(allItems.subList(0, 18), getHandledItems());
+        assertEquals(new ExpiryHourSweepResult(3, 0, 2, 18), result);
+        assertEquals(Optional.of(toCheckpoint(WINDOW_START, laterWindowStart, allItems.get(17))), checkpointStore.load());
+    }
+
+    @Test
+    void sweepSameWindowAgainAfterClearingCheckpoint() throws InterruptedException {
+        final List<DynamoDbActiveConsentWithExpiryTime> allItems = putItemsEveryTenMinutes(WINDOW_START, WINDOW_END);
+        final ExpiryHourSweeper sweeper = new ExpiryHourSweeper(index::query, checkpointStore, 2, 10);
+        sweeper.sweep(WINDOW_START, WINDOW_END, handledBatches::add);
+        assertEquals(new ExpiryHourSweepResult(1, 4, 0, 0), sweeper.sweep(WINDOW_START, WINDOW_END, handledBatches::add));
+
+        checkpointStore.clear();
+        handledBatches.clear();
+        final ExpiryHourSweepResult result = sweeper.sweep(WINDOW_START, WINDOW_END, handledBatches::add);
+
+        assertEquals(allItems, getHandledItems());
+        assertEquals(new ExpiryHourSweepResult(5, 0, 3, 30), result);
+    }
+
+    @Test
+    void sweepWhenQueryFails() {
+        final List<DynamoDbActiveConsentWithExpiryTime> allItems = putItemsEveryTenMinutes(WINDOW_START, WINDOW_END);
+        index.withFailingExpiryHour("2026-12-31T21:00Z");
+
+        final Exception exception = assertThrows(Exception.class, () -> new ExpiryHourSweeper(index::query, checkpointStore, 4, 1)
+            .sweep(WINDOW_START, WINDOW_END, handledBatches::add));
+
+        assertInstanceOf(IllegalStateException.class, exception);
+        assertEquals(allItems.subList(0, 6), getHandledItems());
+        assertEquals(Optional.of(toCheckpoint(allItems.get(5))), checkpointStore.load());
+    }
+
+    @Test
+    void sweepMergesExpiryHourShards() throws InterruptedException {
+        final List<DynamoDbActiveConsentWithExpiryTime> expectedItems = putItemsEveryTenMinutes(WINDOW_START, WINDOW_END, 4);
+        final ExpiryHourSweeper sweeper = new ExpiryHourSweeper(index::query, checkpointStore, 2, 5, 4);
+        final AtomicInteger failingBatchCount = new AtomicInteger();
+        final ExpiryHourSweepBatchHandler failingBatchHandler = batch -> {
+            if (failingBatchCount.incrementAndGet() == 3) {
+                throw new IllegalStateException("Simulated batch handler failure");
+            }
+            handledBatches.add(batch);
+        };
+
+        assertThrows(IllegalStateException.class, () -> sweeper.sweep(WINDOW_START, WINDOW_END, failingBatchHandler));
+        assertEquals(Optional.of(new ExpiryHourSweepCheckpoint("2026-12-31T20:00Z", "2027-01-01T01:00:00Z", "2026-12-31T21:00Z",
+            expectedItems.get(9).expiryTimeId())), checkpointStore.load());
+
+        final ExpiryHourSweepResult result = sweeper.sweep(WINDOW_START, WINDOW_END, handledBatches::add);
+
+        assertEquals(expectedItems, getHandledItems());
+        assertEquals(new ExpiryHourSweepResult(4, 1, 4, 20), result);
+        assertTrue(index.getReceivedRequests().stream()
+            .map(request -> toKeyConditionExpression(request.queryConditional()).expressionValues().get(":AMZN_MAPPED_expiryHour").s())
+            .allMatch(expiryHour -> expiryHour.matches("2026-12-31T2[0-3]:00Z#0[0-3]|2027-01-01T00:00Z#0[0-3]")));
+    }
+
+    @Test
+    void sweepWhenEmptyWindow() throws InterruptedException {
+        final ExpiryHourSweepResult result = new ExpiryHourSweeper(index::query, checkpointStore)
+            .sweep(WINDOW_START, WINDOW_START, handledBatches::add);
+        assertEquals(new ExpiryHourSweepResult(0, 0, 0, 0), result);
+        assertTrue(checkpointStore.load().isEmpty());
+    }
+
+    @Test
+    void sweepWhenWindowEndBeforeStart() {
+        final ExpiryHourSweeper sweeper = new ExpiryHourSweeper(index::query, checkpointStore);
+        assertThrows(IllegalArgumentException.class, () -> sweeper.sweep(WINDOW_END, WINDOW_START, handledBatches::add));
+    }
+
+    @Test
+    void constructWithInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new ExpiryHourSweeper(index::query, checkpointStore, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ExpiryHourSweeper(index::query, checkpointStore, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ExpiryHourSweeper(index::query, checkpointStore, 1, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ExpiryHourSweeper(index::query, checkpointStore, 1, 1,
+            DynamoDbConsentExpiryTimeConverter.MAX_EXPIRY_HOUR_SHARD_COUNT + 1));
+    }
+
+    @Test
+    void getExpiryHoursAcrossDayBoundary() {
+        final OffsetDateTime windowStart = OffsetDateTime.of(2026, 12, 31, 15, 59, 59, 0, ZoneOffset.ofHours(-8));
+        assertEquals(List.of("2026-12-31T23:00Z", "2027-01-01T00:00Z", "2027-01-01T01:00Z"),
+            ExpiryHourSweeper.getExpiryHours(windowStart, windowStart.plusHours(2).plusSeconds(1)));
+    }
+
+    /**
+     * Put items expiring every ten minutes from windowStart until windowEnd, in random order.
+     */
+    private List<DynamoDbActiveConsentWithExpiryTime> putItemsEveryTenMinutes(final OffsetDateTime windowStart,
+            final OffsetDateTime windowEnd) {
+        return putItemsEveryTenMinutes(windowStart, windowEnd, 1);
+    }
+
+    /**
+     * Put items expiring every ten minutes from windowStart until windowEnd, in random order, with sharded expiryHours.
+     */
+    private List<DynamoDbActiveConsentWithExpiryTime> putItemsEveryTenMinutes(final OffsetDateTime windowStart,
+            final OffsetDateTime windowEnd, final int expiryHourShardCount) {
+        final List<DynamoDbActiveConsentWithExpiryTime> items = new ArrayList<>();
+        for (OffsetDateTime expiryTime = windowStart; expiryTime.isBefore(windowEnd); expiryTime = expiryTime.plusMinutes(10)) {
+            final String id = "TestServiceId|TestUserId|TestConsentId" + items.size();
+            items.add(DynamoDbActiveConsentWithExpiryTime.builder()
+                .id(id)
+                .expiryHour(DynamoDbConsentExpiryTimeConverter.toExpiryHour(expiryTime, id, expiryHourShardCount))
+                .expiryTimeId(DynamoDbConsentExpiryTimeConverter.toExpiryTimeId(expiryTime, id))
+                .consentVersion(1)
+                .build());
+        }
+        final List<DynamoDbActiveConsentWithExpiryTime> shuffledItems = new ArrayList<>(items);
+        Collections.shuffle(shuffledItems, new Random(items.size()));
+        shuffledItems.forEach(index::putItem);
+        return items;
+    }
+
+    private List<DynamoDbActiveConsentWithExpiryTime> getHandledItems() {
+        return handledBatches.stream().flatMap(List::stream).toList();
+    }
+
+    /**
+     * Return the key condition of the Query request for an expiryHour partition, since partitions are queried concurrently.
+     */
+    private Expression getKeyConditionExpression(final String expiryHour) {
+        return index.getReceivedRequests().stream()
+            .map(request -> toKeyConditionExpression(request.queryConditional()))
+            .filter(expression -> expression.expressionValues().get(":AMZN_MAPPED_expiryHour").s().equals(expiryHour))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static Expression toKeyConditionExpression(final QueryConditional queryConditional) {
+        return queryConditional.expression(TABLE_SCHEMA, DynamoDbActiveConsentWithExpiryTime.ACTIVE_CONSENTS_BY_EXPIRY_HOUR_GSI_NAME);
+    }
+
+    private static ExpiryHourSweepCheckpoint toCheckpoint(final DynamoDbActiveConsentWithExpiryTime item) {
+        return toCheckpoint(WINDOW_START, WINDOW_END, item);
+    }
+
+    private static ExpiryHourSweepCheckpoint toCheckpoint(final OffsetDateTime windowStart, final OffsetDateTime windowEnd,
+            final DynamoDbActiveConsentWithExpiryTime item) {
+        return new ExpiryHourSweepCheckpoint(DynamoDbConsentExpiryTimeConverter.toExpiryHour(windowStart),
+            DynamoDbConsentExpiryTimeConverter.toExpiryTimeString(windowEnd), item.expiryHour(), item.expiryTimeId());
+    }
+
+    private static class InMemoryCheckpointStore implements ExpiryHourSweepCheckpointStore {
+        private volatile ExpiryHourSweepCheckpoint checkpoint;
+
+        @Override
+        public Optional<ExpiryHourSweepCheckpoint> load() {
+            return Optional.ofNullable(checkpoint);
+        }
+
+        @Override
+        public void save(final ExpiryHourSweepCheckpoint checkpoint) {
+            this.checkpoint = checkpoint;
+        }
+
+        @Override
+        public void clear() {
+            checkpoint = null;
+        }
+    }
+}
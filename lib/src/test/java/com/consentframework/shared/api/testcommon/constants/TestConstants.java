@@ -4,6 +4,9 @@ import com.consentframework.consentmanagement.api.models.Consent;
 import com.consentframework.consentmanagement.api.models.ConsentStatus;
 import com.consentframework.shared.api.infrastructure.entities.StoredConsentImage;
 
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.Map;
 
 /**
@@ -28,6 +31,7 @@ public final class TestConstants {
 
     public static final Integer TEST_PAGE_LIMIT = 2;
     public static final String TEST_PAGE_TOKEN = "1";
+    public static final byte[] TEST_PAGE_TOKEN_SIGNING_KEY = "TestPageTokenSigningKey-0123456789abcdef".getBytes(StandardCharsets.UTF_8);
     public static final Map<String, Object> TEST_PAGINATION_QUERY_PARAMETERS = Map.of(
         LIMIT_PARAM_NAME, TEST_PAGE_LIMIT,
         PAGE_TOKEN_PARAM_NAME, TEST_PAGE_TOKEN
@@ -51,4 +55,18 @@ public final class TestConstants {
         .consentStatus(TEST_CONSENT_STATUS)
         .consentType(TEST_CONSENT_TYPE)
         .consentData(TEST_CONSENT_DATA);
+
+    public static final OffsetDateTime TEST_EXPIRY_TIME = OffsetDateTime.of(2011, 10, 31, 20, 51, 12, 0, ZoneOffset.UTC);
+    public static final StoredConsentImage TEST_STORED_CONSENT_WITH_EXPIRY_TIME = new StoredConsentImage()
+        .id(TEST_PARTITION_KEY)
+        .serviceId(TEST_SERVICE_ID)
+        .userId(TEST_USER_ID)
+        .consentId(TEST_CONSENT_ID)
+        .consentVersion(2)
+        .consentStatus(TEST_CONSENT_STATUS)
+        .consentType(TEST_CONSENT_TYPE)
+        .consentData(TEST_CONSENT_DATA)
+        .expiryHour("2011-10-31T20:00Z")
+        .expiryTime(TEST_EXPIRY_TIME)
+        .expiryTimeId("2011-10-31T20:51:12Z|" + TEST_PARTITION_KEY);
 }
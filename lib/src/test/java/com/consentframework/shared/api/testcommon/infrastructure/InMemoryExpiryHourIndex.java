@@ -0,0 +1,205 @@
+package com.consentframework.shared.api.testcommon.infrastructure;
+
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbActiveConsentWithExpiryTime;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory stand-in for the ActiveConsentsByExpiryHour GSI, usable as the index::query function.
+ *
+ * Evaluates the key condition generated by QueryConditional, returns items in expiryTimeId order
+ * one page of at most limit items at a time, and continues from the exclusive start key.  Pages are
+ * read lazily, optionally with a delay per page, and concurrent page reads are counted.
+ */
+public class InMemoryExpiryHourIndex {
+    private static final String INDEX_NAME = DynamoDbActiveConsentWithExpiryTime.ACTIVE_CONSENTS_BY_EXPIRY_HOUR_GSI_NAME;
+    private static final String PARTITION_KEY = "expiryHour";
+    private static final String SORT_KEY = "expiryTimeId";
+    private static final TableSchema<DynamoDbActiveConsentWithExpiryTime> TABLE_SCHEMA =
+        TableSchema.fromImmutableClass(DynamoDbActiveConsentWithExpiryTime.class);
+    private static final Pattern SORT_KEY_CONDITION = Pattern.compile(
+        "#AMZN_MAPPED_expiryTimeId (=|<|<=|>|>=|BETWEEN) |begins_with \\( #AMZN_MAPPED_expiryTimeId");
+
+    private final Map<String, List<DynamoDbActiveConsentWithExpiryTime>> itemsByExpiryHour = new ConcurrentHashMap<>();
+    private final List<QueryEnhancedRequest> receivedRequests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger activePageReads = new AtomicInteger();
+    private final AtomicInteger maxActivePageReads = new AtomicInteger();
+    private volatile long pageReadDelayMillis;
+    private volatile String failingExpiryHour;
+
+    /**
+     * Add an item to the index.
+     *
+     * @param item item with expiryHour and expiryTimeId
+     * @return this index
+     */
+    public InMemoryExpiryHourIndex putItem(final DynamoDbActiveConsentWithExpiryTime item) {
+        itemsByExpiryHour.computeIfAbsent(item.expiryHour(), expiryHour -> new CopyOnWriteArrayList<>()).add(item);
+        return this;
+    }
+
+    /**
+     * Delay each page read, eg. to let concurrent Query requests overlap.
+     *
+     * @param delayMillis delay in milliseconds
+     * @return this index
+     */
+    public InMemoryExpiryHourIndex withPageReadDelay(final long delayMillis) {
+        this.pageReadDelayMillis = delayMillis;
+        return this;
+    }
+
+    /**
+     * Fail page reads for the given expiryHour partition.
+     *
+     * @param expiryHour expiryHour partition key
+     * @return this index
+     */
+    public InMemoryExpiryHourIndex withFailingExpiryHour(final String expiryHour) {
+        this.failingExpiryHour = expiryHour;
+        return this;
+    }
+
+    public List<QueryEnhancedRequest> getReceivedRequests() {
+        return receivedRequests;
+    }
+
+    public int getMaxActivePageReads() {
+        return maxActivePageReads.get();
+    }
+
+    /**
+     * Simulate a Query against the index.
+     *
+     * @param request Query request
+     * @return lazily read result pages
+     */
+    public SdkIterable<Page<DynamoDbActiveConsentWithExpiryTime>> query(final QueryEnhancedRequest request) {
+        receivedRequests.add(request);
+        final Expression keyCondition = request.queryConditional().expression(TABLE_SCHEMA, INDEX_NAME);
+        final String expiryHour = getValue(keyCondition, PARTITION_KEY, "");
+        final Predicate<String> sortKeyCondition = parseSortKeyCondition(keyCondition);
+        final List<DynamoDbActiveConsentWithExpiryTime> matchingItems = itemsByExpiryHour.getOrDefault(expiryHour, List.of()).stream()
+            .filter(item -> sortKeyCondition.test(item.expiryTimeId()))
+            .sorted(Comparator.comparing(DynamoDbActiveConsentWithExpiryTime::expiryTimeId))
+            .toList();
+
+        final int limit = (request.limit() == null) ? Integer.MAX_VALUE : request.limit();
+        final AttributeValue exclusiveStartSortKey = (request.exclusiveStartKey() == null)
+            ? null
+            : request.exclusiveStartKey().get(SORT_KEY);
+        final int startIndex = (exclusiveStartSortKey == null) ? 0 : (int) matchingItems.stream()
+            .filter(item -> item.expiryTimeId().compareTo(exclusiveStartSortKey.s()) <= 0)
+            .count();
+        return () -> new PageIterator(expiryHour, matchingItems, startIndex, limit);
+    }
+
+    private static Predicate<String> parseSortKeyCondition(final Expression keyCondition) {
+        final Matcher matcher = SORT_KEY_CONDITION.matcher(keyCondition.expression());
+        if (!matcher.find()) {
+            return sortKey -> true;
+        }
+        final String value = getValue(keyCondition, SORT_KEY, "");
+        if (matcher.group(1) == null) {
+            return sortKey -> sortKey.startsWith(value);
+        }
+        return switch (matcher.group(1)) {
+            case "=" -> sortKey -> sortKey.equals(value);
+            case "<" -> sortKey -> sortKey.compareTo(value) < 0;
+            case "<=" -> sortKey -> sortKey.compareTo(value) <= 0;
+            case ">" -> sortKey -> sortKey.compareTo(value) > 0;
+            case ">=" -> sortKey -> sortKey.compareTo(value) >= 0;
+            default -> {
+                final String upperValue = getValue(keyCondition, SORT_KEY, "2");
+                yield sortKey -> sortKey.compareTo(value) >= 0 && sortKey.compareTo(upperValue) <= 0;
+            }
+        };
+    }
+
+    private static String getValue(final Expression keyCondition, final String attributeName, final String suffix) {
+        return keyCondition.expressionValues().get(":AMZN_MAPPED_" + attributeName + suffix).s();
+    }
+
+    /**
+     * Reads one page per call to next, as the SDK issues one Query request per page.
+     */
+    private final class PageIterator implements Iterator<Page<DynamoDbActiveConsentWithExpiryTime>> {
+        private final String expiryHour;
+        private final List<DynamoDbActiveConsentWithExpiryTime> matchingItems;
+        private final int limit;
+        private int nextIndex;
+        private boolean hasMorePages = true;
+
+        PageIterator(final String expiryHour, final List<DynamoDbActiveConsentWithExpiryTime> matchingItems,
+                final int startIndex, final int limit) {
+            this.expiryHour = expiryHour;
+            this.matchingItems = matchingItems;
+            this.nextIndex = startIndex;
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasMorePages;
+        }
+
+        @Override
+        public Page<DynamoDbActiveConsentWithExpiryTime> next() {
+            if (!hasMorePages) {
+                throw new NoSuchElementException();
+            }
+            maxActivePageReads.accumulateAndGet(activePageReads.incrementAndGet(), Math::max);
+            try {
+                simulatePageRead();
+                final int endIndex = (int) Math.min((long) nextIndex + limit, matchingItems.size());
+                final List<DynamoDbActiveConsentWithExpiryTime> items = new ArrayList<>(matchingItems.subList(nextIndex, endIndex));
+                nextIndex = endIndex;
+                hasMorePages = items.size() == limit;
+                if (!hasMorePages) {
+                    return Page.builder(DynamoDbActiveConsentWithExpiryTime.class).items(items).build();
+                }
+                final DynamoDbActiveConsentWithExpiryTime lastItem = items.get(items.size() - 1);
+                return Page.builder(DynamoDbActiveConsentWithExpiryTime.class)
+                    .items(items)
+                    .lastEvaluatedKey(Map.of(
+                        DynamoDbActiveConsentWithExpiryTime.TABLE_PARTITION_KEY, AttributeValue.fromS(lastItem.id()),
+                        PARTITION_KEY, AttributeValue.fromS(lastItem.expiryHour()),
+                        SORT_KEY, AttributeValue.fromS(lastItem.expiryTimeId())))
+                    .build();
+            } finally {
+                activePageReads.decrementAndGet();
+            }
+        }
+
+        private void simulatePageRead() {
+            if (pageReadDelayMillis > 0) {
+                try {
+                    Thread.sleep(pageReadDelayMillis);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while reading page", e);
+                }
+            }
+            if (expiryHour.equals(failingExpiryHour)) {
+                throw new IllegalStateException("Simulated Query failure for expiryHour " + expiryHour);
+            }
+        }
+    }
+}
@@ -7,8 +7,10 @@ import com.consentframework.shared.api.domain.exceptions.ResourceNotFoundExcepti
 import com.consentframework.shared.api.domain.parsers.ApiPathParameterParser;
 import com.consentframework.shared.api.domain.parsers.ApiQueryStringParameterParser;
 import com.consentframework.shared.api.domain.requesthandlers.ApiRequestHandler;
+import com.consentframework.shared.api.infrastructure.mappers.JsonMapperRegistry;
 import com.consentframework.shared.api.testcommon.constants.TestConstants;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -21,6 +23,7 @@ import java.util.Map;
 public class TestCreateRequestHandler extends ApiRequestHandler {
     private static final Logger logger = LogManager.getLogger(TestCreateRequestHandler.class);
     private static final List<String> REQUIRED_PATH_PARAM_NAMES = List.of(TestConstants.USER_ID_PARAM_NAME);
+    private static final ObjectWriter RESPONSE_CONTENT_WRITER = JsonMapperRegistry.writerFor(TestCreateResponseContent.class);
 
     public static final String MOCK_ERROR_CODE_QUERY_PARAM = "mockErrorCode";
 
@@ -77,7 +80,7 @@ public class TestCreateRequestHandler extends ApiRequestHandler {
 
         final String responseBodyString;
         try {
-            responseBodyString = toJsonString(TestContentParser.OBJECT_MAPPER, responseContent);
+            responseBodyString = toJsonString(RESPONSE_CONTENT_WRITER, responseContent);
         } catch (final JsonProcessingException exception) {
             return logAndBuildJsonProcessingErrorResponse(exception);
         }
@@ -0,0 +1,486 @@
+package com.consentframework.shared.api.testfixtures.dynamodb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.consentframework.shared.api.infrastructure.batchwrite.ConsentBatchWriteMode;
+import com.consentframework.shared.api.infrastructure.batchwrite.ConsentBatchWriter;
+import com.consentframework.shared.api.infrastructure.batchwrite.ConsentBatchWriterSettings;
+import com.consentframework.shared.api.infrastructure.batchwrite.ConsentMutation;
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbActiveConsentWithExpiryTime;
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbConsentHistory;
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbServiceUserConsent;
+import com.consentframework.shared.api.infrastructure.history.ConsentHistoryReader;
+import com.consentframework.shared.api.testcommon.constants.TestConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ResourceInUseException;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.Select;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+class InMemoryDynamoDbClientTest {
+    private static final TableSchema<DynamoDbServiceUserConsent> CONSENT_SCHEMA =
+        TableSchema.fromImmutableClass(DynamoDbServiceUserConsent.class);
+    private static final TableSchema<DynamoDbActiveConsentWithExpiryTime> ACTIVE_CONSENT_SCHEMA =
+        TableSchema.fromImmutableClass(DynamoDbActiveConsentWithExpiryTime.class);
+    private static final String EXPIRY_HOUR = "2026-10-17T12:00Z";
+
+    private final InMemoryDynamoDbClient dynamoDbClient = new InMemoryDynamoDbClient(new Random(7)).withConsentTables();
+    private final DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder().dynamoDbClient(dynamoDbClient).build();
+    private final DynamoDbTable<DynamoDbServiceUserConsent> consentTable =
+        enhancedClient.table(DynamoDbServiceUserConsent.TABLE_NAME, CONSENT_SCHEMA);
+
+    @Test
+    void enhancedClientItemOperations() {
+        final DynamoDbServiceUserConsent consent = createConsent(1, null);
+        final Key key = Key.builder().partitionValue(consent.id()).build();
+        assertNull(consentTable.getItem(key));
+
+        consentTable.putItem(consent);
+        assertEquals(consent, consentTable.getItem(key));
+
+        final DynamoDbServiceUserConsent updatedConsent = createConsent(1, "2026-10-17T12:34:56Z");
+        assertEquals(updatedConsent, consentTable.updateItem(updatedConsent));
+        assertEquals(updatedConsent, consentTable.getItem(key));
+        assertEquals(consent, consentTable.updateItem(consent));
+        assertEquals(1, dynamoDbClient.getItemCount(DynamoDbServiceUserConsent.TABLE_NAME));
+
+        assertEquals(consent, consentTable.deleteItem(key));
+        assertNull(consentTable.getItem(key));
+        assertEquals(0, dynamoDbClient.getItemCount(DynamoDbServiceUserConsent.TABLE_NAME));
+    }
+
+    @Test
+    void querySparseSecondaryIndexInSortKeyOrder() {
+        for (int index = 5; index > 0; index--) {
+            consentTable.putItem(createConsent(index, String.format("2026-10-17T12:%02d:00Z", index)));
+            consentTable.putItem(createConsent(index + 10, null));
+        }
+        consentTable.putItem(createConsent(20, "2026-10-17T13:00:00Z"));
+
+        final List<DynamoDbActiveConsentWithExpiryTime> activeConsents = enhancedClient
+            .table(DynamoDbServiceUserConsent.TABLE_NAME, ACTIVE_CONSENT_SCHEMA)
+            .index(DynamoDbServiceUserConsent.ACTIVE_CONSENTS_BY_EXPIRY_HOUR_GSI_NAME)
+            .query(request -> request
+                .queryConditional(QueryConditional.sortGreaterThan(Key.builder()
+                    .partitionValue(EXPIRY_HOUR)
+                    .sortValue("2026-10-17T12:01:00Z|Consent001")
+                    .build()))
+                .limit(2))
+            .stream()
+            .flatMap(page -> page.items().stream())
+            .toList();
+
+        assertEquals(List.of("Consent002", "Consent003", "Consent004", "Consent005", "Consent020"),
+            activeConsents.stream().map(activeConsent -> activeConsent.id().split("\\|")[2]).toList());
+        // 11 puts, then pages of 2, 2 and 1 items
+        assertEquals(11 + 3, dynamoDbClient.getRequestCount());
+    }
+
+    @Test
+    void queryInReverseOrderWithFilterAndCount() {
+        IntStream.rangeClosed(1, 5).forEach(index -> consentTable.putItem(createConsent(index, null)));
+        final Map<String, AttributeValue> values = Map.of(
+            ":userId", AttributeValue.fromS(TestConstants.TEST_USER_ID),
+            ":lower", AttributeValue.fromS("Consent002"),
+            ":upper", AttributeValue.fromS("Consent004"),
+            ":excluded", AttributeValue.fromS("Consent003"));
+
+        final QueryResponse response = dynamoDbClient.query(request -> request
+            .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+            .indexName(DynamoDbServiceUserConsent.CONSENT_BY_SERVICE_USER_GSI_NAME)
+            .keyConditionExpression("userId = :userId")
+            .filterExpression("consentId BETWEEN :lower AND :upper AND NOT consentId = :excluded")
+            .projectionExpression("id, #consentId")
+            .expressionAttributeNames(Map.of("#consentId", "consentId"))
+            .expressionAttributeValues(values)
+            .scanIndexForward(false));
+        assertEquals(List.of("Consent004", "Consent002"), response.items().stream().map(item -> item.get("consentId").s()).toList());
+        assertEquals(Set.of("id", "consentId"), response.items().get(0).keySet());
+        assertEquals(5, response.scannedCount());
+        assertFalse(response.hasLastEvaluatedKey());
+
+        final QueryResponse countResponse = dynamoDbClient.query(request -> request
+            .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+            .indexName(DynamoDbServiceUserConsent.CONSENT_BY_SERVICE_USER_GSI_NAME)
+            .keyConditionExpression("userId = :userId AND begins_with(serviceId, :serviceId)")
+            .expressionAttributeValues(Map.of(
+                ":userId", AttributeValue.fromS(TestConstants.TEST_USER_ID),
+                ":serviceId", AttributeValue.fromS("Test")))
+            .select(Select.COUNT));
+        assertEquals(5, countResponse.count());
+        assertFalse(countResponse.hasItems());
+    }
+
+    @Test
+    void scanPagesThroughAllItems() {
+        IntStream.rangeClosed(1, 5).forEach(index -> consentTable.putItem(createConsent(index, null)));
+
+        final List<String> ids = new ArrayList<>();
+        Map<String, AttributeValue> exclusiveStartKey = null;
+        do {
+            final Map<String, AttributeValue> startKey = exclusiveStartKey;
+            final ScanResponse response = dynamoDbClient.scan(request -> request
+                .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+                .exclusiveStartKey(startKey)
+                .limit(2));
+            response.items().forEach(item -> ids.add(item.get("id").s()));
+            exclusiveStartKey = response.hasLastEvaluatedKey() ? response.lastEvaluatedKey() : null;
+        } while (exclusiveStartKey != null);
+
+        assertEquals(IntStream.rangeClosed(1, 5).mapToObj(index -> createConsent(index, null).id()).toList(), ids);
+        assertThrows(UnsupportedOperationException.class, () -> dynamoDbClient.scan(request -> request
+            .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+            .segment(0)
+            .totalSegments(2)));
+    }
+
+    @Test
+    void consentHistoryReaderReadsSecondaryIndexPages() throws Exception {
+        try (ConsentBatchWriter writer = new ConsentBatchWriter(dynamoDbClient, ConsentBatchWriterSettings.defaults())) {
+            for (int index = 1; index <= 150; index++) {
+                writer.write(createMutation(index));
+            }
+            writer.flush();
+        }
+        assertEquals(150, dynamoDbClient.getItemCount(DynamoDbConsentHistory.TABLE_NAME));
+
+        final List<DynamoDbConsentHistory> events = new ConsentHistoryReader(dynamoDbClient)
+            .stream(TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID)
+            .toList();
+        assertEquals(150, events.size());
+        assertEquals(TestConstants.TEST_STORED_CONSENT, events.get(0).newImage());
+        assertEquals(createMutation(1).consentHistory(), events.get(0));
+    }
+
+    @Test
+    void batchWriterRetriesUnprocessedItems() throws Exception {
+        dynamoDbClient.withUnprocessedItemProbability(0.3);
+        final ConsentBatchWriterSettings settings = ConsentBatchWriterSettings.defaults()
+            .withRetries(20, Duration.ofMillis(1), Duration.ofMillis(2));
+        try (ConsentBatchWriter writer = new ConsentBatchWriter(dynamoDbClient, settings)) {
+            for (int index = 1; index <= 50; index++) {
+                writer.write(createMutation(index));
+            }
+            writer.flush();
+            assertTrue(writer.getRetryCount() > 0);
+        }
+
+        assertTrue(dynamoDbClient.getUnprocessedItemCount() > 0);
+        assertEquals(50, dynamoDbClient.getItemCount(DynamoDbServiceUserConsent.TABLE_NAME));
+        assertEquals(50, dynamoDbClient.getItemCount(DynamoDbConsentHistory.TABLE_NAME));
+    }
+
+    @Test
+    void batchWriterRetriesThrottledTransactions() throws Exception {
+        dynamoDbClient.throttleNextRequests(2);
+        final ConsentBatchWriterSettings settings = ConsentBatchWriterSettings.defaults()
+            .withMode(ConsentBatchWriteMode.TRANSACT_WRITE_ITEMS)
+            .withRetries(4, Duration.ofMillis(1), Duration.ofMillis(2));
+        try (ConsentBatchWriter writer = new ConsentBatchWriter(dynamoDbClient, settings)) {
+            writer.write(createMutation(1));
+            writer.flush();
+            assertEquals(2, writer.getRetryCount());
+        }
+
+        assertEquals(2, dynamoDbClient.getThrottledRequestCount());
+        assertEquals(1, dynamoDbClient.getItemCount(DynamoDbConsentHistory.TABLE_NAME));
+    }
+
+    @Test
+    void transactWriteItemsIsAtomic() {
+        consentTable.putItem(createConsent(1, null));
+        final Map<String, AttributeValue> existingItem = CONSENT_SCHEMA.itemToMap(createConsent(1, null), true);
+        final Map<String, AttributeValue> newItem = CONSENT_SCHEMA.itemToMap(createConsent(2, null), true);
+        final TransactWriteItemsRequest request = TransactWriteItemsRequest.builder()
+            .transactItems(
+                TransactWriteItem.builder().put(put -> put
+                    .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+                    .item(newItem)
+                    .conditionExpression("attribute_not_exists(id)")).build(),
+                TransactWriteItem.builder().conditionCheck(check -> check
+                    .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+                    .key(Map.of("id", existingItem.get("id")))
+                    .conditionExpression("consentVersion = :version")
+                    .expressionAttributeValues(Map.of(":version", AttributeValue.fromN("2")))).build())
+            .clientRequestToken("TestToken")
+            .build();
+
+        final TransactionCanceledException exception =
+            assertThrows(TransactionCanceledException.class, () -> dynamoDbClient.transactWriteItems(request));
+        assertEquals(List.of("None", "ConditionalCheckFailed"),
+            exception.cancellationReasons().stream().map(CancellationReason::code).toList());
+        assertEquals(1, dynamoDbClient.getItemCount(DynamoDbServiceUserConsent.TABLE_NAME));
+
+        consentTable.putItem(createConsent(1, null, 2));
+        dynamoDbClient.transactWriteItems(request);
+        assertEquals(2, dynamoDbClient.getItemCount(DynamoDbServiceUserConsent.TABLE_NAME));
+
+        // A retry with the same client request token doesn't write again
+        consentTable.deleteItem(Key.builder().partitionValue(newItem.get("id").s()).build());
+        dynamoDbClient.transactWriteItems(request);
+        assertEquals(1, dynamoDbClient.getItemCount(DynamoDbServiceUserConsent.TABLE_NAME));
+    }
+
+    @Test
+    void transactWriteItemsUpdatesAndDeletes() {
+        consentTable.putItem(createConsent(1, null));
+        consentTable.putItem(createConsent(2, null));
+        final String firstId = createConsent(1, null).id();
+        final String secondId = createConsent(2, null).id();
+
+        dynamoDbClient.transactWriteItems(request -> request.transactItems(
+            TransactWriteItem.builder().update(update -> update
+                .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+                .key(Map.of("id", AttributeValue.fromS(firstId)))
+                .updateExpression("SET consentVersion = consentVersion + :increment")
+                .expressionAttributeValues(Map.of(":increment", AttributeValue.fromN("1")))).build(),
+            TransactWriteItem.builder().delete(delete -> delete
+                .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+                .key(Map.of("id", AttributeValue.fromS(secondId)))).build()));
+
+        assertEquals(2, consentTable.getItem(Key.builder().partitionValue(firstId).build()).consentVersion());
+        assertNull(consentTable.getItem(Key.builder().partitionValue(secondId).build()));
+        final DynamoDbException exception = assertThrows(DynamoDbException.class, () -> dynamoDbClient.transactWriteItems(request -> request
+            .transactItems(
+                TransactWriteItem.builder().delete(delete -> delete
+                    .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+                    .key(Map.of("id", AttributeValue.fromS(firstId)))).build(),
+                TransactWriteItem.builder().conditionCheck(check -> check
+                    .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+                    .key(Map.of("id", AttributeValue.fromS(firstId)))
+                    .conditionExpression("attribute_exists(id)")).build())));
+        assertEquals("ValidationException", exception.awsErrorDetails().errorCode());
+    }
+
+    @Test
+    void conditionalWrites() {
+        final DynamoDbServiceUserConsent consent = createConsent(1, null);
+        final Map<String, AttributeValue> item = CONSENT_SCHEMA.itemToMap(consent, true);
+        dynamoDbClient.putItem(request -> request
+            .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+            .item(item)
+            .conditionExpression("attribute_not_exists(id)"));
+
+        assertThrows(ConditionalCheckFailedException.class, () -> dynamoDbClient.putItem(request -> request
+            .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+            .item(item)
+            .conditionExpression("attribute_not_exists(id)")));
+        assertThrows(ConditionalCheckFailedException.class, () -> dynamoDbClient.deleteItem(request -> request
+            .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+            .key(Map.of("id", item.get("id")))
+            .conditionExpression("consentStatus = :status")
+            .expressionAttributeValues(Map.of(":status", AttributeValue.fromS("REVOKED")))));
+
+        final Map<String, AttributeValue> oldItem = dynamoDbClient.updateItem(request -> request
+            .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+            .key(Map.of("id", item.get("id")))
+            .updateExpression("SET consentStatus = :status REMOVE consentData")
+            .conditionExpression("consentStatus = :active")
+            .expressionAttributeValues(Map.of(
+                ":status", AttributeValue.fromS("REVOKED"),
+                ":active", AttributeValue.fromS(TestConstants.TEST_CONSENT_STATUS)))
+            .returnValues(ReturnValue.ALL_OLD))
+            .attributes();
+        assertEquals(item, oldItem);
+        assertEquals(Map.of("consentStatus", AttributeValue.fromS("REVOKED")), dynamoDbClient.getItem(request -> request
+            .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+            .key(Map.of("id", item.get("id")))
+            .projectionExpression("consentStatus, consentData"))
+            .item());
+
+        assertThrows(UnsupportedOperationException.class, () -> dynamoDbClient.updateItem(request -> request
+            .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+            .key(Map.of("id", item.get("id")))
+            .returnValues(ReturnValue.UPDATED_NEW)));
+        final DynamoDbException exception = assertThrows(DynamoDbException.class, () -> dynamoDbClient.updateItem(request -> request
+            .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+            .key(Map.of("id", item.get("id")))
+            .updateExpression("SET id = :id")
+            .expressionAttributeValues(Map.of(":id", AttributeValue.fromS("OtherId")))));
+        assertEquals("ValidationException", exception.awsErrorDetails().errorCode());
+    }
+
+    @Test
+    void batchGetItemReturnsUnprocessedKeys() {
+        IntStream.rangeClosed(1, 20).forEach(index -> consentTable.putItem(createConsent(index, null)));
+        final List<Map<String, AttributeValue>> keys = IntStream.rangeClosed(1, 21)
+            .mapToObj(index -> Map.of("id", AttributeValue.fromS(createConsent(index, null).id())))
+            .toList();
+        dynamoDbClient.withUnprocessedItemProbability(0.5);
+
+        final BatchGetItemResponse response = dynamoDbClient.batchGetItem(request -> request.requestItems(Map.of(
+            DynamoDbServiceUserConsent.TABLE_NAME, KeysAndAttributes.builder().keys(keys).projectionExpression("id").build())));
+
+        final List<Map<String, AttributeValue>> unprocessedKeys =
+            response.unprocessedKeys().get(DynamoDbServiceUserConsent.TABLE_NAME).keys();
+        final List<Map<String, AttributeValue>> items = response.responses().get(DynamoDbServiceUserConsent.TABLE_NAME);
+        final int missingItems = unprocessedKeys.contains(keys.get(20)) ? 0 : 1;
+        assertTrue(unprocessedKeys.size() > 0);
+        assertEquals(dynamoDbClient.getUnprocessedItemCount(), unprocessedKeys.size());
+        assertEquals(keys.size(), items.size() + unprocessedKeys.size() + missingItems);
+        assertTrue(items.stream().allMatch(item -> item.keySet().equals(Set.of("id"))));
+        assertEquals("id", response.unprocessedKeys().get(DynamoDbServiceUserConsent.TABLE_NAME).projectionExpression());
+    }
+
+    @Test
+    void requestsThrottledAndDelayed() {
+        dynamoDbClient.throttleNextRequests(1).withLatency(Duration.ofMillis(20));
+        final Key key = Key.builder().partitionValue("MissingId").build();
+
+        final ProvisionedThroughputExceededException exception =
+            assertThrows(ProvisionedThroughputExceededException.class, () -> consentTable.getItem(key));
+        assertEquals("ProvisionedThroughputExceededException", exception.awsErrorDetails().errorCode());
+        final long startNanos = System.nanoTime();
+        assertNull(consentTable.getItem(key));
+        assertTrue(System.nanoTime() - startNanos >= Duration.ofMillis(20).toNanos());
+
+        dynamoDbClient.withLatency(Duration.ZERO).withThrottlingProbability(1);
+        assertThrows(ProvisionedThroughputExceededException.class, () -> consentTable.getItem(key));
+        assertEquals(2, dynamoDbClient.getThrottledRequestCount());
+        assertEquals(3, dynamoDbClient.getRequestCount());
+    }
+
+    @Test
+    void createTableFromRequest() {
+        final InMemoryDynamoDbClient client = new InMemoryDynamoDbClient();
+        final DynamoDbTable<DynamoDbConsentHistory> historyTable = DynamoDbEnhancedClient.builder().dynamoDbClient(client).build()
+            .table(DynamoDbConsentHistory.TABLE_NAME, TableSchema.fromImmutableClass(DynamoDbConsentHistory.class));
+        historyTable.createTable();
+        historyTable.putItem(createMutation(1).consentHistory());
+
+        assertEquals(createMutation(1).consentHistory(), historyTable.getItem(Key.builder()
+            .partitionValue(createConsent(1, null).id())
+            .sortValue("Event001")
+            .build()));
+        assertThrows(ResourceInUseException.class, historyTable::createTable);
+        assertThrows(ResourceInUseException.class, () -> client.withConsentTables());
+    }
+
+    @Test
+    void invalidRequests() {
+        assertThrows(ResourceNotFoundException.class, () -> dynamoDbClient.getItemCount("MissingTable"));
+        assertValidationException(() -> dynamoDbClient.putItem(request -> request
+            .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+            .item(Map.of("consentId", AttributeValue.fromS(TestConstants.TEST_CONSENT_ID)))));
+        assertValidationException(() -> dynamoDbClient.putItem(request -> request
+            .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+            .item(Map.of("id", AttributeValue.fromBool(true)))));
+        assertValidationException(() -> dynamoDbClient.getItem(request -> request
+            .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+            .key(Map.of("id", AttributeValue.fromS("Id"), "consentId", AttributeValue.fromS("Id")))));
+        assertValidationException(() -> dynamoDbClient.query(request -> request
+            .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+            .indexName("MissingIndex")));
+        assertValidationException(() -> dynamoDbClient.query(request -> request
+            .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+            .indexName(DynamoDbServiceUserConsent.CONSENT_BY_SERVICE_USER_GSI_NAME)
+            .consistentRead(true)));
+        assertValidationException(() -> dynamoDbClient.query(request -> request.tableName(DynamoDbServiceUserConsent.TABLE_NAME)));
+        assertValidationException(() -> dynamoDbClient.query(request -> request
+            .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+            .keyConditionExpression("consentId = :id")
+            .expressionAttributeValues(Map.of(":id", AttributeValue.fromS("Id")))));
+        assertValidationException(() -> dynamoDbClient.scan(request -> request
+            .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+            .limit(0)));
+        assertThrows(UnsupportedOperationException.class, () -> dynamoDbClient.scan(request -> request
+            .tableName(DynamoDbServiceUserConsent.TABLE_NAME)
+            .select(Select.SPECIFIC_ATTRIBUTES)));
+        assertValidationException(() -> dynamoDbClient.batchGetItem(request -> request.requestItems(Map.of())));
+        assertValidationException(() -> dynamoDbClient.transactWriteItems(request -> request.transactItems(List.of())));
+
+        final WriteRequest writeRequest = WriteRequest.builder()
+            .putRequest(PutRequest.builder().item(CONSENT_SCHEMA.itemToMap(createConsent(1, null), true)).build())
+            .build();
+        assertValidationException(() -> dynamoDbClient.batchWriteItem(BatchWriteItemRequest.builder()
+            .requestItems(Map.of(DynamoDbServiceUserConsent.TABLE_NAME, List.of(writeRequest, writeRequest)))
+            .build()));
+        assertValidationException(() -> dynamoDbClient.batchWriteItem(BatchWriteItemRequest.builder()
+            .requestItems(Map.of(DynamoDbServiceUserConsent.TABLE_NAME, Collections.nCopies(26, writeRequest)))
+            .build()));
+    }
+
+    @Test
+    void invalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> dynamoDbClient.withLatency(Duration.ofMillis(-1)));
+        assertThrows(IllegalArgumentException.class, () -> dynamoDbClient.withThrottlingProbability(1.5));
+        assertThrows(IllegalArgumentException.class, () -> dynamoDbClient.withUnprocessedItemProbability(Double.NaN));
+        assertEquals(InMemoryDynamoDbClient.SERVICE_NAME, dynamoDbClient.serviceName());
+        dynamoDbClient.close();
+    }
+
+    private static void assertValidationException(final Executable executable) {
+        final DynamoDbException exception = assertThrows(DynamoDbException.class, executable);
+        assertEquals("ValidationException", exception.awsErrorDetails().errorCode());
+        assertEquals(400, exception.statusCode());
+    }
+
+    private static DynamoDbServiceUserConsent createConsent(final int index, final String expiryTime) {
+        return createConsent(index, expiryTime, 1);
+    }
+
+    private static DynamoDbServiceUserConsent createConsent(final int index, final String expiryTime, final int consentVersion) {
+        final String consentId = String.format("Consent%03d", index);
+        final String id = String.format("%s|%s|%s", TestConstants.TEST_SERVICE_ID, TestConstants.TEST_USER_ID, consentId);
+        final DynamoDbServiceUserConsent.Builder builder = DynamoDbServiceUserConsent.builder();
+        builder.id(id)
+            .serviceId(TestConstants.TEST_SERVICE_ID)
+            .userId(TestConstants.TEST_USER_ID)
+            .consentId(consentId)
+            .consentVersion(consentVersion)
+            .consentStatus(TestConstants.TEST_CONSENT_STATUS)
+            .consentData(TestConstants.TEST_CONSENT_DATA);
+        if (expiryTime != null) {
+            builder.expiryTime(expiryTime)
+                .expiryHour(EXPIRY_HOUR)
+                .expiryTimeId(expiryTime + "|" + consentId);
+        }
+        return builder.build();
+    }
+
+    private static ConsentMutation createMutation(final int index) {
+        final DynamoDbServiceUserConsent consent = createConsent(index, null);
+        return new ConsentMutation(consent, DynamoDbConsentHistory.builder()
+            .id(consent.id())
+            .eventId(String.format("Event%03d", index))
+            .eventType("INSERT")
+            .eventTime("2026-10-17T12:00:00Z")
+            .serviceUserId(TestConstants.TEST_SERVICE_ID + "|" + TestConstants.TEST_USER_ID)
+            .newImage(TestConstants.TEST_STORED_CONSENT)
+            .build());
+    }
+}
@@ -0,0 +1,163 @@
+package com.consentframework.shared.api.testfixtures.dynamodb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+
+import java.util.List;
+import java.util.Map;
+
+class InMemoryExpressionsTest {
+    private static final Map<String, String> NAMES = Map.of("#status", "consentStatus", "#version", "consentVersion");
+    private static final Map<String, AttributeValue> VALUES = Map.of(
+        ":active", AttributeValue.fromS("ACTIVE"),
+        ":revoked", AttributeValue.fromS("REVOKED"),
+        ":one", AttributeValue.fromN("1.0"),
+        ":two", AttributeValue.fromN("2"),
+        ":ten", AttributeValue.fromN("10"),
+        ":prefix", AttributeValue.fromS("Test"),
+        ":bytePrefix", AttributeValue.fromB(SdkBytes.fromByteArray(new byte[] { 1, 2 })),
+        ":tag", AttributeValue.fromS("b"),
+        ":tags", AttributeValue.fromL(List.of(AttributeValue.fromS("c"))));
+    private static final Map<String, AttributeValue> ITEM = Map.of(
+        "id", AttributeValue.fromS("TestId"),
+        "consentStatus", AttributeValue.fromS("ACTIVE"),
+        "consentVersion", AttributeValue.fromN("2"),
+        "data", AttributeValue.fromB(SdkBytes.fromByteArray(new byte[] { 1, 2, 3 })),
+        "tagSet", AttributeValue.fromSs(List.of("a", "b")),
+        "numberSet", AttributeValue.fromNs(List.of("1", "2.00")),
+        "tags", AttributeValue.fromL(List.of(AttributeValue.fromS("a"), AttributeValue.fromS("b"))));
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "#status = :active",
+        "#version = :two AND #version <> :one",
+        "#version > :one AND #version >= :two AND #version < :ten AND #version <= :two",
+        "#version BETWEEN :one AND :ten",
+        "#status IN (:revoked, :active)",
+        "#status = :revoked OR #status = :active",
+        "NOT (#status = :revoked)",
+        "attribute_exists(id) AND attribute_not_exists(expiryHour)",
+        "begins_with(id, :prefix) AND begins_with(data, :bytePrefix)",
+        "contains(id, :prefix) AND contains(tagSet, :tag) AND contains(numberSet, :two) AND contains(tags, :tag)",
+        "missing <> :one",
+        "#status = :revoked AND #version = :one OR #status = :active"
+    })
+    void conditionSatisfied(final String expression) {
+        assertTrue(InMemoryExpressions.test(InMemoryExpressions.parseCondition(expression, NAMES, VALUES), ITEM));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "#status = :revoked",
+        "missing = :one",
+        "#version < :one",
+        "#status < :two",
+        "#version BETWEEN :ten AND :ten",
+        "#status IN (:revoked)",
+        "NOT #status = :active",
+        "attribute_not_exists(id)",
+        "begins_with(#version, :two)",
+        "begins_with(id, :two)",
+        "contains(#version, :two)",
+        "contains(missing, :two)",
+        "contains(tags, :tags)",
+        "#status = :revoked AND (#version = :one OR #status = :active)"
+    })
+    void conditionNotSatisfied(final String expression) {
+        assertFalse(InMemoryExpressions.test(InMemoryExpressions.parseCondition(expression, NAMES, VALUES), ITEM));
+    }
+
+    @Test
+    void findEqualityValue() {
+        final InMemoryExpressions.Condition keyCondition = InMemoryExpressions.parseCondition(
+            "#version > :one AND :active = #status", NAMES, VALUES);
+
+        assertEquals(AttributeValue.fromS("ACTIVE"), InMemoryExpressions.findEqualityValue(keyCondition, "consentStatus"));
+        assertNull(InMemoryExpressions.findEqualityValue(keyCondition, "consentVersion"));
+        assertNull(InMemoryExpressions.parseCondition(null, NAMES, VALUES));
+        assertTrue(InMemoryExpressions.test(null, ITEM));
+    }
+
+    @Test
+    void applyUpdate() {
+        final Map<String, AttributeValue> updatedItem = InMemoryExpressions.applyUpdate(
+            "SET #version = #version + :one, counter = if_not_exists(counter, :ten) - :two, tags = list_append(tags, :tags) "
+                + "REMOVE tagSet, numberSet",
+            NAMES, VALUES, ITEM);
+
+        assertEquals(AttributeValue.fromN("3.0"), updatedItem.get("consentVersion"));
+        assertEquals(AttributeValue.fromN("8"), updatedItem.get("counter"));
+        assertEquals(List.of("a", "b", "c"), updatedItem.get("tags").l().stream().map(AttributeValue::s).toList());
+        assertFalse(updatedItem.containsKey("tagSet"));
+        assertFalse(updatedItem.containsKey("numberSet"));
+        assertEquals(ITEM.get("id"), updatedItem.get("id"));
+        assertEquals(ITEM, InMemoryExpressions.applyUpdate(null, NAMES, VALUES, ITEM));
+    }
+
+    @Test
+    void project() {
+        assertEquals(Map.of("consentStatus", ITEM.get("consentStatus"), "id", ITEM.get("id")),
+            InMemoryExpressions.project("#status, id, missing", NAMES, ITEM));
+        assertEquals(ITEM, InMemoryExpressions.project(null, NAMES, ITEM));
+    }
+
+    @Test
+    void compare() {
+        assertTrue(InMemoryExpressions.compare(AttributeValue.fromN("10"), AttributeValue.fromN("9.5")) > 0);
+        assertTrue(InMemoryExpressions.compare(AttributeValue.fromS("Z"), AttributeValue.fromS("é")) < 0);
+        assertTrue(InMemoryExpressions.compare(AttributeValue.fromB(SdkBytes.fromByteArray(new byte[] { (byte) 0x80 })),
+            AttributeValue.fromB(SdkBytes.fromByteArray(new byte[] { 0x7f }))) > 0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "#status = ",
+        "#status == :active",
+        "#status = :active)",
+        "(#status = :active",
+        "#status BETWEEN :one :two",
+        "#undefined = :active",
+        "#status = :undefined",
+        "unknown_function(id)",
+        ":active = :active = :active",
+        "#status = :active $"
+    })
+    void invalidConditions(final String expression) {
+        final DynamoDbException exception = assertThrows(DynamoDbException.class,
+            () -> InMemoryExpressions.parseCondition(expression, NAMES, VALUES));
+        assertEquals("ValidationException", exception.awsErrorDetails().errorCode());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "SET #status = :active, #status = :revoked",
+        "SET #status = :active REMOVE #status",
+        "SET counter = missing + :one",
+        "SET counter = #status + :one",
+        "SET tags = list_append(#status, :tags)",
+        "SET counter = unknown_function(:one)",
+        "UPSERT #status = :active"
+    })
+    void invalidUpdates(final String expression) {
+        final DynamoDbException exception = assertThrows(DynamoDbException.class,
+            () -> InMemoryExpressions.applyUpdate(expression, NAMES, VALUES, ITEM));
+        assertEquals("ValidationException", exception.awsErrorDetails().errorCode());
+    }
+
+    @Test
+    void unsupportedExpressions() {
+        assertThrows(UnsupportedOperationException.class, () -> InMemoryExpressions.parseCondition("tags[0] = :tag", NAMES, VALUES));
+        assertThrows(UnsupportedOperationException.class, () -> InMemoryExpressions.parseCondition("size(tags) > :one", NAMES, VALUES));
+        assertThrows(UnsupportedOperationException.class, () -> InMemoryExpressions.applyUpdate("ADD counter :one", NAMES, VALUES, ITEM));
+    }
+}
@@ -0,0 +1,684 @@
+package com.consentframework.shared.api.testfixtures.dynamodb;
+
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbConsentHistory;
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbConsentHistoryTableSchema;
+import com.consentframework.shared.api.infrastructure.entities.DynamoDbServiceUserConsent;
+import com.consentframework.shared.api.infrastructure.mappers.ConsentImageEncoding;
+import com.consentframework.shared.api.testfixtures.dynamodb.InMemoryExpressions.Condition;
+import com.consentframework.shared.api.testfixtures.dynamodb.InMemoryTable.KeySchema;
+import software.amazon.awssdk.core.exception.AbortedException;
+import software.amazon.awssdk.enhanced.dynamodb.KeyAttributeMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConditionCheck;
+import software.amazon.awssdk.services.dynamodb.model.CreateTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.CreateTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.Delete;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.KeyType;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.Select;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+import software.amazon.awssdk.services.dynamodb.model.TableStatus;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import java.util.stream.Stream;
+
+/**
+ * In-memory DynamoDbClient for tests and offline benchmarks, usable directly or by a DynamoDbEnhancedClient.
+ *
+ * Tables are created from an enhanced client TableSchema, including its secondary indexes, or with
+ * CreateTable.  GetItem, PutItem, UpdateItem, DeleteItem, Query, Scan, BatchGetItem, BatchWriteItem and
+ * TransactWriteItems honour partition and sort key order, sparse secondary indexes, Limit and
+ * ExclusiveStartKey paging, and condition, filter, projection and update expressions as described by
+ * InMemoryExpressions.  Errors are thrown as the exceptions the service returns, eg. a
+ * ConditionalCheckFailedException or a DynamoDbException with the ValidationException error code.
+ *
+ * Requests can be delayed by a fixed latency, throttled with a ProvisionedThroughputExceededException,
+ * or a TransactionCanceledException with ThrottlingError reasons, and batch requests can leave items
+ * unprocessed, to exercise consumers' retry and backoff paths.  Writes are serialized, so transactions
+ * are atomic with respect to other writes; reads run concurrently without locking.
+ */
+public class InMemoryDynamoDbClient implements DynamoDbClient {
+    public static final int MAX_BATCH_GET_ITEMS = 100;
+    public static final int MAX_BATCH_WRITE_ITEMS = 25;
+    public static final int MAX_TRANSACT_ITEMS = 100;
+
+    private final Map<String, InMemoryTable> tables = new ConcurrentHashMap<>();
+    private final Set<String> transactionTokens = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final RandomGenerator random;
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile double throttlingProbability;
+    private volatile double unprocessedItemProbability;
+    private final AtomicInteger remainingThrottledRequests = new AtomicInteger();
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong throttledRequestCount = new AtomicLong();
+    private final AtomicLong unprocessedItemCount = new AtomicLong();
+
+    /**
+     * Construct a client without tables.
+     */
+    public InMemoryDynamoDbClient() {
+        this(new Random());
+    }
+
+    /**
+     * Construct a client without tables, using the given generator for throttling and unprocessed items.
+     *
+     * @param random random generator, eg. seeded for repeatable failures
+     */
+    public InMemoryDynamoDbClient(final RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Create the ServiceUserConsent and ConsentHistory tables, with their GSIs.
+     *
+     * @return this client
+     */
+    public InMemoryDynamoDbClient withConsentTables() {
+        return withTable(DynamoDbServiceUserConsent.TABLE_NAME, TableSchema.fromImmutableClass(DynamoDbServiceUserConsent.class))
+            .withTable(DynamoDbConsentHistory.TABLE_NAME, DynamoDbConsentHistoryTableSchema.create(ConsentImageEncoding.JSON));
+    }
+
+    /**
+     * Create a table with the primary key and secondary indexes declared by a table schema.
+     *
+     * @param tableName table name
+     * @param tableSchema table schema
+     * @return this client
+     */
+    public InMemoryDynamoDbClient withTable(final String tableName, final TableSchema<?> tableSchema) {
+        final TableMetadata metadata = tableSchema.tableMetadata();
+        final String partitionKey = metadata.primaryPartitionKey();
+        final List<KeySchema> secondaryKeys = metadata.indices().stream()
+            .filter(index -> !index.name().equals(TableMetadata.primaryIndexName()))
+            .map(index -> new KeySchema(index.name(),
+                index.partitionKey().map(KeyAttributeMetadata::name).orElse(partitionKey),
+                index.sortKey().map(KeyAttributeMetadata::name).orElse(null)))
+            .toList();
+        addTable(new InMemoryTable(tableName, new KeySchema(null, partitionKey, metadata.primarySortKey().orElse(null)), secondaryKeys));
+        return this;
+    }
+
+    /**
+     * Delay every request, eg. to model network and service latency.
+     *
+     * @param requestLatency latency added to each request
+     * @return this client
+     */
+    public InMemoryDynamoDbClient withLatency(final Duration requestLatency) {
+        if (requestLatency.isNegative()) {
+            throw new IllegalArgumentException(String.format("Invalid latency %s, must not be negative", requestLatency));
+        }
+        this.latency = requestLatency;
+        return this;
+    }
+
+    /**
+     * Throttle each request with the given probability.
+     *
+     * @param probability probability between 0 and 1
+     * @return this client
+     */
+    public InMemoryDynamoDbClient withThrottlingProbability(final double probability) {
+        this.throttlingProbability = validateProbability("throttling", probability);
+        return this;
+    }
+
+    /**
+     * Throttle the next requests, regardless of the throttling probability.
+     *
+     * @param requests number of requests to throttle
+     * @return this client
+     */
+    public InMemoryDynamoDbClient throttleNextRequests(final int requests) {
+        remainingThrottledRequests.set(requests);
+        return this;
+    }
+
+    /**
+     * Leave each item of a BatchGetItem or BatchWriteItem request unprocessed with the given probability.
+     *
+     * @param probability probability between 0 and 1
+     * @return this client
+     */
+    public InMemoryDynamoDbClient withUnprocessedItemProbability(final double probability) {
+        this.unprocessedItemProbability = validateProbability("unprocessed item", probability);
+        return this;
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getThrottledRequestCount() {
+        return throttledRequestCount.get();
+    }
+
+    public long getUnprocessedItemCount() {
+        return unprocessedItemCount.get();
+    }
+
+    /**
+     * Return the number of items in a table.
+     *
+     * @param tableName table name
+     * @return item count
+     */
+    public int getItemCount(final String tableName) {
+        return getTable(tableName).getItemCount();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {}
+
+    /**
+     * Create a table with the key schema and secondary indexes in the request.
+     */
+    @Override
+    public CreateTableResponse createTable(final CreateTableRequest request) {
+        simulateRequest();
+        final List<KeySchema> secondaryKeys = new ArrayList<>();
+        request.globalSecondaryIndexes().forEach(index -> secondaryKeys.add(toKeySchema(index.indexName(), index.keySchema())));
+        request.localSecondaryIndexes().forEach(index -> secondaryKeys.add(toKeySchema(index.indexName(), index.keySchema())));
+        addTable(new InMemoryTable(request.tableName(), toKeySchema(null, request.keySchema()), secondaryKeys));
+        return CreateTableResponse.builder()
+            .tableDescription(TableDescription.builder()
+                .tableName(request.tableName())
+                .keySchema(request.keySchema())
+                .tableStatus(TableStatus.ACTIVE)
+                .build())
+            .build();
+    }
+
+    @Override
+    public GetItemResponse getItem(final GetItemRequest request) {
+        simulateRequest();
+        final Map<String, AttributeValue> item = getTable(request.tableName()).getItem(request.key());
+        if (item == null) {
+            return GetItemResponse.builder().build();
+        }
+        return GetItemResponse.builder()
+            .item(InMemoryExpressions.project(request.projectionExpression(), request.expressionAttributeNames(), item))
+            .build();
+    }
+
+    @Override
+    public PutItemResponse putItem(final PutItemRequest request) {
+        simulateRequest();
+        final InMemoryTable table = getTable(request.tableName());
+        final Map<String, AttributeValue> oldItem = write(() -> {
+            checkCondition(table, request.item(), request.conditionExpression(), request.expressionAttributeNames(),
+                request.expressionAttributeValues());
+            return table.putItem(request.item());
+        });
+        return PutItemResponse.builder().attributes(getReturnValues(request.returnValues(), oldItem, null)).build();
+    }
+
+    @Override
+    public UpdateItemResponse updateItem(final UpdateItemRequest request) {
+        simulateRequest();
+        final InMemoryTable table = getTable(request.tableName());
+        final List<Map<String, AttributeValue>> oldAndNewItems = write(() -> {
+            final Map<String, AttributeValue> oldItem = checkCondition(table, request.key(), request.conditionExpression(),
+                request.expressionAttributeNames(), request.expressionAttributeValues());
+            final Map<String, AttributeValue> newItem = getUpdatedItem(table, request.key(), oldItem, request.updateExpression(),
+                request.expressionAttributeNames(), request.expressionAttributeValues());
+            table.putItem(newItem);
+            return Arrays.asList(oldItem, newItem);
+        });
+        return UpdateItemResponse.builder()
+            .attributes(getReturnValues(request.returnValues(), oldAndNewItems.get(0), oldAndNewItems.get(1)))
+            .build();
+    }
+
+    @Override
+    public DeleteItemResponse deleteItem(final DeleteItemRequest request) {
+        simulateRequest();
+        final InMemoryTable table = getTable(request.tableName());
+        final Map<String, AttributeValue> oldItem = write(() -> {
+            checkCondition(table, request.key(), request.conditionExpression(), request.expressionAttributeNames(),
+                request.expressionAttributeValues());
+            return table.deleteItem(request.key());
+        });
+        return DeleteItemResponse.builder().attributes(getReturnValues(request.returnValues(), oldItem, null)).build();
+    }
+
+    @Override
+    public QueryResponse query(final QueryRequest request) {
+        simulateRequest();
+        final InMemoryTable.Index index = getIndex(request.tableName(), request.indexName(), request.consistentRead());
+        if (request.keyConditionExpression() == null) {
+            throw InMemoryDynamoDbErrors.validation(
+                "Either the KeyConditions or KeyConditionExpression parameter must be specified in the request.");
+        }
+        final Condition keyCondition = InMemoryExpressions.parseCondition(request.keyConditionExpression(),
+            request.expressionAttributeNames(), request.expressionAttributeValues());
+        final String partitionKey = index.getKeySchema().partitionKey();
+        final AttributeValue partitionValue = InMemoryExpressions.findEqualityValue(keyCondition, partitionKey);
+        if (partitionValue == null) {
+            throw InMemoryDynamoDbErrors.validation("Query condition missed key schema element: " + partitionKey);
+        }
+
+        final ResultPage page = readPage(index,
+            index.query(partitionValue, request.exclusiveStartKey(), !Boolean.FALSE.equals(request.scanIndexForward()))
+                .filter(keyCondition::test),
+            request.limit(), request.filterExpression(), request.projectionExpression(), request.select(),
+            request.expressionAttributeNames(), request.expressionAttributeValues());
+        final QueryResponse.Builder response = QueryResponse.builder()
+            .count(page.count())
+            .scannedCount(page.scannedCount())
+            .lastEvaluatedKey(page.lastEvaluatedKey());
+        return (request.select() == Select.COUNT) ? response.build() : response.items(page.items()).build();
+    }
+
+    @Override
+    public ScanResponse scan(final ScanRequest request) {
+        simulateRequest();
+        if (request.segment() != null || request.totalSegments() != null) {
+            throw new UnsupportedOperationException("Parallel scan segments are not supported");
+        }
+        final InMemoryTable.Index index = getIndex(request.tableName(), request.indexName(), request.consistentRead());
+        final ResultPage page = readPage(index, index.scan(request.exclusiveStartKey()), request.limit(), request.filterExpression(),
+            request.projectionExpression(), request.select(), request.expressionAttributeNames(), request.expressionAttributeValues());
+        final ScanResponse.Builder response = ScanResponse.builder()
+            .count(page.count())
+            .scannedCount(page.scannedCount())
+            .lastEvaluatedKey(page.lastEvaluatedKey());
+        return (request.select() == Select.COUNT) ? response.build() : response.items(page.items()).build();
+    }
+
+    @Override
+    public BatchGetItemResponse batchGetItem(final BatchGetItemRequest request) {
+        simulateRequest();
+        final int keyCount = request.requestItems().values().stream().mapToInt(keysAndAttributes -> keysAndAttributes.keys().size()).sum();
+        if (keyCount == 0 || keyCount > MAX_BATCH_GET_ITEMS) {
+            throw InMemoryDynamoDbErrors.validation(String.format(
+                "Too many items requested for the BatchGetItem call, must request between 1 and %d keys", MAX_BATCH_GET_ITEMS));
+        }
+
+        final Map<String, List<Map<String, AttributeValue>>> responses = new HashMap<>();
+        final Map<String, KeysAndAttributes> unprocessedKeys = new HashMap<>();
+        request.requestItems().forEach((tableName, keysAndAttributes) -> {
+            final InMemoryTable table = getTable(tableName);
+            final List<Map<String, AttributeValue>> tableResponses = responses.computeIfAbsent(tableName, name -> new ArrayList<>());
+            final List<Map<String, AttributeValue>> tableUnprocessedKeys = new ArrayList<>();
+            for (final Map<String, AttributeValue> key : keysAndAttributes.keys()) {
+                if (isUnprocessed()) {
+                    tableUnprocessedKeys.add(key);
+                    continue;
+                }
+                final Map<String, AttributeValue> item = table.getItem(key);
+                if (item != null) {
+                    tableResponses.add(InMemoryExpressions.project(keysAndAttributes.projectionExpression(),
+                        keysAndAttributes.expressionAttributeNames(), item));
+                }
+            }
+            if (!tableUnprocessedKeys.isEmpty()) {
+                unprocessedKeys.put(tableName, keysAndAttributes.toBuilder().keys(tableUnprocessedKeys).build());
+            }
+        });
+        return BatchGetItemResponse.builder().responses(responses).unprocessedKeys(unprocessedKeys).build();
+    }
+
+    @Override
+    public BatchWriteItemResponse batchWriteItem(final BatchWriteItemRequest request) {
+        simulateRequest();
+        final int itemCount = request.requestItems().values().stream().mapToInt(List::size).sum();
+        if (itemCount == 0 || itemCount > MAX_BATCH_WRITE_ITEMS) {
+            throw InMemoryDynamoDbErrors.validation(String.format(
+                "Too many items requested for the BatchWriteItem call, must request between 1 and %d items", MAX_BATCH_WRITE_ITEMS));
+        }
+        final Set<List<Object>> itemKeys = new HashSet<>();
+        request.requestItems().forEach((tableName, writeRequests) -> {
+            final InMemoryTable table = getTable(tableName);
+            for (final WriteRequest writeRequest : writeRequests) {
+                final Map<String, AttributeValue> key = table.toKey((writeRequest.putRequest() == null)
+                    ? writeRequest.deleteRequest().key()
+                    : writeRequest.putRequest().item());
+                if (!itemKeys.add(List.of(tableName, key))) {
+                    throw InMemoryDynamoDbErrors.validation("Provided list of item keys contains duplicates");
+                }
+            }
+        });
+
+        final Map<String, List<WriteRequest>> unprocessedItems = new HashMap<>();
+        write(() -> {
+            request.requestItems().forEach((tableName, writeRequests) -> {
+                final InMemoryTable table = getTable(tableName);
+                for (final WriteRequest writeRequest : writeRequests) {
+                    if (isUnprocessed()) {
+                        unprocessedItems.computeIfAbsent(tableName, name -> new ArrayList<>()).add(writeRequest);
+                    } else if (writeRequest.putRequest() == null) {
+                        table.deleteItem(writeRequest.deleteRequest().key());
+                    } else {
+                        table.putItem(writeRequest.putRequest().item());
+                    }
+                }
+            });
+            return null;
+        });
+        return BatchWriteItemResponse.builder().unprocessedItems(unprocessedItems).build();
+    }
+
+    /**
+     * Write all items or none, failing with a TransactionCanceledException if any condition isn't met.
+     *
+     * A retry with the client request token of a transaction that succeeded returns without writing again.
+     */
+    @Override
+    public TransactWriteItemsResponse transactWriteItems(final TransactWriteItemsRequest request) {
+        simulateLatency();
+        final List<TransactWriteItem> transactItems = request.transactItems();
+        if (transactItems.isEmpty() || transactItems.size() > MAX_TRANSACT_ITEMS) {
+            throw InMemoryDynamoDbErrors.validation(String.format(
+                "Member must have length less than or equal to %d and greater than or equal to 1", MAX_TRANSACT_ITEMS));
+        }
+        final String token = request.clientRequestToken();
+        if (token != null && transactionTokens.contains(token)) {
+            return TransactWriteItemsResponse.builder().build();
+        }
+        if (isThrottled()) {
+            throw InMemoryDynamoDbErrors.transactionCanceled(Collections.nCopies(transactItems.size(), "ThrottlingError"));
+        }
+
+        write(() -> {
+            final List<Runnable> writes = new ArrayList<>(transactItems.size());
+            final List<String> reasonCodes = new ArrayList<>(transactItems.size());
+            final Set<List<Object>> itemKeys = new HashSet<>();
+            for (final TransactWriteItem transactItem : transactItems) {
+                final TransactWrite transactWrite = TransactWrite.of(transactItem);
+                final InMemoryTable table = getTable(transactWrite.tableName());
+                final Map<String, AttributeValue> key = table.toKey(transactWrite.keyOrItem());
+                if (!itemKeys.add(List.of(table.getTableName(), key))) {
+                    throw InMemoryDynamoDbErrors.validation("Transaction request cannot include multiple operations on one item");
+                }
+                final Map<String, AttributeValue> oldItem = table.getItem(key);
+                final Condition condition = InMemoryExpressions.parseCondition(transactWrite.conditionExpression(),
+                    transactWrite.names(), transactWrite.values());
+                final boolean conditionMet = InMemoryExpressions.test(condition, (oldItem == null) ? Map.of() : oldItem);
+                reasonCodes.add(conditionMet ? "None" : "ConditionalCheckFailed");
+                writes.add(prepareTransactWrite(table, key, oldItem, transactItem));
+            }
+            if (reasonCodes.contains("ConditionalCheckFailed")) {
+                throw InMemoryDynamoDbErrors.transactionCanceled(reasonCodes);
+            }
+            writes.forEach(Runnable::run);
+            if (token != null) {
+                transactionTokens.add(token);
+            }
+            return null;
+        });
+        return TransactWriteItemsResponse.builder().build();
+    }
+
+    private Runnable prepareTransactWrite(final InMemoryTable table, final Map<String, AttributeValue> key,
+            final Map<String, AttributeValue> oldItem, final TransactWriteItem transactItem) {
+        if (transactItem.put() != null) {
+            return () -> table.putItem(transactItem.put().item());
+        }
+        if (transactItem.delete() != null) {
+            return () -> table.deleteItem(key);
+        }
+        if (transactItem.update() != null) {
+            final Update update = transactItem.update();
+            final Map<String, AttributeValue> newItem = getUpdatedItem(table, key, oldItem, update.updateExpression(),
+                update.expressionAttributeNames(), update.expressionAttributeValues());
+            return () -> table.putItem(newItem);
+        }
+        return () -> {};
+    }
+
+    private void addTable(final InMemoryTable table) {
+        if (tables.putIfAbsent(table.getTableName(), table) != null) {
+            throw InMemoryDynamoDbErrors.resourceInUse(table.getTableName());
+        }
+    }
+
+    private InMemoryTable getTable(final String tableName) {
+        final InMemoryTable table = tables.get(tableName);
+        if (table == null) {
+            throw InMemoryDynamoDbErrors.resourceNotFound(tableName);
+        }
+        return table;
+    }
+
+    private InMemoryTable.Index getIndex(final String tableName, final String indexName, final Boolean consistentRead) {
+        final InMemoryTable.Index index = getTable(tableName).getIndex(indexName);
+        if (index.isSecondary() && Boolean.TRUE.equals(consistentRead)) {
+            throw InMemoryDynamoDbErrors.validation("Consistent reads are not supported on global secondary indexes");
+        }
+        return index;
+    }
+
+    private static KeySchema toKeySchema(final String indexName, final List<KeySchemaElement> keySchema) {
+        String partitionKey = null;
+        String sortKey = null;
+        for (final KeySchemaElement element : keySchema) {
+            if (element.keyType() == KeyType.HASH) {
+                partitionKey = element.attributeName();
+            } else {
+                sortKey = element.attributeName();
+            }
+        }
+        if (partitionKey == null) {
+            throw InMemoryDynamoDbErrors.validation("Invalid KeySchema: No Hash Key specified");
+        }
+        return new KeySchema(indexName, partitionKey, sortKey);
+    }
+
+    /**
+     * Check a write's condition against the current item, returning the current item or null.  Requires the write lock.
+     */
+    private static Map<String, AttributeValue> checkCondition(final InMemoryTable table, final Map<String, AttributeValue> keyOrItem,
+            final String conditionExpression, final Map<String, String> names, final Map<String, AttributeValue> values) {
+        final Condition condition = InMemoryExpressions.parseCondition(conditionExpression, names, values);
+        final Map<String, AttributeValue> oldItem = table.getItem(table.toKey(keyOrItem));
+        if (!InMemoryExpressions.test(condition, (oldItem == null) ? Map.of() : oldItem)) {
+            throw InMemoryDynamoDbErrors.conditionalCheckFailed();
+        }
+        return oldItem;
+    }
+
+    private static Map<String, AttributeValue> getUpdatedItem(final InMemoryTable table, final Map<String, AttributeValue> key,
+            final Map<String, AttributeValue> oldItem, final String updateExpression, final Map<String, String> names,
+            final Map<String, AttributeValue> values) {
+        final Map<String, AttributeValue> primaryKey = table.toKey(key);
+        final Map<String, AttributeValue> newItem = InMemoryExpressions.applyUpdate(updateExpression, names, values,
+            (oldItem == null) ? primaryKey : oldItem);
+        for (final Map.Entry<String, AttributeValue> keyAttribute : primaryKey.entrySet()) {
+            if (!keyAttribute.getValue().equals(newItem.get(keyAttribute.getKey()))) {
+                throw InMemoryDynamoDbErrors.validation(String.format(
+                    "One or more parameter values were invalid: Cannot update attribute %s. This attribute is part of the key",
+                    keyAttribute.getKey()));
+            }
+        }
+        return newItem;
+    }
+
+    private static Map<String, AttributeValue> getReturnValues(final ReturnValue returnValue, final Map<String, AttributeValue> oldItem,
+            final Map<String, AttributeValue> newItem) {
+        if (returnValue == null || returnValue == ReturnValue.NONE) {
+            return null;
+        }
+        return switch (returnValue) {
+            case ALL_OLD -> oldItem;
+            case ALL_NEW -> newItem;
+            default -> throw new UnsupportedOperationException("Unsupported ReturnValues " + returnValue);
+        };
+    }
+
+    private static ResultPage readPage(final InMemoryTable.Index index, final Stream<Map<String, AttributeValue>> candidates,
+            final Integer limit, final String filterExpression, final String projectionExpression, final Select select,
+            final Map<String, String> names, final Map<String, AttributeValue> values) {
+        if (limit != null && limit < 1) {
+            throw InMemoryDynamoDbErrors.validation("Limit must be greater than or equal to 1");
+        }
+        if (select != null && select != Select.ALL_ATTRIBUTES && select != Select.ALL_PROJECTED_ATTRIBUTES && select != Select.COUNT) {
+            throw new UnsupportedOperationException("Unsupported Select " + select);
+        }
+        final Condition filter = InMemoryExpressions.parseCondition(filterExpression, names, values);
+        final int maxItems = (limit == null) ? Integer.MAX_VALUE : limit;
+
+        final List<Map<String, AttributeValue>> items = new ArrayList<>();
+        int scannedCount = 0;
+        Map<String, AttributeValue> lastItem = null;
+        final Iterator<Map<String, AttributeValue>> iterator = candidates.iterator();
+        while (scannedCount < maxItems && iterator.hasNext()) {
+            lastItem = iterator.next();
+            scannedCount++;
+            if (InMemoryExpressions.test(filter, lastItem)) {
+                items.add(InMemoryExpressions.project(projectionExpression, names, lastItem));
+            }
+        }
+        // As in DynamoDB, a page that reaches the limit has a last evaluated key even if no items remain
+        final Map<String, AttributeValue> lastEvaluatedKey = (scannedCount == maxItems) ? index.getLastEvaluatedKey(lastItem) : null;
+        return new ResultPage(items, items.size(), scannedCount, lastEvaluatedKey);
+    }
+
+    private <T> T write(final Supplier<T> writeOperation) {
+        writeLock.lock();
+        try {
+            return writeOperation.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void simulateRequest() {
+        simulateLatency();
+        if (isThrottled()) {
+            throw InMemoryDynamoDbErrors.throughputExceeded();
+        }
+    }
+
+    private void simulateLatency() {
+        requestCount.incrementAndGet();
+        final Duration requestLatency = latency;
+        if (requestLatency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(requestLatency);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw AbortedException.builder().message("Thread was interrupted").cause(e).build();
+        }
+    }
+
+    private boolean isThrottled() {
+        final boolean throttled = remainingThrottledRequests.getAndUpdate(requests -> Math.max(0, requests - 1)) > 0
+            || nextBoolean(throttlingProbability);
+        if (throttled) {
+            throttledRequestCount.incrementAndGet();
+        }
+        return throttled;
+    }
+
+    private boolean isUnprocessed() {
+        final boolean unprocessed = nextBoolean(unprocessedItemProbability);
+        if (unprocessed) {
+            unprocessedItemCount.incrementAndGet();
+        }
+        return unprocessed;
+    }
+
+    private boolean nextBoolean(final double probability) {
+        if (probability <= 0) {
+            return false;
+        }
+        synchronized (random) {
+            return random.nextDouble() < probability;
+        }
+    }
+
+    private static double validateProbability(final String name, final double probability) {
+        if (!(probability >= 0 && probability <= 1)) {
+            throw new IllegalArgumentException(String.format("Invalid %s probability %s, must be between 0 and 1", name, probability));
+        }
+        return probability;
+    }
+
+    /**
+     * Items read for a Query or Scan page.
+     */
+    private record ResultPage(List<Map<String, AttributeValue>> items, int count, int scannedCount,
+        Map<String, AttributeValue> lastEvaluatedKey) {}
+
+    /**
+     * Table, key and condition of one TransactWriteItems action.
+     */
+    private record TransactWrite(String tableName, Map<String, AttributeValue> keyOrItem, String conditionExpression,
+            Map<String, String> names, Map<String, AttributeValue> values) {
+        static TransactWrite of(final TransactWriteItem transactItem) {
+            if (transactItem.put() != null) {
+                final Put put = transactItem.put();
+                return new TransactWrite(put.tableName(), put.item(), put.conditionExpression(),
+                    put.expressionAttributeNames(), put.expressionAttributeValues());
+            }
+            if (transactItem.delete() != null) {
+                final Delete delete = transactItem.delete();
+                return new TransactWrite(delete.tableName(), delete.key(), delete.conditionExpression(),
+                    delete.expressionAttributeNames(), delete.expressionAttributeValues());
+            }
+            if (transactItem.update() != null) {
+                final Update update = transactItem.update();
+                return new TransactWrite(update.tableName(), update.key(), update.conditionExpression(),
+                    update.expressionAttributeNames(), update.expressionAttributeValues());
+            }
+            final ConditionCheck conditionCheck = transactItem.conditionCheck();
+            return new TransactWrite(conditionCheck.tableName(), conditionCheck.key(), conditionCheck.conditionExpression(),
+                conditionCheck.expressionAttributeNames(), conditionCheck.expressionAttributeValues());
+        }
+    }
+}
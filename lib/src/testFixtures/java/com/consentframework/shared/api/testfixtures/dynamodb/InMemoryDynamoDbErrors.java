@@ -0,0 +1,60 @@
+package com.consentframework.shared.api.testfixtures.dynamodb;
+
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.ResourceInUseException;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.util.List;
+
+/**
+ * Builds the exceptions DynamoDB returns, with the error codes and messages of the real service.
+ */
+final class InMemoryDynamoDbErrors {
+    private static final String SERVICE_NAME = "DynamoDb";
+
+    private InMemoryDynamoDbErrors() {}
+
+    static DynamoDbException validation(final String message) {
+        return build(DynamoDbException.builder(), "ValidationException", message);
+    }
+
+    static DynamoDbException resourceNotFound(final String tableName) {
+        return build(ResourceNotFoundException.builder(), "ResourceNotFoundException",
+            String.format("Requested resource not found: Table: %s not found", tableName));
+    }
+
+    static DynamoDbException resourceInUse(final String tableName) {
+        return build(ResourceInUseException.builder(), "ResourceInUseException", "Table already exists: " + tableName);
+    }
+
+    static DynamoDbException throughputExceeded() {
+        return build(ProvisionedThroughputExceededException.builder(), "ProvisionedThroughputExceededException",
+            "The level of configured provisioned throughput for the table was exceeded. "
+                + "Consider increasing your provisioning level with the UpdateTable API.");
+    }
+
+    static DynamoDbException conditionalCheckFailed() {
+        return build(ConditionalCheckFailedException.builder(), "ConditionalCheckFailedException", "The conditional request failed");
+    }
+
+    static DynamoDbException transactionCanceled(final List<String> reasonCodes) {
+        final List<CancellationReason> reasons = reasonCodes.stream()
+            .map(code -> CancellationReason.builder().code(code).build())
+            .toList();
+        return build(TransactionCanceledException.builder().cancellationReasons(reasons), "TransactionCanceledException",
+            String.format("Transaction cancelled, please refer cancellation reasons for specific reasons %s", reasonCodes));
+    }
+
+    private static DynamoDbException build(final DynamoDbException.Builder builder, final String errorCode, final String message) {
+        return (DynamoDbException) builder
+            .message(message)
+            .statusCode(400)
+            .awsErrorDetails(AwsErrorDetails.builder().errorCode(errorCode).errorMessage(message).serviceName(SERVICE_NAME).build())
+            .build();
+    }
+}
@@ -0,0 +1,581 @@
+package com.consentframework.shared.api.testfixtures.dynamodb;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses and evaluates DynamoDB expressions for InMemoryDynamoDbClient.
+ *
+ * Key condition, condition and filter expressions may use comparisons, BETWEEN, IN, attribute_exists,
+ * attribute_not_exists, begins_with and contains, joined with AND, OR and NOT.  Update expressions may
+ * use SET, with if_not_exists, list_append, addition and subtraction, and REMOVE.  Expressions may only
+ * reference top-level attributes; nested document paths, size, attribute_type and the ADD and DELETE
+ * update clauses throw UnsupportedOperationException.
+ */
+final class InMemoryExpressions {
+    private static final Pattern TOKEN = Pattern.compile("\\s*(<>|<=|>=|[=<>(),+\\-.\\[\\]]|[#:]?\\w+)");
+    private static final Set<String> COMPARATORS = Set.of("=", "<>", "<", "<=", ">", ">=");
+
+    private InMemoryExpressions() {}
+
+    /**
+     * A parsed key condition, condition or filter expression.
+     */
+    sealed interface Condition {
+        boolean test(Map<String, AttributeValue> item);
+    }
+
+    /**
+     * A path, value or function operand, resolved to null if it references a missing attribute.
+     */
+    private sealed interface Operand {
+        AttributeValue resolve(Map<String, AttributeValue> item);
+    }
+
+    private record Path(String name) implements Operand {
+        @Override
+        public AttributeValue resolve(final Map<String, AttributeValue> item) {
+            return item.get(name);
+        }
+    }
+
+    private record Value(AttributeValue value) implements Operand {
+        @Override
+        public AttributeValue resolve(final Map<String, AttributeValue> item) {
+            return value;
+        }
+    }
+
+    private record IfNotExists(Path path, Operand fallback) implements Operand {
+        @Override
+        public AttributeValue resolve(final Map<String, AttributeValue> item) {
+            final AttributeValue value = path.resolve(item);
+            return (value == null) ? fallback.resolve(item) : value;
+        }
+    }
+
+    private record ListAppend(Operand first, Operand second) implements Operand {
+        @Override
+        public AttributeValue resolve(final Map<String, AttributeValue> item) {
+            final AttributeValue firstList = requireUpdateOperand(first.resolve(item), AttributeValue.Type.L);
+            final AttributeValue secondList = requireUpdateOperand(second.resolve(item), AttributeValue.Type.L);
+            final List<AttributeValue> appended = new ArrayList<>(firstList.l());
+            appended.addAll(secondList.l());
+            return AttributeValue.fromL(appended);
+        }
+    }
+
+    private record Arithmetic(Operand left, boolean add, Operand right) implements Operand {
+        @Override
+        public AttributeValue resolve(final Map<String, AttributeValue> item) {
+            final BigDecimal leftNumber = new BigDecimal(requireUpdateOperand(left.resolve(item), AttributeValue.Type.N).n());
+            final BigDecimal rightNumber = new BigDecimal(requireUpdateOperand(right.resolve(item), AttributeValue.Type.N).n());
+            return AttributeValue.fromN((add ? leftNumber.add(rightNumber) : leftNumber.subtract(rightNumber)).toPlainString());
+        }
+    }
+
+    private record And(Condition left, Condition right) implements Condition {
+        @Override
+        public boolean test(final Map<String, AttributeValue> item) {
+            return left.test(item) && right.test(item);
+        }
+    }
+
+    private record Or(Condition left, Condition right) implements Condition {
+        @Override
+        public boolean test(final Map<String, AttributeValue> item) {
+            return left.test(item) || right.test(item);
+        }
+    }
+
+    private record Not(Condition condition) implements Condition {
+        @Override
+        public boolean test(final Map<String, AttributeValue> item) {
+            return !condition.test(item);
+        }
+    }
+
+    private record Comparison(String comparator, Operand left, Operand right) implements Condition {
+        @Override
+        public boolean test(final Map<String, AttributeValue> item) {
+            final AttributeValue leftValue = left.resolve(item);
+            final AttributeValue rightValue = right.resolve(item);
+            return switch (comparator) {
+                case "=" -> isEqual(leftValue, rightValue);
+                case "<>" -> !isEqual(leftValue, rightValue);
+                case "<" -> isOrdered(leftValue, rightValue) && compare(leftValue, rightValue) < 0;
+                case "<=" -> isOrdered(leftValue, rightValue) && compare(leftValue, rightValue) <= 0;
+                case ">" -> isOrdered(leftValue, rightValue) && compare(leftValue, rightValue) > 0;
+                default -> isOrdered(leftValue, rightValue) && compare(leftValue, rightValue) >= 0;
+            };
+        }
+    }
+
+    private record Between(Operand operand, Operand lower, Operand upper) implements Condition {
+        @Override
+        public boolean test(final Map<String, AttributeValue> item) {
+            final AttributeValue value = operand.resolve(item);
+            final AttributeValue lowerValue = lower.resolve(item);
+            final AttributeValue upperValue = upper.resolve(item);
+            return isOrdered(value, lowerValue) && isOrdered(value, upperValue)
+                && compare(value, lowerValue) >= 0 && compare(value, upperValue) <= 0;
+        }
+    }
+
+    private record In(Operand operand, List<Operand> candidates) implements Condition {
+        @Override
+        public boolean test(final Map<String, AttributeValue> item) {
+            final AttributeValue value = operand.resolve(item);
+            return candidates.stream().anyMatch(candidate -> isEqual(value, candidate.resolve(item)));
+        }
+    }
+
+    private record Function(String name, Path path, Operand argument) implements Condition {
+        @Override
+        public boolean test(final Map<String, AttributeValue> item) {
+            final AttributeValue value = path.resolve(item);
+            return switch (name) {
+                case "attribute_exists" -> value != null;
+                case "attribute_not_exists" -> value == null;
+                case "begins_with" -> beginsWith(value, argument.resolve(item));
+                default -> contains(value, argument.resolve(item));
+            };
+        }
+    }
+
+    /**
+     * Parse a key condition, condition or filter expression.
+     *
+     * @param expression expression, or null
+     * @param names expression attribute names
+     * @param values expression attribute values
+     * @return parsed condition, or null if there is no expression
+     */
+    static Condition parseCondition(final String expression, final Map<String, String> names, final Map<String, AttributeValue> values) {
+        if (expression == null) {
+            return null;
+        }
+        final Parser parser = new Parser(expression, names, values);
+        final Condition condition = parser.parseOr();
+        parser.expectEnd();
+        return condition;
+    }
+
+    /**
+     * Return whether an item satisfies an optional condition.
+     *
+     * @param condition parsed condition, or null
+     * @param item item, or an empty map for a missing item
+     * @return true if there is no condition or the item satisfies it
+     */
+    static boolean test(final Condition condition, final Map<String, AttributeValue> item) {
+        return condition == null || condition.test(item);
+    }
+
+    /**
+     * Find the value an attribute must equal for a key condition to be satisfied, eg. the partition key value.
+     *
+     * @param keyCondition parsed key condition
+     * @param attributeName attribute name
+     * @return value from an "attribute = :value" comparison joined to the rest of the condition with AND, or null
+     */
+    static AttributeValue findEqualityValue(final Condition keyCondition, final String attributeName) {
+        if (keyCondition instanceof And and) {
+            final AttributeValue leftValue = findEqualityValue(and.left(), attributeName);
+            return (leftValue == null) ? findEqualityValue(and.right(), attributeName) : leftValue;
+        }
+        if (keyCondition instanceof Comparison comparison && comparison.comparator().equals("=")) {
+            if (comparison.left() instanceof Path path && path.name().equals(attributeName) && comparison.right() instanceof Value value) {
+                return value.value();
+            }
+            if (comparison.right() instanceof Path path && path.name().equals(attributeName) && comparison.left() instanceof Value value) {
+                return value.value();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Apply an update expression to an item.
+     *
+     * @param expression update expression, or null
+     * @param names expression attribute names
+     * @param values expression attribute values
+     * @param item current item, or an empty map for a missing item
+     * @return updated item
+     */
+    static Map<String, AttributeValue> applyUpdate(final String expression, final Map<String, String> names,
+            final Map<String, AttributeValue> values, final Map<String, AttributeValue> item) {
+        final Map<String, AttributeValue> updatedItem = new LinkedHashMap<>(item);
+        if (expression == null) {
+            return updatedItem;
+        }
+        final Parser parser = new Parser(expression, names, values);
+        final Map<String, Operand> setActions = new HashMap<>();
+        final List<String> removeActions = new ArrayList<>();
+        while (!parser.isAtEnd()) {
+            final String clause = parser.next().toUpperCase(Locale.ROOT);
+            switch (clause) {
+                case "SET" -> {
+                    do {
+                        final Path path = parser.parsePath();
+                        parser.expect("=");
+                        addAction(setActions.keySet(), removeActions, path.name());
+                        setActions.put(path.name(), parser.parseSetValue());
+                    } while (parser.accept(","));
+                }
+                case "REMOVE" -> {
+                    do {
+                        final Path path = parser.parsePath();
+                        addAction(setActions.keySet(), removeActions, path.name());
+                        removeActions.add(path.name());
+                    } while (parser.accept(","));
+                }
+                case "ADD", "DELETE" -> throw new UnsupportedOperationException(clause + " update clauses are not supported");
+                default -> throw InMemoryDynamoDbErrors.validation("Invalid UpdateExpression: Syntax error; token: \"" + clause + "\"");
+            }
+        }
+
+        // Every action is evaluated against the item as it was before the update
+        for (final Map.Entry<String, Operand> setAction : setActions.entrySet()) {
+            updatedItem.put(setAction.getKey(), requireUpdateOperand(setAction.getValue().resolve(item), null));
+        }
+        removeActions.forEach(updatedItem::remove);
+        return updatedItem;
+    }
+
+    /**
+     * Project an item to the top-level attributes listed in a projection expression.
+     *
+     * @param expression projection expression, or null for all attributes
+     * @param names expression attribute names
+     * @param item item
+     * @return projected item
+     */
+    static Map<String, AttributeValue> project(final String expression, final Map<String, String> names,
+            final Map<String, AttributeValue> item) {
+        if (expression == null) {
+            return item;
+        }
+        final Parser parser = new Parser(expression, names, Map.of());
+        final Map<String, AttributeValue> projectedItem = new LinkedHashMap<>();
+        do {
+            final String name = parser.parsePath().name();
+            if (item.containsKey(name)) {
+                projectedItem.put(name, item.get(name));
+            }
+        } while (parser.accept(","));
+        parser.expectEnd();
+        return projectedItem;
+    }
+
+    /**
+     * Compare two scalar key values of the same type, as DynamoDB orders sort keys.
+     *
+     * Strings and binary values are compared as unsigned bytes, and numbers by value.
+     *
+     * @param first first value
+     * @param second second value, with the same type as the first
+     * @return negative, zero or positive as the first value is less than, equal to or greater than the second
+     */
+    static int compare(final AttributeValue first, final AttributeValue second) {
+        return switch (first.type()) {
+            case N -> new BigDecimal(first.n()).compareTo(new BigDecimal(second.n()));
+            case B -> Arrays.compareUnsigned(first.b().asByteArrayUnsafe(), second.b().asByteArrayUnsafe());
+            default -> Arrays.compareUnsigned(first.s().getBytes(StandardCharsets.UTF_8), second.s().getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static boolean isEqual(final AttributeValue first, final AttributeValue second) {
+        if (first == null || second == null) {
+            return false;
+        }
+        if (first.type() == AttributeValue.Type.N && second.type() == AttributeValue.Type.N) {
+            return compare(first, second) == 0;
+        }
+        return first.equals(second);
+    }
+
+    private static boolean isOrdered(final AttributeValue first, final AttributeValue second) {
+        return first != null && second != null && first.type() == second.type()
+            && (first.type() == AttributeValue.Type.S || first.type() == AttributeValue.Type.N || first.type() == AttributeValue.Type.B);
+    }
+
+    private static boolean beginsWith(final AttributeValue value, final AttributeValue prefix) {
+        if (value == null || prefix == null || value.type() != prefix.type()) {
+            return false;
+        }
+        return switch (value.type()) {
+            case S -> value.s().startsWith(prefix.s());
+            case B -> startsWith(value.b(), prefix.b());
+            default -> false;
+        };
+    }
+
+    private static boolean startsWith(final SdkBytes value, final SdkBytes prefix) {
+        final byte[] valueBytes = value.asByteArrayUnsafe();
+        final byte[] prefixBytes = prefix.asByteArrayUnsafe();
+        return valueBytes.length >= prefixBytes.length
+            && Arrays.equals(valueBytes, 0, prefixBytes.length, prefixBytes, 0, prefixBytes.length);
+    }
+
+    private static boolean contains(final AttributeValue value, final AttributeValue operand) {
+        if (value == null || operand == null) {
+            return false;
+        }
+        return switch (value.type()) {
+            case S -> operand.type() == AttributeValue.Type.S && value.s().contains(operand.s());
+            case SS -> operand.type() == AttributeValue.Type.S && value.ss().contains(operand.s());
+            case NS -> operand.type() == AttributeValue.Type.N
+                && value.ns().stream().anyMatch(number -> isEqual(AttributeValue.fromN(number), operand));
+            case BS -> operand.type() == AttributeValue.Type.B && value.bs().contains(operand.b());
+            case L -> value.l().stream().anyMatch(element -> isEqual(element, operand));
+            default -> false;
+        };
+    }
+
+    private static void addAction(final Set<String> setPaths, final List<String> removePaths, final String name) {
+        if (setPaths.contains(name) || removePaths.contains(name)) {
+            throw InMemoryDynamoDbErrors.validation("Invalid UpdateExpression: Two document paths overlap with each other; path: " + name);
+        }
+    }
+
+    private static AttributeValue requireUpdateOperand(final AttributeValue value, final AttributeValue.Type type) {
+        if (value == null) {
+            throw InMemoryDynamoDbErrors.validation(
+                "The provided expression refers to an attribute that does not exist in the item");
+        }
+        if (type != null && value.type() != type) {
+            throw InMemoryDynamoDbErrors.validation("An operand in the update expression has an incorrect data type");
+        }
+        return value;
+    }
+
+    /**
+     * Recursive descent parser over expression tokens.
+     */
+    private static final class Parser {
+        private final String expression;
+        private final Map<String, String> names;
+        private final Map<String, AttributeValue> values;
+        private final List<String> tokens = new ArrayList<>();
+        private int position;
+
+        Parser(final String expression, final Map<String, String> names, final Map<String, AttributeValue> values) {
+            this.expression = expression;
+            this.names = names;
+            this.values = values;
+            final Matcher matcher = TOKEN.matcher(expression);
+            int end = 0;
+            while (matcher.find() && matcher.start() == end) {
+                tokens.add(matcher.group(1));
+                end = matcher.end();
+            }
+            if (!expression.substring(end).isBlank()) {
+                throw syntaxError(expression.substring(end).strip());
+            }
+        }
+
+        Condition parseOr() {
+            Condition condition = parseAnd();
+            while (acceptKeyword("OR")) {
+                condition = new Or(condition, parseAnd());
+            }
+            return condition;
+        }
+
+        private Condition parseAnd() {
+            Condition condition = parseNot();
+            while (acceptKeyword("AND")) {
+                condition = new And(condition, parseNot());
+            }
+            return condition;
+        }
+
+        private Condition parseNot() {
+            return acceptKeyword("NOT") ? new Not(parseNot()) : parsePrimary();
+        }
+
+        private Condition parsePrimary() {
+            if (accept("(")) {
+                final Condition condition = parseOr();
+                expect(")");
+                return condition;
+            }
+            if (isFunctionCall()) {
+                final String name = next().toLowerCase(Locale.ROOT);
+                expect("(");
+                final Function function = switch (name) {
+                    case "attribute_exists", "attribute_not_exists" -> new Function(name, parsePath(), null);
+                    case "begins_with", "contains" -> {
+                        final Path path = parsePath();
+                        expect(",");
+                        yield new Function(name, path, parseOperand());
+                    }
+                    case "size", "attribute_type" -> throw new UnsupportedOperationException(name + " is not supported");
+                    default -> throw InMemoryDynamoDbErrors.validation("Invalid expression: Invalid function name; function: " + name);
+                };
+                expect(")");
+                return function;
+            }
+
+            final Operand operand = parseOperand();
+            if (acceptKeyword("BETWEEN")) {
+                final Operand lower = parseOperand();
+                if (!acceptKeyword("AND")) {
+                    throw syntaxError(peek());
+                }
+                return new Between(operand, lower, parseOperand());
+            }
+            if (acceptKeyword("IN")) {
+                expect("(");
+                final List<Operand> candidates = new ArrayList<>();
+                do {
+                    candidates.add(parseOperand());
+                } while (accept(","));
+                expect(")");
+                return new In(operand, candidates);
+            }
+            final String comparator = next();
+            if (!COMPARATORS.contains(comparator)) {
+                throw syntaxError(comparator);
+            }
+            return new Comparison(comparator, operand, parseOperand());
+        }
+
+        Operand parseSetValue() {
+            final Operand operand = parseUpdateOperand();
+            if (accept("+")) {
+                return new Arithmetic(operand, true, parseUpdateOperand());
+            }
+            if (accept("-")) {
+                return new Arithmetic(operand, false, parseUpdateOperand());
+            }
+            return operand;
+        }
+
+        private Operand parseUpdateOperand() {
+            if (!isFunctionCall()) {
+                return parseOperand();
+            }
+            final String name = next().toLowerCase(Locale.ROOT);
+            expect("(");
+            final Operand function = switch (name) {
+                case "if_not_exists" -> {
+                    final Path path = parsePath();
+                    expect(",");
+                    yield new IfNotExists(path, parseUpdateOperand());
+                }
+                case "list_append" -> {
+                    final Operand first = parseUpdateOperand();
+                    expect(",");
+                    yield new ListAppend(first, parseUpdateOperand());
+                }
+                default -> throw InMemoryDynamoDbErrors.validation("Invalid UpdateExpression: Invalid function name; function: " + name);
+            };
+            expect(")");
+            return function;
+        }
+
+        private Operand parseOperand() {
+            final String token = peek();
+            if (token != null && token.startsWith(":")) {
+                position++;
+                final AttributeValue value = values.get(token);
+                if (value == null) {
+                    throw InMemoryDynamoDbErrors.validation(
+                        "Value provided in ExpressionAttributeValues unused in expressions or undefined; attribute value: " + token);
+                }
+                return new Value(value);
+            }
+            return parsePath();
+        }
+
+        Path parsePath() {
+            final String token = next();
+            final String name;
+            if (token.startsWith("#")) {
+                name = names.get(token);
+                if (name == null) {
+                    throw InMemoryDynamoDbErrors.validation(
+                        "An expression attribute name used in the document path is not defined; attribute name: " + token);
+                }
+            } else if (Character.isLetter(token.charAt(0))) {
+                name = token;
+            } else {
+                throw syntaxError(token);
+            }
+            if (".".equals(peek()) || "[".equals(peek())) {
+                throw new UnsupportedOperationException("Nested document paths are not supported: " + expression);
+            }
+            return new Path(name);
+        }
+
+        boolean isAtEnd() {
+            return position == tokens.size();
+        }
+
+        void expectEnd() {
+            if (!isAtEnd()) {
+                throw syntaxError(peek());
+            }
+        }
+
+        void expect(final String token) {
+            if (!accept(token)) {
+                throw syntaxError(isAtEnd() ? "<EOF>" : peek());
+            }
+        }
+
+        boolean accept(final String token) {
+            if (token.equals(peek())) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        String next() {
+            if (isAtEnd()) {
+                throw syntaxError("<EOF>");
+            }
+            return tokens.get(position++);
+        }
+
+        private boolean acceptKeyword(final String keyword) {
+            if (!isAtEnd() && keyword.equalsIgnoreCase(peek())) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean isFunctionCall() {
+            return position + 1 < tokens.size()
+                && Character.isLetter(tokens.get(position).charAt(0))
+                && "(".equals(tokens.get(position + 1));
+        }
+
+        private String peek() {
+            return isAtEnd() ? null : tokens.get(position);
+        }
+
+        private RuntimeException syntaxError(final String token) {
+            return InMemoryDynamoDbErrors.validation(String.format("Invalid expression: Syntax error; token: \"%s\", expression: \"%s\"",
+                token, expression));
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.consentframework.shared.api.testfixtures.dynamodb;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Items of one in-memory table, indexed by the table's primary key and by each of its secondary indexes.
+ *
+ * Secondary indexes are sparse, holding only items with all of the index's key attributes, and project
+ * all attributes.  Items are stored as immutable maps.  Writers must hold the client's write lock so each
+ * write updates all indexes together, while readers iterate the concurrent index maps without locking.
+ */
+final class InMemoryTable {
+    private static final Comparator<AttributeValue> KEY_ORDER = Comparator.nullsFirst(InMemoryExpressions::compare);
+
+    private final String tableName;
+    private final Index primaryIndex;
+    private final Map<String, Index> secondaryIndexes = new HashMap<>();
+
+    /**
+     * Key attributes of the table or one of its indexes.
+     *
+     * @param indexName index name, or null for the table's primary key
+     * @param partitionKey partition key attribute name
+     * @param sortKey sort key attribute name, or null
+     */
+    record KeySchema(String indexName, String partitionKey, String sortKey) {}
+
+    InMemoryTable(final String tableName, final KeySchema primaryKey, final List<KeySchema> secondaryKeys) {
+        this.tableName = tableName;
+        this.primaryIndex = new Index(primaryKey, null);
+        for (final KeySchema secondaryKey : secondaryKeys) {
+            secondaryIndexes.put(secondaryKey.indexName(), new Index(secondaryKey, primaryKey));
+        }
+    }
+
+    String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Return the index to read, validating that it exists.
+     *
+     * @param indexName index name, or null for the table
+     * @return index
+     */
+    Index getIndex(final String indexName) {
+        if (indexName == null) {
+            return primaryIndex;
+        }
+        final Index index = secondaryIndexes.get(indexName);
+        if (index == null) {
+            throw InMemoryDynamoDbErrors.validation("The table does not have the specified index: " + indexName);
+        }
+        return index;
+    }
+
+    /**
+     * Return the primary key attributes of an item or key, validating that they're present.
+     *
+     * @param item item or key
+     * @return primary key
+     */
+    Map<String, AttributeValue> toKey(final Map<String, AttributeValue> item) {
+        final KeySchema keySchema = primaryIndex.keySchema;
+        final Map<String, AttributeValue> key = new LinkedHashMap<>();
+        key.put(keySchema.partitionKey(), requireKeyAttribute(item, keySchema.partitionKey()));
+        if (keySchema.sortKey() != null) {
+            key.put(keySchema.sortKey(), requireKeyAttribute(item, keySchema.sortKey()));
+        }
+        return key;
+    }
+
+    Map<String, AttributeValue> getItem(final Map<String, AttributeValue> key) {
+        final Map<String, AttributeValue> primaryKey = toKey(key);
+        if (primaryKey.size() != key.size()) {
+            throw InMemoryDynamoDbErrors.validation("The provided key element does not match the schema");
+        }
+        final NavigableMap<Position, Map<String, AttributeValue>> partition = primaryIndex.getPartition(primaryKey);
+        return (partition == null) ? null : partition.get(primaryIndex.getPosition(primaryKey));
+    }
+
+    /**
+     * Put an item, replacing any existing item with the same key.  Requires the write lock.
+     *
+     * @param item item
+     * @return replaced item, or null
+     */
+    Map<String, AttributeValue> putItem(final Map<String, AttributeValue> item) {
+        toKey(item);
+        final Map<String, AttributeValue> storedItem = Map.copyOf(item);
+        final Map<String, AttributeValue> oldItem = primaryIndex.put(storedItem);
+        for (final Index index : secondaryIndexes.values()) {
+            if (oldItem != null) {
+                index.remove(oldItem);
+            }
+            index.put(storedItem);
+        }
+        return oldItem;
+    }
+
+    /**
+     * Delete an item.  Requires the write lock.
+     *
+     * @param key primary key
+     * @return deleted item, or null
+     */
+    Map<String, AttributeValue> deleteItem(final Map<String, AttributeValue> key) {
+        final Map<String, AttributeValue> oldItem = getItem(key);
+        if (oldItem != null) {
+            primaryIndex.remove(oldItem);
+            secondaryIndexes.values().forEach(index -> index.remove(oldItem));
+        }
+        return oldItem;
+    }
+
+    int getItemCount() {
+        return primaryIndex.partitions.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private AttributeValue requireKeyAttribute(final Map<String, AttributeValue> item, final String attributeName) {
+        final AttributeValue value = item.get(attributeName);
+        if (value == null) {
+            throw InMemoryDynamoDbErrors.validation(String.format(
+                "One or more parameter values were invalid: Missing the key %s in the item", attributeName));
+        }
+        if (!isKeyType(value)) {
+            throw InMemoryDynamoDbErrors.validation(String.format(
+                "One or more parameter values were invalid: Type mismatch for key %s, key attributes must be S, N or B", attributeName));
+        }
+        return value;
+    }
+
+    private static boolean isKeyType(final AttributeValue value) {
+        return value.type() == AttributeValue.Type.S || value.type() == AttributeValue.Type.N || value.type() == AttributeValue.Type.B;
+    }
+
+    /**
+     * Normalize numbers so that equal partition key values are equal map keys.
+     */
+    private static AttributeValue normalize(final AttributeValue value) {
+        if (value.type() == AttributeValue.Type.N) {
+            return AttributeValue.fromN(new BigDecimal(value.n()).stripTrailingZeros().toPlainString());
+        }
+        return value;
+    }
+
+    /**
+     * Position of an item within an index partition: the index sort key, then the table key for secondary indexes.
+     */
+    private record Position(AttributeValue sortKey, AttributeValue tablePartitionKey, AttributeValue tableSortKey)
+            implements Comparable<Position> {
+        private static final Comparator<Position> ORDER = Comparator.comparing(Position::sortKey, KEY_ORDER)
+            .thenComparing(Position::tablePartitionKey, KEY_ORDER)
+            .thenComparing(Position::tableSortKey, KEY_ORDER);
+
+        @Override
+        public int compareTo(final Position other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    /**
+     * Items of the table or a secondary index, grouped by partition key and ordered by position.
+     */
+    static final class Index {
+        private final KeySchema keySchema;
+        private final KeySchema tableKeySchema;
+        private final Map<AttributeValue, ConcurrentSkipListMap<Position, Map<String, AttributeValue>>> partitions =
+            new ConcurrentHashMap<>();
+
+        private Index(final KeySchema keySchema, final KeySchema tableKeySchema) {
+            this.keySchema = keySchema;
+            this.tableKeySchema = tableKeySchema;
+        }
+
+        KeySchema getKeySchema() {
+            return keySchema;
+        }
+
+        boolean isSecondary() {
+            return tableKeySchema != null;
+        }
+
+        /**
+         * Read the items of a partition in sort key order, starting after the exclusive start key if given.
+         *
+         * @param partitionValue partition key value
+         * @param exclusiveStartKey last evaluated key of the previous page, or empty
+         * @param forward whether to read in ascending sort key order
+         * @return items
+         */
+        Stream<Map<String, AttributeValue>> query(final AttributeValue partitionValue, final Map<String, AttributeValue> exclusiveStartKey,
+                final boolean forward) {
+            final ConcurrentSkipListMap<Position, Map<String, AttributeValue>> partition = partitions.get(normalize(partitionValue));
+            if (partition == null) {
+                return Stream.empty();
+            }
+            NavigableMap<Position, Map<String, AttributeValue>> items = forward ? partition : partition.descendingMap();
+            if (!exclusiveStartKey.isEmpty()) {
+                items = items.tailMap(getPosition(exclusiveStartKey), false);
+            }
+            return items.values().stream();
+        }
+
+        /**
+         * Read all items in partition key and then sort key order, starting after the exclusive start key if given.
+         *
+         * @param exclusiveStartKey last evaluated key of the previous page, or empty
+         * @return items
+         */
+        Stream<Map<String, AttributeValue>> scan(final Map<String, AttributeValue> exclusiveStartKey) {
+            final AttributeValue startPartitionValue = exclusiveStartKey.isEmpty()
+                ? null
+                : normalize(exclusiveStartKey.get(keySchema.partitionKey()));
+            return partitions.keySet().stream()
+                .sorted(KEY_ORDER)
+                .filter(partitionValue -> startPartitionValue == null || KEY_ORDER.compare(partitionValue, startPartitionValue) >= 0)
+                .flatMap(partitionValue -> {
+                    final NavigableMap<Position, Map<String, AttributeValue>> partition =
+                        partitions.getOrDefault(partitionValue, new ConcurrentSkipListMap<>());
+                    return partitionValue.equals(startPartitionValue)
+                        ? partition.tailMap(getPosition(exclusiveStartKey), false).values().stream()
+                        : partition.values().stream();
+                });
+        }
+
+        /**
+         * Return the key of an item to continue reading after it, including the table key for secondary indexes.
+         *
+         * @param item last evaluated item
+         * @return last evaluated key
+         */
+        Map<String, AttributeValue> getLastEvaluatedKey(final Map<String, AttributeValue> item) {
+            final Map<String, AttributeValue> key = new LinkedHashMap<>();
+            for (final KeySchema schema : isSecondary() ? List.of(tableKeySchema, keySchema) : List.of(keySchema)) {
+                key.put(schema.partitionKey(), item.get(schema.partitionKey()));
+                if (schema.sortKey() != null) {
+                    key.put(schema.sortKey(), item.get(schema.sortKey()));
+                }
+            }
+            return key;
+        }
+
+        private Map<String, AttributeValue> put(final Map<String, AttributeValue> item) {
+            if (!isIndexed(item)) {
+                return null;
+            }
+            return partitions
+                .computeIfAbsent(normalize(item.get(keySchema.partitionKey())), partitionValue -> new ConcurrentSkipListMap<>())
+                .put(getPosition(item), item);
+        }
+
+        private void remove(final Map<String, AttributeValue> item) {
+            if (!isIndexed(item)) {
+                return;
+            }
+            final ConcurrentSkipListMap<Position, Map<String, AttributeValue>> partition = getPartition(item);
+            partition.remove(getPosition(item));
+            if (partition.isEmpty()) {
+                partitions.remove(normalize(item.get(keySchema.partitionKey())));
+            }
+        }
+
+        private ConcurrentSkipListMap<Position, Map<String, AttributeValue>> getPartition(final Map<String, AttributeValue> key) {
+            return partitions.get(normalize(key.get(keySchema.partitionKey())));
+        }
+
+        private boolean isIndexed(final Map<String, AttributeValue> item) {
+            return isIndexKey(item.get(keySchema.partitionKey()))
+                && (keySchema.sortKey() == null || isIndexKey(item.get(keySchema.sortKey())));
+        }
+
+        private static boolean isIndexKey(final AttributeValue value) {
+            return value != null && isKeyType(value);
+        }
+
+        private Position getPosition(final Map<String, AttributeValue> key) {
+            final AttributeValue sortKey = (keySchema.sortKey() == null) ? null : key.get(keySchema.sortKey());
+            if (!isSecondary()) {
+                return new Position(sortKey, null, null);
+            }
+            return new Position(sortKey, key.get(tableKeySchema.partitionKey()),
+                (tableKeySchema.sortKey() == null) ? null : key.get(tableKeySchema.sortKey()));
+        }
+    }
+}